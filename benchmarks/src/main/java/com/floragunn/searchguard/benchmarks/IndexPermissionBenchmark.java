@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.floragunn.fluent.collections.ImmutableSet;
+import com.floragunn.searchguard.authz.PrivilegesEvaluationContext;
+import com.floragunn.searchguard.authz.PrivilegesEvaluationException;
+import com.floragunn.searchguard.authz.PrivilegesEvaluationResult;
+import com.floragunn.searchguard.authz.RoleBasedActionAuthorization;
+import com.floragunn.searchguard.authz.actions.Action;
+import com.floragunn.searchguard.authz.actions.Actions;
+import com.floragunn.searchguard.authz.actions.ResolvedIndices;
+import com.floragunn.searchguard.authz.config.ActionGroup;
+import com.floragunn.searchguard.user.User;
+
+/**
+ * Measures RoleBasedActionAuthorization.hasIndexPermission(). The mode parameter selects whether the stateful index privileges are used
+ * (stateful) or whether the privileges must be evaluated using the index patterns of the roles (pattern).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexPermissionBenchmark {
+
+    @Param({ "1000", "10000", "50000" })
+    public int indices;
+
+    @Param({ "10", "100", "1000" })
+    public int roles;
+
+    @Param({ "stateful", "pattern" })
+    public String mode;
+
+    private RoleBasedActionAuthorization subject;
+    private User user;
+    private ImmutableSet<String> mappedRoles;
+    private Action searchAction;
+    private ImmutableSet<Action> searchActions;
+    private ResolvedIndices singleIndex;
+    private ResolvedIndices wildcard;
+    private ResolvedIndices alias;
+
+    @Setup
+    public void setup() throws Exception {
+        SyntheticCluster cluster = new SyntheticCluster(indices);
+        Actions actions = new Actions(null);
+
+        this.subject = new RoleBasedActionAuthorization(SyntheticCluster.roles(roles), ActionGroup.FlattenedIndex.EMPTY, actions,
+                mode.equals("stateful") ? cluster.getMeta() : null, ImmutableSet.empty(), ByteSizeValue.of(10, ByteSizeUnit.MB));
+
+        this.user = SyntheticCluster.user();
+        this.mappedRoles = SyntheticCluster.mappedRoles(roles);
+        this.searchAction = actions.get("indices:data/read/search");
+        this.searchActions = ImmutableSet.of(searchAction);
+
+        this.singleIndex = ResolvedIndices.of(cluster.getMeta(), SyntheticCluster.indexName(SyntheticCluster.GROUPS + 7));
+        this.wildcard = ResolvedIndices.of(cluster.getMeta(), "logs_" + SyntheticCluster.USER_GROUP + "_*", "logs_g08_*");
+        this.alias = ResolvedIndices.of(cluster.getMeta(), "alias_" + SyntheticCluster.USER_GROUP);
+    }
+
+    @TearDown
+    public void tearDown() {
+        subject.shutdown();
+    }
+
+    /**
+     * The context caches rendered templates; thus, a new context is created for each invocation like it happens for each request.
+     */
+    private PrivilegesEvaluationContext context() {
+        return new PrivilegesEvaluationContext(user, false, mappedRoles, searchAction, null, false, null, null);
+    }
+
+    @Benchmark
+    public PrivilegesEvaluationResult singleIndex() throws PrivilegesEvaluationException {
+        return subject.hasIndexPermission(context(), searchAction, searchActions, singleIndex, Action.Scope.INDEX_LIKE);
+    }
+
+    @Benchmark
+    public PrivilegesEvaluationResult wildcard() throws PrivilegesEvaluationException {
+        return subject.hasIndexPermission(context(), searchAction, searchActions, wildcard, Action.Scope.INDEX_LIKE);
+    }
+
+    @Benchmark
+    public PrivilegesEvaluationResult alias() throws PrivilegesEvaluationException {
+        return subject.hasIndexPermission(context(), searchAction, searchActions, alias, Action.Scope.INDEX_LIKE);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.search.SearchRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.floragunn.searchguard.authz.SystemIndexAccess;
+import com.floragunn.searchguard.authz.actions.Action;
+import com.floragunn.searchguard.authz.actions.ActionRequestIntrospector;
+import com.floragunn.searchguard.authz.actions.ActionRequestIntrospector.ActionRequestInfo;
+import com.floragunn.searchguard.authz.actions.Actions;
+import com.floragunn.searchguard.authz.actions.ResolvedIndices;
+import com.floragunn.searchsupport.meta.Meta;
+
+/**
+ * Measures the resolution of index expressions with wildcards, both directly via ResolvedIndices.Local.resolve() and via
+ * ActionRequestIntrospector.getActionRequestInfo().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexResolutionBenchmark {
+
+    @Param({ "1000", "10000", "50000" })
+    public int indices;
+
+    private Meta meta;
+    private ActionRequestIntrospector actionRequestIntrospector;
+    private Action searchAction;
+    private String groupWildcard;
+    private String groupAlias;
+
+    @Setup
+    public void setup() {
+        this.meta = new SyntheticCluster(indices).getMeta();
+        this.actionRequestIntrospector = new ActionRequestIntrospector(() -> meta, () -> SystemIndexAccess.DISALLOWED, () -> false, null);
+        this.searchAction = new Actions(null).get("indices:data/read/search");
+        this.groupWildcard = "logs_" + SyntheticCluster.USER_GROUP + "_*";
+        this.groupAlias = "alias_" + SyntheticCluster.group(8);
+    }
+
+    @Benchmark
+    public ResolvedIndices.Local resolveGroupWildcard() {
+        return ResolvedIndices.Local.resolve(meta, groupWildcard);
+    }
+
+    @Benchmark
+    public ResolvedIndices.Local resolveAll() {
+        return ResolvedIndices.Local.resolve(meta, "*");
+    }
+
+    @Benchmark
+    public ResolvedIndices.Local resolveWildcardAndAlias() {
+        return ResolvedIndices.Local.resolve(meta, groupWildcard, groupAlias);
+    }
+
+    /**
+     * getActionRequestInfo() is lazy; thus, the resolution is forced by calling getResolvedIndices().
+     */
+    @Benchmark
+    public ResolvedIndices getActionRequestInfo() {
+        ActionRequestInfo requestInfo = actionRequestIntrospector.getActionRequestInfo(searchAction, new SearchRequest(groupWildcard, groupAlias));
+        return requestInfo.getResolvedIndices();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+import org.mockito.ArgumentCaptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.floragunn.fluent.collections.ImmutableSet;
+import com.floragunn.searchguard.GuiceDependencies;
+import com.floragunn.searchguard.auditlog.AuditLog;
+import com.floragunn.searchguard.authz.AuthorizationService;
+import com.floragunn.searchguard.authz.PrivilegesEvaluationContext;
+import com.floragunn.searchguard.authz.PrivilegesEvaluationResult;
+import com.floragunn.searchguard.authz.PrivilegesEvaluator;
+import com.floragunn.searchguard.authz.SystemIndexAccess;
+import com.floragunn.searchguard.authz.actions.Action;
+import com.floragunn.searchguard.authz.actions.ActionRequestIntrospector;
+import com.floragunn.searchguard.authz.actions.Actions;
+import com.floragunn.searchguard.authz.config.MultiTenancyConfigurationProvider;
+import com.floragunn.searchguard.authz.config.Tenant;
+import com.floragunn.searchguard.configuration.CType;
+import com.floragunn.searchguard.configuration.ClusterInfoHolder;
+import com.floragunn.searchguard.configuration.ConfigMap;
+import com.floragunn.searchguard.configuration.ConfigurationChangeListener;
+import com.floragunn.searchguard.configuration.ConfigurationRepository;
+import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
+import com.floragunn.searchguard.privileges.SpecialPrivilegesEvaluationContextProviderRegistry;
+import com.floragunn.searchguard.user.User;
+import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.meta.Meta;
+
+/**
+ * Measures the complete PrivilegesEvaluator.evaluate() call, including the introspection of the request and the resolution of the indices.
+ *
+ * The node services required by PrivilegesEvaluator are replaced by mocks; the configuration is passed to the captured
+ * ConfigurationChangeListener.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrivilegesEvaluatorBenchmark {
+
+    @Param({ "1000", "10000", "50000" })
+    public int indices;
+
+    @Param({ "10", "100", "1000" })
+    public int roles;
+
+    private PrivilegesEvaluator subject;
+    private ActionRequestIntrospector actionRequestIntrospector;
+    private User user;
+    private ImmutableSet<String> mappedRoles;
+    private Action searchAction;
+    private Action getAction;
+    private String groupWildcard;
+    private String groupAlias;
+    private String singleIndex;
+
+    @Setup
+    public void setup() throws Exception {
+        SyntheticCluster cluster = new SyntheticCluster(indices);
+        Meta meta = cluster.getMeta();
+
+        ClusterState clusterState = mock(ClusterState.class);
+        when(clusterState.metadata()).thenReturn(cluster.getEsMetadata());
+        ClusterService clusterService = mock(ClusterService.class);
+        when(clusterService.state()).thenReturn(clusterState);
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        ConfigurationRepository configurationRepository = mock(ConfigurationRepository.class);
+
+        Actions actions = new Actions(null);
+        this.actionRequestIntrospector = new ActionRequestIntrospector(() -> meta, () -> SystemIndexAccess.DISALLOWED, () -> false, null);
+
+        this.subject = new PrivilegesEvaluator(clusterService, threadPool, configurationRepository, mock(AuthorizationService.class),
+                mock(IndexNameExpressionResolver.class), mock(AuditLog.class), StaticSettings.EMPTY, new ClusterInfoHolder(), actions,
+                actionRequestIntrospector, new SpecialPrivilegesEvaluationContextProviderRegistry(), mock(GuiceDependencies.class),
+                NamedXContentRegistry.EMPTY, false);
+        this.subject.setMultiTenancyConfigurationProvider(MultiTenancyConfigurationProvider.DEFAULT);
+
+        ArgumentCaptor<ConfigurationChangeListener> listener = ArgumentCaptor.forClass(ConfigurationChangeListener.class);
+        verify(configurationRepository).subscribeOnChange(listener.capture());
+        listener.getValue().onChange(new ConfigMap.Builder("benchmark").with(SyntheticCluster.roles(roles))
+                .with(SgDynamicConfiguration.<Tenant>empty(CType.TENANTS)).build());
+
+        this.user = SyntheticCluster.user();
+        this.mappedRoles = SyntheticCluster.mappedRoles(roles);
+        this.searchAction = actions.get("indices:data/read/search");
+        this.getAction = actions.get("indices:data/read/get");
+        this.groupWildcard = "logs_" + SyntheticCluster.USER_GROUP + "_*";
+        this.groupAlias = "alias_" + SyntheticCluster.group(8);
+        this.singleIndex = SyntheticCluster.indexName(SyntheticCluster.GROUPS + 7);
+    }
+
+    @Benchmark
+    public PrivilegesEvaluationResult searchWildcard() {
+        return evaluate(searchAction, new SearchRequest(groupWildcard));
+    }
+
+    @Benchmark
+    public PrivilegesEvaluationResult searchWildcardAndAlias() {
+        return evaluate(searchAction, new SearchRequest(groupWildcard, groupAlias));
+    }
+
+    /**
+     * The user has no privileges for most indices covered by the * pattern; thus, this measures the reduction of the requested indices.
+     */
+    @Benchmark
+    public PrivilegesEvaluationResult searchAll() {
+        return evaluate(searchAction, new SearchRequest("*"));
+    }
+
+    @Benchmark
+    public PrivilegesEvaluationResult getSingleIndex() {
+        return evaluate(getAction, new GetRequest(singleIndex, "1"));
+    }
+
+    private PrivilegesEvaluationResult evaluate(Action action, org.elasticsearch.action.ActionRequest request) {
+        PrivilegesEvaluationContext context = new PrivilegesEvaluationContext(user, false, mappedRoles, action, request, false,
+                actionRequestIntrospector, null);
+        return subject.evaluate(user, mappedRoles, action.name(), request, null, context, null);
+    }
+}
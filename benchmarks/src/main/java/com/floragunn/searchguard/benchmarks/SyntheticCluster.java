@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.AliasMetadata;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.common.settings.Settings;
+
+import com.floragunn.codova.validation.ConfigValidationException;
+import com.floragunn.fluent.collections.ImmutableMap;
+import com.floragunn.fluent.collections.ImmutableSet;
+import com.floragunn.searchguard.authz.config.Role;
+import com.floragunn.searchguard.configuration.CType;
+import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
+import com.floragunn.searchguard.user.User;
+import com.floragunn.searchsupport.meta.Meta;
+
+/**
+ * Generates clusters and role configurations of configurable size for the benchmarks.
+ *
+ * The indices are named logs_gXX_N; they are distributed over GROUPS groups. Each group has an alias named alias_gXX which contains all
+ * indices of the group.
+ *
+ * Each role grants privileges using a prefix pattern, a pattern with a user attribute template, a constant index name and an alias pattern.
+ *
+ * Meta.Mock is not used here, as it is designed for small test fixtures. The ES metadata is built directly instead; this also provides the
+ * realistic Meta implementation which is used in production.
+ */
+public class SyntheticCluster {
+
+    public static final int GROUPS = 100;
+
+    /**
+     * The group of the user returned by user(). The role mapping of the user grants access to this group via the attribute based template.
+     */
+    public static final String USER_GROUP = group(7);
+
+    private final Metadata esMetadata;
+    private final Meta meta;
+
+    public SyntheticCluster(int indexCount) {
+        Metadata.Builder builder = Metadata.builder();
+        Settings indexSettings = Settings.builder().put(IndexMetadata.SETTING_INDEX_VERSION_CREATED.getKey(), Version.CURRENT).build();
+
+        for (int i = 0; i < indexCount; i++) {
+            String group = group(i);
+
+            builder.put(IndexMetadata.builder(indexName(i)).settings(indexSettings).numberOfShards(1).numberOfReplicas(0)
+                    .putAlias(AliasMetadata.builder("alias_" + group).build()));
+        }
+
+        this.esMetadata = builder.build();
+        this.meta = Meta.from(esMetadata);
+    }
+
+    public Metadata getEsMetadata() {
+        return esMetadata;
+    }
+
+    public Meta getMeta() {
+        return meta;
+    }
+
+    public static String group(int i) {
+        return String.format("g%02d", i % GROUPS);
+    }
+
+    public static String indexName(int i) {
+        return "logs_" + group(i) + "_" + i;
+    }
+
+    public static SgDynamicConfiguration<Role> roles(int roleCount) throws ConfigValidationException {
+        Map<String, Object> roles = new LinkedHashMap<>(roleCount);
+
+        for (int r = 0; r < roleCount; r++) {
+            List<Object> indexPermissions = new ArrayList<>();
+
+            indexPermissions.add(ImmutableMap.of("index_patterns", List.of("logs_" + group(r) + "_*"), //
+                    "allowed_actions", List.of("indices:data/read/*")));
+            indexPermissions.add(ImmutableMap.of("index_patterns", List.of("logs_${user.attrs.group}_*"), //
+                    "allowed_actions", List.of("indices:data/read/search")));
+            indexPermissions.add(ImmutableMap.of("index_patterns", List.of(indexName(r + 1)), //
+                    "allowed_actions", List.of("indices:data/write/index", "indices:data/read/get")));
+
+            List<Object> aliasPermissions = List.of(ImmutableMap.of("alias_patterns", List.of("alias_" + group(r + 2)), //
+                    "allowed_actions", List.of("indices:data/read/search")));
+
+            roles.put(roleName(r), ImmutableMap.of("cluster_permissions", List.of("cluster:monitor/main"), "index_permissions", indexPermissions,
+                    "alias_permissions", aliasPermissions));
+        }
+
+        return SgDynamicConfiguration.fromMap(roles, CType.ROLES, null).get();
+    }
+
+    public static String roleName(int r) {
+        return "role_" + r;
+    }
+
+    /**
+     * Returns three roles which are spread over the role configuration.
+     */
+    public static ImmutableSet<String> mappedRoles(int roleCount) {
+        return ImmutableSet.of(roleName(0), roleName(roleCount / 2), roleName(roleCount - 1));
+    }
+
+    public static User user() {
+        return User.forUser("benchmark_user").attribute("group", USER_GROUP).build();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+package com.floragunn.searchguard.enterprise.auditlog;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.xcontent.json.JsonXContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.floragunn.searchguard.auditlog.AuditLog.Origin;
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage;
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage.Category;
+import com.floragunn.searchguard.enterprise.auditlog.sink.AuditLogSink;
+
+/**
+ * Measures the number of audit events per second and core which can be handed over to 1, 2 or 4 sinks. The sinks only
+ * consume the rendered message, so the measurement is dominated by building and rendering the message.
+ *
+ * The shared benchmark uses the sink API, which renders each message only once for all sinks. The perSinkRendering
+ * benchmark renders the message for each sink separately via a map copy, as the sinks did before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class AuditMessageSinkBenchmark {
+
+    @Param({ "1", "2", "4" })
+    public int sinks;
+
+    private ConsumingSink[] sinkArray;
+
+    @Setup
+    public void setup() {
+        this.sinkArray = new ConsumingSink[sinks];
+
+        for (int i = 0; i < sinks; i++) {
+            // Alternate between sinks consuming bytes (like the internal index sink) and sinks consuming strings (like log and webhook sinks)
+            sinkArray[i] = new ConsumingSink("sink_" + i, i % 2 == 1);
+        }
+    }
+
+    @Benchmark
+    public long shared() {
+        AuditMessage msg = createMessage();
+        long result = 0;
+
+        for (ConsumingSink sink : sinkArray) {
+            sink.store(msg);
+            result += sink.consumed;
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public long perSinkRendering() throws IOException {
+        AuditMessage msg = createMessage();
+        long result = 0;
+
+        for (int i = 0; i < sinkArray.length; i++) {
+            result += Strings.toString(JsonXContent.contentBuilder().map(msg.getAsMap())).length();
+        }
+
+        return result;
+    }
+
+    private static AuditMessage createMessage() {
+        AuditMessage msg = new AuditMessage(Category.GRANTED_PRIVILEGES, null, Origin.REST, Origin.TRANSPORT);
+        msg.addRemoteAddress("10.0.0.17");
+        msg.addEffectiveUser("benchmark_user");
+        msg.addInitiatingUser("benchmark_user");
+        msg.addIsAdminDn(false);
+        msg.addPrivilege("indices:data/read/search");
+        msg.addAction("indices:data/read/search");
+        msg.addRequestType("SearchRequest");
+        msg.addPath("/logs-2026.10.17/_search");
+        msg.addIndices(new String[] { "logs-2026.10.17" });
+        msg.addResolvedIndices(new String[] { "logs-2026.10.17" });
+        msg.addRestParams(Map.of("size", "100", "track_total_hits", "true"));
+        msg.addTaskId(123456);
+        msg.addUnescapedJsonToRequestBody("{\"query\":{\"match\":{\"message\":\"error\"}}}");
+        return msg;
+    }
+
+    static class ConsumingSink extends AuditLogSink {
+        private final boolean consumeString;
+        long consumed;
+
+        ConsumingSink(String name, boolean consumeString) {
+            super(name, Settings.EMPTY, null, null);
+            this.consumeString = consumeString;
+        }
+
+        @Override
+        protected boolean doStore(AuditMessage msg) {
+            consumed = consumeString ? msg.toJson().length() : msg.toJsonBytes().length();
+            return true;
+        }
+
+        @Override
+        public boolean isHandlingBackpressure() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+package com.floragunn.searchguard.enterprise.dlsfls.lucene;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.floragunn.codova.documents.Format;
+import com.floragunn.searchguard.enterprise.dlsfls.DlsFlsConfig;
+import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldAuthorization.FlsRule;
+import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldMasking.FieldMaskingRule;
+
+/**
+ * Compares the streaming document filter used by FlsStoredFieldVisitor with the filter used before the introduction of
+ * FieldPathAutomaton. The documents consist of objects with a couple of fields each; in one of the objects a field is
+ * excluded by FLS, in another one a field is masked. All other objects can be copied without filtering.
+ *
+ * This benchmark lives in the package of the filter, as the filter is not public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentFilterBenchmark {
+
+    @Param({ "1024", "102400", "5242880" })
+    public int documentSize;
+
+    @Param({ "JSON", "SMILE" })
+    public String format;
+
+    private Format sourceFormat;
+    private byte[] source;
+    private FlsRule flsRule;
+    private FieldMaskingRule fieldMaskingRule;
+    private FieldPathAutomaton automaton;
+
+    @Setup
+    public void setup() throws Exception {
+        this.sourceFormat = format.equals("SMILE") ? Format.SMILE : Format.JSON;
+        this.source = createDocument(documentSize, sourceFormat);
+        this.flsRule = FlsRule.of("*", "~group_0.secret");
+        this.fieldMaskingRule = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "group_1.email");
+        this.automaton = new FieldPathAutomaton(flsRule, fieldMaskingRule);
+    }
+
+    @Benchmark
+    public byte[] streaming() throws Exception {
+        return FlsStoredFieldVisitor.DocumentFilter.filter(source, automaton);
+    }
+
+    @Benchmark
+    public byte[] legacy() throws Exception {
+        return LegacyDocumentFilter.filter(sourceFormat, source, flsRule, fieldMaskingRule);
+    }
+
+    private static byte[] createDocument(int size, Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + 1024);
+
+        try (JsonGenerator generator = format.getJsonFactory().createGenerator(out)) {
+            generator.writeStartObject();
+
+            for (int i = 0; out.size() < size; i++) {
+                generator.writeObjectFieldStart("group_" + i);
+                generator.writeNumberField("id", i);
+                generator.writeStringField("name", "Name of group " + i);
+                generator.writeStringField("email", "group_" + i + "@example.com");
+                generator.writeStringField("secret", "Secret of group " + i);
+                generator.writeArrayFieldStart("tags");
+                generator.writeString("a");
+                generator.writeString("b");
+                generator.writeEndArray();
+                generator.writeObjectFieldStart("nested");
+                generator.writeNumberField("score", i * 0.25);
+                generator.writeBooleanField("active", i % 2 == 0);
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.flush();
+            }
+
+            generator.writeEndObject();
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -39,8 +39,10 @@ import com.floragunn.searchguard.auditlog.AuditLog;
 import com.floragunn.searchguard.enterprise.auditlog.access_log.read.ReadLogDirectoryReaderWrapper;
 import com.floragunn.searchguard.enterprise.auditlog.access_log.write.ComplianceIndexingOperationListenerImpl;
 import com.floragunn.searchguard.enterprise.auditlog.impl.AuditLogImpl;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
 
-public class AuditLogModule implements SearchGuardModule {
+public class AuditLogModule implements SearchGuardModule, ComponentStateProvider {
 
     private AuditLogImpl auditLog;
     private ComplianceIndexingOperationListenerImpl indexingOperationListener;
@@ -48,6 +50,7 @@ public class AuditLogModule implements SearchGuardModule {
     private ComplianceIndexActionFilter complianceIndexActionFilter;
     private AuditLogConfig auditLogConfig;
     private boolean externalConfigLogged = false;
+    private final ComponentState componentState = new ComponentState(1000, null, "auditlog", AuditLogModule.class).requiresEnterpriseLicense();
 
     @Override
     public Collection<Object> createComponents(BaseDependencies baseDependencies) {
@@ -58,6 +61,8 @@ public class AuditLogModule implements SearchGuardModule {
                     baseDependencies.getLocalClient(), baseDependencies.getThreadPool(), baseDependencies.getIndexNameExpressionResolver(),
                     baseDependencies.getClusterService(), baseDependencies.getConfigurationRepository());
             this.auditLog.setComplianceConfig(auditLogConfig);
+            this.auditLog.getComponentStates().forEach(this.componentState::addPart);
+            this.componentState.initialized();
 
             baseDependencies.getLicenseRepository().subscribeOnLicenseChange((searchGuardLicense) -> {
                 AuditLogModule.this.auditLogConfig.onChange(searchGuardLicense);
@@ -68,6 +73,8 @@ public class AuditLogModule implements SearchGuardModule {
                     baseDependencies.getGuiceDependencies());
             this.complianceIndexTemplateActionFilter = new ComplianceIndexTemplateActionFilter(this.auditLogConfig, this.auditLog, baseDependencies.getClusterService());
             this.complianceIndexActionFilter = new ComplianceIndexActionFilter(this.auditLogConfig, auditLog);
+        } else {
+            this.componentState.setState(ComponentState.State.DISABLED);
         }
 
         return ImmutableList.empty();
@@ -97,6 +104,11 @@ public class AuditLogModule implements SearchGuardModule {
         return auditLog;
     }
 
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
     /**
      * Logs external configs like elasticsearch.yml, env vars etc.
      * 
@@ -26,8 +26,8 @@ import com.floragunn.searchguard.authc.session.backend.SessionApi;
 import com.floragunn.searchguard.configuration.ConfigurationRepository;
 import com.floragunn.searchguard.enterprise.auditlog.AuditLogConfig;
 import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage.Category;
-import com.floragunn.searchguard.support.Base64Helper;
 import com.floragunn.searchguard.support.ConfigConstants;
+import com.floragunn.searchguard.support.TransportHeaderCodec;
 import com.floragunn.searchguard.user.User;
 import com.floragunn.searchguard.user.UserInformation;
 import com.floragunn.searchsupport.PrivilegedCode;
@@ -1095,8 +1095,8 @@ public abstract class AbstractAuditLog implements AuditLog {
     private TransportAddress getRemoteAddress() {
         TransportAddress address = threadPool.getThreadContext().getTransient(ConfigConstants.SG_REMOTE_ADDRESS);
         if (address == null && threadPool.getThreadContext().getHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER) != null) {
-            address = new TransportAddress((InetSocketAddress) Base64Helper
-                    .deserializeObject(threadPool.getThreadContext().getHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER)));
+            address = new TransportAddress(
+                    TransportHeaderCodec.decodeRemoteAddress(threadPool.getThreadContext().getHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER)));
         }
         return address;
     }
@@ -1104,7 +1104,7 @@ public abstract class AbstractAuditLog implements AuditLog {
     private UserInformation getUser() {
         User user = threadPool.getThreadContext().getTransient(ConfigConstants.SG_USER);
         if (user == null && threadPool.getThreadContext().getHeader(ConfigConstants.SG_USER_HEADER) != null) {
-            user = (User) Base64Helper.deserializeObject(threadPool.getThreadContext().getHeader(ConfigConstants.SG_USER_HEADER));
+            user = TransportHeaderCodec.decodeUser(threadPool.getThreadContext().getHeader(ConfigConstants.SG_USER_HEADER));
         }
         return user;
     }
@@ -17,6 +17,7 @@ package com.floragunn.searchguard.enterprise.auditlog.impl;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
 import org.elasticsearch.client.internal.Client;
@@ -39,6 +40,7 @@ import com.floragunn.searchguard.configuration.ConfigurationRepository;
 import com.floragunn.searchguard.enterprise.auditlog.AuditLogConfig;
 import com.floragunn.searchguard.enterprise.auditlog.routing.AuditMessageRouter;
 import com.floragunn.searchguard.user.UserInformation;
+import com.floragunn.searchsupport.cstate.ComponentState;
 
 public final class AuditLogImpl extends AbstractAuditLog {
 
@@ -61,6 +63,10 @@ public final class AuditLogImpl extends AbstractAuditLog {
         messageRouter.setComplianceConfig(complianceConfig);
     }
 
+    public List<ComponentState> getComponentStates() {
+        return messageRouter.getComponentStates();
+    }
+
     @Override
     public void close() throws IOException {
         messageRouter.close();
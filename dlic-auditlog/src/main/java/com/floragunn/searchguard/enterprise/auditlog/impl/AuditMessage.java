@@ -24,7 +24,10 @@ import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -41,6 +44,7 @@ import org.elasticsearch.common.transport.TransportAddress;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentType;
 import org.elasticsearch.xcontent.json.JsonXContent;
 import org.joda.time.DateTime;
@@ -111,172 +115,191 @@ public final class AuditMessage {
     public static final String COMPLIANCE_INDEX_TEMPLATE_VERSION = "audit_compliance_index_template_version";
 
     private static final DateTimeFormatter DEFAULT_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZZ");
-    private final Map<String, Object> auditInfo = new HashMap<String, Object>(50);
+    private static final int INITIAL_CAPACITY = 24;
+
+    /**
+     * The fields of the message in insertion order. Audit messages usually have 10 to 25 fields, so linear search on
+     * these arrays is cheaper than maintaining a hash map.
+     */
+    private String[] keys;
+    private Object[] values;
+    private int size;
     private final Category msgCategory;
 
+    /**
+     * Set when the message is handed over to the sinks. Afterwards, the message must not be modified any more; thus,
+     * it can be shared between threads and its serialized form can be shared between all sinks.
+     */
+    private volatile boolean sealed;
+    private volatile BytesReference json;
+    private volatile String jsonString;
+    private Map<Customization, AuditMessage> customizedMessages;
+
     public AuditMessage(final Category msgCategory, final ClusterState clusterState,
         final Origin origin, final Origin layer) {
         this.msgCategory = Objects.requireNonNull(msgCategory);
+        this.keys = new String[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
         final String currentTime = currentTime();
-        auditInfo.put(FORMAT_VERSION, 4);
-        auditInfo.put(CATEGORY, Objects.requireNonNull(msgCategory));
-        auditInfo.put(UTC_TIMESTAMP, currentTime);
+        put(FORMAT_VERSION, 4);
+        put(CATEGORY, Objects.requireNonNull(msgCategory));
+        put(UTC_TIMESTAMP, currentTime);
         final ClusterState localClusterState = clusterState;
 
         if (localClusterState != null) {
             final DiscoveryNode localNode = localClusterState.nodes().getLocalNode();
-            auditInfo.put(CLUSTER_NAME, clusterState.getClusterName().value());
-            auditInfo.put(NODE_HOST_ADDRESS, localNode.getHostAddress());
-            auditInfo.put(NODE_ID, localNode.getId());
-            auditInfo.put(NODE_HOST_NAME, localNode.getHostName());
-            auditInfo.put(NODE_NAME, localNode.getName());
-            auditInfo.put(NODE_VERSION, localNode.getVersion());
+            put(CLUSTER_NAME, clusterState.getClusterName().value());
+            put(NODE_HOST_ADDRESS, localNode.getHostAddress());
+            put(NODE_ID, localNode.getId());
+            put(NODE_HOST_NAME, localNode.getHostName());
+            put(NODE_NAME, localNode.getName());
+            put(NODE_VERSION, localNode.getVersion());
         }
 
         if (origin != null) {
-            auditInfo.put(ORIGIN, origin);
+            put(ORIGIN, origin);
         }
 
         if (layer != null) {
-            auditInfo.put(REQUEST_LAYER, layer);
+            put(REQUEST_LAYER, layer);
         }
     }
 
     public void addRemoteAddress(TransportAddress remoteAddress) {
         if (remoteAddress != null && remoteAddress.getAddress() != null) {
-            auditInfo.put(REMOTE_ADDRESS, remoteAddress.getAddress());
+            put(REMOTE_ADDRESS, remoteAddress.getAddress());
         }
     }
 
     public void addRemoteAddress(String remoteAddress) {
-        auditInfo.put(REMOTE_ADDRESS, remoteAddress);
+        put(REMOTE_ADDRESS, remoteAddress);
     }
 
     public void addIsAdminDn(boolean isAdminDn) {
-        auditInfo.put(IS_ADMIN_DN, isAdminDn);
+        put(IS_ADMIN_DN, isAdminDn);
     }
 
     public void addException(Throwable t) {
         if (t != null) {
-            auditInfo.put(EXCEPTION, ExceptionsHelper.stackTrace(t));
+            put(EXCEPTION, ExceptionsHelper.stackTrace(t));
         }
     }
 
     public void addPrivilege(String priv) {
         if (priv != null) {
-            auditInfo.put(PRIVILEGE, priv);
+            put(PRIVILEGE, priv);
         }
     }
 
     public void addInitiatingUser(String user) {
         if (user != null) {
-            auditInfo.put(REQUEST_INITIATING_USER, user);
+            put(REQUEST_INITIATING_USER, user);
         }
     }
 
     public void addInitiatingUser(UserInformation user) {
         if (user != null && user.getName() != null) {
-            auditInfo.put(REQUEST_INITIATING_USER, user.getName());
+            put(REQUEST_INITIATING_USER, user.getName());
         }
 
         if (user != null && user.getAuthDomain() != null) {
-            auditInfo.put(REQUEST_INITIATING_USER_AUTH_DOMAIN, user.getAuthDomain());
+            put(REQUEST_INITIATING_USER_AUTH_DOMAIN, user.getAuthDomain());
         }
     }
 
     public void addEffectiveUser(String user) {
         if (user != null) {
-            auditInfo.put(REQUEST_EFFECTIVE_USER, user);
+            put(REQUEST_EFFECTIVE_USER, user);
         }
     }
 
     public void addEffectiveUser(UserInformation user) {
         if (user != null && user.getName() != null) {
-            auditInfo.put(REQUEST_EFFECTIVE_USER, user.getName());
+            put(REQUEST_EFFECTIVE_USER, user.getName());
         }
 
         if (user != null && user.getAuthDomain() != null) {
-            auditInfo.put(REQUEST_EFFECTIVE_USER_AUTH_DOMAIN, user.getAuthDomain());
+            put(REQUEST_EFFECTIVE_USER_AUTH_DOMAIN, user.getAuthDomain());
         }
     }
 
     public void addPath(String path) {
         if (path != null) {
-            auditInfo.put(REST_REQUEST_PATH, path);
+            put(REST_REQUEST_PATH, path);
         }
     }
 
     public void addComplianceWriteDiffSource(String diff) {
         if (diff != null && !diff.isEmpty()) {
-            auditInfo.put(COMPLIANCE_DIFF_CONTENT, diff);
-            auditInfo.put(COMPLIANCE_DIFF_IS_NOOP, false);
+            put(COMPLIANCE_DIFF_CONTENT, diff);
+            put(COMPLIANCE_DIFF_IS_NOOP, false);
         } else if (diff != null && diff.isEmpty()) {
-            auditInfo.put(COMPLIANCE_DIFF_IS_NOOP, true);
+            put(COMPLIANCE_DIFF_IS_NOOP, true);
         }
     }
 
     //    public void addComplianceWriteStoredFields0(String diff) {
     //        if (diff != null && !diff.isEmpty()) {
-    //            auditInfo.put(COMPLIANCE_STORED_FIELDS_CONTENT, diff);
-    //            //auditInfo.put(COMPLIANCE_DIFF_STORED_IS_NOOP, false);
+    //            put(COMPLIANCE_STORED_FIELDS_CONTENT, diff);
+    //            //put(COMPLIANCE_DIFF_STORED_IS_NOOP, false);
     //        }
     //    }
 
     public void addTupleToRequestBody(Tuple<XContentType, ? extends BytesReference> xContentTuple) {
         if (xContentTuple != null) {
             try {
-                auditInfo.put(REQUEST_BODY, XContentHelper.convertToJson(xContentTuple.v2(), false, xContentTuple.v1()));
+                put(REQUEST_BODY, XContentHelper.convertToJson(xContentTuple.v2(), false, xContentTuple.v1()));
             } catch (Exception e) {
-                auditInfo.put(REQUEST_BODY, "ERROR: Unable to convert to json because of " + e);
+                put(REQUEST_BODY, "ERROR: Unable to convert to json because of " + e);
             }
         }
     }
 
     public void addMissingRequestBodyMessage(String cause) {
-        auditInfo.put(REQUEST_BODY, DocNode.of("INFO", cause).toJsonString());
+        put(REQUEST_BODY, DocNode.of("INFO", cause).toJsonString());
     }
 
 
 
     public void addMapToRequestBody(Map<String, Object> map) {
         if (map != null) {
-            auditInfo.put(REQUEST_BODY, Utils.convertStructuredMapToJson(map));
+            put(REQUEST_BODY, Utils.convertStructuredMapToJson(map));
         }
     }
 
     public void addUnescapedJsonToRequestBody(String source) {
         if (source != null) {
-            auditInfo.put(REQUEST_BODY, source);
+            put(REQUEST_BODY, source);
         }
     }
 
     public void addRequestType(String requestType) {
         if (requestType != null) {
-            auditInfo.put(TRANSPORT_REQUEST_TYPE, requestType);
+            put(TRANSPORT_REQUEST_TYPE, requestType);
         }
     }
 
     public void addAction(String action) {
         if (action != null) {
-            auditInfo.put(TRANSPORT_ACTION, action);
+            put(TRANSPORT_ACTION, action);
         }
     }
 
     public void addId(String id) {
         if (id != null) {
-            auditInfo.put(ID, id);
+            put(ID, id);
         }
     }
 
     /*public void addTypes(String[] types) {
         if (types != null && types.length > 0) {
-            auditInfo.put(TYPES, types);
+            put(TYPES, types);
         }
     }
     
     public void addType(String type) {
         if (type != null) {
-            auditInfo.put(TYPES, new String[] { type });
+            put(TYPES, new String[] { type });
         }
     }*/
 
@@ -300,48 +323,48 @@ public final class AuditMessage {
                     //ignore non readable files
                 }
             }
-            auditInfo.put(COMPLIANCE_FILE_INFOS, infos);
+            put(COMPLIANCE_FILE_INFOS, infos);
         }
     }
 
     /*public void addSource(Map<String, String> source) {
         if (source != null && !source.isEmpty()) {
-            auditInfo.put(REQUEST_BODY, source);
+            put(REQUEST_BODY, source);
         }
     }*/
 
     public void addIndices(String[] indices) {
         if (indices != null && indices.length > 0) {
-            auditInfo.put(INDICES, indices);
+            put(INDICES, indices);
         }
 
     }
 
     public void addResolvedIndices(String[] resolvedIndices) {
         if (resolvedIndices != null && resolvedIndices.length > 0) {
-            auditInfo.put(RESOLVED_INDICES, resolvedIndices);
+            put(RESOLVED_INDICES, resolvedIndices);
         }
     }
 
     public void addTaskId(long id) {
-        auditInfo.put(TASK_ID, auditInfo.get(NODE_ID) + ":" + id);
+        put(TASK_ID, get(NODE_ID) + ":" + id);
     }
 
     public void addShardId(ShardId id) {
         if (id != null) {
-            auditInfo.put(SHARD_ID, id.getId());
+            put(SHARD_ID, id.getId());
         }
     }
 
     public void addTaskParentId(String id) {
         if (id != null) {
-            auditInfo.put(TASK_PARENT_ID, id);
+            put(TASK_PARENT_ID, id);
         }
     }
 
     public void addRestParams(Map<String, String> params) {
         if (params != null && !params.isEmpty()) {
-            auditInfo.put(REST_REQUEST_PARAMS, new HashMap<>(params));
+            put(REST_REQUEST_PARAMS, new HashMap<>(params));
         }
     }
 
@@ -351,9 +374,9 @@ public final class AuditMessage {
                 final Map<String, List<String>> headersClone = new HashMap<String, List<String>>(headers).entrySet().stream()
                         .filter(map -> !map.getKey().equalsIgnoreCase(AUTHORIZATION_HEADER))
                         .collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue()));
-                auditInfo.put(REST_REQUEST_HEADERS, headersClone);
+                put(REST_REQUEST_HEADERS, headersClone);
             } else {
-                auditInfo.put(REST_REQUEST_HEADERS, new HashMap<String, List<String>>(headers));
+                put(REST_REQUEST_HEADERS, new HashMap<String, List<String>>(headers));
             }
         }
     }
@@ -364,71 +387,180 @@ public final class AuditMessage {
                 final Map<String, String> headersClone = new HashMap<String, String>(headers).entrySet().stream()
                         .filter(map -> !map.getKey().equalsIgnoreCase(AUTHORIZATION_HEADER))
                         .collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue()));
-                auditInfo.put(TRANSPORT_REQUEST_HEADERS, headersClone);
+                put(TRANSPORT_REQUEST_HEADERS, headersClone);
             } else {
-                auditInfo.put(TRANSPORT_REQUEST_HEADERS, new HashMap<String, String>(headers));
+                put(TRANSPORT_REQUEST_HEADERS, new HashMap<String, String>(headers));
             }
         }
     }
 
     public void addComplianceOperation(Operation op) {
         if (op != null) {
-            auditInfo.put(COMPLIANCE_OPERATION, op);
+            put(COMPLIANCE_OPERATION, op);
         }
     }
 
     public void addComplianceDocVersion(long version) {
-        auditInfo.put(COMPLIANCE_DOC_VERSION, version);
+        put(COMPLIANCE_DOC_VERSION, version);
     }
 
     public void addIndexTemplates(String[] indexTemplates) {
         if (indexTemplates != null && indexTemplates.length > 0) {
-            auditInfo.put(INDEX_TEMPLATES, indexTemplates);
+            put(INDEX_TEMPLATES, indexTemplates);
         }
     }
 
     public void addComplianceIndexTemplateVersion(Long version) {
         if (version != null) {
-            auditInfo.put(COMPLIANCE_INDEX_TEMPLATE_VERSION, version);
+            put(COMPLIANCE_INDEX_TEMPLATE_VERSION, version);
         }
     }
 
+    private AuditMessage(AuditMessage original, Customization customization) {
+        this.msgCategory = original.msgCategory;
+        this.keys = Arrays.copyOf(original.keys, original.size + customization.customFields.size());
+        this.values = Arrays.copyOf(original.values, keys.length);
+        this.size = original.size;
+
+        addCustomFields(customization.customFields);
+        removeDisabledFields(customization.disabledFields);
+
+        this.sealed = true;
+    }
+
+    private AuditMessage(Category msgCategory, Map<String, Object> fields) {
+        this.msgCategory = msgCategory;
+        this.keys = new String[Math.max(fields.size(), 1)];
+        this.values = new Object[keys.length];
+
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            keys[size] = entry.getKey();
+            values[size] = entry.getValue();
+            size++;
+        }
+
+        this.sealed = true;
+    }
+
+    /**
+     * Restores a sealed message from its JSON rendering, as produced by toJsonBytes().
+     */
+    public static AuditMessage fromJson(Category category, BytesReference json) {
+        AuditMessage result = new AuditMessage(Objects.requireNonNull(category),
+                XContentHelper.convertToMap(json, true, XContentType.JSON).v2());
+        result.json = json;
+        return result;
+    }
+
     public Map<String, Object> getAsMap() {
-        return new HashMap<>(this.auditInfo);
+        Map<String, Object> result = new LinkedHashMap<>(size * 2);
+
+        for (int i = 0; i < size; i++) {
+            result.put(keys[i], values[i]);
+        }
+
+        return result;
     }
 
     public void removeDisabledFields(List<String> disabledFields) {
-        disabledFields.forEach(auditInfo.keySet()::remove);
+        for (String field : disabledFields) {
+            remove(field);
+        }
+    }
+
+    /**
+     * Makes this message immutable. This is done when the message is handed over to the sinks, which might run on
+     * different threads. Calling this method several times has no further effect.
+     */
+    public void seal() {
+        this.sealed = true;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * Returns the message as it shall be stored by a sink with the given customization. If the customization does not
+     * change anything, this message is returned. Otherwise, a sealed copy is returned; copies are shared by all sinks
+     * with an equal customization. In both cases, the serialized form of the returned message is shared.
+     */
+    public AuditMessage customize(Customization customization) {
+        seal();
+
+        if (customization.isEmpty()) {
+            return this;
+        }
+
+        synchronized (this) {
+            if (customizedMessages == null) {
+                customizedMessages = new HashMap<>(4);
+            }
+
+            return customizedMessages.computeIfAbsent(customization, (k) -> new AuditMessage(this, k));
+        }
     }
 
     public String getInitiatingUser() {
-        return (String) this.auditInfo.get(REQUEST_INITIATING_USER);
+        return (String) get(REQUEST_INITIATING_USER);
     }
 
     public String getEffectiveUser() {
-        return (String) this.auditInfo.get(REQUEST_EFFECTIVE_USER);
+        return (String) get(REQUEST_EFFECTIVE_USER);
     }
 
     public String getRequestType() {
-        return (String) this.auditInfo.get(TRANSPORT_REQUEST_TYPE);
+        return (String) get(TRANSPORT_REQUEST_TYPE);
     }
 
     public Category getCategory() {
         return msgCategory;
     }
 
+    /**
+     * Returns the message rendered as JSON. For sealed messages, the rendering happens only once; the returned
+     * bytes are shared by all sinks and must not be modified.
+     */
+    public BytesReference toJsonBytes() {
+        BytesReference result = this.json;
+
+        if (result != null) {
+            return result;
+        }
+
+        if (!sealed) {
+            return render();
+        }
+
+        synchronized (this) {
+            if (this.json == null) {
+                this.json = render();
+            }
+
+            return this.json;
+        }
+    }
+
     @Override
     public String toString() {
-        try {
-            return Strings.toString(JsonXContent.contentBuilder().map(getAsMap()));
-        } catch (final IOException e) {
-            throw ExceptionsHelper.convertToElastic(e);
+        String result = this.jsonString;
+
+        if (result != null) {
+            return result;
+        }
+
+        result = toJsonBytes().utf8ToString();
+
+        if (sealed) {
+            this.jsonString = result;
         }
+
+        return result;
     }
 
     public String toPrettyString() {
         try {
-            return Strings.toString(JsonXContent.contentBuilder().prettyPrint().map(getAsMap()));
+            return Strings.toString(writeFields(JsonXContent.contentBuilder().prettyPrint()));
         } catch (final IOException e) {
             throw ExceptionsHelper.convertToElastic(e);
         }
@@ -436,8 +568,8 @@ public final class AuditMessage {
 
     public String toText() {
         StringBuilder builder = new StringBuilder();
-        for (Entry<String, Object> entry : getAsMap().entrySet()) {
-            addIfNonEmpty(builder, entry.getKey(), stringOrNull(entry.getValue()));
+        for (int i = 0; i < size; i++) {
+            addIfNonEmpty(builder, keys[i], stringOrNull(values[i]));
         }
         return builder.toString();
     }
@@ -448,12 +580,87 @@ public final class AuditMessage {
 
     public String toUrlParameters() {
         URIBuilder builder = new URIBuilder();
-        for (Entry<String, Object> entry : getAsMap().entrySet()) {
-            builder.addParameter(entry.getKey(), stringOrNull(entry.getValue()));
+        for (int i = 0; i < size; i++) {
+            builder.addParameter(keys[i], stringOrNull(values[i]));
         }
         return builder.toString();
     }
 
+    private BytesReference render() {
+        try {
+            return BytesReference.bytes(writeFields(JsonXContent.contentBuilder()));
+        } catch (final IOException e) {
+            throw ExceptionsHelper.convertToElastic(e);
+        }
+    }
+
+    private XContentBuilder writeFields(XContentBuilder builder) throws IOException {
+        builder.startObject();
+
+        for (int i = 0; i < size; i++) {
+            builder.field(keys[i], values[i]);
+        }
+
+        return builder.endObject();
+    }
+
+    private Object get(String key) {
+        int i = indexOf(key);
+        return i != -1 ? values[i] : null;
+    }
+
+    private void put(String key, Object value) {
+        checkNotSealed();
+
+        int i = indexOf(key);
+
+        if (i == -1) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            i = size++;
+            keys[i] = key;
+        }
+
+        values[i] = value;
+        json = null;
+    }
+
+    private void remove(String key) {
+        checkNotSealed();
+
+        int i = indexOf(key);
+
+        if (i == -1) {
+            return;
+        }
+
+        size--;
+        System.arraycopy(keys, i + 1, keys, i, size - i);
+        System.arraycopy(values, i + 1, values, i, size - i);
+        keys[size] = null;
+        values[size] = null;
+        json = null;
+    }
+
+    private int indexOf(String key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void checkNotSealed() {
+        if (sealed) {
+            throw new IllegalStateException("AuditMessage has been already handed over to the sinks and cannot be modified any more");
+        }
+    }
+
     private static void addIfNonEmpty(StringBuilder builder, String key, String value) {
         if (!Strings.isEmpty(value)) {
             if (builder.length() > 0) {
@@ -482,7 +689,56 @@ public final class AuditMessage {
     }
 
     public void addCustomFields(Map<String, String> customFields) {
-        customFields.forEach((k, v) -> auditInfo.put(CUSTOM_FIELD_PREFIX + k, v));
+        customFields.forEach((k, v) -> put(CUSTOM_FIELD_PREFIX + k, v));
+    }
+
+    /**
+     * Sink specific modifications of messages. Instances with equal contents are considered equal, so that sinks with
+     * the same configuration share the customized messages.
+     */
+    public static final class Customization {
+        public static final Customization NONE = new Customization(Collections.emptyMap(), Collections.emptyList());
+
+        private final Map<String, String> customFields;
+        private final List<String> disabledFields;
+
+        private Customization(Map<String, String> customFields, List<String> disabledFields) {
+            this.customFields = customFields;
+            this.disabledFields = disabledFields;
+        }
+
+        public static Customization of(Map<String, String> customFields, List<String> disabledFields) {
+            if ((customFields == null || customFields.isEmpty()) && (disabledFields == null || disabledFields.isEmpty())) {
+                return NONE;
+            }
+
+            return new Customization(customFields != null ? Collections.unmodifiableMap(new LinkedHashMap<>(customFields)) : Collections.emptyMap(),
+                    disabledFields != null ? Collections.unmodifiableList(new ArrayList<>(disabledFields)) : Collections.emptyList());
+        }
+
+        public boolean isEmpty() {
+            return customFields.isEmpty() && disabledFields.isEmpty();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customFields, disabledFields);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Customization)) {
+                return false;
+            }
+
+            Customization other = (Customization) obj;
+
+            return customFields.equals(other.customFields) && disabledFields.equals(other.disabledFields);
+        }
     }
 
     public enum Category {
@@ -15,8 +15,10 @@
 package com.floragunn.searchguard.enterprise.auditlog.routing;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +37,7 @@ import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage.Category;
 import com.floragunn.searchguard.enterprise.auditlog.sink.AuditLogSink;
 import com.floragunn.searchguard.enterprise.auditlog.sink.SinkProvider;
 import com.floragunn.searchguard.support.ConfigConstants;
+import com.floragunn.searchsupport.cstate.ComponentState;
 
 public class AuditMessageRouter {
 
@@ -43,6 +46,7 @@ public class AuditMessageRouter {
 	final Map<Category, List<AuditLogSink>> categorySinks = new EnumMap<>(Category.class);
 	final SinkProvider sinkProvider;
 	final AsyncStoragePool storagePool;
+	final Map<AuditLogSink, AuditMessageSpool> spools = new HashMap<>();
 	final boolean enabled;
 	boolean hasMultipleEndpoints;
 	private AuditLogConfig complianceConfig;
@@ -59,6 +63,7 @@ public class AuditMessageRouter {
 		} else {
 			// create sinks for all categories. Only do that if we have any extended setting, otherwise there is just the default category
 			setupRoutes(settings);
+			setupSpools(settings);
 			enabled = true;			
 		}		
 	}
@@ -77,6 +82,8 @@ public class AuditMessageRouter {
 			log.error("#route(AuditMessage) called but message router is disabled");
 			return;
 		}
+		// The message is shared by all sinks, which might run on different threads
+		msg.seal();
 		// if we do not run the compliance features or no extended configuration is present, only log to default.
 		if (!hasMultipleEndpoints || complianceConfig == null || !complianceConfig.isEnabled()) {
 			store(defaultSink, msg);
@@ -87,7 +94,21 @@ public class AuditMessageRouter {
 		}
 	}
 
+	public List<ComponentState> getComponentStates() {
+		List<ComponentState> result = new ArrayList<>(sinkProvider.getComponentStates());
+
+		for (AuditMessageSpool spool : spools.values()) {
+			result.add(spool.getComponentState());
+		}
+
+		return result;
+	}
+
 	public final void close() {
+		// stop replaying spooled messages; remaining messages will be replayed after the next start
+		for (AuditMessageSpool spool : spools.values()) {
+			spool.close();
+		}
 		// shutdown storage pool
 		storagePool.close();
 		// close default
@@ -147,6 +168,33 @@ public class AuditMessageRouter {
 		}
 	}
 	
+	private final void setupSpools(Settings settings) {
+		if (!settings.getAsBoolean(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_ENABLED, false)) {
+			return;
+		}
+
+		List<AuditLogSink> sinks = new ArrayList<>();
+		sinks.add(defaultSink);
+
+		for (List<AuditLogSink> sinksForCategory : categorySinks.values()) {
+			sinks.addAll(sinksForCategory);
+		}
+
+		for (AuditLogSink sink : sinks) {
+			// Sinks handling back pressure are called synchronously and thus do not need a spool
+			if (sink.isHandlingBackpressure() || spools.containsKey(sink)) {
+				continue;
+			}
+
+			AuditMessageSpool spool = AuditMessageSpool.create(settings, sink);
+
+			if (spool != null) {
+				spools.put(sink, spool);
+				log.info("Using audit log spool for endpoint {}", sink.getName());
+			}
+		}
+	}
+
 	private final List<AuditLogSink> createSinksForCategory(Category category, Settings configuration) {
 		List<AuditLogSink> sinksForCategory = new LinkedList<>();
 		List<String> sinks = configuration.getAsList("endpoints");
@@ -172,6 +220,16 @@ public class AuditMessageRouter {
 				log.trace("stored on sink {} synchronously", sink.getClass().getSimpleName());
 			}
 		} else {
+			AuditMessageSpool spool = spools.isEmpty() ? null : spools.get(sink);
+
+			if (spool != null && spool.append(msg)) {
+				if (log.isTraceEnabled()) {
+					log.trace("spooled for sink {}", sink.getClass().getSimpleName());
+				}
+				return;
+			}
+
+			// no spool or spool is full or failed; use the in-memory queue
 			storagePool.submit(msg, sink);
 			if (log.isTraceEnabled()) {
 				log.trace("will store on sink {} asynchronously", sink.getClass().getSimpleName());
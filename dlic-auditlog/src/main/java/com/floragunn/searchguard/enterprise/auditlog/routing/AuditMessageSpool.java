@@ -0,0 +1,960 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.auditlog.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
+
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage;
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage.Category;
+import com.floragunn.searchguard.enterprise.auditlog.sink.AuditLogSink;
+import com.floragunn.searchguard.support.ConfigConstants;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.floragunn.searchsupport.cstate.metrics.CountAggregation;
+import com.floragunn.searchsupport.cstate.metrics.TimeAggregation;
+
+/**
+ * A write-ahead spool on the local disk for the messages of a sink. Messages are appended to segment files; a dedicated replay thread
+ * reads the messages in order and passes them to the sink. If the sink fails to store a message, the replay thread retries the same
+ * message with increasing delays, so that the spool is drained in order once the sink has recovered. If the message still cannot be
+ * stored after max_retries retries, it is passed to the fallback sink and the replay continues with the next message.
+ *
+ * The calling threads only write to the page cache. Fsyncs, checkpoints and the creation of new segments are done by the sync thread;
+ * thus, segment_size is a soft limit which can be exceeded by the messages appended until the sync thread has created the next segment.
+ *
+ * The replay position is persisted in a checkpoint file. Thus, messages which were not yet stored by the sink are replayed after a
+ * restart of the node. Messages might be stored twice if the node stops between storing a message and writing the checkpoint.
+ *
+ * The disk usage is bounded by max_disk_usage. If the spool is full or cannot be written, append() returns false; the caller is then
+ * responsible for the message.
+ *
+ * Record format: int length, int CRC32, long timestamp, short category length, category name, message JSON. The length and the
+ * checksum cover all data after the checksum.
+ */
+public class AuditMessageSpool implements Closeable, ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(AuditMessageSpool.class);
+
+    static final String SEGMENT_SUFFIX = ".spool";
+    static final String CHECKPOINT_FILE = "checkpoint";
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    private static final long INITIAL_RETRY_DELAY_MS = 500;
+    private static final long MAX_RETRY_DELAY_MS = 30 * 1000;
+
+    private final String name;
+    private final AuditLogSink sink;
+    private final Path directory;
+    private final long maxDiskUsage;
+    private final long segmentSize;
+    private final int fsyncMaxRecords;
+    private final int maxRetries;
+
+    private final Object lock = new Object();
+
+    // The following fields are guarded by lock
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private FileChannel writeChannel;
+    private long writeSegmentId;
+    private long writePosition;
+    private int unsyncedRecords;
+    private boolean syncRequested;
+    private boolean rollRequested;
+    private boolean writeSegmentCorrupted;
+    private long diskUsage;
+    private long depth;
+    private long ackedSegmentId;
+    private long ackedPosition;
+    private boolean checkpointDirty;
+    private volatile boolean closed;
+
+    // The following fields are only used by the replay thread
+    private FileChannel readChannel;
+    private long readChannelSegmentId = -1;
+    private long readSegmentId;
+    private long readPosition;
+    private long readRecordsInSegment;
+
+    private volatile long headTimestamp;
+
+    private final Thread replayThread;
+    private final ScheduledThreadPoolExecutor syncScheduler;
+
+    private final ComponentState componentState;
+    private final CountAggregation appended = new CountAggregation();
+    private final CountAggregation delivered = new CountAggregation();
+    private final CountAggregation rejectedFull = new CountAggregation();
+    private final CountAggregation writeErrors = new CountAggregation();
+    private final CountAggregation droppedCorrupt = new CountAggregation();
+    private final CountAggregation deliveryFailures = new CountAggregation();
+    private final CountAggregation passedToFallback = new CountAggregation();
+    private final TimeAggregation fsyncs = new TimeAggregation.Milliseconds();
+
+    AuditMessageSpool(String name, AuditLogSink sink, Path directory, long maxDiskUsage, long segmentSize, int fsyncMaxRecords,
+            TimeValue fsyncInterval, int maxRetries) throws IOException {
+        this.name = name;
+        this.sink = sink;
+        this.directory = directory;
+        this.maxDiskUsage = maxDiskUsage;
+        this.segmentSize = Math.max(segmentSize, 64 * 1024);
+        this.fsyncMaxRecords = Math.max(fsyncMaxRecords, 1);
+        this.maxRetries = Math.max(maxRetries, 0);
+
+        this.componentState = new ComponentState(1, "audit_log_spool", name, AuditMessageSpool.class).initialized();
+        this.componentState.addMetrics("appended", appended, "delivered", delivered, "rejected_full", rejectedFull, "write_errors",
+                writeErrors, "dropped_corrupt", droppedCorrupt, "delivery_failures", deliveryFailures, "passed_to_fallback", passedToFallback);
+        this.componentState.addMetrics("fsync", fsyncs, "depth", new Count.Live(this::getDepth), "lag_ms", new Count.Live(this::getLagMs),
+                "disk_usage", new Count.Live(this::getDiskUsage));
+        this.componentState.setConfigProperty("path", directory.toString());
+        this.componentState.setConfigProperty("max_disk_usage", maxDiskUsage);
+        this.componentState.setConfigProperty("segment_size", this.segmentSize);
+        this.componentState.setConfigProperty("fsync_max_records", this.fsyncMaxRecords);
+        this.componentState.setConfigProperty("fsync_interval", fsyncInterval.toString());
+        this.componentState.setConfigProperty("max_retries", this.maxRetries);
+
+        Files.createDirectories(directory);
+        recover();
+
+        this.replayThread = new Thread(this::replay, "sg_audit_spool_replay[" + name + "]");
+        this.replayThread.setDaemon(true);
+        this.replayThread.start();
+
+        this.syncScheduler = new ScheduledThreadPoolExecutor(1, (r) -> {
+            Thread thread = new Thread(r, "sg_audit_spool_sync[" + name + "]");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.syncScheduler.scheduleWithFixedDelay(this::syncSafely, fsyncInterval.millis(), fsyncInterval.millis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a spool for the given sink according to the spool settings. Returns null if the spool is not enabled or could not be
+     * created.
+     */
+    static AuditMessageSpool create(Settings settings, AuditLogSink sink) {
+        if (!settings.getAsBoolean(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_ENABLED, false)) {
+            return null;
+        }
+
+        Path basePath = getBasePath(settings);
+
+        if (basePath == null) {
+            log.error("Cannot create audit log spool for {} because {} is not configured", sink.getName(),
+                    ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_PATH);
+            return null;
+        }
+
+        long maxDiskUsage = settings
+                .getAsBytesSize(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_MAX_DISK_USAGE, ByteSizeValue.ofGb(1)).getBytes();
+        long segmentSize = settings.getAsBytesSize(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_SEGMENT_SIZE, ByteSizeValue.ofMb(64)).getBytes();
+        int fsyncMaxRecords = settings.getAsInt(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_FSYNC_MAX_RECORDS, 256);
+        TimeValue fsyncInterval = settings.getAsTime(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_FSYNC_INTERVAL, TimeValue.timeValueSeconds(1));
+        int maxRetries = settings.getAsInt(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_MAX_RETRIES, 10);
+
+        if (fsyncInterval.millis() <= 0) {
+            fsyncInterval = TimeValue.timeValueSeconds(1);
+        }
+
+        try {
+            return new AuditMessageSpool(sink.getName(), sink, basePath.resolve(sink.getName()), maxDiskUsage, segmentSize, fsyncMaxRecords,
+                    fsyncInterval, maxRetries);
+        } catch (Exception e) {
+            log.error("Cannot create audit log spool for " + sink.getName() + " in " + basePath, e);
+            return null;
+        }
+    }
+
+    private static Path getBasePath(Settings settings) {
+        String path = settings.get(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_PATH);
+
+        if (path != null) {
+            return Path.of(path);
+        }
+
+        if (!settings.getAsList("path.data").isEmpty()) {
+            return Path.of(settings.getAsList("path.data").get(0), "searchguard", "audit_spool");
+        }
+
+        if (settings.get("path.home") != null) {
+            return Path.of(settings.get("path.home"), "data", "searchguard", "audit_spool");
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes the message to the spool. Returns false if the spool is full, closed or cannot be written; in that case, the message is
+     * not stored by the spool.
+     */
+    public boolean append(AuditMessage msg) {
+        ByteBuffer record = encode(msg, System.currentTimeMillis());
+        boolean signalSyncThread = false;
+
+        synchronized (lock) {
+            if (closed) {
+                return false;
+            }
+
+            if (record.remaining() - HEADER_SIZE > MAX_RECORD_SIZE) {
+                log.error("Audit message is too large for spool {}: {} bytes", name, record.remaining());
+                writeErrors.increment();
+                return false;
+            }
+
+            if (writeSegmentCorrupted) {
+                // Do not append behind corrupted data; the sync thread is about to create a new segment
+                return false;
+            }
+
+            if (diskUsage + record.remaining() > maxDiskUsage) {
+                rejectedFull.increment();
+                return false;
+            }
+
+            try {
+                int length = record.remaining();
+                long position = writePosition;
+
+                if (position > 0 && position + length > segmentSize && !rollRequested) {
+                    rollRequested = true;
+                    signalSyncThread = requestSync();
+                }
+
+                while (record.hasRemaining()) {
+                    position += writeChannel.write(record, position);
+                }
+
+                Segment segment = segments.get(writeSegmentId);
+                segment.size += length;
+                segment.records++;
+                writePosition += length;
+                diskUsage += length;
+                depth++;
+                appended.increment();
+
+                if (++unsyncedRecords >= fsyncMaxRecords) {
+                    signalSyncThread |= requestSync();
+                }
+
+                lock.notifyAll();
+            } catch (IOException e) {
+                log.error("Error while writing to audit log spool " + name, e);
+                writeErrors.increment();
+                componentState.addLastException("write", e);
+                return false;
+            }
+        }
+
+        if (signalSyncThread) {
+            signalSyncThread();
+        }
+
+        return true;
+    }
+
+    public long getDepth() {
+        synchronized (lock) {
+            return depth;
+        }
+    }
+
+    /**
+     * The age of the oldest message which has not been stored by the sink yet.
+     */
+    public long getLagMs() {
+        long headTimestamp = this.headTimestamp;
+        return headTimestamp != 0 ? Math.max(0, System.currentTimeMillis() - headTimestamp) : 0;
+    }
+
+    public long getDiskUsage() {
+        synchronized (lock) {
+            return diskUsage;
+        }
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            lock.notifyAll();
+        }
+
+        syncScheduler.shutdown();
+
+        try {
+            replayThread.join(10 * 1000);
+            syncScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            sync();
+            writeCheckpoint();
+
+            synchronized (lock) {
+                writeChannel.close();
+            }
+        } catch (IOException e) {
+            log.error("Error while closing audit log spool " + name, e);
+        }
+    }
+
+    private void replay() {
+        long retryDelay = INITIAL_RETRY_DELAY_MS;
+        int retries = 0;
+
+        try {
+            while (!closed) {
+                Record record = readNext();
+
+                if (record == null) {
+                    headTimestamp = 0;
+
+                    synchronized (lock) {
+                        if (closed) {
+                            break;
+                        }
+
+                        if (readSegmentId == writeSegmentId && readPosition >= writePosition) {
+                            lock.wait(1000);
+                        }
+                    }
+
+                    continue;
+                }
+
+                headTimestamp = record.timestamp;
+
+                boolean stored = false;
+
+                try {
+                    stored = sink.tryStore(record.message);
+                } catch (Exception e) {
+                    log.error("Error while storing spooled audit message in " + name, e);
+                }
+
+                if (!stored) {
+                    deliveryFailures.increment();
+
+                    if (retries < maxRetries) {
+                        if (!waitForRetry(retryDelay)) {
+                            // The message will be replayed after the restart
+                            break;
+                        }
+
+                        retries++;
+                        retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+                        continue;
+                    }
+
+                    // Do not block the messages behind this one forever
+                    log.error("Could not store spooled audit message in {} after {} retries; passing it to the fallback sink", name, retries);
+                    try {
+                        sink.storeInFallbackSink(sink.customize(record.message));
+                    } catch (Exception e) {
+                        log.error("Error while storing spooled audit message of " + name + " in fallback sink", e);
+                    }
+
+                    passedToFallback.increment();
+                } else {
+                    delivered.increment();
+                }
+
+                retries = 0;
+                retryDelay = INITIAL_RETRY_DELAY_MS;
+                acknowledge(record.end, 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Replay of audit log spool " + name + " failed", e);
+            componentState.addLastException("replay", e);
+        } finally {
+            closeReadChannel();
+        }
+    }
+
+    /**
+     * Waits for the given delay. Returns false if the spool was closed meanwhile.
+     */
+    private boolean waitForRetry(long delayMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + delayMs;
+
+        synchronized (lock) {
+            // Appends also notify the lock; thus, we need to loop until the deadline is reached
+            for (long remaining = delayMs; !closed && remaining > 0; remaining = deadline - System.currentTimeMillis()) {
+                lock.wait(remaining);
+            }
+
+            return !closed;
+        }
+    }
+
+    /**
+     * Reads the next record at the read position. Returns null if there are no further records. Segments which have been completely
+     * replayed are deleted. Corrupted records are skipped together with the remainder of their segment.
+     */
+    private Record readNext() throws IOException {
+        while (true) {
+            long segmentEnd;
+            boolean isWriteSegment;
+
+            synchronized (lock) {
+                Segment segment = segments.get(readSegmentId);
+
+                if (segment == null) {
+                    Long next = segments.higherKey(readSegmentId);
+
+                    if (next == null) {
+                        return null;
+                    }
+
+                    startSegment(next);
+                    continue;
+                }
+
+                segmentEnd = segment.size;
+                isWriteSegment = readSegmentId == writeSegmentId;
+            }
+
+            if (readPosition >= segmentEnd) {
+                if (isWriteSegment) {
+                    return null;
+                }
+
+                finishSegment();
+                continue;
+            }
+
+            FileChannel channel = getReadChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, readPosition);
+            header.flip();
+
+            int length = header.getInt();
+            int checksum = header.getInt();
+
+            if (length <= 0 || length > MAX_RECORD_SIZE || readPosition + HEADER_SIZE + length > segmentEnd) {
+                skipCorruptedSegment("invalid record length " + length);
+                continue;
+            }
+
+            ByteBuffer data = ByteBuffer.allocate(length);
+            readFully(channel, data, readPosition + HEADER_SIZE);
+
+            if (checksum(data.array(), length) != checksum) {
+                skipCorruptedSegment("checksum mismatch");
+                continue;
+            }
+
+            long end = readPosition + HEADER_SIZE + length;
+
+            try {
+                return decode(data, end);
+            } catch (Exception e) {
+                log.error("Skipping unreadable record at " + readPosition + " of segment " + readSegmentId + " in " + directory, e);
+                droppedCorrupt.increment();
+                acknowledge(end, 1);
+            }
+        }
+    }
+
+    private void acknowledge(long end, long records) {
+        readPosition = end;
+        readRecordsInSegment += records;
+
+        synchronized (lock) {
+            depth -= records;
+            ackedSegmentId = readSegmentId;
+            ackedPosition = readPosition;
+            checkpointDirty = true;
+        }
+    }
+
+    private void skipCorruptedSegment(String reason) {
+        log.error("Audit log spool segment {} in {} is corrupted at position {} ({}); skipping the remainder of the segment", readSegmentId,
+                directory, readPosition, reason);
+
+        boolean signalSyncThread = false;
+
+        synchronized (lock) {
+            Segment segment = segments.get(readSegmentId);
+            long skipped = Math.max(0, segment.records - readRecordsInSegment);
+            droppedCorrupt.add(skipped);
+            depth -= skipped;
+            readRecordsInSegment = segment.records;
+            readPosition = segment.size;
+
+            if (readSegmentId == writeSegmentId) {
+                // Do not append behind corrupted data
+                writeSegmentCorrupted = true;
+                rollRequested = true;
+                signalSyncThread = requestSync();
+            }
+        }
+
+        if (signalSyncThread) {
+            signalSyncThread();
+        }
+    }
+
+    private void finishSegment() {
+        long finishedSegmentId = readSegmentId;
+
+        closeReadChannel();
+
+        synchronized (lock) {
+            Segment segment = segments.remove(finishedSegmentId);
+
+            if (segment != null) {
+                diskUsage -= segment.size;
+            }
+
+            Long next = segments.higherKey(finishedSegmentId);
+            startSegment(next != null ? next : writeSegmentId);
+        }
+
+        try {
+            Files.deleteIfExists(segmentPath(finishedSegmentId));
+        } catch (IOException e) {
+            log.warn("Could not delete replayed audit log spool segment " + finishedSegmentId + " in " + directory, e);
+        }
+    }
+
+    /**
+     * Must be called while holding lock
+     */
+    private void startSegment(long segmentId) {
+        readSegmentId = segmentId;
+        readPosition = 0;
+        readRecordsInSegment = 0;
+        ackedSegmentId = segmentId;
+        ackedPosition = 0;
+        checkpointDirty = true;
+    }
+
+    private FileChannel getReadChannel() throws IOException {
+        if (readChannel == null || readChannelSegmentId != readSegmentId) {
+            closeReadChannel();
+            readChannel = FileChannel.open(segmentPath(readSegmentId), StandardOpenOption.READ);
+            readChannelSegmentId = readSegmentId;
+        }
+
+        return readChannel;
+    }
+
+    private void closeReadChannel() {
+        if (readChannel != null) {
+            try {
+                readChannel.close();
+            } catch (IOException e) {
+                log.debug("Error while closing read channel", e);
+            }
+
+            readChannel = null;
+            readChannelSegmentId = -1;
+        }
+    }
+
+    /**
+     * Creates a new write segment. The previous write segment is synced and closed afterwards. Must be only called by the sync thread.
+     */
+    private void roll() throws IOException {
+        long segmentId;
+
+        synchronized (lock) {
+            segmentId = writeSegmentId + 1;
+        }
+
+        FileChannel newChannel = FileChannel.open(segmentPath(segmentId), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        FileChannel oldChannel;
+        boolean synced;
+
+        synchronized (lock) {
+            oldChannel = writeChannel;
+            synced = unsyncedRecords == 0;
+            writeChannel = newChannel;
+            writeSegmentId = segmentId;
+            writePosition = 0;
+            segments.put(segmentId, new Segment());
+            unsyncedRecords = 0;
+            rollRequested = false;
+            writeSegmentCorrupted = false;
+        }
+
+        try {
+            if (!synced) {
+                force(oldChannel);
+            }
+        } finally {
+            oldChannel.close();
+        }
+    }
+
+    /**
+     * Must be called while holding lock
+     */
+    private void openWriteSegment(long segmentId) throws IOException {
+        writeChannel = FileChannel.open(segmentPath(segmentId), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        writeSegmentId = segmentId;
+        writePosition = 0;
+        segments.put(segmentId, new Segment());
+    }
+
+    /**
+     * Must be called while holding lock. Returns true if the sync thread needs to be signalled by calling signalSyncThread() after
+     * releasing the lock.
+     */
+    private boolean requestSync() {
+        if (syncRequested) {
+            return false;
+        }
+
+        syncRequested = true;
+        return true;
+    }
+
+    private void signalSyncThread() {
+        try {
+            syncScheduler.execute(this::syncSafely);
+        } catch (RejectedExecutionException e) {
+            // The spool has been closed; close() syncs the remaining records
+        }
+    }
+
+    /**
+     * Syncs the records written so far. Must be only called by the sync thread or after the sync thread has been terminated.
+     */
+    private void sync() throws IOException {
+        FileChannel channel;
+        int records;
+
+        synchronized (lock) {
+            channel = writeChannel;
+            records = unsyncedRecords;
+        }
+
+        if (records == 0 || channel == null || !channel.isOpen()) {
+            return;
+        }
+
+        force(channel);
+
+        synchronized (lock) {
+            if (channel == writeChannel) {
+                unsyncedRecords -= records;
+            }
+        }
+    }
+
+    private void force(FileChannel channel) throws IOException {
+        long start = System.currentTimeMillis();
+        channel.force(false);
+        fsyncs.recordMs(System.currentTimeMillis() - start);
+    }
+
+    private void syncSafely() {
+        try {
+            boolean roll;
+
+            synchronized (lock) {
+                syncRequested = false;
+                roll = rollRequested && !closed;
+            }
+
+            sync();
+
+            if (roll) {
+                roll();
+            }
+
+            writeCheckpoint();
+        } catch (Exception e) {
+            log.error("Error while syncing audit log spool " + name, e);
+            componentState.addLastException("sync", e);
+        }
+    }
+
+    /**
+     * Writes the checkpoint if it has been changed. Must be only called by the sync thread or after the sync thread has been terminated.
+     */
+    private void writeCheckpoint() throws IOException {
+        long segmentId;
+        long position;
+
+        synchronized (lock) {
+            if (!checkpointDirty) {
+                return;
+            }
+
+            segmentId = ackedSegmentId;
+            position = ackedPosition;
+            checkpointDirty = false;
+        }
+
+        try {
+            Path tempFile = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(tempFile, segmentId + " " + position + "\n", StandardCharsets.UTF_8);
+
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            Files.move(tempFile, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            synchronized (lock) {
+                checkpointDirty = true;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Restores the state of the spool from the files in the directory. Segments are validated; data following an invalid record is
+     * truncated, as it is the result of an interrupted write. New messages are always written to a new segment.
+     */
+    private void recover() throws IOException {
+        TreeMap<Long, Path> segmentFiles = new TreeMap<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+
+                try {
+                    segmentFiles.put(Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length())), path);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unexpected file {} in audit log spool", path);
+                }
+            }
+        }
+
+        long checkpointSegmentId = -1;
+        long checkpointPosition = 0;
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+
+        if (Files.exists(checkpointFile)) {
+            try {
+                String[] checkpoint = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim().split(" ");
+                checkpointSegmentId = Long.parseLong(checkpoint[0]);
+                checkpointPosition = Long.parseLong(checkpoint[1]);
+            } catch (Exception e) {
+                log.error("Invalid checkpoint in audit log spool " + directory + "; replaying all segments", e);
+            }
+        }
+
+        synchronized (lock) {
+            for (Map.Entry<Long, Path> entry : segmentFiles.entrySet()) {
+                long segmentId = entry.getKey();
+
+                if (segmentId < checkpointSegmentId) {
+                    Files.delete(entry.getValue());
+                    continue;
+                }
+
+                Segment segment = scan(entry.getValue(), segmentId == checkpointSegmentId ? checkpointPosition : 0);
+
+                if (segment.records == 0) {
+                    Files.delete(entry.getValue());
+                    continue;
+                }
+
+                segments.put(segmentId, segment);
+                diskUsage += segment.size;
+                depth += segment.records;
+            }
+
+            long nextSegmentId = Math.max(segmentFiles.isEmpty() ? 0 : segmentFiles.lastKey() + 1, checkpointSegmentId + 1);
+
+            if (segments.isEmpty()) {
+                this.readSegmentId = nextSegmentId;
+                this.readPosition = 0;
+            } else if (segments.firstKey() == checkpointSegmentId) {
+                this.readSegmentId = checkpointSegmentId;
+                this.readPosition = Math.min(checkpointPosition, segments.firstEntry().getValue().size);
+            } else {
+                this.readSegmentId = segments.firstKey();
+                this.readPosition = 0;
+            }
+
+            this.ackedSegmentId = readSegmentId;
+            this.ackedPosition = readPosition;
+
+            // Records before the checkpoint position are not counted by scan(); thus, they are not part of depth
+            this.readRecordsInSegment = 0;
+
+            openWriteSegment(nextSegmentId);
+
+            if (depth > 0) {
+                log.info("Audit log spool {} contains {} messages to be replayed", name, depth);
+            }
+        }
+    }
+
+    /**
+     * Validates the records of the given segment file and truncates the file after the last valid record. Only records starting at or
+     * after fromPosition are counted.
+     */
+    private Segment scan(Path path, long fromPosition) throws IOException {
+        Segment result = new Segment();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+            while (position + HEADER_SIZE <= fileSize) {
+                header.clear();
+                readFully(channel, header, position);
+                header.flip();
+
+                int length = header.getInt();
+                int checksum = header.getInt();
+
+                if (length <= 0 || length > MAX_RECORD_SIZE || position + HEADER_SIZE + length > fileSize) {
+                    break;
+                }
+
+                ByteBuffer data = ByteBuffer.allocate(length);
+                readFully(channel, data, position + HEADER_SIZE);
+
+                if (checksum(data.array(), length) != checksum) {
+                    break;
+                }
+
+                if (position >= fromPosition) {
+                    result.records++;
+                }
+
+                position += HEADER_SIZE + length;
+            }
+
+            if (position < fileSize) {
+                log.warn("Truncating audit log spool segment {} from {} to {} bytes", path, fileSize, position);
+                channel.truncate(position);
+                channel.force(true);
+            }
+
+            result.size = position;
+        }
+
+        return result;
+    }
+
+    private Path segmentPath(long segmentId) {
+        return directory.resolve(String.format("%020d", segmentId) + SEGMENT_SUFFIX);
+    }
+
+    static ByteBuffer encode(AuditMessage msg, long timestamp) {
+        BytesReference json = msg.toJsonBytes();
+        byte[] category = msg.getCategory().name().getBytes(StandardCharsets.UTF_8);
+        int length = 8 + 2 + category.length + json.length();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length);
+
+        buffer.putInt(length);
+        buffer.putInt(0);
+        buffer.putLong(timestamp);
+        buffer.putShort((short) category.length);
+        buffer.put(category);
+        buffer.put(BytesReference.toBytes(json));
+
+        buffer.putInt(4, checksum(buffer.array(), HEADER_SIZE, length));
+        buffer.flip();
+        return buffer;
+    }
+
+    private static Record decode(ByteBuffer data, long end) {
+        long timestamp = data.getLong();
+        byte[] category = new byte[data.getShort()];
+        data.get(category);
+        BytesReference json = new BytesArray(data.array(), data.position(), data.remaining());
+
+        return new Record(AuditMessage.fromJson(Category.valueOf(new String(category, StandardCharsets.UTF_8)), json), timestamp, end);
+    }
+
+    private static int checksum(byte[] data, int length) {
+        return checksum(data, 0, length);
+    }
+
+    private static int checksum(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at " + position);
+            }
+
+            position += read;
+        }
+    }
+
+    private static class Segment {
+        long size;
+        long records;
+    }
+
+    private static class Record {
+        final AuditMessage message;
+        final long timestamp;
+        final long end;
+
+        Record(AuditMessage message, long timestamp, long end) {
+            this.message = message;
+            this.timestamp = timestamp;
+            this.end = end;
+        }
+    }
+}
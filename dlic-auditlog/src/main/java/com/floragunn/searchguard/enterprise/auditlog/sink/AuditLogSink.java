@@ -18,6 +18,7 @@ import static com.floragunn.searchguard.support.ConfigConstants.SEARCHGUARD_AUDI
 
 import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage;
 import com.floragunn.searchguard.support.ConfigConstants;
+import com.floragunn.searchsupport.cstate.ComponentState;
 import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.IOException;
 import java.util.Map;
@@ -39,6 +40,7 @@ public abstract class AuditLogSink {
     private final String name;
     protected final AuditLogSink fallbackSink;
     protected final Map<String, String> customMessageAttributes;
+    private final AuditMessage.Customization messageCustomization;
     private final int retryCount;
     private final long delayMs;
     
@@ -52,6 +54,8 @@ public abstract class AuditLogSink {
         delayMs = settings.getAsLong(ConfigConstants.SEARCHGUARD_AUDIT_RETRY_DELAY_MS, 1000L);
         Settings customAttributes = getSinkSettings(settingsPrefix).getByPrefix(ConfigConstants.SEARCHGUARD_AUDIT_CONFIG_CUSTOM_ATTRIBUTES_PREFIX);
         this.customMessageAttributes = customAttributes.keySet().stream().collect(Collectors.toMap(key -> key, customAttributes::get));
+        this.messageCustomization = AuditMessage.Customization.of(customMessageAttributes,
+                settings.getAsList(SEARCHGUARD_AUDIT_CONFIG_DISABLED_FIELDS));
     }
     
     public boolean isHandlingBackpressure() {
@@ -67,13 +71,38 @@ public abstract class AuditLogSink {
     }
     
     public final void store(AuditMessage msg) {
-        msg.addCustomFields(customMessageAttributes);
-        msg.removeDisabledFields(settings.getAsList(SEARCHGUARD_AUDIT_CONFIG_DISABLED_FIELDS));
-        if (!doStoreWithRetry(msg) && !fallbackSink.doStoreWithRetry(msg)) {
-			System.err.println(msg.toPrettyString());
-		}
+        // The customized message is shared by all sinks with the same custom attributes and disabled fields; thus, it is rendered only once
+        msg = customize(msg);
+        if (!doStoreWithRetry(msg)) {
+            storeInFallbackSink(msg);
+        }
     }
     
+    /**
+     * Stores the message without resorting to the fallback sink. Returns false if the message could not be stored, even after
+     * the configured retries.
+     */
+    public final boolean tryStore(AuditMessage msg) {
+        return doStoreWithRetry(customize(msg));
+    }
+
+    /**
+     * Returns the message as it is stored by this sink.
+     */
+    public final AuditMessage customize(AuditMessage msg) {
+        return msg.customize(messageCustomization);
+    }
+
+    /**
+     * Stores a message which could not be stored by this sink in the fallback sink. If this also fails, the message is printed to stderr.
+     * The message must be already customized for this sink.
+     */
+    public final void storeInFallbackSink(AuditMessage msg) {
+        if (fallbackSink == null || !fallbackSink.doStoreWithRetry(msg)) {
+            System.err.println(msg.toPrettyString());
+        }
+    }
+
     private boolean doStoreWithRetry(AuditMessage msg) {
         //retryCount of 0 means no retry (which is: try exactly once) - delayMs is ignored
         //retryCount of 1 means: try and if this fails wait delayMs and try once again
@@ -103,6 +132,13 @@ public abstract class AuditLogSink {
     public void close() throws IOException {
     	// to be implemented by subclasses 
     }
+
+    /**
+     * Returns the state of this sink, if the sink provides one. Returns null otherwise.
+     */
+    public ComponentState getComponentState() {
+        return null;
+    }
     
     protected String getExpandedIndexName(DateTimeFormatter indexPattern, String index) {
         if(indexPattern == null) {
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.auditlog.sink;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
+
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.floragunn.searchsupport.cstate.metrics.CountAggregation;
+import com.floragunn.searchsupport.cstate.metrics.TimeAggregation;
+
+/**
+ * Collects audit messages per target index and writes them using bulk requests. The bulk requests are sent by a dedicated flush
+ * thread as soon as the number of pending messages or their size exceeds the configured thresholds, or when the flush interval has elapsed.
+ *
+ * If the number of pending messages reaches max_pending, the thread adding the message has to write the pending messages
+ * itself. This propagates back pressure to the AsyncStoragePool.
+ *
+ * Messages which could not be written are passed individually to the fallback handler.
+ */
+public class AuditMessageBatcher implements Closeable, ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(AuditMessageBatcher.class);
+
+    public static final String SETTING_ENABLED = "bulk.enabled";
+    public static final String SETTING_MAX_ACTIONS = "bulk.max_actions";
+    public static final String SETTING_MAX_SIZE = "bulk.max_size";
+    public static final String SETTING_FLUSH_INTERVAL = "bulk.flush_interval";
+    public static final String SETTING_MAX_PENDING = "bulk.max_pending";
+
+    private static final int DEFAULT_MAX_ACTIONS = 1000;
+    private static final long DEFAULT_MAX_SIZE = 5 * 1024 * 1024;
+    private static final TimeValue DEFAULT_FLUSH_INTERVAL = TimeValue.timeValueSeconds(1);
+
+    private final String name;
+    private final BulkHandler bulkHandler;
+    private final Function<AuditMessage, String> indexNameFunction;
+    private final Consumer<AuditMessage> fallbackHandler;
+    private final int maxActions;
+    private final long maxSize;
+    private final int maxPending;
+    private final ScheduledThreadPoolExecutor flushScheduler;
+
+    private Map<String, List<Item>> pendingItems = new LinkedHashMap<>();
+    private int pendingCount;
+    private long pendingSize;
+    private boolean flushScheduled;
+
+    private final ComponentState componentState;
+    private final CountAggregation flushedBulks = new CountAggregation();
+    private final CountAggregation flushedMessages = new CountAggregation();
+    private final CountAggregation failedMessages = new CountAggregation();
+    private final CountAggregation backPressureFlushes = new CountAggregation();
+    private final TimeAggregation bulkRequests = new TimeAggregation.Milliseconds();
+
+    AuditMessageBatcher(String name, int maxActions, long maxSize, TimeValue flushInterval, int maxPending, BulkHandler bulkHandler,
+            Function<AuditMessage, String> indexNameFunction, Consumer<AuditMessage> fallbackHandler) {
+        this.name = name;
+        this.maxActions = maxActions;
+        this.maxSize = maxSize;
+        this.maxPending = maxPending;
+        this.bulkHandler = bulkHandler;
+        this.indexNameFunction = indexNameFunction;
+        this.fallbackHandler = fallbackHandler;
+
+        this.componentState = new ComponentState(1, "audit_log_bulk", name, AuditMessageBatcher.class).initialized();
+        this.componentState.addMetrics("flushed_bulks", flushedBulks, "flushed_messages", flushedMessages, "failed_messages", failedMessages,
+                "back_pressure_flushes", backPressureFlushes);
+        this.componentState.addMetrics("bulk_requests", bulkRequests, "pending_messages", new Count.Live(() -> (long) getPendingCount()));
+        this.componentState.setConfigProperty("max_actions", maxActions);
+        this.componentState.setConfigProperty("max_size", maxSize);
+        this.componentState.setConfigProperty("max_pending", maxPending);
+        this.componentState.setConfigProperty("flush_interval", flushInterval.toString());
+
+        this.flushScheduler = new ScheduledThreadPoolExecutor(1, (r) -> {
+            Thread thread = new Thread(r, "sg_audit_bulk_flush[" + name + "]");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.flushScheduler.scheduleWithFixedDelay(this::flushSafely, flushInterval.millis(), flushInterval.millis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a batcher according to the bulk settings of the sink. Returns null if bulk requests are not enabled for the sink.
+     */
+    public static AuditMessageBatcher create(String name, Settings sinkSettings, BulkHandler bulkHandler,
+            Function<AuditMessage, String> indexNameFunction, Consumer<AuditMessage> fallbackHandler) {
+        if (!sinkSettings.getAsBoolean(SETTING_ENABLED, false)) {
+            return null;
+        }
+
+        int maxActions = Math.max(1, sinkSettings.getAsInt(SETTING_MAX_ACTIONS, DEFAULT_MAX_ACTIONS));
+        long maxSize = sinkSettings.getAsBytesSize(SETTING_MAX_SIZE, ByteSizeValue.ofBytes(DEFAULT_MAX_SIZE)).getBytes();
+        TimeValue flushInterval = sinkSettings.getAsTime(SETTING_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+        int maxPending = Math.max(maxActions, sinkSettings.getAsInt(SETTING_MAX_PENDING, maxActions * 10));
+
+        if (flushInterval.millis() <= 0) {
+            flushInterval = DEFAULT_FLUSH_INTERVAL;
+        }
+
+        return new AuditMessageBatcher(name, maxActions, maxSize, flushInterval, maxPending, bulkHandler, indexNameFunction, fallbackHandler);
+    }
+
+    public void add(AuditMessage message) {
+        // Pending messages must not change any more; sealing also makes the rendered message shareable with other sinks
+        message.seal();
+        Item item = new Item(message);
+        Map<String, List<Item>> itemsToFlush = null;
+        boolean scheduleFlush = false;
+
+        synchronized (this) {
+            pendingItems.computeIfAbsent(indexNameFunction.apply(message), (k) -> new ArrayList<>()).add(item);
+            pendingCount++;
+            pendingSize += item.getSize();
+
+            if (pendingCount >= maxPending) {
+                itemsToFlush = takePendingItems();
+            } else if ((pendingCount >= maxActions || pendingSize >= maxSize) && !flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+
+        if (itemsToFlush != null) {
+            // The flush thread cannot keep up; write the messages on the current thread
+            backPressureFlushes.increment();
+            write(itemsToFlush);
+        } else if (scheduleFlush) {
+            try {
+                flushScheduler.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                // We are already closed
+                flush();
+            }
+        }
+    }
+
+    public void flush() {
+        Map<String, List<Item>> itemsToFlush;
+
+        synchronized (this) {
+            flushScheduled = false;
+
+            if (pendingCount == 0) {
+                return;
+            }
+
+            itemsToFlush = takePendingItems();
+        }
+
+        write(itemsToFlush);
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    @Override
+    public void close() {
+        flushScheduler.shutdown();
+
+        try {
+            flushScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    private Map<String, List<Item>> takePendingItems() {
+        Map<String, List<Item>> result = this.pendingItems;
+        this.pendingItems = new LinkedHashMap<>();
+        this.pendingCount = 0;
+        this.pendingSize = 0;
+        return result;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Error while flushing audit messages of " + name, e);
+            componentState.addLastException("flush", e);
+        }
+    }
+
+    private void write(Map<String, List<Item>> itemsByIndex) {
+        for (Map.Entry<String, List<Item>> entry : itemsByIndex.entrySet()) {
+            String index = entry.getKey();
+            List<Item> items = entry.getValue();
+
+            for (int i = 0; i < items.size(); i += maxActions) {
+                write(index, items.subList(i, Math.min(items.size(), i + maxActions)));
+            }
+        }
+    }
+
+    private void write(String index, List<Item> items) {
+        List<Item> failedItems;
+        long start = System.currentTimeMillis();
+
+        try {
+            failedItems = bulkHandler.store(index, items);
+        } catch (Exception e) {
+            log.error("Unable to write " + items.size() + " audit messages to " + index, e);
+            componentState.addLastException("bulk", e);
+            failedItems = items;
+        } finally {
+            bulkRequests.recordMs(System.currentTimeMillis() - start);
+        }
+
+        flushedBulks.increment();
+        flushedMessages.add(items.size());
+
+        if (failedItems != null && !failedItems.isEmpty()) {
+            failedMessages.add(failedItems.size());
+
+            for (Item item : failedItems) {
+                fallbackHandler.accept(item.getMessage());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface BulkHandler {
+        /**
+         * Writes the given items to the index and returns the items which could not be written.
+         */
+        List<Item> store(String index, List<Item> items) throws Exception;
+    }
+
+    public static class Item {
+        private final AuditMessage message;
+        private final int size;
+
+        Item(AuditMessage message) {
+            this.message = message;
+            this.size = message.toJsonBytes().length();
+        }
+
+        public AuditMessage getMessage() {
+            return message;
+        }
+
+        /**
+         * The message rendered as JSON. The rendering happens only once per message and is shared with other sinks.
+         */
+        public String getSource() {
+            return message.toJson();
+        }
+
+        int getSize() {
+            return size;
+        }
+    }
+}
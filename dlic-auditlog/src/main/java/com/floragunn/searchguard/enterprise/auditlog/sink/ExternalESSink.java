@@ -19,6 +19,7 @@ import java.nio.file.Path;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -33,6 +34,7 @@ import com.floragunn.searchguard.httpclient.HttpClient.HttpClientBuilder;
 import com.floragunn.searchguard.ssl.util.SSLConfigConstants;
 import com.floragunn.searchguard.support.ConfigConstants;
 import com.floragunn.searchguard.support.PemKeyReader;
+import com.floragunn.searchsupport.cstate.ComponentState;
 
 public final class ExternalESSink extends AuditLogSink {
 
@@ -42,6 +44,7 @@ public final class ExternalESSink extends AuditLogSink {
 	private final HttpClient client;
 	private List<String> servers;
 	private DateTimeFormatter indexPattern;
+	private final AuditMessageBatcher batcher;
 	
     static final String PKCS12 = "PKCS12";
 
@@ -159,18 +162,35 @@ public final class ExternalESSink extends AuditLogSink {
 		}
 
 		client = builder.build();
+
+		this.batcher = AuditMessageBatcher.create(name, sinkSettings, this::storeBulk, (msg) -> getExpandedIndexName(indexPattern, index),
+				this::storeInFallbackSink);
 	}
 
 	@Override
 	public void close() throws IOException {
+		if (batcher != null) {
+			batcher.close();
+		}
+
 		if (client != null) {
 			client.close();
 		}
 	}
 
+	@Override
+	public ComponentState getComponentState() {
+		return batcher != null ? batcher.getComponentState() : null;
+	}
+
 	public boolean doStore(final AuditMessage msg) {
+		if (batcher != null) {
+			batcher.add(msg);
+			return true;
+		}
+
 		try {
-			boolean successful = client.index(msg.toString(), getExpandedIndexName(indexPattern, index), true);
+			boolean successful = client.index(msg.toJson(), getExpandedIndexName(indexPattern, index), true);
 			if (!successful) {
 				log.error("Unable to send audit log {} to one of these servers: {}", msg, servers);
 			}
@@ -180,4 +200,28 @@ public final class ExternalESSink extends AuditLogSink {
 			return false;
 		}
 	}
+
+	private List<AuditMessageBatcher.Item> storeBulk(String index, List<AuditMessageBatcher.Item> items) {
+		List<String> contents = new ArrayList<>(items.size());
+
+		for (AuditMessageBatcher.Item item : items) {
+			contents.add(item.getSource());
+		}
+
+		List<Integer> failedPositions = client.bulkIndex(contents, index);
+
+		if (failedPositions.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		log.error("Unable to send {} of {} audit log messages to one of these servers: {}", failedPositions.size(), items.size(), servers);
+
+		List<AuditMessageBatcher.Item> failedItems = new ArrayList<>(failedPositions.size());
+
+		for (Integer position : failedPositions) {
+			failedItems.add(items.get(position));
+		}
+
+		return failedItems;
+	}
 }
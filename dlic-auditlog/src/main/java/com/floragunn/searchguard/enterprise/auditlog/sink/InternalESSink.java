@@ -16,7 +16,14 @@ package com.floragunn.searchguard.enterprise.auditlog.sink;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
 import org.elasticsearch.client.internal.Client;
@@ -24,12 +31,14 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.ThreadContext.StoredContext;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xcontent.XContentType;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage;
 import com.floragunn.searchguard.support.ConfigConstants;
 import com.floragunn.searchguard.support.HeaderHelper;
+import com.floragunn.searchsupport.cstate.ComponentState;
 
 public final class InternalESSink extends AuditLogSink {
 
@@ -37,6 +46,7 @@ public final class InternalESSink extends AuditLogSink {
 	final String index;
 	private DateTimeFormatter indexPattern;
 	private final ThreadPool threadPool;
+	private final AuditMessageBatcher batcher;
 
 	public InternalESSink(final String name, final Settings settings, final String settingsPrefix, final Path configPath, final Client clientProvider, ThreadPool threadPool, AuditLogSink fallbackSink) {
 		super(name, settings, settingsPrefix, fallbackSink);
@@ -51,11 +61,21 @@ public final class InternalESSink extends AuditLogSink {
 		} catch (IllegalArgumentException e) {
 			log.debug("Unable to parse index pattern due to {}. " + "If you have no date pattern configured you can safely ignore this message", e.getMessage());
 		}
+
+		this.batcher = AuditMessageBatcher.create(name, sinkSettings, this::storeBulk, (msg) -> getExpandedIndexName(indexPattern, index),
+				this::storeInFallbackSink);
 	}
 
 	@Override
 	public void close() throws IOException {
+		if (batcher != null) {
+			batcher.close();
+		}
+	}
 
+	@Override
+	public ComponentState getComponentState() {
+		return batcher != null ? batcher.getComponentState() : null;
 	}
 
 	public boolean doStore(final AuditMessage msg) {
@@ -67,10 +87,15 @@ public final class InternalESSink extends AuditLogSink {
 			return true;
 		}
 
+		if (batcher != null) {
+			batcher.add(msg);
+			return true;
+		}
+
 		try (StoredContext ctx = threadPool.getThreadContext().stashContext()) {
 			try {
 
-				final IndexRequestBuilder irb = clientProvider.prepareIndex(getExpandedIndexName(indexPattern, index)).setRefreshPolicy(RefreshPolicy.IMMEDIATE).setSource(msg.getAsMap());
+				final IndexRequestBuilder irb = clientProvider.prepareIndex(getExpandedIndexName(indexPattern, index)).setRefreshPolicy(RefreshPolicy.IMMEDIATE).setSource(msg.toJsonBytes(), XContentType.JSON);
 
 				threadPool.getThreadContext().putHeader(ConfigConstants.SG_CONF_REQUEST_HEADER, "true");
 				irb.setTimeout(TimeValue.timeValueMinutes(1));
@@ -82,4 +107,33 @@ public final class InternalESSink extends AuditLogSink {
 			}
 		}
 	}
+
+	private List<AuditMessageBatcher.Item> storeBulk(String index, List<AuditMessageBatcher.Item> items) {
+		try (StoredContext ctx = threadPool.getThreadContext().stashContext()) {
+			threadPool.getThreadContext().putHeader(ConfigConstants.SG_CONF_REQUEST_HEADER, "true");
+
+			BulkRequestBuilder bulkRequestBuilder = clientProvider.prepareBulk().setTimeout(TimeValue.timeValueMinutes(1));
+
+			for (AuditMessageBatcher.Item item : items) {
+				bulkRequestBuilder.add(new IndexRequest(index).source(item.getMessage().toJsonBytes(), XContentType.JSON));
+			}
+
+			BulkResponse response = bulkRequestBuilder.execute().actionGet();
+
+			if (!response.hasFailures()) {
+				return Collections.emptyList();
+			}
+
+			List<AuditMessageBatcher.Item> failedItems = new ArrayList<>();
+
+			for (BulkItemResponse itemResponse : response.getItems()) {
+				if (itemResponse.isFailed()) {
+					log.error("Unable to index audit log {} due to {}", items.get(itemResponse.getItemId()).getMessage(), itemResponse.getFailureMessage());
+					failedItems.add(items.get(itemResponse.getItemId()));
+				}
+			}
+
+			return failedItems;
+		}
+	}
 }
@@ -13,7 +13,9 @@
 package com.floragunn.searchguard.enterprise.auditlog.sink;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -25,6 +27,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import com.floragunn.searchguard.enterprise.auditlog.impl.Utils;
 import com.floragunn.searchguard.support.ConfigConstants;
+import com.floragunn.searchsupport.cstate.ComponentState;
 
 public class SinkProvider {
 
@@ -102,6 +105,20 @@ public class SinkProvider {
 		return defaultSink;
 	}
 
+	public List<ComponentState> getComponentStates() {
+		List<ComponentState> result = new ArrayList<>();
+
+		for (AuditLogSink sink : allSinks.values()) {
+			ComponentState componentState = sink.getComponentState();
+
+			if (componentState != null) {
+				result.add(componentState);
+			}
+		}
+
+		return result;
+	}
+
 	public void close() {
 		for (AuditLogSink sink : allSinks.values()) {
 			close(sink);
@@ -14,19 +14,24 @@
 
 package com.floragunn.searchguard.httpclient;
 
+import com.floragunn.codova.documents.DocNode;
+import com.floragunn.codova.documents.Format;
 import com.google.common.collect.Lists;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.entity.ContentType;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.nio.entity.NStringEntity;
 import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
 import org.apache.http.ssl.PrivateKeyDetails;
 import org.apache.http.ssl.PrivateKeyStrategy;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.Node;
@@ -40,6 +45,7 @@ import javax.net.ssl.SSLContext;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.Socket;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
@@ -47,8 +53,11 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -185,7 +194,7 @@ public class HttpClient implements Closeable {
 
             try {
 
-                final Request indexRequest = new Request("POST", "/"+index+"/_doc/");
+                final Request indexRequest = new Request("POST", "/" + encodePathSegment(index) + "/_doc/");
                 indexRequest.setJsonEntity(content);
                 indexRequest.addParameter("refresh",refresh?"true":"false");
 
@@ -200,6 +209,70 @@ public class HttpClient implements Closeable {
             }
     }
 
+    /**
+     * Indexes the given documents using a single bulk request. Returns the positions of the documents which could not be indexed.
+     */
+    public List<Integer> bulkIndex(final List<String> contents, final String index) {
+        try {
+            StringBuilder body = new StringBuilder();
+
+            for (String content : contents) {
+                body.append("{\"index\":{}}\n").append(content).append('\n');
+            }
+
+            final Request bulkRequest = new Request("POST", "/" + encodePathSegment(index) + "/_bulk");
+            bulkRequest.setEntity(new NStringEntity(body.toString(), ContentType.create("application/x-ndjson", StandardCharsets.UTF_8)));
+
+            final Response response = restClient.performRequest(bulkRequest);
+            final int statusCode = response.getStatusLine().getStatusCode();
+
+            if (statusCode < 200 || statusCode >= 300) {
+                return allPositions(contents.size());
+            }
+
+            DocNode responseDocument = DocNode.parse(Format.JSON).from(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8));
+
+            if (!Boolean.TRUE.equals(responseDocument.getBoolean("errors"))) {
+                return Collections.emptyList();
+            }
+
+            List<Integer> failedPositions = new ArrayList<>();
+            List<DocNode> items = responseDocument.getAsListOfNodes("items");
+
+            for (int i = 0; i < items.size(); i++) {
+                DocNode itemResult = items.get(i).getAsNode("index");
+
+                if (itemResult.hasNonNull("error")) {
+                    log.error("Unable to index document: " + itemResult.get("error"));
+                    failedPositions.add(i);
+                }
+            }
+
+            return failedPositions;
+        } catch (Exception e) {
+            log.error(e.toString(), e);
+            return allPositions(contents.size());
+        }
+    }
+
+    /**
+     * Encodes the given string for use as a single URL path segment. Index names may contain characters like / or # when date math
+     * expressions are used; these must not be interpreted as part of the path.
+     */
+    static String encodePathSegment(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static List<Integer> allPositions(int size) {
+        List<Integer> result = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            result.add(i);
+        }
+
+        return result;
+    }
+
     private final HttpAsyncClientBuilder asyncClientBuilder(HttpAsyncClientBuilder httpClientBuilder) 
             throws NoSuchAlgorithmException, KeyStoreException, UnrecoverableKeyException, KeyManagementException {
 
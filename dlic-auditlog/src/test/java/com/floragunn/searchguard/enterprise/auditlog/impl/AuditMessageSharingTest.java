@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.auditlog.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.floragunn.codova.documents.DocNode;
+import com.floragunn.codova.documents.Format;
+import com.floragunn.searchguard.enterprise.auditlog.helper.MockAuditMessageFactory;
+import com.floragunn.searchsupport.util.EsLogging;
+import com.google.common.collect.ImmutableMap;
+
+public class AuditMessageSharingTest {
+
+    @ClassRule
+    public static EsLogging esLogging = new EsLogging();
+
+    @Test
+    public void sealedMessageIsRenderedOnce() throws Exception {
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        msg.seal();
+
+        Assert.assertSame(msg.toJsonBytes(), msg.toJsonBytes());
+        Assert.assertSame(msg.toJson(), msg.toJson());
+        Assert.assertEquals("John Doe", DocNode.parse(Format.JSON).from(msg.toJson()).get(AuditMessage.REQUEST_EFFECTIVE_USER));
+    }
+
+    @Test
+    public void unsealedMessageReflectsModifications() throws Exception {
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        String before = msg.toJson();
+
+        msg.addPrivilege("indices:data/read/search");
+
+        Assert.assertFalse(before.contains(AuditMessage.PRIVILEGE));
+        Assert.assertTrue(msg.toJson().contains(AuditMessage.PRIVILEGE));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void sealedMessageCannotBeModified() {
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        msg.seal();
+        msg.addPrivilege("indices:data/read/search");
+    }
+
+    @Test
+    public void customize_none() {
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+
+        Assert.assertSame(msg, msg.customize(AuditMessage.Customization.of(Collections.emptyMap(), Collections.emptyList())));
+        Assert.assertTrue(msg.isSealed());
+    }
+
+    @Test
+    public void customize_sharedBetweenEqualCustomizations() throws Exception {
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+
+        AuditMessage customized1 = msg.customize(
+                AuditMessage.Customization.of(ImmutableMap.of("env", "test"), Arrays.asList(AuditMessage.FORMAT_VERSION)));
+        AuditMessage customized2 = msg.customize(
+                AuditMessage.Customization.of(ImmutableMap.of("env", "test"), Arrays.asList(AuditMessage.FORMAT_VERSION)));
+        AuditMessage customized3 = msg.customize(AuditMessage.Customization.of(ImmutableMap.of("env", "prod"), null));
+
+        Assert.assertNotSame(msg, customized1);
+        Assert.assertSame(customized1, customized2);
+        Assert.assertNotSame(customized1, customized3);
+        Assert.assertTrue(customized1.isSealed());
+
+        DocNode original = DocNode.parse(Format.JSON).from(msg.toJson());
+        DocNode document1 = DocNode.parse(Format.JSON).from(customized1.toJson());
+        DocNode document3 = DocNode.parse(Format.JSON).from(customized3.toJson());
+
+        Assert.assertFalse(original.containsKey(AuditMessage.CUSTOM_FIELD_PREFIX + "env"));
+        Assert.assertTrue(original.containsKey(AuditMessage.FORMAT_VERSION));
+        Assert.assertEquals("test", document1.get(AuditMessage.CUSTOM_FIELD_PREFIX + "env"));
+        Assert.assertFalse(document1.containsKey(AuditMessage.FORMAT_VERSION));
+        Assert.assertEquals("prod", document3.get(AuditMessage.CUSTOM_FIELD_PREFIX + "env"));
+        Assert.assertTrue(document3.containsKey(AuditMessage.FORMAT_VERSION));
+        Assert.assertEquals(original.get(AuditMessage.REQUEST_EFFECTIVE_USER), document1.get(AuditMessage.REQUEST_EFFECTIVE_USER));
+    }
+}
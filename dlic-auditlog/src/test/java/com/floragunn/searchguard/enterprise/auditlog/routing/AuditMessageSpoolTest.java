@@ -0,0 +1,296 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.auditlog.routing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.TimeValue;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.floragunn.searchguard.enterprise.auditlog.helper.MockAuditMessageFactory;
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage;
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage.Category;
+import com.floragunn.searchguard.enterprise.auditlog.sink.AuditLogSink;
+import com.floragunn.searchsupport.util.EsLogging;
+
+public class AuditMessageSpoolTest {
+
+    @ClassRule
+    public static EsLogging esLogging = new EsLogging();
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void replayInOrder() throws Exception {
+        RecordingSink sink = new RecordingSink();
+
+        try (AuditMessageSpool spool = createSpool(sink, 1024 * 1024)) {
+            for (int i = 0; i < 20; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+            }
+
+            awaitStored(sink, 20);
+
+            Assert.assertEquals(ids(0, 20), sink.getIds());
+            awaitDepth(spool, 0);
+            Assert.assertEquals(0, spool.getLagMs());
+        }
+    }
+
+    @Test
+    public void replayAfterSinkRecovers() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failing = true;
+
+        try (AuditMessageSpool spool = createSpool(sink, 1024 * 1024)) {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+            }
+
+            Thread.sleep(200);
+
+            Assert.assertEquals(0, sink.getIds().size());
+            Assert.assertEquals(5, spool.getDepth());
+            Assert.assertTrue(spool.getLagMs() > 0);
+
+            sink.failing = false;
+            awaitStored(sink, 5);
+
+            Assert.assertEquals(ids(0, 5), sink.getIds());
+        }
+    }
+
+    @Test
+    public void replayAfterRestart() throws Exception {
+        RecordingSink failingSink = new RecordingSink();
+        failingSink.failing = true;
+
+        try (AuditMessageSpool spool = createSpool(failingSink, 1024 * 1024)) {
+            for (int i = 0; i < 5; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+            }
+        }
+
+        RecordingSink sink = new RecordingSink();
+
+        try (AuditMessageSpool spool = createSpool(sink, 1024 * 1024)) {
+            Assert.assertTrue(spool.append(message(5)));
+            awaitStored(sink, 6);
+
+            Assert.assertEquals(ids(0, 6), sink.getIds());
+        }
+
+        RecordingSink sink2 = new RecordingSink();
+
+        try (AuditMessageSpool spool = createSpool(sink2, 1024 * 1024)) {
+            Thread.sleep(200);
+
+            // Everything has been acknowledged before
+            Assert.assertEquals(0, sink2.getIds().size());
+            Assert.assertEquals(0, spool.getDepth());
+        }
+    }
+
+    @Test
+    public void truncatedRecordIsDiscardedOnRestart() throws Exception {
+        RecordingSink failingSink = new RecordingSink();
+        failingSink.failing = true;
+
+        try (AuditMessageSpool spool = createSpool(failingSink, 1024 * 1024)) {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+            }
+        }
+
+        Path lastSegment;
+
+        try (Stream<Path> files = Files.list(tempFolder.getRoot().toPath())) {
+            lastSegment = files.filter((p) -> p.toString().endsWith(AuditMessageSpool.SEGMENT_SUFFIX)).sorted().reduce((a, b) -> b).get();
+        }
+
+        // Simulate an interrupted write
+        Files.write(lastSegment, new byte[] { 0, 0, 1, 0, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        RecordingSink sink = new RecordingSink();
+
+        try (AuditMessageSpool spool = createSpool(sink, 1024 * 1024)) {
+            awaitStored(sink, 3);
+            Thread.sleep(100);
+
+            Assert.assertEquals(ids(0, 3), sink.getIds());
+        }
+    }
+
+    @Test
+    public void maxDiskUsage() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failing = true;
+        int recordSize = AuditMessageSpool.encode(message(0), 0).remaining();
+
+        try (AuditMessageSpool spool = createSpool(sink, recordSize * 3 + recordSize / 2)) {
+            Assert.assertTrue(spool.append(message(0)));
+            Assert.assertTrue(spool.append(message(1)));
+            Assert.assertTrue(spool.append(message(2)));
+            Assert.assertFalse(spool.append(message(3)));
+
+            Assert.assertEquals(3, spool.getDepth());
+            Assert.assertEquals(recordSize * 3, spool.getDiskUsage());
+        }
+    }
+
+    @Test
+    public void permanentlyRejectedRecordIsPassedToFallbackSink() throws Exception {
+        RecordingSink fallbackSink = new RecordingSink();
+        RecordingSink sink = new RecordingSink(fallbackSink);
+        sink.rejectedIds.add("1");
+
+        try (AuditMessageSpool spool = createSpool(sink, 1024 * 1024, 2)) {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+            }
+
+            awaitStored(sink, 2);
+            awaitStored(fallbackSink, 1);
+
+            Assert.assertEquals(Arrays.asList("0", "2"), sink.getIds());
+            Assert.assertEquals(Arrays.asList("1"), fallbackSink.getIds());
+            awaitDepth(spool, 0);
+        }
+
+        RecordingSink sink2 = new RecordingSink();
+
+        try (AuditMessageSpool spool = createSpool(sink2, 1024 * 1024)) {
+            Thread.sleep(200);
+
+            // The rejected record has been acknowledged as well
+            Assert.assertEquals(0, sink2.getIds().size());
+            Assert.assertEquals(0, spool.getDepth());
+        }
+    }
+
+    @Test
+    public void segmentsAreRolledBySyncThread() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failing = true;
+        int recordSize = AuditMessageSpool.encode(message(0), 0).remaining();
+        int count = (64 * 1024 / recordSize + 1) * 3;
+
+        try (AuditMessageSpool spool = createSpool(sink, 1024 * 1024)) {
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(spool.append(message(i)));
+                // Give the sync thread the chance to roll the segment
+                Thread.sleep(i % 50 == 0 ? 10 : 0);
+            }
+
+            Assert.assertTrue(String.valueOf(segmentCount()), segmentCount() > 1);
+
+            sink.failing = false;
+            awaitStored(sink, count);
+
+            Assert.assertEquals(ids(0, count), sink.getIds());
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(tempFolder.getRoot().toPath())) {
+            return files.filter((p) -> p.toString().endsWith(AuditMessageSpool.SEGMENT_SUFFIX)).count();
+        }
+    }
+
+    private AuditMessageSpool createSpool(AuditLogSink sink, long maxDiskUsage) throws Exception {
+        return createSpool(sink, maxDiskUsage, 100);
+    }
+
+    private AuditMessageSpool createSpool(AuditLogSink sink, long maxDiskUsage, int maxRetries) throws Exception {
+        return new AuditMessageSpool("test", sink, tempFolder.getRoot().toPath(), maxDiskUsage, 64 * 1024, 2, TimeValue.timeValueMillis(50),
+                maxRetries);
+    }
+
+    private static AuditMessage message(int id) {
+        AuditMessage msg = MockAuditMessageFactory.validAuditMessage(Category.MISSING_PRIVILEGES);
+        msg.addId(String.valueOf(id));
+        return msg;
+    }
+
+    private static List<String> ids(int from, int to) {
+        List<String> result = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            result.add(String.valueOf(i));
+        }
+
+        return result;
+    }
+
+    private static void awaitStored(RecordingSink sink, int count) throws InterruptedException {
+        for (int i = 0; i < 200 && sink.getIds().size() < count; i++) {
+            Thread.sleep(50);
+        }
+
+        Assert.assertEquals(count, sink.getIds().size());
+    }
+
+    private static void awaitDepth(AuditMessageSpool spool, long depth) throws InterruptedException {
+        for (int i = 0; i < 200 && spool.getDepth() != depth; i++) {
+            Thread.sleep(50);
+        }
+
+        Assert.assertEquals(depth, spool.getDepth());
+    }
+
+    static class RecordingSink extends AuditLogSink {
+        private final List<AuditMessage> messages = new ArrayList<>();
+        final Set<String> rejectedIds = ConcurrentHashMap.newKeySet();
+        volatile boolean failing;
+
+        RecordingSink() {
+            this(null);
+        }
+
+        RecordingSink(AuditLogSink fallbackSink) {
+            super("recording", Settings.EMPTY, null, fallbackSink);
+        }
+
+        @Override
+        protected synchronized boolean doStore(AuditMessage msg) {
+            if (failing || rejectedIds.contains(msg.getAsMap().get(AuditMessage.ID))) {
+                return false;
+            }
+
+            Assert.assertEquals(Category.MISSING_PRIVILEGES, msg.getCategory());
+            messages.add(msg);
+            return true;
+        }
+
+        synchronized List<String> getIds() {
+            return messages.stream().map((m) -> (String) m.getAsMap().get(AuditMessage.ID)).collect(Collectors.toList());
+        }
+    }
+}
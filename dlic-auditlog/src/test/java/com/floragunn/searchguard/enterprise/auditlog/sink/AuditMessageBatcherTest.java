@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.auditlog.sink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.TimeValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.searchguard.enterprise.auditlog.helper.MockAuditMessageFactory;
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage;
+import com.floragunn.searchguard.enterprise.auditlog.impl.AuditMessage.Category;
+
+public class AuditMessageBatcherTest {
+
+    @Test
+    public void disabledByDefault() {
+        Assert.assertNull(AuditMessageBatcher.create("test", Settings.EMPTY, (index, items) -> Collections.emptyList(), (msg) -> "index",
+                (msg) -> {
+                }));
+    }
+
+    @Test
+    public void batchesPerIndex() throws Exception {
+        Map<String, List<Integer>> bulkSizes = new ConcurrentHashMap<>();
+        List<AuditMessage> fallback = Collections.synchronizedList(new ArrayList<>());
+
+        try (AuditMessageBatcher batcher = new AuditMessageBatcher("test", 1000, Long.MAX_VALUE, TimeValue.timeValueHours(1), 10000,
+                (index, items) -> {
+                    bulkSizes.computeIfAbsent(index, (k) -> Collections.synchronizedList(new ArrayList<>())).add(items.size());
+                    return Collections.emptyList();
+                }, (msg) -> msg.getCategory().name(), fallback::add)) {
+
+            for (int i = 0; i < 5; i++) {
+                batcher.add(MockAuditMessageFactory.validAuditMessage(Category.MISSING_PRIVILEGES));
+            }
+
+            for (int i = 0; i < 3; i++) {
+                batcher.add(MockAuditMessageFactory.validAuditMessage(Category.FAILED_LOGIN));
+            }
+
+            Assert.assertEquals(8, batcher.getPendingCount());
+            Assert.assertTrue(bulkSizes.toString(), bulkSizes.isEmpty());
+
+            batcher.flush();
+
+            Assert.assertEquals(0, batcher.getPendingCount());
+            Assert.assertEquals(Collections.singletonList(5), bulkSizes.get(Category.MISSING_PRIVILEGES.name()));
+            Assert.assertEquals(Collections.singletonList(3), bulkSizes.get(Category.FAILED_LOGIN.name()));
+            Assert.assertTrue(fallback.toString(), fallback.isEmpty());
+        }
+    }
+
+    @Test
+    public void failedItemsGoToFallback() throws Exception {
+        List<AuditMessage> fallback = Collections.synchronizedList(new ArrayList<>());
+
+        try (AuditMessageBatcher batcher = new AuditMessageBatcher("test", 1000, Long.MAX_VALUE, TimeValue.timeValueHours(1), 10000,
+                (index, items) -> items.subList(0, 2), (msg) -> "index", fallback::add)) {
+
+            for (int i = 0; i < 5; i++) {
+                batcher.add(MockAuditMessageFactory.validAuditMessage());
+            }
+
+            batcher.flush();
+
+            Assert.assertEquals(2, fallback.size());
+        }
+    }
+
+    @Test
+    public void exceptionSendsAllItemsToFallback() throws Exception {
+        List<AuditMessage> fallback = Collections.synchronizedList(new ArrayList<>());
+
+        try (AuditMessageBatcher batcher = new AuditMessageBatcher("test", 1000, Long.MAX_VALUE, TimeValue.timeValueHours(1), 10000,
+                (index, items) -> {
+                    throw new Exception("test");
+                }, (msg) -> "index", fallback::add)) {
+
+            for (int i = 0; i < 5; i++) {
+                batcher.add(MockAuditMessageFactory.validAuditMessage());
+            }
+
+            batcher.flush();
+
+            Assert.assertEquals(5, fallback.size());
+        }
+    }
+
+    @Test
+    public void backPressure() throws Exception {
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        // max_pending is reached before max_actions; thus, the messages are written by the calling thread
+        try (AuditMessageBatcher batcher = new AuditMessageBatcher("test", 1000, Long.MAX_VALUE, TimeValue.timeValueHours(1), 5,
+                (index, items) -> {
+                    threads.add(Thread.currentThread().getName());
+                    return Collections.emptyList();
+                }, (msg) -> "index", (msg) -> {
+                })) {
+
+            for (int i = 0; i < 5; i++) {
+                batcher.add(MockAuditMessageFactory.validAuditMessage());
+            }
+
+            Assert.assertEquals(0, batcher.getPendingCount());
+            Assert.assertEquals(Collections.singletonList(Thread.currentThread().getName()), threads);
+        }
+    }
+}
@@ -30,6 +30,13 @@ public class HttpClientTest extends SingleClusterTest {
         return "auditlog";
     }
     
+    @Test
+    public void testEncodePathSegment() {
+        Assert.assertEquals("sg6-auditlog-2026.10.17", HttpClient.encodePathSegment("sg6-auditlog-2026.10.17"));
+        Assert.assertEquals("%3Csg6-auditlog-%7Bnow%2Fd%7D%3E", HttpClient.encodePathSegment("<sg6-auditlog-{now/d}>"));
+        Assert.assertEquals("a%20b%3Fc%23d", HttpClient.encodePathSegment("a b?c#d"));
+    }
+
     @Test
     //TODO @Flaky SocketTimeoutException: 5.000 milliseconds timeout on connection http-outgoing
     public void testPlainConnection() throws Exception {
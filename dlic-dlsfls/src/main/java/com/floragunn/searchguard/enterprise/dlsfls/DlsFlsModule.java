@@ -42,6 +42,8 @@ import com.floragunn.searchguard.authz.SyncAuthorizationFilter;
 import com.floragunn.searchguard.configuration.CType;
 import com.floragunn.searchguard.configuration.ConfigMap;
 import com.floragunn.searchguard.enterprise.dlsfls.lucene.DlsFlsDirectoryReaderWrapper;
+import com.floragunn.searchguard.enterprise.dlsfls.lucene.DlsLiveDocsCache;
+import com.floragunn.searchguard.enterprise.dlsfls.lucene.MaskedTermsCache;
 import com.floragunn.searchguard.license.SearchGuardLicense;
 import com.floragunn.searchguard.license.SearchGuardLicense.Feature;
 import com.floragunn.searchsupport.StaticSettings;
@@ -79,6 +81,8 @@ public class DlsFlsModule implements SearchGuardModule, ComponentStateProvider {
     private ClusterService clusterService;
     private Function<IndexService, CheckedFunction<DirectoryReader, DirectoryReader, IOException>> directoryReaderWrapperFactory;
     private ThreadPool threadPool;
+    private DlsLiveDocsCache dlsLiveDocsCache;
+    private MaskedTermsCache maskedTermsCache;
 
     public DlsFlsModule() {
         this.componentState.addPart(directoryReaderWrapperComponentState);
@@ -104,11 +108,17 @@ public class DlsFlsModule implements SearchGuardModule, ComponentStateProvider {
 
         this.flsQueryCacheWeightProvider = new FlsQueryCacheWeightProvider(this.dlsFlsBaseContext, config);
 
+        this.dlsLiveDocsCache = new DlsLiveDocsCache(baseDependencies.getStaticSettings());
+
+        this.maskedTermsCache = new MaskedTermsCache(baseDependencies.getStaticSettings());
+
         this.directoryReaderWrapperFactory = (indexService) -> new DlsFlsDirectoryReaderWrapper(indexService, baseDependencies.getAuditLog(),
-                this.dlsFlsBaseContext, config, this.licenseInfo, directoryReaderWrapperComponentState, directoryReaderWrapperApplyAggregation);
+                this.dlsFlsBaseContext, config, this.licenseInfo, directoryReaderWrapperComponentState, directoryReaderWrapperApplyAggregation,
+                this.dlsLiveDocsCache, this.maskedTermsCache);
 
         this.componentState.addParts(this.dlsFlsValve.getComponentState(), this.dlsFlsSearchOperationListener.getComponentState(),
-                this.flsFieldFilter.getComponentState(), this.flsQueryCacheWeightProvider.getComponentState());
+                this.flsFieldFilter.getComponentState(), this.flsQueryCacheWeightProvider.getComponentState(),
+                this.dlsLiveDocsCache.getComponentState(), this.maskedTermsCache.getComponentState());
 
         this.threadPool = baseDependencies.getThreadPool();
 
@@ -183,6 +193,7 @@ public class DlsFlsModule implements SearchGuardModule, ComponentStateProvider {
     
     @Override
     public StaticSettings.AttributeSet getSettings() {
-        return StaticSettings.AttributeSet.of(PROVIDE_THREAD_CONTEXT_AUTHZ_HASH);
+        return StaticSettings.AttributeSet.of(PROVIDE_THREAD_CONTEXT_AUTHZ_HASH, DlsLiveDocsCache.MAX_HEAP_SIZE,
+                MaskedTermsCache.MAX_HEAP_SIZE);
     }
 }
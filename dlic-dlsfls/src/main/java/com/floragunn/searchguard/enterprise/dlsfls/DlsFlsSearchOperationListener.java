@@ -14,6 +14,10 @@
 
 package com.floragunn.searchguard.enterprise.dlsfls;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.floragunn.searchsupport.cstate.metrics.MetricsLevel;
@@ -22,7 +26,10 @@ import org.apache.logging.log4j.Logger;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.index.analysis.AnalyzerComponents;
 import org.elasticsearch.index.query.ParsedQuery;
+import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.search.internal.SearchContext;
 
@@ -31,9 +38,12 @@ import com.floragunn.searchguard.authz.config.Role;
 import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
 import com.floragunn.searchsupport.cstate.ComponentState;
 import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
 import com.floragunn.searchsupport.cstate.metrics.Meter;
 import com.floragunn.searchsupport.cstate.metrics.TimeAggregation;
 import com.floragunn.searchsupport.meta.Meta;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 public class DlsFlsSearchOperationListener implements SearchOperationListener, ComponentStateProvider {
     private static final Logger log = LogManager.getLogger(DlsFlsSearchOperationListener.class);
@@ -44,10 +54,28 @@ public class DlsFlsSearchOperationListener implements SearchOperationListener, C
             .initialized();
     private final TimeAggregation onPreQueryPhaseAggregation = new TimeAggregation.Nanoseconds();
 
+    /**
+     * Compiled Lucene DLS queries. As the key contains the identity of the mapping, the index settings version and the components of reloadable
+     * analyzers, entries become unreachable when the mapping or the settings change or when search analyzers are reloaded.
+     */
+    private final Cache<CompiledDlsQueryKey, Query> compiledDlsQueryCache = CacheBuilder.newBuilder().maximumSize(1000)
+            .expireAfterAccess(10, TimeUnit.MINUTES).recordStats().build();
+
+    /**
+     * Document authorization for special privilege contexts which provide their own roles configuration (like auth tokens). The roles configuration
+     * objects are kept by the config snapshots of these contexts; thus, they are compared by identity.
+     */
+    private final Cache<SgDynamicConfiguration<Role>, RoleBasedDocumentAuthorization> specialContextDocumentAuthorizationCache = CacheBuilder
+            .newBuilder().weakKeys().maximumSize(100).recordStats().build();
+
+    private final ReloadableAnalyzers reloadableAnalyzers = new ReloadableAnalyzers();
+
     DlsFlsSearchOperationListener(DlsFlsBaseContext dlsFlsBase, AtomicReference<DlsFlsProcessedConfig> config) {
         this.dlsFlsBaseContext = dlsFlsBase;
         this.config = config;
         this.componentState.addMetrics("filter_pre_query_phase", onPreQueryPhaseAggregation);
+        this.componentState.addMetrics("compiled_dls_query_cache", CacheStats.from(compiledDlsQueryCache),
+                "special_context_document_authorization_cache", CacheStats.from(specialContextDocumentAuthorizationCache));
     }
 
     @Override
@@ -100,7 +128,8 @@ public class DlsFlsSearchOperationListener implements SearchOperationListener, C
             if (privilegesEvaluationContext.getSpecialPrivilegesEvaluationContext() != null
                     && privilegesEvaluationContext.getSpecialPrivilegesEvaluationContext().getRolesConfig() != null) {
                 SgDynamicConfiguration<Role> roles = privilegesEvaluationContext.getSpecialPrivilegesEvaluationContext().getRolesConfig();
-                documentAuthorization = new RoleBasedDocumentAuthorization(roles, null, MetricsLevel.NONE);
+                documentAuthorization = specialContextDocumentAuthorizationCache.get(roles,
+                        () -> new RoleBasedDocumentAuthorization(roles, null, MetricsLevel.NONE));
             }
 
             DlsRestriction dlsRestriction = documentAuthorization.getRestriction(privilegesEvaluationContext, index, meter);
@@ -118,9 +147,10 @@ public class DlsFlsSearchOperationListener implements SearchOperationListener, C
                     return;
                 }
 
-                BooleanQuery.Builder queryBuilder = dlsRestriction.toBooleanQueryBuilder(searchContext.getSearchExecutionContext(),
-                        (q) -> new ConstantScoreQuery(q));
+                Query dlsQuery = getCompiledDlsQuery(dlsRestriction, searchContext);
 
+                BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+                queryBuilder.add(dlsQuery, Occur.MUST);
                 queryBuilder.add(searchContext.parsedQuery().query(), Occur.MUST);
 
                 searchContext.parsedQuery(new ParsedQuery(queryBuilder.build()));
@@ -132,8 +162,75 @@ public class DlsFlsSearchOperationListener implements SearchOperationListener, C
         }
     }
 
+    /**
+     * Returns the Lucene query for the given DLS restriction. Compiled queries are shared between the shards of an index and between requests
+     * as long as the mapping does not change.
+     * 
+     * Queries are compiled on a copy of the SearchExecutionContext. This way, we can detect whether the query depends on the current time or on
+     * scripts, which makes it non-cacheable. In this case, the query is compiled again on the actual context of the request.
+     */
+    private Query getCompiledDlsQuery(DlsRestriction dlsRestriction, SearchContext searchContext) throws ExecutionException {
+        SearchExecutionContext searchExecutionContext = searchContext.getSearchExecutionContext();
+        CompiledDlsQueryKey key = new CompiledDlsQueryKey(dlsRestriction, searchContext.indexShard().indexSettings().getIndex().getUUID(),
+                searchContext.indexShard().indexSettings().getIndexMetadata().getSettingsVersion(), searchExecutionContext.mappingCacheKey(),
+                reloadableAnalyzers.getComponents(searchExecutionContext.getIndexAnalyzers(), searchExecutionContext.getIndexSettings()));
+
+        Query cachedQuery = compiledDlsQueryCache.getIfPresent(key);
+
+        if (cachedQuery != null) {
+            return cachedQuery;
+        }
+
+        SearchExecutionContext compilationContext = new SearchExecutionContext(searchExecutionContext);
+        Query query = dlsRestriction.toBooleanQueryBuilder(compilationContext, (q) -> new ConstantScoreQuery(q)).build();
+
+        if (compilationContext.isCacheable()) {
+            compiledDlsQueryCache.put(key, query);
+            return query;
+        } else {
+            log.trace("DLS query {} is not cacheable", dlsRestriction);
+            return dlsRestriction.toBooleanQueryBuilder(searchExecutionContext, (q) -> new ConstantScoreQuery(q)).build();
+        }
+    }
+
     @Override
     public ComponentState getComponentState() {
         return componentState;
     }
+
+    static class CompiledDlsQueryKey {
+        private final DlsRestriction dlsRestriction;
+        private final String indexUuid;
+        private final long settingsVersion;
+        private final Object mappingCacheKey;
+        private final List<AnalyzerComponents> analyzerComponents;
+
+        CompiledDlsQueryKey(DlsRestriction dlsRestriction, String indexUuid, long settingsVersion, Object mappingCacheKey,
+                List<AnalyzerComponents> analyzerComponents) {
+            this.dlsRestriction = dlsRestriction;
+            this.indexUuid = indexUuid;
+            this.settingsVersion = settingsVersion;
+            this.mappingCacheKey = mappingCacheKey;
+            this.analyzerComponents = analyzerComponents;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dlsRestriction, indexUuid, settingsVersion, System.identityHashCode(mappingCacheKey), analyzerComponents);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CompiledDlsQueryKey)) {
+                return false;
+            }
+            CompiledDlsQueryKey other = (CompiledDlsQueryKey) obj;
+            return Objects.equals(indexUuid, other.indexUuid) && settingsVersion == other.settingsVersion
+                    && mappingCacheKey == other.mappingCacheKey && Objects.equals(analyzerComponents, other.analyzerComponents)
+                    && Objects.equals(dlsRestriction, other.dlsRestriction);
+        }
+    }
 }
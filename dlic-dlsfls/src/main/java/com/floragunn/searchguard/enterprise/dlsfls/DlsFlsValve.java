@@ -83,7 +83,7 @@ public class DlsFlsValve implements SyncAuthorizationFilter, ComponentStateProvi
     private final IndexNameExpressionResolver resolver;
     private final AtomicReference<DlsFlsProcessedConfig> config;
     private final ComponentState componentState = new ComponentState(0, null, "dls_fls_valve", DlsFlsValve.class).initialized();
-    private final TimeAggregation applyTimeAggregation = new TimeAggregation.Nanoseconds();
+    private final TimeAggregation applyTimeAggregation = new TimeAggregation.Histogram();
     private final ThreadContextAuthzHashProvider authzHashProvider;
 
     public DlsFlsValve(Client nodeClient, ClusterService clusterService, IndexNameExpressionResolver resolver, GuiceDependencies guiceDependencies,
@@ -28,6 +28,7 @@ import org.elasticsearch.index.query.TermsQueryBuilder;
 
 import com.floragunn.fluent.collections.ImmutableList;
 import com.floragunn.fluent.collections.ImmutableMap;
+import com.floragunn.fluent.collections.ImmutableSet;
 import com.floragunn.searchguard.queries.QueryBuilderTraverser;
 import com.floragunn.searchsupport.meta.Meta;
 
@@ -47,9 +48,13 @@ public class DlsRestriction {
     }
 
     private final ImmutableList<com.floragunn.searchsupport.queries.Query> queries;
+    private final ImmutableSet<com.floragunn.searchsupport.queries.Query> querySet;
+    private final int hashCode;
 
     DlsRestriction(ImmutableList<com.floragunn.searchsupport.queries.Query> queries) {
         this.queries = queries;
+        this.querySet = ImmutableSet.of(queries);
+        this.hashCode = querySet.hashCode();
     }
 
     public boolean isUnrestricted() {
@@ -125,7 +130,7 @@ public class DlsRestriction {
     }
 
 
-    boolean containsTermLookupQuery() {
+    public boolean containsTermLookupQuery() {
         for (com.floragunn.searchsupport.queries.Query query : this.queries) {
             if (QueryBuilderTraverser.exists(query.getQueryBuilder(),
                     (q) -> (q instanceof TermsQueryBuilder) && ((TermsQueryBuilder) q).termsLookup() != null)) {
@@ -136,6 +141,29 @@ public class DlsRestriction {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Two restrictions are considered equal if they consist of the same rendered queries, regardless of their order.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof DlsRestriction)) {
+            return false;
+        }
+
+        DlsRestriction other = (DlsRestriction) obj;
+
+        return this.hashCode == other.hashCode && this.querySet.equals(other.querySet);
+    }
+
     @Override
     public String toString() {
         if (isUnrestricted()) {
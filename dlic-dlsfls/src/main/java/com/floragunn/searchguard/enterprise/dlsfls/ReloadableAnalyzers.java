@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.dlsfls;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.analysis.AnalyzerComponents;
+import org.elasticsearch.index.analysis.IndexAnalyzers;
+import org.elasticsearch.index.analysis.NamedAnalyzer;
+import org.elasticsearch.index.analysis.ReloadableCustomAnalyzer;
+
+import com.floragunn.fluent.collections.ImmutableList;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Provides the current components of the reloadable analyzers of an index. Reloading search analyzers (like for updated synonyms) replaces
+ * these components; as the results of DLS queries might depend on the analyzers, these components become part of the keys of caches for such
+ * results.
+ */
+public class ReloadableAnalyzers {
+
+    /**
+     * The reloadable analyzers of an index. Analyzers cannot be added to an open index; thus, the set of analyzers is fixed for each IndexAnalyzers
+     * instance. A reload only replaces the components of the analyzers.
+     */
+    private final Cache<IndexAnalyzers, ImmutableList<ReloadableCustomAnalyzer>> reloadableAnalyzersCache = CacheBuilder.newBuilder().weakKeys()
+            .maximumSize(1000).build();
+
+    public List<AnalyzerComponents> getComponents(IndexAnalyzers indexAnalyzers, IndexSettings indexSettings) throws ExecutionException {
+        if (indexAnalyzers == null) {
+            return ImmutableList.empty();
+        }
+
+        ImmutableList<ReloadableCustomAnalyzer> reloadableAnalyzers = reloadableAnalyzersCache.get(indexAnalyzers, () -> {
+            List<ReloadableCustomAnalyzer> result = new ArrayList<>();
+
+            for (String name : indexSettings.getSettings().getGroups("index.analysis.analyzer").keySet()) {
+                NamedAnalyzer analyzer = indexAnalyzers.get(name);
+
+                if (analyzer != null && analyzer.analyzer() instanceof ReloadableCustomAnalyzer) {
+                    result.add((ReloadableCustomAnalyzer) analyzer.analyzer());
+                }
+            }
+
+            return ImmutableList.of(result);
+        });
+
+        if (reloadableAnalyzers.isEmpty()) {
+            return ImmutableList.empty();
+        }
+
+        return reloadableAnalyzers.map(ReloadableCustomAnalyzer::getComponents);
+    }
+}
@@ -147,6 +147,13 @@ public class RoleBasedFieldAuthorization
          */
         public abstract boolean isObjectAllowedAssumingParentsAreAllowed(String field);
 
+        /**
+         * Checks whether the current field and all fields nested below it are allowed, assuming the status of the parent
+         * fields has been already checked. If this returns true, a document filter can copy the value of the field without
+         * looking at its children. The check is conservative: It may return false even though all children are allowed.
+         */
+        public abstract boolean isSubtreeAllowedAssumingParentsAreAllowed(String field);
+
         public abstract boolean isAllowAll();
 
         static class SingleRole extends FlsRule {
@@ -256,6 +263,27 @@ public class RoleBasedFieldAuthorization
                 return allowed;
             }
 
+            @Override
+            public boolean isSubtreeAllowedAssumingParentsAreAllowed(String field) {
+                if (allowAll) {
+                    return true;
+                }
+
+                boolean includesAll = false;
+
+                for (Role.Index.FlsPattern pattern : this.patterns) {
+                    if (pattern.isExcluded()) {
+                        if (mayMatchFieldOrChildren(pattern.getSource().substring(1), field)) {
+                            return false;
+                        }
+                    } else if (pattern.getPattern().isWildcard()) {
+                        includesAll = true;
+                    }
+                }
+
+                return includesAll;
+            }
+
             private boolean isAllowedNonRecursive(String field) {
                 field = stripKeywordSuffix(field);
 
@@ -388,6 +416,21 @@ public class RoleBasedFieldAuthorization
                 return internalIsObjectAllowedAssumingParentsAreAllowed(field);
             }
 
+            @Override
+            public boolean isSubtreeAllowedAssumingParentsAreAllowed(String field) {
+                if (allowAll) {
+                    return true;
+                }
+
+                for (SingleRole entry : this.entries) {
+                    if (entry.isSubtreeAllowedAssumingParentsAreAllowed(field)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
             private boolean internalIsAllowedRecursive(String field) {
                 field = stripKeywordSuffix(field);
 
@@ -449,6 +492,39 @@ public class RoleBasedFieldAuthorization
                 return field;
             }
         }
+
+        /**
+         * Returns false if a field pattern with the given source can match neither the given field nor any field nested below
+         * it. Only patterns consisting of plain name characters are analyzed exactly; for patterns with wildcards, only the
+         * literal prefix is considered. Regular expressions are assumed to match anything.
+         */
+        static boolean mayMatchFieldOrChildren(String patternSource, String field) {
+            if (patternSource.startsWith("-")) {
+                // Might have a special meaning for the pattern syntax
+                return true;
+            }
+
+            int literalLength = 0;
+
+            while (literalLength < patternSource.length() && isPlainNameChar(patternSource.charAt(literalLength))) {
+                literalLength++;
+            }
+
+            if (literalLength == patternSource.length()) {
+                return patternSource.equals(field) || isChild(patternSource, field);
+            } else {
+                String literalPrefix = patternSource.substring(0, literalLength);
+                return field.startsWith(literalPrefix) || isChild(literalPrefix, field);
+            }
+        }
+
+        private static boolean isChild(String name, String parent) {
+            return name.length() > parent.length() && name.charAt(parent.length()) == '.' && name.startsWith(parent);
+        }
+
+        private static boolean isPlainNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '@' || c == '-';
+        }
     }
 
 }
@@ -19,7 +19,9 @@ package com.floragunn.searchguard.enterprise.dlsfls;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.apache.lucene.util.BytesRef;
@@ -33,14 +35,12 @@ import com.floragunn.searchguard.authz.config.Role;
 import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
 import com.floragunn.searchsupport.cstate.metrics.MetricsLevel;
 import com.floragunn.searchsupport.meta.Meta;
-import com.google.common.io.BaseEncoding;
 import com.google.common.primitives.Bytes;
 
 public class RoleBasedFieldMasking
         extends RoleBasedAuthorizationBase<RoleBasedFieldMasking.FieldMaskingRule.SingleRole, RoleBasedFieldMasking.FieldMaskingRule> {
 
     private final DlsFlsConfig.FieldMasking fieldMaskingConfig;
-    private final static BaseEncoding hex = BaseEncoding.base16().lowerCase();
 
     public RoleBasedFieldMasking(SgDynamicConfiguration<Role> roles, DlsFlsConfig.FieldMasking fieldMaskingConfig, Meta indexMetadata,
             MetricsLevel metricsLevel) {
@@ -114,6 +114,12 @@ public class RoleBasedFieldMasking
             return get(field) == null;
         }
 
+        /**
+         * Checks whether neither the given field nor any field nested below it is masked. The check is conservative: It may
+         * return false even though no field of the subtree would be masked.
+         */
+        public abstract boolean isSubtreeNotMasked(String field);
+
         public abstract boolean isAllowAll();
 
         public static class SingleRole extends FieldMaskingRule {
@@ -146,6 +152,17 @@ public class RoleBasedFieldMasking
                 return null;
             }
 
+            @Override
+            public boolean isSubtreeNotMasked(String field) {
+                for (Field expression : this.expressions) {
+                    if (expression.mayMatchFieldOrChildren(field)) {
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+
             public boolean isAllowAll() {
                 return expressions.isEmpty();
             }
@@ -185,6 +202,21 @@ public class RoleBasedFieldMasking
                 return masking;
             }
 
+            @Override
+            public boolean isSubtreeNotMasked(String field) {
+                if (allowAll) {
+                    return true;
+                }
+
+                for (FieldMaskingRule.SingleRole part : parts) {
+                    if (part.isSubtreeNotMasked(field)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
             public boolean isAllowAll() {
                 return allowAll;
             }
@@ -200,37 +232,60 @@ public class RoleBasedFieldMasking
         }
 
         public static class Field {
+            private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+            private static final ThreadLocal<HashState> HASH_STATE = ThreadLocal.withInitial(HashState::new);
+
             private final Role.Index.FieldMaskingExpression expression;
 
             private final byte[] salt;
             private final byte[] personalization;
             private final byte[] prefix;
+            private final boolean hasAlgo;
+            private final MaskingKey maskingKey;
 
             Field(Role.Index.FieldMaskingExpression expression, DlsFlsConfig.FieldMasking fieldMaskingConfig) {
                 this.expression = expression;
                 this.salt = fieldMaskingConfig.getSalt();
                 this.personalization = fieldMaskingConfig.getPersonalization();
                 this.prefix = fieldMaskingConfig.getPrefix() != null ? fieldMaskingConfig.getPrefix().getBytes() : null;
+                this.hasAlgo = expression.getAlgo() != null;
+                this.maskingKey = new MaskingKey(expression.getSource(), salt, personalization, prefix);
+            }
+
+            /**
+             * Returns a key which identifies the masking performed by this instance. Instances with equal keys produce equal masked values,
+             * even if they were created by different rules or for different configuration versions.
+             */
+            public MaskingKey getMaskingKey() {
+                return maskingKey;
             }
 
             public Pattern getPattern() {
                 return expression.getPattern();
             }
 
+            boolean mayMatchFieldOrChildren(String field) {
+                String source = expression.toString();
+                int separator = source.indexOf("::");
+
+                return RoleBasedFieldAuthorization.FlsRule.mayMatchFieldOrChildren(separator != -1 ? source.substring(0, separator) : source,
+                        field);
+            }
+
             public byte[] apply(byte[] value) {
+                return apply(value, 0, value.length);
+            }
+
+            public byte[] apply(byte[] value, int offset, int length) {
                 if (isDefault()) {
-                    return blake2bHash(value);
+                    return blake2bHash(value, offset, length);
                 } else {
-                    return customHash(value);
+                    return customHash(value, offset, length);
                 }
             }
 
             public String apply(String value) {
-                if (isDefault()) {
-                    return blake2bHash(value);
-                } else {
-                    return customHash(value);
-                }
+                return new String(apply(value.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
             }
 
             public BytesRef apply(BytesRef value) {
@@ -238,11 +293,7 @@ public class RoleBasedFieldMasking
                     return null;
                 }
 
-                if (isDefault()) {
-                    return blake2bHash(value);
-                } else {
-                    return customHash(value);
-                }
+                return new BytesRef(apply(value.bytes, value.offset, value.length));
             }
 
             @Override
@@ -251,20 +302,17 @@ public class RoleBasedFieldMasking
             }
 
             private boolean isDefault() {
-                return expression.getAlgo() == null && expression.getRegexReplacements() == null;
+                return !hasAlgo && expression.getRegexReplacements() == null;
             }
 
-            private byte[] customHash(byte[] in) {
-                MessageDigest algo = expression.getAlgo();
-
-                if (algo != null) {
-                    if (prefix != null) {
-                        return Bytes.concat(prefix, hex.encode(algo.digest(in)).getBytes());
-                    }
-
-                    return hex.encode(algo.digest(in)).getBytes();
+            private byte[] customHash(byte[] in, int offset, int length) {
+                if (hasAlgo) {
+                    MessageDigest algo = HASH_STATE.get().messageDigest(expression);
+                    algo.update(in, offset, length);
+                    byte[] digest = algo.digest();
+                    return hexWithPrefix(digest, digest.length);
                 } else if (expression.getRegexReplacements() != null) {
-                    String string = new String(in, StandardCharsets.UTF_8);
+                    String string = new String(in, offset, length, StandardCharsets.UTF_8);
                     for (Role.Index.FieldMaskingExpression.RegexReplacement rr : expression.getRegexReplacements()) {
                         string = rr.getRegex().matcher(string).replaceAll(rr.getReplacement());
                     }
@@ -279,35 +327,110 @@ public class RoleBasedFieldMasking
                 }
             }
 
-            private BytesRef customHash(BytesRef in) {
-                final BytesRef copy = BytesRef.deepCopyOf(in);
-                return new BytesRef(customHash(copy.bytes));
-            }
+            private byte[] blake2bHash(byte[] in, int offset, int length) {
+                HashState hashState = HASH_STATE.get();
+                Blake2bDigest hash = hashState.blake2bDigest(salt, personalization);
+                hash.update(in, offset, length);
+                hash.doFinal(hashState.digestBuffer, 0);
 
-            private String customHash(String in) {
-                return new String(customHash(in.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+                return hexWithPrefix(hashState.digestBuffer, hash.getDigestSize());
             }
 
-            private byte[] blake2bHash(byte[] in) {
-                final Blake2bDigest hash = new Blake2bDigest(null, 32, salt, personalization);
-                hash.update(in, 0, in.length);
-                final byte[] out = new byte[hash.getDigestSize()];
-                hash.doFinal(out, 0);
+            /**
+             * Encodes the digest as lower case hex string, preceded by the configured prefix. Produces the same result as
+             * concatenating the prefix with the result of BaseEncoding.base16().lowerCase(), but without intermediate strings.
+             */
+            private byte[] hexWithPrefix(byte[] digest, int length) {
+                int prefixLength = prefix != null ? prefix.length : 0;
+                byte[] result = new byte[prefixLength + 2 * length];
 
                 if (prefix != null) {
-                    return Bytes.concat(prefix, hex.encode(out).getBytes());
+                    System.arraycopy(prefix, 0, result, 0, prefixLength);
                 }
 
-                return hex.encode(out).getBytes();
+                for (int i = 0; i < length; i++) {
+                    int b = digest[i] & 0xff;
+                    result[prefixLength + 2 * i] = HEX_DIGITS[b >>> 4];
+                    result[prefixLength + 2 * i + 1] = HEX_DIGITS[b & 0xf];
+                }
+
+                return result;
             }
 
-            private BytesRef blake2bHash(BytesRef in) {
-                final BytesRef copy = BytesRef.deepCopyOf(in);
-                return new BytesRef(blake2bHash(copy.bytes));
+            public static final class MaskingKey {
+                private final String method;
+                private final byte[] salt;
+                private final byte[] personalization;
+                private final byte[] prefix;
+                private final int hashCode;
+
+                MaskingKey(String expressionSource, byte[] salt, byte[] personalization, byte[] prefix) {
+                    // The part before the separator only selects the fields; the masked value just depends on the part after it
+                    int separator = expressionSource.indexOf("::");
+                    this.method = separator != -1 ? expressionSource.substring(separator + 2) : "";
+                    this.salt = salt;
+                    this.personalization = personalization;
+                    this.prefix = prefix;
+                    this.hashCode = Objects.hash(method, Arrays.hashCode(salt), Arrays.hashCode(personalization), Arrays.hashCode(prefix));
+                }
+
+                @Override
+                public int hashCode() {
+                    return hashCode;
+                }
+
+                @Override
+                public boolean equals(Object obj) {
+                    if (this == obj) {
+                        return true;
+                    }
+
+                    if (!(obj instanceof MaskingKey)) {
+                        return false;
+                    }
+
+                    MaskingKey other = (MaskingKey) obj;
+
+                    return this.hashCode == other.hashCode && this.method.equals(other.method) && Arrays.equals(this.salt, other.salt)
+                            && Arrays.equals(this.personalization, other.personalization) && Arrays.equals(this.prefix, other.prefix);
+                }
+
+                @Override
+                public String toString() {
+                    return method;
+                }
             }
 
-            private String blake2bHash(String in) {
-                return new String(blake2bHash(in.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+            /**
+             * Digest instances and buffers which are re-used by all masking operations performed on a thread. The digests are reset
+             * after each computed hash value by doFinal() or digest().
+             */
+            private static class HashState {
+                private final byte[] digestBuffer = new byte[64];
+                private Blake2bDigest blake2bDigest;
+                private byte[] blake2bSalt;
+                private byte[] blake2bPersonalization;
+                private MessageDigest messageDigest;
+                private Role.Index.FieldMaskingExpression messageDigestExpression;
+
+                Blake2bDigest blake2bDigest(byte[] salt, byte[] personalization) {
+                    if (blake2bDigest == null || !Arrays.equals(salt, blake2bSalt) || !Arrays.equals(personalization, blake2bPersonalization)) {
+                        blake2bDigest = new Blake2bDigest(null, 32, salt, personalization);
+                        blake2bSalt = salt;
+                        blake2bPersonalization = personalization;
+                    }
+
+                    return blake2bDigest;
+                }
+
+                MessageDigest messageDigest(Role.Index.FieldMaskingExpression expression) {
+                    if (messageDigest == null || messageDigestExpression != expression) {
+                        messageDigest = expression.getAlgo();
+                        messageDigestExpression = expression;
+                    }
+
+                    return messageDigest;
+                }
             }
         }
 
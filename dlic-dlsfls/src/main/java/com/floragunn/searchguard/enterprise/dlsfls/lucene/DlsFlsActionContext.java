@@ -25,6 +25,7 @@ import org.elasticsearch.index.shard.ShardId;
 
 import com.floragunn.searchguard.auditlog.AuditLog;
 import com.floragunn.searchguard.enterprise.dlsfls.DlsFlsLicenseInfo;
+import com.floragunn.searchguard.enterprise.dlsfls.DlsRestriction;
 import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldAuthorization.FlsRule;
 import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldMasking.FieldMaskingRule;
 
@@ -37,10 +38,19 @@ public class DlsFlsActionContext {
     private final AuditLog auditlog;
     private final FieldMaskingRule fieldMaskingRule;
     private final ShardId shardId;
-
-    public DlsFlsActionContext(Query dlsQuery, FlsRule flsRule, FieldMaskingRule fieldMaskingRule, IndexService indexService, ThreadContext threadContext,
-            DlsFlsLicenseInfo licenseInfo, AuditLog auditlog, ShardId shardId) {
+    private final DlsRestriction dlsRestriction;
+    private final DlsLiveDocsCache dlsLiveDocsCache;
+    private final MaskedTermsCache maskedTermsCache;
+    private final DlsLiveDocsCache.IndexVersion indexVersion;
+    private volatile FieldPathAutomaton fieldPathAutomaton;
+
+    public DlsFlsActionContext(Query dlsQuery, DlsRestriction dlsRestriction, FlsRule flsRule, FieldMaskingRule fieldMaskingRule,
+            IndexService indexService, ThreadContext threadContext, DlsFlsLicenseInfo licenseInfo, AuditLog auditlog, ShardId shardId,
+            DlsLiveDocsCache dlsLiveDocsCache, MaskedTermsCache maskedTermsCache) {
         this.dlsQuery = dlsQuery;
+        this.dlsRestriction = dlsRestriction;
+        this.dlsLiveDocsCache = dlsLiveDocsCache;
+        this.maskedTermsCache = maskedTermsCache;
         this.flsRule = flsRule;
         this.indexService = indexService;
         this.threadContext = threadContext;
@@ -48,6 +58,7 @@ public class DlsFlsActionContext {
         this.auditlog = auditlog;
         this.fieldMaskingRule = fieldMaskingRule;
         this.shardId = shardId;
+        this.indexVersion = dlsLiveDocsCache != null ? dlsLiveDocsCache.getIndexVersion(indexService) : null;
     }
 
     public Index index() {
@@ -70,6 +81,31 @@ public class DlsFlsActionContext {
         return dlsQuery;
     }
 
+    public DlsRestriction getDlsRestriction() {
+        return dlsRestriction;
+    }
+
+    /**
+     * Returns the cache for DLS live docs. Returns null if the DLS restriction of this context must not be cached.
+     */
+    public DlsLiveDocsCache getDlsLiveDocsCache() {
+        return dlsLiveDocsCache;
+    }
+
+    /**
+     * Returns the version of the index at the time this context was created. Returns null if there is no DLS live docs cache.
+     */
+    public DlsLiveDocsCache.IndexVersion getIndexVersion() {
+        return indexVersion;
+    }
+
+    /**
+     * Returns the cache for masked terms. Returns null if masked terms must not be cached.
+     */
+    public MaskedTermsCache getMaskedTermsCache() {
+        return maskedTermsCache;
+    }
+
     public IndexService getIndexService() {
         return indexService;
     }
@@ -90,6 +126,21 @@ public class DlsFlsActionContext {
         return fieldMaskingRule;
     }
 
+    /**
+     * Returns the automaton used for filtering the _source of documents. It is created on first use and then shared by all
+     * documents read with this context.
+     */
+    FieldPathAutomaton getFieldPathAutomaton() {
+        FieldPathAutomaton result = this.fieldPathAutomaton;
+
+        if (result == null) {
+            result = new FieldPathAutomaton(flsRule, fieldMaskingRule);
+            this.fieldPathAutomaton = result;
+        }
+
+        return result;
+    }
+
     @Override
     public String toString() {
         return indexService.index() + " [" + dlsQuery + "; " + flsRule + "; " + fieldMaskingRule + "]";
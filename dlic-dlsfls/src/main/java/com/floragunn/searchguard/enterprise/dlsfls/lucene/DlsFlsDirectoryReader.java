@@ -103,7 +103,8 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
                         this.flsFieldInfos = delegate.getFieldInfos();
                     }
 
-                    this.dlsGetEvaluator = new DlsGetEvaluator(this, dlsFlsContext.getDlsQuery(), in, applyDlsHere());
+                    this.dlsGetEvaluator = new DlsGetEvaluator(this, dlsFlsContext.getDlsQuery(), in, applyDlsHere(), dlsFlsContext.getDlsRestriction(),
+                            dlsFlsContext.getDlsLiveDocsCache(), dlsFlsContext.getIndexVersion());
                 } catch (RuntimeException e) {
                     log.error("Got exception while initializing " + this, e);
                     throw e;
@@ -292,6 +293,8 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
                     return sortedDocValues;
                 }
 
+                MaskedTermsCache.Entry maskedTerms = getMaskedTerms(fieldMasking);
+
                 return new SortedDocValues() {
 
                     @Override
@@ -301,12 +304,12 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
 
                     @Override
                     public TermsEnum termsEnum() throws IOException {
-                        return new MaskedTermsEnum(sortedDocValues.termsEnum(), fieldMasking);
+                        return new MaskedTermsEnum(sortedDocValues.termsEnum(), fieldMasking, maskedTerms);
                     }
 
                     @Override
                     public TermsEnum intersect(CompiledAutomaton automaton) throws IOException {
-                        return new MaskedTermsEnum(sortedDocValues.intersect(automaton), fieldMasking);
+                        return new MaskedTermsEnum(sortedDocValues.intersect(automaton), fieldMasking, maskedTerms);
                     }
 
                     @Override
@@ -341,7 +344,7 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
 
                     @Override
                     public BytesRef lookupOrd(int ord) throws IOException {
-                        return fieldMasking.apply(sortedDocValues.lookupOrd(ord));
+                        return applyFieldMasking(fieldMasking, maskedTerms, sortedDocValues.lookupOrd(ord));
                     }
 
                     @Override
@@ -379,6 +382,8 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
                     return sortedSetDocValues;
                 }
 
+                MaskedTermsCache.Entry maskedTerms = getMaskedTerms(fieldMasking);
+
                 return new SortedSetDocValues() {
 
                     @Override
@@ -393,12 +398,12 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
 
                     @Override
                     public TermsEnum termsEnum() throws IOException {
-                        return new MaskedTermsEnum(sortedSetDocValues.termsEnum(), fieldMasking);
+                        return new MaskedTermsEnum(sortedSetDocValues.termsEnum(), fieldMasking, maskedTerms);
                     }
 
                     @Override
                     public TermsEnum intersect(CompiledAutomaton automaton) throws IOException {
-                        return new MaskedTermsEnum(sortedSetDocValues.intersect(automaton), fieldMasking);
+                        return new MaskedTermsEnum(sortedSetDocValues.intersect(automaton), fieldMasking, maskedTerms);
                     }
 
                     @Override
@@ -433,7 +438,7 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
 
                     @Override
                     public BytesRef lookupOrd(long ord) throws IOException {
-                        return fieldMasking.apply(sortedSetDocValues.lookupOrd(ord));
+                        return applyFieldMasking(fieldMasking, maskedTerms, sortedSetDocValues.lookupOrd(ord));
                     }
 
                     @Override
@@ -493,14 +498,25 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
                 return META_FIELDS.contains(field);
             }
 
+            private MaskedTermsCache.Entry getMaskedTerms(FieldMaskingRule.Field fieldMasking) {
+                MaskedTermsCache maskedTermsCache = dlsFlsContext.getMaskedTermsCache();
+                return maskedTermsCache != null ? maskedTermsCache.get(in, fieldMasking) : null;
+            }
+
+            private static BytesRef applyFieldMasking(FieldMaskingRule.Field fieldMasking, MaskedTermsCache.Entry maskedTerms, BytesRef term) {
+                return maskedTerms != null ? maskedTerms.apply(term) : fieldMasking.apply(term);
+            }
+
             private static class MaskedTermsEnum extends TermsEnum {
 
                 private final TermsEnum delegate;
                 private final FieldMaskingRule.Field fieldMasking;
+                private final MaskedTermsCache.Entry maskedTerms;
 
-                public MaskedTermsEnum(TermsEnum delegate, FieldMaskingRule.Field fieldMasking) {
+                public MaskedTermsEnum(TermsEnum delegate, FieldMaskingRule.Field fieldMasking, MaskedTermsCache.Entry maskedTerms) {
                     this.delegate = delegate;
                     this.fieldMasking = fieldMasking;
+                    this.maskedTerms = maskedTerms;
                 }
 
                 @Override
@@ -540,7 +556,7 @@ public class DlsFlsDirectoryReader extends FilterDirectoryReader {
 
                 @Override
                 public BytesRef term() throws IOException {
-                    return fieldMasking.apply(delegate.term());
+                    return applyFieldMasking(fieldMasking, maskedTerms, delegate.term());
                 }
 
                 @Override
@@ -65,10 +65,15 @@ public class DlsFlsDirectoryReaderWrapper implements CheckedFunction<DirectoryRe
     private final AtomicReference<DlsFlsLicenseInfo> licenseInfo;
     private final ComponentState componentState;
     private final TimeAggregation directoryReaderWrapperApplyAggregation;
+    private final DlsLiveDocsCache dlsLiveDocsCache;
+    private final MaskedTermsCache maskedTermsCache;
 
     public DlsFlsDirectoryReaderWrapper(IndexService indexService, AuditLog auditlog, DlsFlsBaseContext dlsFlsBaseContext,
             AtomicReference<DlsFlsProcessedConfig> config, AtomicReference<DlsFlsLicenseInfo> licenseInfo,
-            ComponentState directoryReaderWrapperComponentState, TimeAggregation directoryReaderWrapperApplyAggregation) {
+            ComponentState directoryReaderWrapperComponentState, TimeAggregation directoryReaderWrapperApplyAggregation,
+            DlsLiveDocsCache dlsLiveDocsCache, MaskedTermsCache maskedTermsCache) {
+        this.dlsLiveDocsCache = dlsLiveDocsCache;
+        this.maskedTermsCache = maskedTermsCache;
         this.componentState = directoryReaderWrapperComponentState;
         this.directoryReaderWrapperApplyAggregation = directoryReaderWrapperApplyAggregation;
         this.indexService = indexService;
@@ -146,8 +151,9 @@ public class DlsFlsDirectoryReaderWrapper implements CheckedFunction<DirectoryRe
                         dlsRestriction, dlsQuery, flsRule, fieldMaskingRule);
             }
             
-            DlsFlsActionContext dlsFlsContext = new DlsFlsActionContext(dlsQuery, flsRule, fieldMaskingRule, indexService, threadContext, licenseInfo, auditlog,
-                    shardId);
+            DlsFlsActionContext dlsFlsContext = new DlsFlsActionContext(dlsQuery, dlsRestriction, flsRule, fieldMaskingRule, indexService, threadContext,
+                    licenseInfo, auditlog, shardId, isDlsLiveDocsCacheable(config, dlsRestriction, flsRule, fieldMaskingRule) ? dlsLiveDocsCache : null,
+                    maskedTermsCache);
 
             return new DlsFlsDirectoryReader(reader, dlsFlsContext);
         } catch (PrivilegesEvaluationException e) {
@@ -157,6 +163,16 @@ public class DlsFlsDirectoryReaderWrapper implements CheckedFunction<DirectoryRe
         }
     }
 
+    /**
+     * The DLS query is evaluated on the FLS restricted reader. Thus, we only cache the results if there are no FLS or field masking restrictions
+     * which might change the outcome. Results which depend on the current time or on the contents of other indices are not cached either.
+     */
+    private boolean isDlsLiveDocsCacheable(DlsFlsProcessedConfig config, DlsRestriction dlsRestriction, FlsRule flsRule,
+            FieldMaskingRule fieldMaskingRule) {
+        return dlsLiveDocsCache.isEnabled() && !dlsRestriction.isUnrestricted() && flsRule.isAllowAll() && fieldMaskingRule.isAllowAll()
+                && !config.getDlsFlsConfig().isNowAllowedInQueries() && !dlsRestriction.containsTermLookupQuery();
+    }
+
     private LongSupplier nowSupplier(DlsFlsProcessedConfig config) {
         if (config.getDlsFlsConfig().isNowAllowedInQueries()) {
             return () -> System.currentTimeMillis();
@@ -54,6 +54,8 @@ import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.FixedBitSet;
 
+import com.floragunn.searchguard.enterprise.dlsfls.DlsRestriction;
+
 class DlsGetEvaluator {
     private final Bits liveBits;
     private final int numDocs;
@@ -61,38 +63,39 @@ class DlsGetEvaluator {
     private final boolean hasDeletions;
     private static final Logger log = LogManager.getLogger(DlsGetEvaluator.class);
 
-    public DlsGetEvaluator(FilterLeafReader filterLeafReader, Query dlsQuery, LeafReader in, boolean applyDlsHere) {
+    public DlsGetEvaluator(FilterLeafReader filterLeafReader, Query dlsQuery, LeafReader in, boolean applyDlsHere, DlsRestriction dlsRestriction,
+            DlsLiveDocsCache dlsLiveDocsCache, DlsLiveDocsCache.IndexVersion indexVersion) {
         try {
             log.trace("Creating DlsGetEvaluator\ndlsQuery: {}\napplyDlsHere: {}", dlsQuery, applyDlsHere);
             
             if (dlsQuery != null && applyDlsHere) {
-                final IndexSearcher searcher = new IndexSearcher(filterLeafReader);
-                dlsQuery = dlsQuery.rewrite(searcher);
-                searcher.setQueryCache(null);
-                final Weight preserveWeight = searcher.createWeight(dlsQuery, ScoreMode.COMPLETE_NO_SCORES, 1f);
-
-                final int maxDoc = in.maxDoc();
-                final FixedBitSet bits = new FixedBitSet(maxDoc);
-                final Scorer preserveScorer = preserveWeight.scorer(filterLeafReader.getContext());
+                final Query finalDlsQuery = dlsQuery;
+                DlsLiveDocsCache.Entry cacheEntry = dlsLiveDocsCache != null
+                        ? dlsLiveDocsCache.get(in, indexVersion, dlsRestriction, () -> computeDlsBits(filterLeafReader, finalDlsQuery, in))
+                        : null;
 
-                if (preserveScorer != null) {
-                    bits.or(preserveScorer.iterator());
-                }
+                if (cacheEntry != null) {
+                    liveBits = in.hasDeletions() ? new LiveDlsBits(cacheEntry.getDlsBits(), in.getLiveDocs()) : cacheEntry.getDlsBits();
+                    readerCacheHelper = cacheEntry.getReaderCacheHelper(in);
+                } else {
+                    final FixedBitSet bits = computeDlsBits(filterLeafReader, dlsQuery, in);
 
-                if (in.hasDeletions()) {
-                    final Bits oldLiveDocs = in.getLiveDocs();
-                    assert oldLiveDocs != null;
-                    final DocIdSetIterator it = new BitSetIterator(bits, 0L);
-                    for (int i = it.nextDoc(); i != DocIdSetIterator.NO_MORE_DOCS; i = it.nextDoc()) {
-                        if (!oldLiveDocs.get(i)) {
-                            bits.clear(i);
+                    if (in.hasDeletions()) {
+                        final Bits oldLiveDocs = in.getLiveDocs();
+                        assert oldLiveDocs != null;
+                        final DocIdSetIterator it = new BitSetIterator(bits, 0L);
+                        for (int i = it.nextDoc(); i != DocIdSetIterator.NO_MORE_DOCS; i = it.nextDoc()) {
+                            if (!oldLiveDocs.get(i)) {
+                                bits.clear(i);
+                            }
                         }
                     }
+
+                    liveBits = bits;
+                    readerCacheHelper = null;
                 }
 
-                liveBits = bits;
                 numDocs = in.numDocs();
-                readerCacheHelper = null;
                 hasDeletions = true;
 
             } else {
@@ -108,6 +111,26 @@ class DlsGetEvaluator {
         }
     }
 
+    /**
+     * Returns the documents matched by the DLS query. Deletions are not considered.
+     */
+    private static FixedBitSet computeDlsBits(FilterLeafReader filterLeafReader, Query dlsQuery, LeafReader in) throws IOException {
+        final IndexSearcher searcher = new IndexSearcher(filterLeafReader);
+        dlsQuery = dlsQuery.rewrite(searcher);
+        searcher.setQueryCache(null);
+        final Weight preserveWeight = searcher.createWeight(dlsQuery, ScoreMode.COMPLETE_NO_SCORES, 1f);
+
+        final int maxDoc = in.maxDoc();
+        final FixedBitSet bits = new FixedBitSet(maxDoc);
+        final Scorer preserveScorer = preserveWeight.scorer(filterLeafReader.getContext());
+
+        if (preserveScorer != null) {
+            bits.or(preserveScorer.iterator());
+        }
+
+        return bits;
+    }
+
     //return null means no hidden docs
     public Bits getLiveDocs() {
         return liveBits;
@@ -124,4 +147,27 @@ class DlsGetEvaluator {
     public boolean hasDeletions() {
         return hasDeletions;
     }
+
+    /**
+     * Combines cached DLS bits with the deletions of the current reader without copying the cached bits.
+     */
+    private static class LiveDlsBits implements Bits {
+        private final Bits dlsBits;
+        private final Bits liveDocs;
+
+        LiveDlsBits(Bits dlsBits, Bits liveDocs) {
+            this.dlsBits = dlsBits;
+            this.liveDocs = liveDocs;
+        }
+
+        @Override
+        public boolean get(int index) {
+            return dlsBits.get(index) && liveDocs.get(index);
+        }
+
+        @Override
+        public int length() {
+            return dlsBits.length();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+package com.floragunn.searchguard.enterprise.dlsfls.lucene;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.FilterDirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReader.CacheHelper;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.analysis.AnalyzerComponents;
+
+import com.floragunn.searchguard.enterprise.dlsfls.DlsRestriction;
+import com.floragunn.searchguard.enterprise.dlsfls.ReloadableAnalyzers;
+import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Caches the documents matched by a DLS restriction for a segment. The cache is shared by all requests and is keyed by the core cache key
+ * of the segment, the version of the index (mapping version, settings version and the components of reloadable analyzers) and the rendered
+ * DLS restriction. Deletions are not part of the cached bit set; these are applied on top by DlsGetEvaluator. Thus, an entry stays valid until
+ * the segment itself is closed, the mapping or the settings of the index change or search analyzers are reloaded.
+ *
+ * Additionally, the cache provides a stable reader cache helper per (segment reader, DLS restriction). This allows caches which operate on
+ * reader cache keys to work for DLS restricted readers without mixing up the results of differently restricted users.
+ */
+public class DlsLiveDocsCache implements ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(DlsLiveDocsCache.class);
+
+    public static final StaticSettings.Attribute<ByteSizeValue> MAX_HEAP_SIZE = //
+            StaticSettings.Attribute.define("searchguard.dls.live_docs_cache.max_heap_size").withDefault(ByteSizeValue.of(64, ByteSizeUnit.MB))
+                    .asByteSizeValue();
+
+    private final Cache<Key, Entry> cache;
+    private final Map<IndexReader.CacheKey, Set<Key>> keysByCoreKey = new ConcurrentHashMap<>();
+    private final ReloadableAnalyzers reloadableAnalyzers = new ReloadableAnalyzers();
+    private final ComponentState componentState = new ComponentState(14, null, "dls_live_docs_cache", DlsLiveDocsCache.class).initialized();
+
+    public DlsLiveDocsCache(ByteSizeValue maxHeapSize) {
+        if (maxHeapSize.getBytes() > 0) {
+            this.cache = CacheBuilder.newBuilder().maximumWeight(maxHeapSize.getBytes()).weigher((Key k, Entry e) -> e.getWeight())
+                    .removalListener(this::onRemoval).recordStats().build();
+            this.componentState.addMetrics("cache", CacheStats.from(this.cache), "heap_size", new Count.Live(this::getHeapSize));
+            this.componentState.setConfigProperty("max_heap_size", maxHeapSize.toString());
+        } else {
+            this.cache = null;
+            this.componentState.setState(ComponentState.State.DISABLED);
+        }
+    }
+
+    public DlsLiveDocsCache(StaticSettings settings) {
+        this(settings.get(MAX_HEAP_SIZE));
+    }
+
+    /**
+     * Returns the current version of the given index. Cached entries are only used for the same index version.
+     */
+    public IndexVersion getIndexVersion(IndexService indexService) {
+        try {
+            return new IndexVersion(indexService.getMetadata().getMappingVersion(), indexService.getMetadata().getSettingsVersion(),
+                    reloadableAnalyzers.getComponents(indexService.getIndexAnalyzers(), indexService.getIndexSettings()));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the cache entry for the given segment reader, index version and DLS restriction. If there is no such entry yet, the loader will be
+     * used to compute the bit set of the documents matched by the DLS restriction. Returns null if the reader does not support caching or the cache
+     * is disabled.
+     */
+    Entry get(LeafReader reader, IndexVersion indexVersion, DlsRestriction restriction, BitSetLoader loader) throws IOException {
+        if (cache == null || restriction == null) {
+            return null;
+        }
+
+        CacheHelper coreCacheHelper = reader.getCoreCacheHelper();
+
+        if (coreCacheHelper == null) {
+            return null;
+        }
+
+        IndexReader.CacheKey coreKey = coreCacheHelper.getKey();
+
+        Set<Key> keys = keysByCoreKey.get(coreKey);
+
+        if (keys == null) {
+            Set<Key> newKeys = ConcurrentHashMap.newKeySet();
+            keys = keysByCoreKey.putIfAbsent(coreKey, newKeys);
+
+            if (keys == null) {
+                keys = newKeys;
+                coreCacheHelper.addClosedListener(this::onCoreClosed);
+            }
+        }
+
+        Key key = new Key(coreKey, indexVersion, restriction);
+
+        try {
+            Entry result = cache.get(key, () -> new Entry(loader.load()));
+            // Only register keys of successfully loaded entries; failed loads do not leave entries in the cache
+            keys.add(key);
+
+            if (keysByCoreKey.get(coreKey) != keys) {
+                // The segment has been closed meanwhile
+                cache.invalidate(key);
+            }
+
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    long size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    long registeredKeyCount() {
+        return keysByCoreKey.values().stream().mapToLong(Set::size).sum();
+    }
+
+    private void onCoreClosed(IndexReader.CacheKey coreKey) {
+        Set<Key> keys = keysByCoreKey.remove(coreKey);
+
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("Removed DLS live docs for closed segment " + coreKey);
+        }
+    }
+
+    private void onRemoval(RemovalNotification<Key, Entry> notification) {
+        if (notification.getCause() == RemovalCause.EXPLICIT) {
+            // Explicit removals are only done by onCoreClosed(), which already took care of the index
+            return;
+        }
+
+        Key key = notification.getKey();
+        Set<Key> keys = keysByCoreKey.get(key.coreKey);
+
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    private long getHeapSize() {
+        if (cache == null) {
+            return 0;
+        }
+
+        long result = 0;
+
+        for (Entry entry : cache.asMap().values()) {
+            result += entry.getWeight();
+        }
+
+        return result;
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    @FunctionalInterface
+    interface BitSetLoader {
+        FixedBitSet load() throws IOException;
+    }
+
+    static class Entry {
+        private final FixedBitSet dlsBits;
+        private final Map<IndexReader.CacheKey, CacheHelper> readerCacheHelpers = new ConcurrentHashMap<>();
+        private final int weight;
+
+        Entry(FixedBitSet dlsBits) {
+            this.dlsBits = dlsBits;
+            this.weight = (int) Math.min(Integer.MAX_VALUE, dlsBits.ramBytesUsed());
+        }
+
+        /**
+         * The documents matched by the DLS restriction. Deleted documents are not considered here.
+         */
+        FixedBitSet getDlsBits() {
+            return dlsBits;
+        }
+
+        /**
+         * Returns a cache helper which is stable for the given segment reader and the DLS restriction of this entry. Returns null if the given
+         * reader does not support caching.
+         */
+        CacheHelper getReaderCacheHelper(LeafReader reader) {
+            CacheHelper delegate = reader.getReaderCacheHelper();
+
+            if (delegate == null) {
+                return null;
+            }
+
+            return readerCacheHelpers.computeIfAbsent(delegate.getKey(), (k) -> {
+                delegate.addClosedListener((closedKey) -> readerCacheHelpers.remove(closedKey));
+                return new FilterDirectoryReader.DelegatingCacheHelper(delegate) {
+                };
+            });
+        }
+
+        int getWeight() {
+            return weight;
+        }
+    }
+
+    /**
+     * The state of an index the documents matched by a DLS restriction depend on. The components of reloadable analyzers are compared by identity;
+     * a reload of the analyzers creates new components.
+     */
+    public static class IndexVersion {
+        private final long mappingVersion;
+        private final long settingsVersion;
+        private final List<AnalyzerComponents> analyzerComponents;
+        private final int hashCode;
+
+        IndexVersion(long mappingVersion, long settingsVersion, List<AnalyzerComponents> analyzerComponents) {
+            this.mappingVersion = mappingVersion;
+            this.settingsVersion = settingsVersion;
+            this.analyzerComponents = analyzerComponents;
+            this.hashCode = Objects.hash(mappingVersion, settingsVersion, analyzerComponents);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof IndexVersion)) {
+                return false;
+            }
+
+            IndexVersion other = (IndexVersion) obj;
+
+            return this.mappingVersion == other.mappingVersion && this.settingsVersion == other.settingsVersion
+                    && Objects.equals(this.analyzerComponents, other.analyzerComponents);
+        }
+    }
+
+    static class Key {
+        private final IndexReader.CacheKey coreKey;
+        private final IndexVersion indexVersion;
+        private final DlsRestriction restriction;
+        private final int hashCode;
+
+        Key(IndexReader.CacheKey coreKey, IndexVersion indexVersion, DlsRestriction restriction) {
+            this.coreKey = coreKey;
+            this.indexVersion = indexVersion;
+            this.restriction = restriction;
+            this.hashCode = 31 * (31 * System.identityHashCode(coreKey) + indexVersion.hashCode()) + restriction.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+
+            return this.coreKey == other.coreKey && this.indexVersion.equals(other.indexVersion)
+                    && Objects.equals(this.restriction, other.restriction);
+        }
+    }
+}
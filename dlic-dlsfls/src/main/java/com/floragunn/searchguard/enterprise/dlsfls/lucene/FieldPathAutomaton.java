@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+package com.floragunn.searchguard.enterprise.dlsfls.lucene;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.elasticsearch.indices.IndicesModule;
+
+import com.floragunn.fluent.collections.ImmutableSet;
+import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldAuthorization.FlsRule;
+import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldMasking.FieldMaskingRule;
+
+/**
+ * Pre-evaluates an FLS rule and a field masking rule along the paths of a document tree. Each state of the automaton
+ * corresponds to a field path; the transitions are labeled with the unqualified field names. Thus, a document filter can
+ * walk the document by following the transitions for the field names found in the document, without building qualified
+ * field names or evaluating the rules for every document.
+ *
+ * The states are created lazily and are shared by all documents filtered with the same rules. In order to limit the memory
+ * usage for documents with dynamic field names, only MAX_STATES states are retained; further states are computed on demand.
+ */
+final class FieldPathAutomaton {
+    /**
+     * Meta fields like _id get always included, regardless of settings
+     */
+    static final ImmutableSet<String> META_FIELDS = ImmutableSet.of(IndicesModule.getBuiltInMetadataFields()).with("_primary_term");
+
+    static final int MAX_STATES = 10_000;
+
+    private final FlsRule flsRule;
+    private final FieldMaskingRule fieldMaskingRule;
+    private final State root;
+    private final AtomicInteger stateCount = new AtomicInteger();
+
+    FieldPathAutomaton(FlsRule flsRule, FieldMaskingRule fieldMaskingRule) {
+        this.flsRule = flsRule;
+        this.fieldMaskingRule = fieldMaskingRule;
+        this.root = new State(null, true, true, null, flsRule.isAllowAll() && fieldMaskingRule.isAllowAll());
+    }
+
+    State root() {
+        return root;
+    }
+
+    FlsRule getFlsRule() {
+        return flsRule;
+    }
+
+    FieldMaskingRule getFieldMaskingRule() {
+        return fieldMaskingRule;
+    }
+
+    private State createState(State parent, String name) {
+        String path = parent.path == null ? name : parent.path + "." + name;
+
+        boolean allowed = META_FIELDS.contains(path) || flsRule.isAllowedAssumingParentsAreAllowed(path);
+        boolean objectAllowed = allowed || flsRule.isObjectAllowedAssumingParentsAreAllowed(path);
+        FieldMaskingRule.Field masking = fieldMaskingRule.get(path);
+        boolean unfiltered = allowed && masking == null && flsRule.isSubtreeAllowedAssumingParentsAreAllowed(path)
+                && fieldMaskingRule.isSubtreeNotMasked(path);
+
+        return new State(path, allowed, objectAllowed, masking, unfiltered);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldPathAutomaton [" + flsRule + "; " + fieldMaskingRule + "; states: " + stateCount.get() + "]";
+    }
+
+    final class State {
+        private final String path;
+        private final boolean allowed;
+        private final boolean objectAllowed;
+        private final FieldMaskingRule.Field masking;
+        private final boolean unfiltered;
+        private final Map<String, State> transitions;
+
+        private State(String path, boolean allowed, boolean objectAllowed, FieldMaskingRule.Field masking, boolean unfiltered) {
+            this.path = path;
+            this.allowed = allowed;
+            this.objectAllowed = objectAllowed;
+            this.masking = masking;
+            this.unfiltered = unfiltered;
+            this.transitions = unfiltered ? null : new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Returns the state for the child field with the given unqualified name.
+         */
+        State next(String name) {
+            if (transitions == null) {
+                // All children are allowed and unmasked
+                return this;
+            }
+
+            State result = transitions.get(name);
+
+            if (result != null) {
+                return result;
+            }
+
+            result = createState(this, name);
+
+            if (stateCount.get() < MAX_STATES) {
+                State existing = transitions.putIfAbsent(name, result);
+
+                if (existing != null) {
+                    return existing;
+                }
+
+                stateCount.incrementAndGet();
+            }
+
+            return result;
+        }
+
+        /**
+         * The qualified name of the field; null for the root of the document.
+         */
+        String getPath() {
+            return path;
+        }
+
+        /**
+         * True if the field with its value may be included in the document
+         */
+        boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * True if the field may be included in the document if its value is an object or array, because it contains allowed
+         * fields.
+         */
+        boolean isObjectAllowed() {
+            return objectAllowed;
+        }
+
+        /**
+         * Returns the masking to be applied to string values of this field; null if these are not masked.
+         */
+        FieldMaskingRule.Field getMasking() {
+            return masking;
+        }
+
+        /**
+         * True if the value of this field can be copied without filtering or masking anything inside.
+         */
+        boolean isUnfiltered() {
+            return unfiltered;
+        }
+
+        @Override
+        public String toString() {
+            return path + (unfiltered ? " [unfiltered]" : allowed ? " [allowed]" : objectAllowed ? " [object allowed]" : " [denied]");
+        }
+    }
+}
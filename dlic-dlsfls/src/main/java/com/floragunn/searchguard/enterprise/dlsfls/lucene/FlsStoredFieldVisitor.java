@@ -17,13 +17,9 @@
  */
 package com.floragunn.searchguard.enterprise.dlsfls.lucene;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 
 import com.floragunn.searchsupport.dfm.MaskedFieldsConsumer;
 import org.apache.logging.log4j.LogManager;
@@ -31,14 +27,15 @@ import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.StoredFieldVisitor;
 import org.elasticsearch.ElasticsearchException;
-import org.elasticsearch.indices.IndicesModule;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
-import com.floragunn.codova.documents.DocumentParseException;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.floragunn.codova.documents.Format;
-import com.floragunn.fluent.collections.ImmutableSet;
 import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldAuthorization.FlsRule;
 import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldMasking.FieldMaskingRule;
 
@@ -48,11 +45,6 @@ import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldMasking.FieldMa
 class FlsStoredFieldVisitor extends StoredFieldVisitor {
     private static final Logger log = LogManager.getLogger(FlsStoredFieldVisitor.class);
 
-    /**
-     * Meta fields like _id get always included, regardless of settings
-     */
-    private static final  ImmutableSet<String> META_FIELDS = ImmutableSet.of(IndicesModule.getBuiltInMetadataFields()).with("_primary_term");
-    
     private final StoredFieldVisitor delegate;
     private final DlsFlsActionContext dlsFlsContext;
     private final FlsRule flsRule;
@@ -77,13 +69,13 @@ class FlsStoredFieldVisitor extends StoredFieldVisitor {
             try {
                 if (delegate instanceof MaskedFieldsConsumer) {
                     ((MaskedFieldsConsumer) delegate).binaryMaskedField(fieldInfo,
-                            DocumentFilter.filter(Format.JSON, value, flsRule, fieldMaskingRule),
+                            DocumentFilter.filter(value, dlsFlsContext.getFieldPathAutomaton()),
                             (f) -> fieldMaskingRule != null && fieldMaskingRule.get(f) != null);
                 } else {
-                    delegate.binaryField(fieldInfo, DocumentFilter.filter(Format.JSON, value, flsRule, fieldMaskingRule));
+                    delegate.binaryField(fieldInfo, DocumentFilter.filter(value, dlsFlsContext.getFieldPathAutomaton()));
                 }
 
-            } catch (DocumentParseException e) {
+            } catch (JsonProcessingException e) {
                 throw new ElasticsearchException("Cannot filter source of document", e);
             }
         } else {
@@ -93,7 +85,7 @@ class FlsStoredFieldVisitor extends StoredFieldVisitor {
 
     @Override
     public Status needsField(FieldInfo fieldInfo) throws IOException {
-        return META_FIELDS.contains(fieldInfo.name) || dlsFlsContext.isAllowed(fieldInfo.name) ? delegate.needsField(fieldInfo) : Status.NO;
+        return FieldPathAutomaton.META_FIELDS.contains(fieldInfo.name) || dlsFlsContext.isAllowed(fieldInfo.name) ? delegate.needsField(fieldInfo) : Status.NO;
     }
 
     @Override
@@ -147,146 +139,248 @@ class FlsStoredFieldVisitor extends StoredFieldVisitor {
         return delegate.toString();
     }
 
+    /**
+     * Applies FLS and field masking to a document source in a single streaming pass. Supports all formats a document source can
+     * be stored in (JSON, SMILE, CBOR, YAML); the filtered document is written in the same format as the source.
+     *
+     * Objects and arrays which neither contain restricted nor masked fields are not filtered further. For JSON sources, these
+     * are copied as raw byte spans from the source to the output.
+     */
     static class DocumentFilter {
-        public static byte[] filter(Format format, byte[] bytes, FlsRule flsRule, FieldMaskingRule fieldMaskingRule)
-                throws DocumentParseException, IOException {
-            try (InputStream in = new ByteArrayInputStream(bytes); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                filter(format, in, out, flsRule, fieldMaskingRule);
-                return out.toByteArray();
-            }
+        public static byte[] filter(byte[] source, FlsRule flsRule, FieldMaskingRule fieldMaskingRule) throws IOException {
+            return filter(source, new FieldPathAutomaton(flsRule, fieldMaskingRule));
         }
 
-        public static void filter(Format format, InputStream in, OutputStream out, FlsRule flsRule, FieldMaskingRule fieldMaskingRule)
-                throws DocumentParseException, IOException {
-            try (JsonParser parser = format.getJsonFactory().createParser(in);
-                    JsonGenerator generator = format.getJsonFactory().createGenerator(out)) {
-                new DocumentFilter(parser, generator, flsRule, fieldMaskingRule).copy();
+        public static byte[] filter(byte[] source, FieldPathAutomaton automaton) throws IOException {
+            if (automaton.root().isUnfiltered()) {
+                return source;
+            }
+
+            SourceFormat format = SourceFormat.detect(source);
+            OutputBuffer out = new OutputBuffer(source.length);
+
+            try (JsonParser parser = format.factory.createParser(source); JsonGenerator generator = format.factory.createGenerator(out)) {
+                new DocumentFilter(source, parser, generator, out, format).copy(automaton.root());
             }
+
+            return out.toTrimmedByteArray();
         }
 
+        private final byte[] source;
         private final JsonParser parser;
         private final JsonGenerator generator;
-        private final FlsRule flsRule;
-        private final FieldMaskingRule fieldMaskingRule;
-        // queuedFieldName will contain the unqualified name of a field that was encountered, but not yet written.
-        // It is necessary to queue the field names because it can depend on the type of the following value whether
-        // the field/value pair will be written: If the value is object-valued, we will also start writing the object
-        // if we expect the object to contain allowed values, even if the object itself is not fully allowed.
-        private String queuedFieldName;
-        // fullCurrentName contains the qualified name of the current field. Changes for every FIELD_NAME token. Does
-        // include names of parent objects concatenated by ".". If the current field is named "c" and the parent
-        // objects are named "a", "b", this will contain "a.b.c".
-        private String fullCurrentName;
-        // fullParentName contains the qualified name of the object containing the current field. Will be null if the
-        // current field is at the root object of the document.
-        private String fullParentName;
-        private Deque<String> nameStack = new ArrayDeque<>();
-
-        DocumentFilter(JsonParser parser, JsonGenerator generator, FlsRule flsRule, FieldMaskingRule fieldMaskingRule) {
+        private final OutputBuffer out;
+        private final SourceFormat format;
+
+        private DocumentFilter(byte[] source, JsonParser parser, JsonGenerator generator, OutputBuffer out, SourceFormat format) {
+            this.source = source;
             this.parser = parser;
             this.generator = generator;
-            this.flsRule = flsRule;
-            this.fieldMaskingRule = fieldMaskingRule;
+            this.out = out;
+            this.format = format;
+        }
+
+        private void copy(FieldPathAutomaton.State root) throws IOException {
+            JsonToken token = parser.nextToken();
+
+            if (token != null) {
+                copyValue(root, token);
+            }
         }
 
-        @SuppressWarnings("incomplete-switch")
-        private void copy() throws IOException {
-            for (JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken(); token != null; token = parser
-                    .nextToken()) {
-
-                if (this.queuedFieldName != null) {
-                    boolean startOfObjectOrArray = (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY);
-                    String fullQueuedFieldName = this.fullParentName == null ? this.queuedFieldName : this.fullParentName + "." + this.queuedFieldName;
-                    this.queuedFieldName = null;
-
-                    if (META_FIELDS.contains(fullQueuedFieldName)
-                            || flsRule.isAllowedAssumingParentsAreAllowed(fullQueuedFieldName)
-                            || (startOfObjectOrArray && flsRule.isObjectAllowedAssumingParentsAreAllowed(fullQueuedFieldName))) {
-                        generator.writeFieldName(parser.currentName());
-                        this.fullCurrentName = fullQueuedFieldName;
-                    } else {
-                        // If the current field name is disallowed by FLS, we will skip the next token.
-                        // If the next token is an object or array start, all the child tokens will be also skipped
-                        if (startOfObjectOrArray) {
-                            parser.skipChildren();
-                        }
-                        continue;
-                    }
+        private void copyObject(FieldPathAutomaton.State state) throws IOException {
+            generator.writeStartObject();
+
+            for (JsonToken token = nextToken(); token != JsonToken.END_OBJECT; token = nextToken()) {
+                String name = parser.currentName();
+                FieldPathAutomaton.State fieldState = state.next(name);
+                JsonToken valueToken = nextToken();
+                boolean startOfObjectOrArray = valueToken == JsonToken.START_OBJECT || valueToken == JsonToken.START_ARRAY;
+
+                if (fieldState.isAllowed() || (startOfObjectOrArray && fieldState.isObjectAllowed())) {
+                    generator.writeFieldName(name);
+                    copyValue(fieldState, valueToken);
+                } else if (startOfObjectOrArray) {
+                    // If the field is disallowed by FLS, all the child tokens will be also skipped
+                    parser.skipChildren();
                 }
+            }
 
-                switch (token) {
-                    case FIELD_NAME:
-                        // We do not immediately write field names, because we need to know the type of the value
-                        // when checking FLS rules
-                        this.queuedFieldName = parser.currentName();
-                        break;
-
-                    case START_OBJECT:
-                        generator.writeStartObject();
-                        if (this.fullParentName != null) {
-                            nameStack.add(this.fullParentName);
-                        }
-                        this.fullParentName = this.fullCurrentName;
-                        break;
-
-                    case END_OBJECT:
-                        generator.writeEndObject();
-                        this.fullCurrentName = this.fullParentName;
-                        if (nameStack.isEmpty()) {
-                            this.fullParentName = null;
-                        } else {
-                            this.fullParentName = nameStack.removeLast();
-                        }
-                        break;
-
-                    case START_ARRAY:
-                        generator.writeStartArray();
-                        break;
-
-                    case END_ARRAY:
-                        generator.writeEndArray();
-                        break;
-
-                    case VALUE_TRUE:
-                        generator.writeBoolean(Boolean.TRUE);
-                        break;
-
-                    case VALUE_FALSE:
-                        generator.writeBoolean(Boolean.FALSE);
-                        break;
-
-                    case VALUE_NULL:
-                        generator.writeNull();
-                        break;
-
-                    case VALUE_NUMBER_FLOAT:
-                        generator.writeNumber(parser.getDecimalValue());
-                        break;
-
-                    case VALUE_NUMBER_INT:
-                        generator.writeNumber(parser.getBigIntegerValue());
-                        break;
-
-                    case VALUE_STRING:
-                        FieldMaskingRule.Field field = fieldMaskingRule.get(this.fullCurrentName);
-
-                        if (field != null) {
-                            generator.writeString(field.apply(parser.getText()));
-                        } else {
-                            generator.writeString(parser.getText());
-                        }
-                        break;
-
-                    case VALUE_EMBEDDED_OBJECT:
-                        generator.writeEmbeddedObject(parser.getEmbeddedObject());
-                        break;
-
-                    default:
-                        throw new IllegalStateException("Unexpected token: " + token);
+            generator.writeEndObject();
+        }
 
+        private void copyArray(FieldPathAutomaton.State state) throws IOException {
+            generator.writeStartArray();
+
+            for (JsonToken token = nextToken(); token != JsonToken.END_ARRAY; token = nextToken()) {
+                // Array elements are subject to the same rules as the field containing the array
+                copyValue(state, token);
+            }
+
+            generator.writeEndArray();
+        }
+
+        private void copyValue(FieldPathAutomaton.State state, JsonToken token) throws IOException {
+            switch (token) {
+            case START_OBJECT:
+                if (state.isUnfiltered()) {
+                    copyUnfilteredStructure();
+                } else {
+                    copyObject(state);
                 }
+                break;
+
+            case START_ARRAY:
+                if (state.isUnfiltered()) {
+                    copyUnfilteredStructure();
+                } else {
+                    copyArray(state);
+                }
+                break;
+
+            case VALUE_STRING:
+                FieldMaskingRule.Field field = state.getMasking();
+
+                if (field != null) {
+                    generator.writeString(field.apply(parser.getText()));
+                } else {
+                    copyScalar(token);
+                }
+                break;
+
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+            case VALUE_NULL:
+            case VALUE_NUMBER_FLOAT:
+            case VALUE_NUMBER_INT:
+            case VALUE_EMBEDDED_OBJECT:
+                copyScalar(token);
+                break;
+
+            default:
+                throw new IllegalStateException("Unexpected token: " + token);
+            }
+        }
 
+        private void copyScalar(JsonToken token) throws IOException {
+            if (format.binary) {
+                // Binary formats keep the original number types and binary values
+                generator.copyCurrentEvent(parser);
+                return;
             }
+
+            switch (token) {
+            case VALUE_STRING:
+                generator.writeString(parser.getText());
+                break;
+            case VALUE_TRUE:
+                generator.writeBoolean(Boolean.TRUE);
+                break;
+            case VALUE_FALSE:
+                generator.writeBoolean(Boolean.FALSE);
+                break;
+            case VALUE_NULL:
+                generator.writeNull();
+                break;
+            case VALUE_NUMBER_FLOAT:
+                generator.writeNumber(parser.getDecimalValue());
+                break;
+            case VALUE_NUMBER_INT:
+                generator.writeNumber(parser.getBigIntegerValue());
+                break;
+            case VALUE_EMBEDDED_OBJECT:
+                generator.writeEmbeddedObject(parser.getEmbeddedObject());
+                break;
+            default:
+                throw new IllegalStateException("Unexpected token: " + token);
+            }
+        }
+
+        /**
+         * Copies the object or array starting at the current token without looking at its contents. For JSON, the bytes are
+         * copied directly from the source. Other formats need to be re-encoded, as SMILE might use back references into
+         * the source and binary generators do not support raw values.
+         */
+        private void copyUnfilteredStructure() throws IOException {
+            long start = format.rawCopy ? parser.currentTokenLocation().getByteOffset() : -1;
+
+            if (start < 0) {
+                generator.copyCurrentStructure(parser);
+                return;
+            }
+
+            parser.skipChildren();
+            long end = parser.currentTokenLocation().getByteOffset() + 1;
+
+            // Lets the generator write the separator preceding the value
+            generator.writeRawValue("");
+            generator.flush();
+            out.write(source, (int) start, (int) (end - start));
+        }
+
+        private JsonToken nextToken() throws IOException {
+            JsonToken token = parser.nextToken();
+
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of document");
+            }
+
+            return token;
+        }
+    }
+
+    enum SourceFormat {
+        JSON(Format.JSON.getJsonFactory(), false, true), SMILE(Format.SMILE.getJsonFactory(), true, false),
+        CBOR(new CBORFactory(), true, false), YAML(Format.YAML.getJsonFactory(), false, false);
+
+        private final JsonFactory factory;
+        private final boolean binary;
+        private final boolean rawCopy;
+
+        SourceFormat(JsonFactory factory, boolean binary, boolean rawCopy) {
+            this.factory = factory;
+            this.binary = binary;
+            this.rawCopy = rawCopy;
+        }
+
+        /**
+         * Detects the format of a document source by looking at its first bytes. Follows the detection done by Elasticsearch
+         * when indexing documents.
+         */
+        static SourceFormat detect(byte[] source) {
+            if (source.length == 0) {
+                return JSON;
+            }
+
+            byte first = source[0];
+
+            if (first == '{') {
+                return JSON;
+            } else if (source.length >= 2 && first == ':' && source[1] == ')') {
+                return SMILE;
+            } else if (source.length >= 3 && first == '-' && source[1] == '-' && source[2] == '-') {
+                return YAML;
+            } else if ((first & 0xe0) == 0xa0 || (source.length >= 3 && first == (byte) 0xd9 && source[1] == (byte) 0xd9
+                    && source[2] == (byte) 0xf7)) {
+                // Start of a CBOR map or the CBOR self-describe tag
+                return CBOR;
+            } else {
+                return JSON;
+            }
+        }
+    }
+
+    /**
+     * Output buffer sized for the source document. If the filtered document has exactly the size of the source, the buffer
+     * can be used as result without copying it.
+     */
+    private static class OutputBuffer extends ByteArrayOutputStream {
+        OutputBuffer(int size) {
+            super(Math.max(size, 32));
+        }
+
+        byte[] toTrimmedByteArray() {
+            return count == buf.length ? buf : Arrays.copyOf(buf, count);
         }
     }
 }
\ No newline at end of file
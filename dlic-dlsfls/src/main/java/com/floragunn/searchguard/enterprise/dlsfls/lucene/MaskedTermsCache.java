@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+package com.floragunn.searchguard.enterprise.dlsfls.lucene;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReader.CacheHelper;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldMasking.FieldMaskingRule;
+import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Memoizes the masked values of terms of a segment. The cache is shared by all requests and is keyed by the core cache key of the segment
+ * and the masking key of the field masking. The masking key consists of the masking method, salt, personalization and prefix; these
+ * determine the masked values completely. Thus, field masking objects which are re-created by configuration or index metadata updates
+ * keep using the same entries as long as the masking does not change; entries for changed maskings are evicted as they are not used any
+ * more. Entries for a segment are removed when the segment is closed.
+ *
+ * Thus, aggregations over masked fields with many distinct values need to compute the masked value of each term only once per segment,
+ * instead of once for each request.
+ *
+ * Each entry accepts new terms until it has reached a quarter of the maximum heap size; afterwards, further terms are masked without
+ * being memoized.
+ */
+public class MaskedTermsCache implements ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(MaskedTermsCache.class);
+
+    public static final StaticSettings.Attribute<ByteSizeValue> MAX_HEAP_SIZE = //
+            StaticSettings.Attribute.define("searchguard.field_masking.masked_terms_cache.max_heap_size")
+                    .withDefault(ByteSizeValue.of(32, ByteSizeUnit.MB)).asByteSizeValue();
+
+    /**
+     * Rough estimate for the heap used by a memoized term, not counting the bytes of the term and the masked term
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * The heap size of an entry is reported to the cache again after it has grown by this number of bytes
+     */
+    private static final int REWEIGH_THRESHOLD = 64 * 1024;
+
+    private final Cache<Key, Entry> cache;
+    private final long maxEntryHeapSize;
+    private final Set<IndexReader.CacheKey> coreKeysWithClosedListener = ConcurrentHashMap.newKeySet();
+    private final ComponentState componentState = new ComponentState(15, null, "masked_terms_cache", MaskedTermsCache.class).initialized();
+
+    public MaskedTermsCache(ByteSizeValue maxHeapSize) {
+        if (maxHeapSize.getBytes() > 0) {
+            this.cache = CacheBuilder.newBuilder().maximumWeight(maxHeapSize.getBytes()).weigher((Key k, Entry e) -> e.getWeight()).recordStats()
+                    .build();
+            this.maxEntryHeapSize = maxHeapSize.getBytes() / 4;
+            this.componentState.addMetrics("cache", CacheStats.from(this.cache), "heap_size", new Count.Live(this::getHeapSize));
+            this.componentState.setConfigProperty("max_heap_size", maxHeapSize.toString());
+        } else {
+            this.cache = null;
+            this.maxEntryHeapSize = 0;
+            this.componentState.setState(ComponentState.State.DISABLED);
+        }
+    }
+
+    public MaskedTermsCache(StaticSettings settings) {
+        this(settings.get(MAX_HEAP_SIZE));
+    }
+
+    /**
+     * Returns the memoized masked terms for the given segment reader and field masking. Returns null if the reader does not support
+     * caching or the cache is disabled.
+     */
+    Entry get(LeafReader reader, FieldMaskingRule.Field fieldMasking) {
+        if (cache == null || fieldMasking == null) {
+            return null;
+        }
+
+        CacheHelper coreCacheHelper = reader.getCoreCacheHelper();
+
+        if (coreCacheHelper == null) {
+            return null;
+        }
+
+        IndexReader.CacheKey coreKey = coreCacheHelper.getKey();
+
+        if (coreKeysWithClosedListener.add(coreKey)) {
+            coreCacheHelper.addClosedListener(this::onCoreClosed);
+        }
+
+        Key key = new Key(coreKey, fieldMasking.getMaskingKey());
+
+        try {
+            return cache.get(key, () -> new Entry(key, fieldMasking));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    long size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    private void onCoreClosed(IndexReader.CacheKey coreKey) {
+        coreKeysWithClosedListener.remove(coreKey);
+        cache.asMap().keySet().removeIf((k) -> k.coreKey == coreKey);
+
+        if (log.isTraceEnabled()) {
+            log.trace("Removed masked terms for closed segment " + coreKey);
+        }
+    }
+
+    private long getHeapSize() {
+        if (cache == null) {
+            return 0;
+        }
+
+        long result = 0;
+
+        for (Entry entry : cache.asMap().values()) {
+            result += entry.heapSize.get();
+        }
+
+        return result;
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    class Entry {
+        private final Key key;
+        private final FieldMaskingRule.Field fieldMasking;
+        private final Map<BytesRef, BytesRef> maskedTerms = new ConcurrentHashMap<>();
+        private final AtomicLong heapSize = new AtomicLong();
+        private volatile long weighedHeapSize;
+
+        Entry(Key key, FieldMaskingRule.Field fieldMasking) {
+            this.key = key;
+            this.fieldMasking = fieldMasking;
+        }
+
+        /**
+         * Returns the masked value of the given term. The returned BytesRef is shared and must not be modified.
+         */
+        BytesRef apply(BytesRef term) {
+            if (term == null) {
+                return null;
+            }
+
+            BytesRef result = maskedTerms.get(term);
+
+            if (result != null) {
+                return result;
+            }
+
+            result = fieldMasking.apply(term);
+
+            if (heapSize.get() < maxEntryHeapSize) {
+                BytesRef termCopy = BytesRef.deepCopyOf(term);
+
+                if (maskedTerms.putIfAbsent(termCopy, result) == null) {
+                    long newHeapSize = heapSize.addAndGet(termCopy.length + result.length + ENTRY_OVERHEAD);
+
+                    if (newHeapSize - weighedHeapSize > REWEIGH_THRESHOLD) {
+                        weighedHeapSize = newHeapSize;
+                        // Replacing the entry by itself makes the cache update its weight and evict other entries if necessary
+                        cache.asMap().replace(key, this, this);
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        int getWeight() {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(ENTRY_OVERHEAD, heapSize.get()));
+        }
+    }
+
+    static class Key {
+        private final IndexReader.CacheKey coreKey;
+        private final FieldMaskingRule.Field.MaskingKey maskingKey;
+        private final int hashCode;
+
+        Key(IndexReader.CacheKey coreKey, FieldMaskingRule.Field.MaskingKey maskingKey) {
+            this.coreKey = coreKey;
+            this.maskingKey = maskingKey;
+            this.hashCode = 31 * System.identityHashCode(coreKey) + maskingKey.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+
+            return this.coreKey == other.coreKey && this.maskingKey.equals(other.maskingKey);
+        }
+    }
+}
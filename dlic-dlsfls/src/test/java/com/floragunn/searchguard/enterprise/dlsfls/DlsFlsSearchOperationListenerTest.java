@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.dlsfls;
+
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.fluent.collections.ImmutableList;
+import com.floragunn.searchguard.enterprise.dlsfls.DlsFlsSearchOperationListener.CompiledDlsQueryKey;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+public class DlsFlsSearchOperationListenerTest {
+
+    @Test
+    public void compiledDlsQueryKey_sharedBetweenShards() {
+        Cache<CompiledDlsQueryKey, Query> cache = CacheBuilder.newBuilder().build();
+        Object mappingCacheKey = new Object();
+        Query query = new MatchNoDocsQuery();
+
+        // Each shard creates its own key from the same index level information
+        CompiledDlsQueryKey shard0Key = new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_1", 3, mappingCacheKey, ImmutableList.empty());
+        CompiledDlsQueryKey shard1Key = new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_1", 3, mappingCacheKey, ImmutableList.empty());
+
+        cache.put(shard0Key, query);
+
+        Assert.assertEquals(shard0Key, shard1Key);
+        Assert.assertEquals(shard0Key.hashCode(), shard1Key.hashCode());
+        Assert.assertSame(query, cache.getIfPresent(shard1Key));
+    }
+
+    @Test
+    public void compiledDlsQueryKey_invalidatedByMappingChange() {
+        Cache<CompiledDlsQueryKey, Query> cache = CacheBuilder.newBuilder().build();
+
+        cache.put(new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_1", 3, new Object(), ImmutableList.empty()), new MatchNoDocsQuery());
+
+        // A mapping update creates a new mapping lookup with a new cache key
+        Assert.assertNull(cache.getIfPresent(new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_1", 3, new Object(), ImmutableList.empty())));
+    }
+
+    @Test
+    public void compiledDlsQueryKey_invalidatedBySettingsChange() {
+        Object mappingCacheKey = new Object();
+
+        Assert.assertNotEquals(new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_1", 3, mappingCacheKey, ImmutableList.empty()),
+                new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_1", 4, mappingCacheKey, ImmutableList.empty()));
+    }
+
+    @Test
+    public void compiledDlsQueryKey_differentIndices() {
+        Object mappingCacheKey = new Object();
+
+        Assert.assertNotEquals(new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_1", 3, mappingCacheKey, ImmutableList.empty()),
+                new CompiledDlsQueryKey(DlsRestriction.FULL, "uuid_2", 3, mappingCacheKey, ImmutableList.empty()));
+    }
+}
@@ -40,6 +40,30 @@ public class FieldMaskingRuleTest {
                 field.apply(new BytesRef("foobar".getBytes())));
     }
 
+    @Test
+    public void field_defaultHash_bytesref_offset() throws Exception {
+        FieldMaskingRule.Field field = new FieldMaskingRule.Field(new Role.Index.FieldMaskingExpression("field"), DlsFlsConfig.FieldMasking.DEFAULT);
+
+        Assert.assertEquals(new BytesRef("45b7d14f1b22aedaf7ff3895b78b86511f5355e45a67f5206af56762fe8f5d30".getBytes()),
+                field.apply(new BytesRef("xxfoobarxx".getBytes(), 2, 6)));
+    }
+
+    @Test
+    public void field_defaultHash_differentSalts() throws Exception {
+        FieldMaskingRule.Field field1 = new FieldMaskingRule.Field(new Role.Index.FieldMaskingExpression("field"), DlsFlsConfig.FieldMasking.DEFAULT);
+        FieldMaskingRule.Field field2 = new FieldMaskingRule.Field(new Role.Index.FieldMaskingExpression("field"),
+                FieldMasking.parse(DocNode.of("salt", "00000000000000000000000000000000"), null));
+
+        String hash1 = field1.apply("foobar");
+        String hash2 = field2.apply("foobar");
+
+        // The digests are re-used per thread; thus, alternating between configurations must not mix up the results
+        Assert.assertEquals("45b7d14f1b22aedaf7ff3895b78b86511f5355e45a67f5206af56762fe8f5d30", hash1);
+        Assert.assertNotEquals(hash1, hash2);
+        Assert.assertEquals(hash2, field2.apply("foobar"));
+        Assert.assertEquals(hash1, field1.apply("foobar"));
+    }
+
     @Test
     public void field_defaultHash_prefix() throws Exception {
         FieldMaskingRule.Field field = new FieldMaskingRule.Field(new Role.Index.FieldMaskingExpression("field"),
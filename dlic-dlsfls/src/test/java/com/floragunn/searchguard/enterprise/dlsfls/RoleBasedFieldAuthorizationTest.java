@@ -274,6 +274,32 @@ public class RoleBasedFieldAuthorizationTest {
             assertFalse(subject.toString(), subject.isAllowedRecursive("a1"));
             assertFalse(subject.toString(), subject.isAllowedRecursive("a123"));
         }
+
+        @Test
+        public void singleRole_subtree() throws Exception {
+            Role role = new TestSgConfig.Role("role").indexPermissions("*").fls("~object.a*", "~b").on("*").toActualRole();
+            RoleBasedFieldAuthorization.FlsRule.SingleRole subject = new RoleBasedFieldAuthorization.FlsRule.SingleRole(
+                    role.getIndexPermissions().get(0));
+
+            assertFalse(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("object"));
+            assertFalse(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("object.abc"));
+            assertTrue(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("object.x"));
+            assertTrue(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("objects"));
+            assertFalse(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("b"));
+            assertTrue(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("bb"));
+            assertTrue(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("c"));
+        }
+
+        @Test
+        public void singleRole_subtree_inclusions() throws Exception {
+            Role role = new TestSgConfig.Role("role").indexPermissions("*").fls("object.*").on("*").toActualRole();
+            RoleBasedFieldAuthorization.FlsRule.SingleRole subject = new RoleBasedFieldAuthorization.FlsRule.SingleRole(
+                    role.getIndexPermissions().get(0));
+
+            // Inclusions are not analyzed for subtrees; thus, these need to be always filtered
+            assertFalse(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("object"));
+            assertFalse(subject.toString(), subject.isSubtreeAllowedAssumingParentsAreAllowed("object.x"));
+        }
         
         
 
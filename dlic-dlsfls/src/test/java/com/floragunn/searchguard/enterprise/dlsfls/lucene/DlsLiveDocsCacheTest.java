@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.dlsfls.lucene;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.fluent.collections.ImmutableList;
+import com.floragunn.searchguard.enterprise.dlsfls.DlsRestriction;
+
+public class DlsLiveDocsCacheTest {
+
+    @Test
+    public void entriesAreSharedForSameSegmentAndRestriction() throws Exception {
+        DlsLiveDocsCache cache = new DlsLiveDocsCache(ByteSizeValue.of(1, ByteSizeUnit.MB));
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            writeDocuments(directory, 10);
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+                AtomicInteger loadCount = new AtomicInteger();
+                DlsLiveDocsCache.BitSetLoader loader = () -> {
+                    loadCount.incrementAndGet();
+                    FixedBitSet bits = new FixedBitSet(leafReader.maxDoc());
+                    bits.set(1);
+                    return bits;
+                };
+
+                DlsLiveDocsCache.Entry entry1 = cache.get(leafReader, version(1), DlsRestriction.FULL, loader);
+                DlsLiveDocsCache.Entry entry2 = cache.get(leafReader, version(1), DlsRestriction.FULL, loader);
+
+                Assert.assertSame(entry1, entry2);
+                Assert.assertEquals(1, loadCount.get());
+                Assert.assertTrue(entry1.getDlsBits().get(1));
+                Assert.assertFalse(entry1.getDlsBits().get(2));
+
+                Assert.assertSame(entry1.getReaderCacheHelper(leafReader), entry2.getReaderCacheHelper(leafReader));
+                Assert.assertNotSame(leafReader.getReaderCacheHelper().getKey(), entry1.getReaderCacheHelper(leafReader).getKey());
+
+                DlsLiveDocsCache.Entry entry3 = cache.get(leafReader, version(1), DlsRestriction.NONE, loader);
+
+                Assert.assertNotSame(entry1, entry3);
+                Assert.assertEquals(2, loadCount.get());
+                Assert.assertNotSame(entry1.getReaderCacheHelper(leafReader).getKey(), entry3.getReaderCacheHelper(leafReader).getKey());
+                Assert.assertEquals(2, cache.size());
+            }
+
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void mappingVersionIsPartOfKey() throws Exception {
+        DlsLiveDocsCache cache = new DlsLiveDocsCache(ByteSizeValue.of(1, ByteSizeUnit.MB));
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            writeDocuments(directory, 10);
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+                AtomicInteger loadCount = new AtomicInteger();
+                DlsLiveDocsCache.BitSetLoader loader = () -> {
+                    loadCount.incrementAndGet();
+                    return new FixedBitSet(leafReader.maxDoc());
+                };
+
+                DlsLiveDocsCache.Entry entry1 = cache.get(leafReader, version(1), DlsRestriction.FULL, loader);
+                DlsLiveDocsCache.Entry entry2 = cache.get(leafReader, version(2), DlsRestriction.FULL, loader);
+
+                Assert.assertNotSame(entry1, entry2);
+                Assert.assertEquals(2, loadCount.get());
+                Assert.assertSame(entry2, cache.get(leafReader, version(2), DlsRestriction.FULL, loader));
+                Assert.assertEquals(2, loadCount.get());
+            }
+
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void closingSegmentOnlyRemovesItsEntries() throws Exception {
+        DlsLiveDocsCache cache = new DlsLiveDocsCache(ByteSizeValue.of(1, ByteSizeUnit.MB));
+
+        try (Directory directory1 = new ByteBuffersDirectory(); Directory directory2 = new ByteBuffersDirectory()) {
+            writeDocuments(directory1, 10);
+            writeDocuments(directory2, 10);
+
+            try (DirectoryReader reader2 = DirectoryReader.open(directory2)) {
+                LeafReader leafReader2 = reader2.leaves().get(0).reader();
+
+                try (DirectoryReader reader1 = DirectoryReader.open(directory1)) {
+                    LeafReader leafReader1 = reader1.leaves().get(0).reader();
+
+                    cache.get(leafReader1, version(1), DlsRestriction.FULL, () -> new FixedBitSet(leafReader1.maxDoc()));
+                    cache.get(leafReader1, version(1), DlsRestriction.NONE, () -> new FixedBitSet(leafReader1.maxDoc()));
+                    cache.get(leafReader2, version(1), DlsRestriction.FULL, () -> new FixedBitSet(leafReader2.maxDoc()));
+
+                    Assert.assertEquals(3, cache.size());
+                }
+
+                Assert.assertEquals(1, cache.size());
+            }
+
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        DlsLiveDocsCache cache = new DlsLiveDocsCache(ByteSizeValue.ZERO);
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            writeDocuments(directory, 1);
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+
+                Assert.assertFalse(cache.isEnabled());
+                Assert.assertNull(cache.get(leafReader, version(1), DlsRestriction.FULL, () -> new FixedBitSet(leafReader.maxDoc())));
+            }
+        }
+    }
+
+    @Test
+    public void settingsVersionIsPartOfKey() throws Exception {
+        DlsLiveDocsCache cache = new DlsLiveDocsCache(ByteSizeValue.of(1, ByteSizeUnit.MB));
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            writeDocuments(directory, 10);
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+                AtomicInteger loadCount = new AtomicInteger();
+                DlsLiveDocsCache.BitSetLoader loader = () -> {
+                    loadCount.incrementAndGet();
+                    return new FixedBitSet(leafReader.maxDoc());
+                };
+
+                DlsLiveDocsCache.Entry entry1 = cache.get(leafReader, new DlsLiveDocsCache.IndexVersion(1, 1, ImmutableList.empty()),
+                        DlsRestriction.FULL, loader);
+                DlsLiveDocsCache.Entry entry2 = cache.get(leafReader, new DlsLiveDocsCache.IndexVersion(1, 2, ImmutableList.empty()),
+                        DlsRestriction.FULL, loader);
+
+                Assert.assertNotSame(entry1, entry2);
+                Assert.assertEquals(2, loadCount.get());
+                Assert.assertSame(entry2, cache.get(leafReader, new DlsLiveDocsCache.IndexVersion(1, 2, ImmutableList.empty()),
+                        DlsRestriction.FULL, loader));
+                Assert.assertEquals(2, loadCount.get());
+            }
+
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void failedLoadIsNotRegistered() throws Exception {
+        DlsLiveDocsCache cache = new DlsLiveDocsCache(ByteSizeValue.of(1, ByteSizeUnit.MB));
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            writeDocuments(directory, 10);
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+
+                try {
+                    cache.get(leafReader, version(1), DlsRestriction.FULL, () -> {
+                        throw new IOException("test");
+                    });
+                    Assert.fail();
+                } catch (IOException e) {
+                    Assert.assertEquals("test", e.getMessage());
+                }
+
+                Assert.assertEquals(0, cache.size());
+                Assert.assertEquals(0, cache.registeredKeyCount());
+
+                cache.get(leafReader, version(1), DlsRestriction.FULL, () -> new FixedBitSet(leafReader.maxDoc()));
+
+                Assert.assertEquals(1, cache.size());
+                Assert.assertEquals(1, cache.registeredKeyCount());
+            }
+
+            Assert.assertEquals(0, cache.registeredKeyCount());
+        }
+    }
+
+    private static DlsLiveDocsCache.IndexVersion version(long mappingVersion) {
+        return new DlsLiveDocsCache.IndexVersion(mappingVersion, 1, ImmutableList.empty());
+    }
+
+    private static void writeDocuments(Directory directory, int count) throws Exception {
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < count; i++) {
+                Document document = new Document();
+                document.add(new StringField("id", String.valueOf(i), Field.Store.YES));
+                writer.addDocument(document);
+            }
+
+            writer.commit();
+        }
+    }
+}
@@ -14,9 +14,16 @@
 
 package com.floragunn.searchguard.enterprise.dlsfls.lucene;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.floragunn.codova.documents.DocNode;
 import com.floragunn.codova.documents.Format;
 import com.floragunn.searchguard.enterprise.dlsfls.DlsFlsConfig;
@@ -30,7 +37,7 @@ public class DocumentFilterTest {
         DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1, "b", DocNode.of("c", 2)),
                 "boolean", true, "boolean2", false, "null", null, "float", 0.1);
 
-        byte[] filteredDocumentBytes = DocumentFilter.filter(Format.JSON, document.toBytes(Format.JSON), FlsRule.ALLOW_ALL,
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.JSON), FlsRule.ALLOW_ALL,
                 FieldMaskingRule.ALLOW_ALL);
 
         DocNode filteredDocument = DocNode.parse(Format.JSON).from(filteredDocumentBytes);
@@ -44,7 +51,7 @@ public class DocumentFilterTest {
 
         DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1), "x", "y");
 
-        byte[] filteredDocumentBytes = DocumentFilter.filter(Format.JSON, document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
 
         DocNode filteredDocument = DocNode.parse(Format.JSON).from(filteredDocumentBytes);
 
@@ -57,7 +64,7 @@ public class DocumentFilterTest {
 
         DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1), "x", "y");
 
-        byte[] filteredDocumentBytes = DocumentFilter.filter(Format.JSON, document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
 
         DocNode filteredDocument = DocNode.parse(Format.JSON).from(filteredDocumentBytes);
 
@@ -70,7 +77,7 @@ public class DocumentFilterTest {
 
         DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1), "x", "y");
 
-        byte[] filteredDocumentBytes = DocumentFilter.filter(Format.JSON, document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
 
         DocNode filteredDocument = DocNode.parse(Format.JSON).from(filteredDocumentBytes);
 
@@ -83,7 +90,7 @@ public class DocumentFilterTest {
 
         DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1, "b", 2), "x", "y");
 
-        byte[] filteredDocumentBytes = DocumentFilter.filter(Format.JSON, document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.JSON), flsRule, FieldMaskingRule.ALLOW_ALL);
 
         DocNode filteredDocument = DocNode.parse(Format.JSON).from(filteredDocumentBytes);
 
@@ -96,11 +103,93 @@ public class DocumentFilterTest {
         FieldMaskingRule fieldMaskingRule = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "x");
         DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1), "x", "y");
 
-        byte[] filteredDocumentBytes = DocumentFilter.filter(Format.JSON, document.toBytes(Format.JSON), FlsRule.ALLOW_ALL, fieldMaskingRule);
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.JSON), FlsRule.ALLOW_ALL, fieldMaskingRule);
 
         DocNode filteredDocument = DocNode.parse(Format.JSON).from(filteredDocumentBytes);
 
         Assert.assertEquals(document.with("x", "0f9768c7af6190a3707258090b7966d429ae72b29ce19afeacb7c26b59b5448f").toDeepBasicObject(),
                 filteredDocument.toDeepBasicObject());
     }
+
+    @Test
+    public void hashAttributeInArray() throws Exception {
+        FieldMaskingRule fieldMaskingRule = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "array");
+        DocNode document = DocNode.of("array", DocNode.array("y", DocNode.of("a", "y")), "x", "y");
+
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.JSON), FlsRule.ALLOW_ALL, fieldMaskingRule);
+
+        DocNode filteredDocument = DocNode.parse(Format.JSON).from(filteredDocumentBytes);
+
+        Assert.assertEquals(DocNode.of("array", DocNode.array("0f9768c7af6190a3707258090b7966d429ae72b29ce19afeacb7c26b59b5448f", DocNode.of("a", "y")), "x", "y")
+                .toDeepBasicObject(), filteredDocument.toDeepBasicObject());
+    }
+
+    @Test
+    public void identityReturnsSource() throws Exception {
+        byte[] source = DocNode.of("a", 1).toBytes(Format.JSON);
+
+        Assert.assertSame(source, DocumentFilter.filter(source, FlsRule.ALLOW_ALL, FieldMaskingRule.ALLOW_ALL));
+    }
+
+    @Test
+    public void unfilteredSubtreesAreCopiedRaw() throws Exception {
+        FlsRule flsRule = FlsRule.of("*", "~x");
+        String source = "{\"object\": { \"a\" : [1, 2.50,  {\"b\":\"c\"}] },\n \"x\": \"y\", \"array\":[ 1e3 ]}";
+
+        byte[] filteredDocumentBytes = DocumentFilter.filter(source.getBytes(StandardCharsets.UTF_8), flsRule, FieldMaskingRule.ALLOW_ALL);
+
+        Assert.assertEquals("{\"object\":{ \"a\" : [1, 2.50,  {\"b\":\"c\"}] },\"array\":[ 1e3 ]}",
+                new String(filteredDocumentBytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void smile() throws Exception {
+        FlsRule flsRule = FlsRule.of("*", "~object.a");
+        FieldMaskingRule fieldMaskingRule = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "x");
+
+        DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1, "b", 2), "x", "y");
+
+        byte[] filteredDocumentBytes = DocumentFilter.filter(document.toBytes(Format.SMILE), flsRule, fieldMaskingRule);
+
+        DocNode filteredDocument = DocNode.parse(Format.SMILE).from(filteredDocumentBytes);
+
+        Assert.assertEquals(DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("b", 2), "x",
+                "0f9768c7af6190a3707258090b7966d429ae72b29ce19afeacb7c26b59b5448f").toDeepBasicObject(), filteredDocument.toDeepBasicObject());
+    }
+
+    @Test
+    public void cbor() throws Exception {
+        FlsRule flsRule = FlsRule.of("*", "~object.a");
+
+        DocNode document = DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("a", 1, "b", 2), "x", "y");
+
+        byte[] filteredDocumentBytes = DocumentFilter.filter(toCbor(document), flsRule, FieldMaskingRule.ALLOW_ALL);
+
+        Assert.assertEquals(FlsStoredFieldVisitor.SourceFormat.CBOR, FlsStoredFieldVisitor.SourceFormat.detect(filteredDocumentBytes));
+        Assert.assertEquals(DocNode.of("array", DocNode.array("a", "b", "c", 1, 2, 3), "object", DocNode.of("b", 2), "x", "y").toDeepBasicObject(),
+                DocNode.parse(Format.JSON).from(fromCbor(filteredDocumentBytes)).toDeepBasicObject());
+    }
+
+    private static byte[] toCbor(DocNode document) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (JsonParser parser = Format.JSON.getJsonFactory().createParser(document.toBytes(Format.JSON));
+                JsonGenerator generator = new CBORFactory().createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static byte[] fromCbor(byte[] cbor) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (JsonParser parser = new CBORFactory().createParser(cbor); JsonGenerator generator = Format.JSON.getJsonFactory().createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+
+        return out.toByteArray();
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.enterprise.dlsfls.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.searchguard.enterprise.dlsfls.DlsFlsConfig;
+import com.floragunn.searchguard.enterprise.dlsfls.RoleBasedFieldMasking.FieldMaskingRule;
+
+public class MaskedTermsCacheTest {
+
+    @Test
+    public void entriesAreSharedForSameSegmentAndMasking() throws Exception {
+        MaskedTermsCache cache = new MaskedTermsCache(ByteSizeValue.of(1, ByteSizeUnit.MB));
+        FieldMaskingRule.Field fieldMasking = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "field").get("field");
+        FieldMaskingRule.Field recreatedFieldMasking = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "field").get("field");
+        FieldMaskingRule.Field otherFieldMasking = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "other_field").get("other_field");
+        FieldMaskingRule.Field otherSaltFieldMasking = FieldMaskingRule
+                .of(new DlsFlsConfig.FieldMasking(null, new byte[16], DlsFlsConfig.FieldMasking.DEFAULT.getPersonalization(), null), "field")
+                .get("field");
+        FieldMaskingRule.Field otherAlgoFieldMasking = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "field::SHA-256").get("field");
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            writeDocuments(directory, 10);
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+
+                MaskedTermsCache.Entry entry1 = cache.get(leafReader, fieldMasking);
+                MaskedTermsCache.Entry entry2 = cache.get(leafReader, fieldMasking);
+
+                Assert.assertSame(entry1, entry2);
+
+                BytesRef masked1 = entry1.apply(new BytesRef("xxfoobar".getBytes(), 2, 6));
+                BytesRef masked2 = entry2.apply(new BytesRef("foobar"));
+
+                Assert.assertEquals(new BytesRef("45b7d14f1b22aedaf7ff3895b78b86511f5355e45a67f5206af56762fe8f5d30"), masked1);
+                Assert.assertSame(masked1, masked2);
+
+                // Masking objects are re-created on configuration and index metadata updates; as long as the masking is the same, the
+                // entry is re-used
+                Assert.assertSame(entry1, cache.get(leafReader, recreatedFieldMasking));
+                Assert.assertSame(entry1, cache.get(leafReader, otherFieldMasking));
+                Assert.assertEquals(1, cache.size());
+
+                MaskedTermsCache.Entry otherSaltEntry = cache.get(leafReader, otherSaltFieldMasking);
+                MaskedTermsCache.Entry otherAlgoEntry = cache.get(leafReader, otherAlgoFieldMasking);
+
+                Assert.assertNotSame(entry1, otherSaltEntry);
+                Assert.assertNotSame(entry1, otherAlgoEntry);
+                Assert.assertNotEquals(masked1, otherSaltEntry.apply(new BytesRef("foobar")));
+                Assert.assertNotEquals(masked1, otherAlgoEntry.apply(new BytesRef("foobar")));
+                Assert.assertEquals(3, cache.size());
+            }
+
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        MaskedTermsCache cache = new MaskedTermsCache(ByteSizeValue.ZERO);
+        FieldMaskingRule.Field fieldMasking = FieldMaskingRule.of(DlsFlsConfig.FieldMasking.DEFAULT, "field").get("field");
+
+        try (Directory directory = new ByteBuffersDirectory()) {
+            writeDocuments(directory, 1);
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = reader.leaves().get(0).reader();
+
+                Assert.assertFalse(cache.isEnabled());
+                Assert.assertNull(cache.get(leafReader, fieldMasking));
+            }
+        }
+    }
+
+    private static void writeDocuments(Directory directory, int count) throws Exception {
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < count; i++) {
+                Document document = new Document();
+                document.add(new StringField("id", String.valueOf(i), Field.Store.YES));
+                writer.addDocument(document);
+            }
+
+            writer.commit();
+        }
+    }
+}
@@ -123,6 +123,8 @@ public class AuthTokenModule implements SearchGuardModule, ComponentStateProvide
 
             @Override
             public void onChange(ConfigMap configMap) {
+                authTokenService.invalidateRestrictedActionAuthorizations();
+
                 SgDynamicConfiguration<AuthTokenServiceConfig> config = configMap.get(AuthTokenServiceConfig.TYPE);
 
                 if (config != null && config.getCEntry("default") != null) {
@@ -140,9 +142,11 @@ public class AuthTokenModule implements SearchGuardModule, ComponentStateProvide
 
     @Override
     public StaticSettings.AttributeSet getSettings() {
-        return StaticSettings.AttributeSet.of(AuthTokenService.INDEX_NAME, AuthTokenService.CLEANUP_INTERVAL, ConfigHistoryService.CACHE_MAX_SIZE,
+        return StaticSettings.AttributeSet.of(AuthTokenService.INDEX_NAME, AuthTokenService.CLEANUP_INTERVAL,
+                AuthTokenService.RESTRICTED_ACTION_AUTHORIZATION_CACHE_MAX_SIZE, AuthTokenService.RESTRICTED_ACTION_AUTHORIZATION_CACHE_EXPIRE_AFTER_WRITE,
+                ConfigHistoryService.CACHE_MAX_SIZE,
                 ConfigHistoryService.CACHE_TTL, ConfigHistoryService.INDEX_NAME, ConfigHistoryService.MODEL_CACHE_MAX_SIZE,
-                ConfigHistoryService.MODEL_CACHE_TTL);
+                ConfigHistoryService.MODEL_CACHE_TTL, ConfigHistoryService.COMPILED_MODEL_CACHE_MAX_SIZE, ConfigHistoryService.COMPILED_MODEL_PERSIST);
     }
 
     @Override
@@ -27,6 +27,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -72,6 +73,7 @@ import com.floragunn.searchguard.authz.ActionAuthorization;
 import com.floragunn.searchguard.authz.AuthorizationService;
 import com.floragunn.searchguard.authz.PrivilegesEvaluator;
 import com.floragunn.searchguard.authz.actions.Actions;
+import com.floragunn.searchguard.authz.config.ActionGroup;
 import com.floragunn.searchguard.authz.config.Role;
 import com.floragunn.searchguard.configuration.CType;
 import com.floragunn.searchguard.configuration.ProtectedConfigIndexService;
@@ -83,6 +85,7 @@ import com.floragunn.searchguard.privileges.SpecialPrivilegesEvaluationContextPr
 import com.floragunn.searchguard.sgconf.history.ConfigHistoryService;
 import com.floragunn.searchguard.sgconf.history.ConfigModel;
 import com.floragunn.searchguard.sgconf.history.ConfigSnapshot;
+import com.floragunn.searchguard.sgconf.history.ConfigVersionSet;
 import com.floragunn.searchguard.support.ConfigConstants;
 import com.floragunn.searchguard.support.PrivilegedConfigClient;
 import com.floragunn.searchguard.user.User;
@@ -90,9 +93,11 @@ import com.floragunn.searchsupport.PrivilegedCode;
 import com.floragunn.searchsupport.StaticSettings;
 import com.floragunn.searchsupport.cstate.ComponentState;
 import com.floragunn.searchsupport.cstate.ComponentState.ExceptionRecord;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
 import com.floragunn.searchsupport.indices.IndexCleanupAgent;
 import com.floragunn.searchsupport.xcontent.ObjectTreeXContent;
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import com.google.common.io.BaseEncoding;
 import com.nimbusds.jose.Algorithm;
@@ -127,6 +132,11 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
             .withDefault(".searchguard_authtokens").asString();
     public static final StaticSettings.Attribute<TimeValue> CLEANUP_INTERVAL = StaticSettings.Attribute
             .define("searchguard.authtokens.cleanup_interval").withDefault(TimeValue.timeValueHours(1)).asTimeValue();
+    public static final StaticSettings.Attribute<Integer> RESTRICTED_ACTION_AUTHORIZATION_CACHE_MAX_SIZE = StaticSettings.Attribute
+            .define("searchguard.authtokens.restricted_action_authorization_cache.max_size").withDefault(10000).asInteger();
+    public static final StaticSettings.Attribute<TimeValue> RESTRICTED_ACTION_AUTHORIZATION_CACHE_EXPIRE_AFTER_WRITE = StaticSettings.Attribute
+            .define("searchguard.authtokens.restricted_action_authorization_cache.expire_after_write").withDefault(TimeValue.timeValueHours(1))
+            .asTimeValue();
 
     public static final String USER_TYPE = "sg_auth_token";
     public static final String USER_TYPE_FULL_CURRENT_PERMISSIONS = "sg_auth_token_full_current_permissions";
@@ -142,6 +152,7 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
     private final Actions actions;
 
     private Cache<String, AuthToken> idToAuthTokenMap;
+    private final Cache<RestrictedActionAuthorizationKey, RestrictedActionAuthorization> restrictedActionAuthorizationCache;
     private JWSSigner jwsSigner;
     private JWEEncrypter jweEncrypter;
     private String jwtAudience;
@@ -167,6 +178,10 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
         this.actions = actions;
 
         this.idToAuthTokenMap = AuthTokenServiceConfig.DEFAULT_TOKEN_CACHE_CONFIG.build();
+        this.restrictedActionAuthorizationCache = CacheBuilder.newBuilder().maximumSize(settings.get(RESTRICTED_ACTION_AUTHORIZATION_CACHE_MAX_SIZE))
+                .expireAfterWrite(settings.get(RESTRICTED_ACTION_AUTHORIZATION_CACHE_EXPIRE_AFTER_WRITE).millis(), TimeUnit.MILLISECONDS).recordStats()
+                .build();
+        this.componentState.addMetrics("restricted_action_authorization_cache", CacheStats.from(restrictedActionAuthorizationCache));
 
         this.setConfig(config);
 
@@ -597,6 +612,7 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
 
         AuthToken updatedAuthToken = request.getUpdatedToken();
         Optional<AuthToken> existingAuthToken = getTokenFromCache(updatedAuthToken.getId());
+        removeRestrictedActionAuthorizationFromCache(updatedAuthToken.getId());
 
         if (!existingAuthToken.isPresent()) {
             return "Auth token is not cached";
@@ -640,6 +656,8 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
             throw new TokenUpdateException(e);
         }
 
+        removeRestrictedActionAuthorizationFromCache(authToken.getId());
+
         if (!sendTokenUpdates) {
             return "Update disabled";
         }
@@ -838,36 +856,46 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
                         }
                     }
 
-                    ConfigModel configModelSnapshot;
+                    Consumer<ConfigModel> onConfigModel = (configModelSnapshot) -> {
+                        try {
+                            User userWithRoles = user.copy().backendRoles(authToken.getBase().getBackendRoles())
+                                    .searchGuardRoles(authToken.getBase().getSearchGuardRoles()).build();
+                            TransportAddress callerTransportAddress = threadContext.getTransient(ConfigConstants.SG_REMOTE_ADDRESS);
+                            Set<String> mappedBaseRoles = configModelSnapshot.getRoleMapping().evaluate(userWithRoles, callerTransportAddress,
+                                    privilegesEvaluator.getRolesMappingResolution());
+
+                            if (log.isDebugEnabled()) {
+                                log.debug("AuthTokenService.provide returns SpecialPrivilegesEvaluationContext for " + user + "\nuserWithRoles: "
+                                        + userWithRoles + "\nmappedBaseRoles: " + mappedBaseRoles);
+                            }
+
+                            RestrictedActionAuthorization restrictedSgRoles = getRestrictedActionAuthorization(authToken, configModelSnapshot);
+
+                            try (StoredContext restoredCtx = restorableCtx.get()) {
+                                onResult.accept(new SpecialPrivilegesEvaluationContextImpl(userWithRoles, mappedBaseRoles, restrictedSgRoles,
+                                        configModelSnapshot.getRolesConfig(), authToken.getRequestedPrivileges()));
+                            }
+                        } catch (Exception e) {
+                            log.error("Error in provide(" + user + "); authTokenId: " + authTokenId, e);
+                            try (StoredContext restoredCtx = restorableCtx.get()) {
+                                onFailure.accept(e);
+                            }
+                        }
+                    };
 
                     if (authToken.getBase().getConfigSnapshot() == null) {
-                        configModelSnapshot = getCurrentConfigModel();
+                        onConfigModel.accept(getCurrentConfigModel());
                     } else {
                         if (authToken.getBase().getConfigSnapshot().hasMissingConfigVersions()) {
                             throw new RuntimeException("Stored config snapshot is not complete: " + authToken);
                         }
 
-                        configModelSnapshot = configHistoryService.getConfigModelForSnapshot(authToken.getBase().getConfigSnapshot());
-                    }
-
-                    User userWithRoles = user.copy().backendRoles(authToken.getBase().getBackendRoles())
-                            .searchGuardRoles(authToken.getBase().getSearchGuardRoles()).build();
-                    TransportAddress callerTransportAddress = threadContext.getTransient(ConfigConstants.SG_REMOTE_ADDRESS);
-                    Set<String> mappedBaseRoles = configModelSnapshot.getRoleMapping().evaluate(userWithRoles, callerTransportAddress,
-                            privilegesEvaluator.getRolesMappingResolution());
-
-                    if (log.isDebugEnabled()) {
-                        log.debug("AuthTokenService.provide returns SpecialPrivilegesEvaluationContext for " + user + "\nuserWithRoles: "
-                                + userWithRoles + "\nmappedBaseRoles: " + mappedBaseRoles);
-                    }
-
-                    RestrictedActionAuthorization restrictedSgRoles = new RestrictedActionAuthorization(configModelSnapshot.getActionAuthorization(),
-                            authToken.getRequestedPrivileges(), configModelSnapshot.getActionGroups(), actions, null,
-                            privilegesEvaluator.getAllConfiguredTenantNames(), null);
-
-                    try (StoredContext restoredCtx = restorableCtx.get()) {
-                        onResult.accept(new SpecialPrivilegesEvaluationContextImpl(userWithRoles, mappedBaseRoles, restrictedSgRoles,
-                                configModelSnapshot.getRolesConfig(), authToken.getRequestedPrivileges()));
+                        configHistoryService.getConfigModelForSnapshot(authToken.getBase().getConfigSnapshot(), onConfigModel, (e) -> {
+                            log.error("Error in provide(" + user + "); authTokenId: " + authTokenId, e);
+                            try (StoredContext restoredCtx = restorableCtx.get()) {
+                                onFailure.accept(e);
+                            }
+                        });
                     }
                 } catch (Exception e) {
                     log.error("Error in provide(" + user + "); authTokenId: " + authTokenId, e);
@@ -888,6 +916,37 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
         this.indexCleanupAgent.shutdown();
     }
 
+    /**
+     * Compiling the restriction of an auth token is expensive. Thus, we cache the result. The cache key consists of the token id, the config
+     * versions of the snapshot the restriction was compiled from, the identity of the base ActionAuthorization and the configured tenants.
+     * Tokens without a config snapshot use the current configuration; for these, the identity of the base ActionAuthorization ensures that
+     * a restriction compiled from an outdated configuration is never used for a newer configuration, even if the compilation finishes only
+     * after invalidateRestrictedActionAuthorizations() was called.
+     */
+    RestrictedActionAuthorization getRestrictedActionAuthorization(AuthToken authToken, ConfigModel configModel) throws ExecutionException {
+        ActionAuthorization base = configModel.getActionAuthorization();
+        ActionGroup.FlattenedIndex actionGroups = configModel.getActionGroups();
+        Set<String> tenants = privilegesEvaluator.getAllConfiguredTenantNames();
+        ConfigVersionSet configVersions = authToken.getBase().getConfigSnapshot() != null
+                ? authToken.getBase().getConfigSnapshot().getConfigVersions()
+                : null;
+
+        return restrictedActionAuthorizationCache.get(new RestrictedActionAuthorizationKey(authToken.getId(), configVersions, base, tenants),
+                () -> new RestrictedActionAuthorization(base, authToken.getRequestedPrivileges(), actionGroups, actions, null, tenants, null));
+    }
+
+    /**
+     * Must be called when the configuration has changed. Drops all cached restrictions, as these might have been compiled from an outdated
+     * configuration.
+     */
+    public void invalidateRestrictedActionAuthorizations() {
+        restrictedActionAuthorizationCache.invalidateAll();
+    }
+
+    private void removeRestrictedActionAuthorizationFromCache(String id) {
+        restrictedActionAuthorizationCache.asMap().keySet().removeIf((key) -> key.authTokenId.equals(id));
+    }
+
     private ConfigModel getCurrentConfigModel() {
         return new ConfigModel(privilegesEvaluator.getActionAuthorization(), authorizationService.getRoleMapping(),
                 privilegesEvaluator.getActionGroups());
@@ -997,6 +1056,43 @@ public class AuthTokenService implements SpecialPrivilegesEvaluationContextProvi
         return config != null && config.isEnabled();
     }
 
+    private static class RestrictedActionAuthorizationKey {
+        private final String authTokenId;
+        private final ConfigVersionSet configVersions;
+        private final ActionAuthorization base;
+        private final Set<String> tenants;
+        private final int hashCode;
+
+        RestrictedActionAuthorizationKey(String authTokenId, ConfigVersionSet configVersions, ActionAuthorization base, Set<String> tenants) {
+            this.authTokenId = authTokenId;
+            this.configVersions = configVersions;
+            this.base = base;
+            this.tenants = tenants;
+            this.hashCode = Objects.hash(authTokenId, configVersions, System.identityHashCode(base), tenants);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof RestrictedActionAuthorizationKey)) {
+                return false;
+            }
+
+            RestrictedActionAuthorizationKey other = (RestrictedActionAuthorizationKey) obj;
+
+            return this.authTokenId.equals(other.authTokenId) && Objects.equals(this.configVersions, other.configVersions)
+                    && this.base == other.base && this.tenants.equals(other.tenants);
+        }
+    }
+
     private Optional<AuthToken> getTokenFromCache(String id) {
         return Optional.ofNullable(idToAuthTokenMap).map(cache -> cache.getIfPresent(id));
     }
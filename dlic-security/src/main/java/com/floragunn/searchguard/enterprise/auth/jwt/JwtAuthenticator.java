@@ -168,6 +168,16 @@ public class JwtAuthenticator implements HttpAuthenticationFrontend, ApiAuthenti
         validationErrors.throwExceptionForPresentErrors();
 
         this.jwtVerifier = new JwtVerifier(KeyProvider.combined(staticKeySet, openIdKeySet, jwksKeySet), requiredAudience, requiredIssuer, maxClockSkewSeconds);
+
+        if (openIdKeySet != null) {
+            openIdKeySet.addKeysChangedListener(jwtVerifier::invalidateCache);
+        }
+
+        if (jwksKeySet != null) {
+            jwksKeySet.addKeysChangedListener(jwtVerifier::invalidateCache);
+        }
+
+        this.componentState.addMetrics("verified_jwt_cache", jwtVerifier.getCacheStats());
     }
 
     @Override
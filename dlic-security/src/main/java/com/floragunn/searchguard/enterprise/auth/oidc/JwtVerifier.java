@@ -25,6 +25,8 @@ import org.apache.cxf.rs.security.jose.jwt.JwtToken;
 import org.apache.cxf.rs.security.jose.jwt.JwtUtils;
 
 import com.floragunn.searchguard.authc.AuthenticatorUnavailableException;
+import com.floragunn.searchguard.jwt.VerifiedJwtCache;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
 import com.google.common.base.Strings;
 
 import java.time.Instant;
@@ -38,6 +40,7 @@ public class JwtVerifier {
     private final String requiredAudience;
     private final String requiredIssuer;
     private final int maxClockSkewSeconds;
+    private final VerifiedJwtCache<JwtToken> verifiedJwtCache = new VerifiedJwtCache<>();
 
     public JwtVerifier(KeyProvider keyProvider, String requiredAudience, String requiredIssuer, int maxClockSkewSeconds) {
         this.keyProvider = keyProvider;
@@ -47,6 +50,12 @@ public class JwtVerifier {
     }
 
     public JwtToken getVerifiedJwtToken(String encodedJwt) throws BadCredentialsException, AuthenticatorUnavailableException {
+        JwtToken cachedJwt = verifiedJwtCache.get(encodedJwt);
+
+        if (cachedJwt != null) {
+            return cachedJwt;
+        }
+
         try {
             JwsJwtCompactConsumer jwtConsumer = new JwsJwtCompactConsumer(encodedJwt);
             JwtToken jwt = jwtConsumer.getJwtToken();
@@ -71,12 +80,25 @@ public class JwtVerifier {
 
             validateClaims(jwt);
 
+            verifiedJwtCache.put(encodedJwt, jwt, jwt.getClaims() != null ? jwt.getClaims().getExpiryTime() : null);
+
             return jwt;
         } catch (JwtException e) {
             throw new BadCredentialsException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Must be called when the keys provided by the KeyProvider change.
+     */
+    public void invalidateCache() {
+        verifiedJwtCache.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return verifiedJwtCache.getCacheStats();
+    }
+
     private void validateSignatureAlgorithm(JsonWebKey key, JwtToken jwt) throws BadCredentialsException {
         if (Strings.isNullOrEmpty(key.getAlgorithm())) {
             return;
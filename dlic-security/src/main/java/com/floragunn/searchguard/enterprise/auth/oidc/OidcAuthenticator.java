@@ -132,6 +132,11 @@ public class OidcAuthenticator implements ApiAuthenticationFrontend {
 
         jwtVerifier = new JwtVerifier(selfRefreshingKeySet, requiredAudience, requiredIssuer, maxClockSkewSeconds);
         userInfoJwtVerifier = new JwtVerifier(selfRefreshingKeySet, null, requiredIssuer, maxClockSkewSeconds);
+
+        selfRefreshingKeySet.addKeysChangedListener(jwtVerifier::invalidateCache);
+        selfRefreshingKeySet.addKeysChangedListener(userInfoJwtVerifier::invalidateCache);
+
+        componentState.addMetrics("verified_jwt_cache", jwtVerifier.getCacheStats());
     }
 
     @Override
@@ -15,6 +15,7 @@
 package com.floragunn.searchguard.enterprise.auth.oidc;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
@@ -46,6 +47,7 @@ public class SelfRefreshingKeySet implements KeyProvider {
     private int queuedThreadTimeoutMs = 2500;
     private int refreshRateLimitTimeWindowMs = 10000;
     private int refreshRateLimitCount = 10;
+    private final List<Runnable> keysChangedListeners = new CopyOnWriteArrayList<>();
 
     public SelfRefreshingKeySet(KeySetProvider refreshFunction) {
         this.keySetProvider = refreshFunction;
@@ -224,6 +226,10 @@ public class SelfRefreshingKeySet implements KeyProvider {
                             lastRefreshFailure = null;
                             SelfRefreshingKeySet.this.notifyAll();
                         }
+
+                        for (Runnable listener : keysChangedListeners) {
+                            listener.run();
+                        }
                     } catch (Throwable e) {
                         synchronized (SelfRefreshingKeySet.this) {
                             lastRefreshFailure = e;
@@ -281,6 +287,13 @@ public class SelfRefreshingKeySet implements KeyProvider {
         }
     }
 
+    /**
+     * Registers a listener which is called after the key set has been refreshed.
+     */
+    public void addKeysChangedListener(Runnable listener) {
+        keysChangedListeners.add(listener);
+    }
+
     public int getRequestTimeoutMs() {
         return requestTimeoutMs;
     }
@@ -15,8 +15,10 @@
 package com.floragunn.searchguard.sgconf.history;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -28,8 +30,11 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest.OpType;
+import org.elasticsearch.action.DocWriteResponse;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.get.MultiGetItemResponse;
 import org.elasticsearch.action.get.MultiGetRequest;
@@ -38,9 +43,16 @@ import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.index.IndexNotFoundException;
+import org.elasticsearch.index.engine.VersionConflictEngineException;
 
 import com.fasterxml.jackson.core.Base64Variants;
+import com.floragunn.codova.documents.DocNode;
+import com.floragunn.codova.documents.DocWriter;
+import com.floragunn.codova.documents.DocumentParseException;
+import com.floragunn.codova.documents.Format;
 import com.floragunn.codova.validation.ConfigValidationException;
+import com.floragunn.fluent.collections.ImmutableMap;
+import com.floragunn.fluent.collections.ImmutableSet;
 import com.floragunn.searchguard.authc.blocking.Blocks;
 import com.floragunn.searchguard.authz.PrivilegesEvaluator;
 import com.floragunn.searchguard.authz.actions.Actions;
@@ -59,6 +71,7 @@ import com.floragunn.searchsupport.StaticSettings;
 import com.floragunn.searchsupport.cstate.ComponentState;
 import com.floragunn.searchsupport.cstate.ComponentState.ExceptionRecord;
 import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
@@ -75,6 +88,16 @@ public class ConfigHistoryService implements ComponentStateProvider {
             .define("searchguard.config_history.model.cache.ttl").withDefault(60 * 24 * 2).asInteger();
     public static final StaticSettings.Attribute<Integer> MODEL_CACHE_MAX_SIZE = StaticSettings.Attribute
             .define("searchguard.config_history.model.cache.max_size").withDefault(100).asInteger();
+    public static final StaticSettings.Attribute<Integer> COMPILED_MODEL_CACHE_MAX_SIZE = StaticSettings.Attribute
+            .define("searchguard.config_history.compiled_model.cache.max_size").withDefault(100).asInteger();
+    public static final StaticSettings.Attribute<Boolean> COMPILED_MODEL_PERSIST = StaticSettings.Attribute
+            .define("searchguard.config_history.compiled_model.persist").withDefault(true).asBoolean();
+
+    /**
+     * The config types which are needed to build the compiled authorization model of a ConfigModel
+     */
+    private static final ImmutableSet<CType<?>> COMPILED_MODEL_CONFIG_TYPES = ImmutableSet.of(CType.ROLES, CType.ROLESMAPPING, CType.ACTIONGROUPS,
+            CType.TENANTS);
 
     private final String indexName;
     private final ConfigurationRepository configurationRepository;
@@ -84,6 +107,24 @@ public class ConfigHistoryService implements ComponentStateProvider {
     private final Cache<ConfigVersion, SgDynamicConfiguration<?>> configCache;
     private final Cache<ConfigVersionSet, ConfigModel> configModelCache;
 
+    /**
+     * Second tier cache for ConfigModel instances. This is keyed only by the versions of the config types which are relevant for the
+     * compiled authorization model. Config snapshots which only differ in other config types (like internal users or authc) share one entry.
+     */
+    private final Cache<ConfigVersionSet, ConfigModel> compiledModelCache;
+
+    /**
+     * If true, the flattened action groups of compiled models are stored in the config history index. Other nodes and nodes which have
+     * evicted the compiled model can then load them instead of flattening the action groups again.
+     */
+    private final boolean persistCompiledModels;
+
+    /**
+     * The flattened action groups also contain the static action groups, which might differ between Search Guard versions. Thus, a hash
+     * of the static action groups becomes part of the id of the persisted documents.
+     */
+    private final String staticActionGroupsHash;
+
     private final ComponentState componentState = new ComponentState(1000, null, "config_history_service", ConfigHistoryService.class);
 
     private final PrivilegesEvaluator privilegesEvaluator;
@@ -98,9 +139,15 @@ public class ConfigHistoryService implements ComponentStateProvider {
         this.actions = actions;
         this.configCache = CacheBuilder.newBuilder().weakValues().build();
         this.configModelCache = CacheBuilder.newBuilder().maximumSize(settings.get(MODEL_CACHE_MAX_SIZE))
-                .expireAfterAccess(settings.get(MODEL_CACHE_TTL), TimeUnit.MINUTES).build();
+                .expireAfterAccess(settings.get(MODEL_CACHE_TTL), TimeUnit.MINUTES).recordStats().build();
+        this.compiledModelCache = CacheBuilder.newBuilder().maximumSize(settings.get(COMPILED_MODEL_CACHE_MAX_SIZE))
+                .expireAfterAccess(settings.get(MODEL_CACHE_TTL), TimeUnit.MINUTES).recordStats().build();
+        this.persistCompiledModels = settings.get(COMPILED_MODEL_PERSIST);
+        this.staticActionGroupsHash = Integer.toHexString(
+                DocWriter.json().writeAsString(staticSgConfig.get(SgDynamicConfiguration.empty(CType.ACTIONGROUPS)).toBasicObject()).hashCode());
         this.privilegesEvaluator = privilegesEvaluator;
 
+        componentState.addMetrics("model_cache", CacheStats.from(configModelCache), "compiled_model_cache", CacheStats.from(compiledModelCache));
         componentState.addPart(protectedConfigIndexService.createIndex(new ConfigIndex(indexName).onIndexReady((f) -> {
             f.onSuccess();
             componentState.setInitialized();
@@ -247,39 +294,181 @@ public class ConfigHistoryService implements ComponentStateProvider {
         return result;
     }
 
-    public ConfigModel getConfigModelForSnapshot(ConfigSnapshot configSnapshot) {
-        ConfigVersionSet configVersionSet = configSnapshot.getConfigVersions();
+    /**
+     * Provides the ConfigModel for the given snapshot. If no compiled model is available in memory, this tries to load the flattened action
+     * groups from the config history index before compiling the model.
+     */
+    public void getConfigModelForSnapshot(ConfigSnapshot configSnapshot, Consumer<ConfigModel> onResult, Consumer<Exception> onFailure) {
+        try {
+            ConfigVersionSet configVersionSet = configSnapshot.getConfigVersions();
 
-        ConfigModel configModel = configModelCache.getIfPresent(configVersionSet);
+            ConfigModel configModel = configModelCache.getIfPresent(configVersionSet);
 
-        if (configModel != null) {
-            return configModel;
-        }
+            if (configModel != null) {
+                onResult.accept(configModel);
+                return;
+            }
+
+            ConfigVersionSet compiledModelKey = getCompiledModelKey(configVersionSet);
+
+            if (!persistCompiledModels || compiledModelKey == null || compiledModelCache.getIfPresent(compiledModelKey) != null) {
+                onResult.accept(createConfigModelForSnapshot(configSnapshot, null));
+                return;
+            }
+
+            String persistedModelId = getPersistedModelId(compiledModelKey);
 
-        return createConfigModelForSnapshot(configSnapshot);
+            privilegedConfigClient.get(new GetRequest(indexName, persistedModelId), new ActionListener<GetResponse>() {
+
+                @Override
+                public void onResponse(GetResponse response) {
+                    ActionGroup.FlattenedIndex persistedActionGroups = null;
+
+                    if (response.isExists()) {
+                        try {
+                            persistedActionGroups = parsePersistedModel(response);
+                        } catch (Exception e) {
+                            log.warn("Error while parsing persisted model " + persistedModelId + "; compiling model again", e);
+                        }
+                    }
+
+                    try {
+                        onResult.accept(createConfigModelForSnapshot(configSnapshot, persistedActionGroups));
+                    } catch (Exception e) {
+                        onFailure.accept(e);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    if (!(e instanceof IndexNotFoundException)) {
+                        log.warn("Error while retrieving persisted model " + persistedModelId + "; compiling model again", e);
+                    }
+
+                    try {
+                        onResult.accept(createConfigModelForSnapshot(configSnapshot, null));
+                    } catch (Exception e2) {
+                        onFailure.accept(e2);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            onFailure.accept(e);
+        }
     }
 
-    private ConfigModel createConfigModelForSnapshot(ConfigSnapshot configSnapshot) {
-        SgDynamicConfiguration<Role> roles = configSnapshot.getConfigByType(Role.class);
-        SgDynamicConfiguration<RoleMapping> roleMappings = configSnapshot.getConfigByType(RoleMapping.class);
-        SgDynamicConfiguration<ActionGroup> actionGroups = configSnapshot.getConfigByType(ActionGroup.class);
-        SgDynamicConfiguration<Tenant> tenants = configSnapshot.getConfigByType(Tenant.class);
+    private ConfigModel createConfigModelForSnapshot(ConfigSnapshot configSnapshot, ActionGroup.FlattenedIndex persistedActionGroups) {
         SgDynamicConfiguration<Blocks> blocks = configSnapshot.getConfigByType(Blocks.class);
 
         if (blocks == null) {
             blocks = SgDynamicConfiguration.empty(CType.BLOCKS);
         }
 
+        ConfigVersionSet compiledModelKey = getCompiledModelKey(configSnapshot.getConfigVersions());
+        ConfigModel compiledModel = compiledModelKey != null ? compiledModelCache.getIfPresent(compiledModelKey) : null;
+
+        if (compiledModel == null) {
+            compiledModel = compileConfigModel(configSnapshot, blocks, persistedActionGroups);
+
+            if (compiledModelKey != null) {
+                compiledModelCache.put(compiledModelKey, compiledModel);
+
+                if (persistCompiledModels && persistedActionGroups == null) {
+                    storePersistedModel(compiledModelKey, compiledModel);
+                }
+            }
+        }
+
+        ConfigModel configModel = new ConfigModel(compiledModel, blocks);
+
+        configModelCache.put(configSnapshot.getConfigVersions(), configModel);
+
+        return configModel;
+    }
+
+    private ConfigModel compileConfigModel(ConfigSnapshot configSnapshot, SgDynamicConfiguration<Blocks> blocks,
+            ActionGroup.FlattenedIndex persistedActionGroups) {
+        SgDynamicConfiguration<Role> roles = configSnapshot.getConfigByType(Role.class);
+        SgDynamicConfiguration<RoleMapping> roleMappings = configSnapshot.getConfigByType(RoleMapping.class);
+        SgDynamicConfiguration<ActionGroup> actionGroups = configSnapshot.getConfigByType(ActionGroup.class);
+        SgDynamicConfiguration<Tenant> tenants = configSnapshot.getConfigByType(Tenant.class);
+
         roles = staticSgConfig.addTo(roles);
         actionGroups = staticSgConfig.addTo(actionGroups);
         tenants = staticSgConfig.addTo(tenants);
 
-        ConfigModel configModel = new ConfigModel(roles, roleMappings, actionGroups, tenants, blocks, actions, privilegesEvaluator.getResolver(),
-                privilegesEvaluator.getClusterService());
+        if (persistedActionGroups != null) {
+            return new ConfigModel(roles, roleMappings, actionGroups, tenants, blocks, persistedActionGroups, actions,
+                    privilegesEvaluator.getResolver(), privilegesEvaluator.getClusterService());
+        } else {
+            return new ConfigModel(roles, roleMappings, actionGroups, tenants, blocks, actions, privilegesEvaluator.getResolver(),
+                    privilegesEvaluator.getClusterService());
+        }
+    }
 
-        configModelCache.put(configSnapshot.getConfigVersions(), configModel);
+    /**
+     * The persisted model only depends on the action groups; thus, all compiled models with the same action groups config share one document.
+     */
+    String getPersistedModelId(ConfigVersionSet compiledModelKey) {
+        return "compiled_model_" + compiledModelKey.get(CType.ACTIONGROUPS).toId() + "_" + staticActionGroupsHash;
+    }
 
-        return configModel;
+    private ActionGroup.FlattenedIndex parsePersistedModel(GetResponse getResponse) throws DocumentParseException {
+        Object model = getResponse.getSource().get("compiled_model");
+
+        if (!(model instanceof String)) {
+            throw new IllegalStateException("Malformed persisted model: " + getResponse.getSource());
+        }
+
+        DocNode docNode = DocNode.parse(Format.SMILE).from(Base64Variants.getDefaultVariant().decode((String) model));
+
+        return ActionGroup.FlattenedIndex.parse(docNode.getAsNode("action_groups"));
+    }
+
+    private void storePersistedModel(ConfigVersionSet compiledModelKey, ConfigModel compiledModel) {
+        String id = getPersistedModelId(compiledModelKey);
+        byte[] smile = DocWriter.smile().writeAsBytes(ImmutableMap.of("action_groups", compiledModel.getActionGroups().toBasicObject()));
+
+        IndexRequest indexRequest = new IndexRequest(indexName).id(id).opType(OpType.CREATE).source("compiled_model",
+                BytesReference.fromByteBuffer(ByteBuffer.wrap(smile)));
+
+        privilegedConfigClient.index(indexRequest, new ActionListener<DocWriteResponse>() {
+
+            @Override
+            public void onResponse(DocWriteResponse response) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Stored persisted model " + id);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!(e instanceof VersionConflictEngineException)) {
+                    componentState.addLastException("storePersistedModel", new ExceptionRecord(e, "Error while storing persisted model"));
+                    log.warn("Error while storing persisted model " + id, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the subset of the given ConfigVersionSet which is relevant for the compiled authorization model; returns null if the
+     * set does not contain all necessary config types.
+     */
+    static ConfigVersionSet getCompiledModelKey(ConfigVersionSet configVersionSet) {
+        List<ConfigVersion> result = new ArrayList<>(COMPILED_MODEL_CONFIG_TYPES.size());
+
+        for (CType<?> configType : COMPILED_MODEL_CONFIG_TYPES) {
+            ConfigVersion configVersion = configVersionSet.get(configType);
+
+            if (configVersion == null) {
+                return null;
+            }
+
+            result.add(configVersion);
+        }
+
+        return new ConfigVersionSet(result);
     }
 
     public ConfigSnapshot peekConfigSnapshotFromCache(ConfigVersionSet configVersionSet) {
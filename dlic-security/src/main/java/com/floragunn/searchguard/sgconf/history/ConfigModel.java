@@ -42,19 +42,43 @@ public class ConfigModel {
     public ConfigModel(SgDynamicConfiguration<Role> roles, SgDynamicConfiguration<RoleMapping> roleMappingConfig,
             SgDynamicConfiguration<ActionGroup> actionGroupsConfig, SgDynamicConfiguration<Tenant> tenants, SgDynamicConfiguration<Blocks> blocks,
             Actions actions, IndexNameExpressionResolver resolver, ClusterService clusterService) {
+        this(roles, roleMappingConfig, actionGroupsConfig, tenants, blocks, new ActionGroup.FlattenedIndex(actionGroupsConfig), actions, resolver,
+                clusterService);
+    }
+
+    /**
+     * Creates a ConfigModel using already flattened action groups, like these restored from the config history index.
+     */
+    public ConfigModel(SgDynamicConfiguration<Role> roles, SgDynamicConfiguration<RoleMapping> roleMappingConfig,
+            SgDynamicConfiguration<ActionGroup> actionGroupsConfig, SgDynamicConfiguration<Tenant> tenants, SgDynamicConfiguration<Blocks> blocks,
+            ActionGroup.FlattenedIndex actionGroups, Actions actions, IndexNameExpressionResolver resolver, ClusterService clusterService) {
         this.rolesConfig = roles;
         this.roleMappingConfig = roleMappingConfig;
         this.actionGroupsConfig = actionGroupsConfig;
         this.tenantsConfig = tenants;
         this.blocks = blocks;
 
-        this.actionGroups = new ActionGroup.FlattenedIndex(actionGroupsConfig);
+        this.actionGroups = actionGroups;
 
         this.actionAuthorization = new RoleBasedActionAuthorization(roles, actionGroups, actions, null, tenantsConfig.getCEntries().keySet(), null);
 
         this.roleMapping = new RoleMapping.InvertedIndex(roleMappingConfig, MetricsLevel.NONE);
     }
 
+    /**
+     * Creates a ConfigModel which shares the compiled authorization model of the given ConfigModel, but uses a different blocks configuration.
+     */
+    public ConfigModel(ConfigModel compiledModel, SgDynamicConfiguration<Blocks> blocks) {
+        this.rolesConfig = compiledModel.rolesConfig;
+        this.roleMappingConfig = compiledModel.roleMappingConfig;
+        this.actionGroupsConfig = compiledModel.actionGroupsConfig;
+        this.tenantsConfig = compiledModel.tenantsConfig;
+        this.blocks = blocks;
+        this.actionGroups = compiledModel.actionGroups;
+        this.actionAuthorization = compiledModel.actionAuthorization;
+        this.roleMapping = compiledModel.roleMapping;
+    }
+
     public ConfigModel(ActionAuthorization actionAuthorization, RoleMapping.InvertedIndex roleMapping, ActionGroup.FlattenedIndex actionGroups) {
         this.actionAuthorization = actionAuthorization;
         this.roleMapping = roleMapping;
@@ -82,6 +106,10 @@ public class ConfigModel {
         return rolesConfig;
     }
 
+    public SgDynamicConfiguration<Blocks> getBlocks() {
+        return blocks;
+    }
+
     @Override
     public String toString() {
         return "ConfigModel [rolesConfig=" + rolesConfig + ", roleMappingConfig=" + roleMappingConfig + ", actionGroupsConfig=" + actionGroupsConfig
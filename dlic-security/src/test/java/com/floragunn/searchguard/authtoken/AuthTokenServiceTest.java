@@ -45,6 +45,7 @@ import com.floragunn.searchguard.configuration.ConfigurationRepository;
 import com.floragunn.searchguard.configuration.ProtectedConfigIndexService;
 import com.floragunn.searchguard.configuration.StaticSgConfig;
 import com.floragunn.searchguard.sgconf.history.ConfigHistoryService;
+import com.floragunn.searchguard.sgconf.history.ConfigModel;
 import com.floragunn.searchguard.support.PrivilegedConfigClient;
 import com.floragunn.searchguard.test.GenericRestClient;
 import com.floragunn.searchguard.test.GenericRestClient.HttpResponse;
@@ -331,6 +332,86 @@ public class AuthTokenServiceTest {
         }
     }
 
+    @Test
+    public void restrictedActionAuthorizationCacheTest() throws Exception {
+        try (GenericRestClient restClient = cluster.getAdminCertRestClient()) {
+            User testUser = User.forUser("test_user").backendRoles("r1", "r2", "r3").build();
+            AuthTokenServiceConfig config = new AuthTokenServiceConfig();
+            Actions actions = new Actions(null);
+
+            config.setEnabled(true);
+            config.setJwtSigningKey(TestJwk.OCT_1);
+            config.setJwtAud("_test_aud");
+            config.setMaxTokensPerUser(100);
+            config.setCacheConfig(CacheConfig.DEFAULT);
+
+            ConfigHistoryService configHistoryService = new ConfigHistoryService(configurationRepository, staticSgConfig, privilegedConfigClient,
+                    protectedConfigIndexService, actions, StaticSettings.EMPTY, privilegesEvaluator);
+            AuthTokenService authTokenService = new AuthTokenService(privilegedConfigClient, authorizationService, privilegesEvaluator,
+                    configHistoryService, StaticSettings.EMPTY, threadPool, clusterService, protectedConfigIndexService, actions, config);
+            configurationRepository.subscribeOnChange((configMap) -> authTokenService.invalidateRestrictedActionAuthorizations());
+
+            try {
+                authTokenService.setSendTokenUpdates(false);
+                authTokenService.waitForInitComplete(10000);
+
+                CreateAuthTokenRequest frozenRequest = new CreateAuthTokenRequest(
+                        RequestedPrivileges.parseYaml("cluster_permissions:\n- cluster:test\nroles:\n- r1"));
+                frozenRequest.setTokenName("frozen");
+                CreateAuthTokenRequest currentRequest = new CreateAuthTokenRequest(
+                        RequestedPrivileges.parseYaml("cluster_permissions:\n- cluster:test\nroles:\n- r1"));
+                currentRequest.setTokenName("current");
+                currentRequest.setFreezePrivileges(false);
+
+                AuthToken frozenToken = authTokenService
+                        .getByIdWithConfigSnapshot(authTokenService.createJwt(testUser, frozenRequest).getAuthToken().getId());
+                AuthToken currentToken = authTokenService
+                        .getByIdWithConfigSnapshot(authTokenService.createJwt(testUser, currentRequest).getAuthToken().getId());
+
+                Assert.assertNotNull(frozenToken.getBase().getConfigSnapshot());
+                Assert.assertNull(currentToken.getBase().getConfigSnapshot());
+
+                RestrictedActionAuthorization frozen1 = authTokenService.getRestrictedActionAuthorization(frozenToken,
+                        configHistoryService.getConfigModelForSnapshot(frozenToken.getBase().getConfigSnapshot()));
+                RestrictedActionAuthorization frozen2 = authTokenService.getRestrictedActionAuthorization(frozenToken,
+                        configHistoryService.getConfigModelForSnapshot(frozenToken.getBase().getConfigSnapshot()));
+                RestrictedActionAuthorization current1 = authTokenService.getRestrictedActionAuthorization(currentToken, currentConfigModel());
+                RestrictedActionAuthorization current2 = authTokenService.getRestrictedActionAuthorization(currentToken, currentConfigModel());
+
+                // Cache hits: the keys only depend on the token id, the config versions, the base authorization and the tenants
+                Assert.assertSame(frozen1, frozen2);
+                Assert.assertSame(current1, current2);
+                Assert.assertNotSame(frozen1, current1);
+
+                // A restriction compiled from another base authorization must not be used
+                Assert.assertNotSame(current1, authTokenService.getRestrictedActionAuthorization(currentToken,
+                        configHistoryService.getConfigModelForSnapshot(frozenToken.getBase().getConfigSnapshot())));
+
+                HttpResponse roleUpdateResponse = restClient.putJson("/_searchguard/api/roles/restricted_action_authorization_cache_test_role",
+                        "{\"cluster_permissions\": [\"*\"]}");
+                Assert.assertEquals(roleUpdateResponse.getBody(), 201, roleUpdateResponse.getStatusCode());
+
+                Thread.sleep(500);
+
+                RestrictedActionAuthorization current3 = authTokenService.getRestrictedActionAuthorization(currentToken, currentConfigModel());
+                RestrictedActionAuthorization frozen3 = authTokenService.getRestrictedActionAuthorization(frozenToken,
+                        configHistoryService.getConfigModelForSnapshot(frozenToken.getBase().getConfigSnapshot()));
+
+                // The roles update invalidated the cache
+                Assert.assertNotSame(current1, current3);
+                Assert.assertNotSame(frozen1, frozen3);
+                Assert.assertSame(current3, authTokenService.getRestrictedActionAuthorization(currentToken, currentConfigModel()));
+            } finally {
+                authTokenService.shutdown();
+            }
+        }
+    }
+
+    private static ConfigModel currentConfigModel() {
+        return new ConfigModel(privilegesEvaluator.getActionAuthorization(), authorizationService.getRoleMapping(),
+                privilegesEvaluator.getActionGroups());
+    }
+
     @Test
     public void authTokenBasedOnAuthTokenTest() throws Exception {
         try (GenericRestClient restClient = cluster.getAdminCertRestClient()) {
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.sgconf.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.floragunn.codova.documents.DocWriter;
+import com.floragunn.fluent.collections.ImmutableMap;
+import com.floragunn.searchguard.authtoken.AuthTokenModule;
+import com.floragunn.searchguard.authz.PrivilegesEvaluator;
+import com.floragunn.searchguard.authz.actions.Actions;
+import com.floragunn.searchguard.configuration.CType;
+import com.floragunn.searchguard.configuration.ConfigurationRepository;
+import com.floragunn.searchguard.configuration.ProtectedConfigIndexService;
+import com.floragunn.searchguard.configuration.StaticSgConfig;
+import com.floragunn.searchguard.support.PrivilegedConfigClient;
+import com.floragunn.searchguard.test.helper.cluster.LocalCluster;
+import com.floragunn.searchsupport.StaticSettings;
+
+public class ConfigHistoryServiceTest {
+
+    private static ConfigurationRepository configurationRepository;
+    private static PrivilegesEvaluator privilegesEvaluator;
+    private static ProtectedConfigIndexService protectedConfigIndexService;
+    private static PrivilegedConfigClient privilegedConfigClient;
+    private static StaticSgConfig staticSgConfig;
+
+    @ClassRule
+    public static LocalCluster.Embedded cluster = new LocalCluster.Builder().resources("authtoken").singleNode().enterpriseModulesEnabled().sslEnabled()
+            .disableModule(AuthTokenModule.class).embedded().build();
+
+    @BeforeClass
+    public static void setupDependencies() {
+        configurationRepository = cluster.getInjectable(ConfigurationRepository.class);
+        privilegesEvaluator = cluster.getInjectable(PrivilegesEvaluator.class);
+        protectedConfigIndexService = cluster.getInjectable(ProtectedConfigIndexService.class);
+        staticSgConfig = cluster.getInjectable(StaticSgConfig.class);
+        privilegedConfigClient = PrivilegedConfigClient.adapt(cluster.node().client());
+    }
+
+    @Test
+    public void compiledModelIsPersisted() throws Exception {
+        ConfigHistoryService configHistoryService = createConfigHistoryService();
+        ConfigSnapshot configSnapshot = configHistoryService.getCurrentConfigSnapshot(CType.ROLES, CType.ROLESMAPPING, CType.ACTIONGROUPS,
+                CType.TENANTS);
+        String persistedModelId = configHistoryService.getPersistedModelId(ConfigHistoryService.getCompiledModelKey(configSnapshot.getConfigVersions()));
+
+        ConfigModel configModel = getConfigModel(configHistoryService, configSnapshot);
+
+        GetResponse getResponse = null;
+
+        for (int i = 0; i < 100; i++) {
+            getResponse = privilegedConfigClient.prepareGet(configHistoryService.getIndexName(), persistedModelId).get();
+
+            if (getResponse.isExists()) {
+                break;
+            }
+
+            Thread.sleep(100);
+        }
+
+        Assert.assertTrue(persistedModelId + " was not stored", getResponse.isExists());
+
+        ConfigModel restoredConfigModel = getConfigModel(createConfigHistoryService(), configSnapshot);
+
+        Assert.assertNotSame(configModel.getActionGroups(), restoredConfigModel.getActionGroups());
+        Assert.assertEquals(configModel.getActionGroups().resolve(Arrays.asList("CRUD", "ALL", "CLUSTER_ALL")),
+                restoredConfigModel.getActionGroups().resolve(Arrays.asList("CRUD", "ALL", "CLUSTER_ALL")));
+    }
+
+    @Test
+    public void persistedModelIsUsedInsteadOfCompiling() throws Exception {
+        ConfigHistoryService configHistoryService = createConfigHistoryService();
+        ConfigSnapshot configSnapshot = configHistoryService.getCurrentConfigSnapshot(CType.ROLES, CType.ROLESMAPPING, CType.ACTIONGROUPS,
+                CType.TENANTS);
+        String persistedModelId = configHistoryService.getPersistedModelId(ConfigHistoryService.getCompiledModelKey(configSnapshot.getConfigVersions()));
+
+        byte[] smile = DocWriter.smile().writeAsBytes(ImmutableMap.of("action_groups", ImmutableMap.of("PERSISTED_ONLY", Arrays.asList("indices:persisted"))));
+        privilegedConfigClient.index(new IndexRequest(configHistoryService.getIndexName()).id(persistedModelId)
+                .source("compiled_model", BytesReference.fromByteBuffer(ByteBuffer.wrap(smile))).setRefreshPolicy(RefreshPolicy.IMMEDIATE)).actionGet();
+
+        ConfigModel configModel = getConfigModel(configHistoryService, configSnapshot);
+
+        Assert.assertTrue(configModel.getActionGroups().resolve(Arrays.asList("PERSISTED_ONLY")).toString(),
+                configModel.getActionGroups().resolve(Arrays.asList("PERSISTED_ONLY")).contains("indices:persisted"));
+
+        privilegedConfigClient.prepareDelete(configHistoryService.getIndexName(), persistedModelId).setRefreshPolicy(RefreshPolicy.IMMEDIATE).get();
+    }
+
+    private static ConfigHistoryService createConfigHistoryService() {
+        return new ConfigHistoryService(configurationRepository, staticSgConfig, privilegedConfigClient, protectedConfigIndexService, new Actions(null),
+                StaticSettings.EMPTY, privilegesEvaluator);
+    }
+
+    private static ConfigModel getConfigModel(ConfigHistoryService configHistoryService, ConfigSnapshot configSnapshot) throws Exception {
+        CompletableFuture<ConfigModel> result = new CompletableFuture<>();
+        configHistoryService.getConfigModelForSnapshot(configSnapshot, result::complete, result::completeExceptionally);
+        return result.get();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 by floragunn GmbH - All rights reserved
+ *
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed here is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * This software is free of charge for non-commercial and academic use.
+ * For commercial use in a production environment you have to obtain a license
+ * from https://floragunn.com
+ *
+ */
+
+package com.floragunn.searchguard.sgconf.history;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.searchguard.authc.blocking.Blocks;
+import com.floragunn.searchguard.authz.actions.Actions;
+import com.floragunn.searchguard.configuration.CType;
+import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
+
+public class ConfigModelTest {
+
+    @Test
+    public void compiledModelIsSharedWithOtherBlocks() {
+        SgDynamicConfiguration<Blocks> blocks1 = SgDynamicConfiguration.empty(CType.BLOCKS);
+        SgDynamicConfiguration<Blocks> blocks2 = SgDynamicConfiguration.empty(CType.BLOCKS);
+
+        ConfigModel compiledModel = new ConfigModel(SgDynamicConfiguration.empty(CType.ROLES), SgDynamicConfiguration.empty(CType.ROLESMAPPING),
+                SgDynamicConfiguration.empty(CType.ACTIONGROUPS), SgDynamicConfiguration.empty(CType.TENANTS), blocks1, new Actions(null), null, null);
+
+        ConfigModel configModel = new ConfigModel(compiledModel, blocks2);
+
+        Assert.assertSame(compiledModel.getActionAuthorization(), configModel.getActionAuthorization());
+        Assert.assertSame(compiledModel.getRoleMapping(), configModel.getRoleMapping());
+        Assert.assertSame(compiledModel.getActionGroups(), configModel.getActionGroups());
+        Assert.assertSame(compiledModel.getRolesConfig(), configModel.getRolesConfig());
+        Assert.assertSame(blocks1, compiledModel.getBlocks());
+        Assert.assertSame(blocks2, configModel.getBlocks());
+    }
+
+    @Test
+    public void compiledModelKey_ignoresUnrelatedConfigTypes() {
+        ConfigVersionSet versions1 = ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 3)
+                .and(CType.TENANTS, 4).and(CType.INTERNALUSERS, 5).and(CType.BLOCKS, 6).build();
+        ConfigVersionSet versions2 = ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 3)
+                .and(CType.TENANTS, 4).and(CType.INTERNALUSERS, 7).and(CType.BLOCKS, 8).build();
+
+        Assert.assertNotEquals(versions1, versions2);
+        Assert.assertEquals(ConfigHistoryService.getCompiledModelKey(versions1), ConfigHistoryService.getCompiledModelKey(versions2));
+        Assert.assertEquals(ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 3).and(CType.TENANTS, 4).build(),
+                ConfigHistoryService.getCompiledModelKey(versions1));
+    }
+
+    @Test
+    public void compiledModelKey_differsForRelevantConfigTypes() {
+        ConfigVersionSet versions = ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 3)
+                .and(CType.TENANTS, 4).build();
+
+        Assert.assertNotEquals(ConfigHistoryService.getCompiledModelKey(versions), ConfigHistoryService.getCompiledModelKey(
+                ConfigVersionSet.with(CType.ROLES, 9).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 3).and(CType.TENANTS, 4).build()));
+        Assert.assertNotEquals(ConfigHistoryService.getCompiledModelKey(versions), ConfigHistoryService.getCompiledModelKey(
+                ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 9).and(CType.ACTIONGROUPS, 3).and(CType.TENANTS, 4).build()));
+        Assert.assertNotEquals(ConfigHistoryService.getCompiledModelKey(versions), ConfigHistoryService.getCompiledModelKey(
+                ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 9).and(CType.TENANTS, 4).build()));
+        Assert.assertNotEquals(ConfigHistoryService.getCompiledModelKey(versions), ConfigHistoryService.getCompiledModelKey(
+                ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 3).and(CType.TENANTS, 9).build()));
+    }
+
+    @Test
+    public void compiledModelKey_nullForIncompleteVersionSet() {
+        Assert.assertNull(ConfigHistoryService.getCompiledModelKey(
+                ConfigVersionSet.with(CType.ROLES, 1).and(CType.ROLESMAPPING, 2).and(CType.ACTIONGROUPS, 3).build()));
+    }
+}
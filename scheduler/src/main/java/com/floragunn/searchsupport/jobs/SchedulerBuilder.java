@@ -51,6 +51,7 @@ import org.quartz.spi.JobStore;
 import org.quartz.spi.SchedulerPlugin;
 import org.quartz.spi.ThreadPool;
 
+import com.floragunn.searchsupport.cstate.ComponentState;
 import com.floragunn.searchsupport.jobs.cluster.DistributedJobStore;
 import com.floragunn.searchsupport.jobs.cluster.JobDistributor;
 import com.floragunn.searchsupport.jobs.cluster.NodeComparator;
@@ -95,6 +96,11 @@ public class SchedulerBuilder<JobType extends JobConfig> {
     private List<JobConfigListener<JobType>> jobConfigListeners = new ArrayList<>();
     private Duration threadKeepAlive = Duration.ofHours(1);
     private long misfireThreshold = 10000l;
+    private Duration triggerStateWriteDelay = IndexJobStateStore.DEFAULT_TRIGGER_STATE_WRITE_DELAY;
+    private int triggerStateWriteBatchSize = IndexJobStateStore.DEFAULT_TRIGGER_STATE_WRITE_BATCH_SIZE;
+    private JobDistributor.Strategy jobDistributionStrategy = JobDistributor.Strategy.MODULO;
+    private String nodeWeightAttribute;
+    private ComponentState componentState;
 
     public SchedulerBuilder<JobType> name(String name) {
         this.name = name;
@@ -198,6 +204,44 @@ public class SchedulerBuilder<JobType extends JobConfig> {
         return this;
     }
 
+    /**
+     * The maximum time trigger state changes are collected before they are written in bulk to the state index. Several changes of the
+     * state of one trigger within this time are written only once. Duration.ZERO writes each state change immediately.
+     */
+    public SchedulerBuilder<JobType> triggerStateWriteDelay(Duration triggerStateWriteDelay) {
+        this.triggerStateWriteDelay = triggerStateWriteDelay;
+        return this;
+    }
+
+    public SchedulerBuilder<JobType> triggerStateWriteBatchSize(int triggerStateWriteBatchSize) {
+        this.triggerStateWriteBatchSize = triggerStateWriteBatchSize;
+        return this;
+    }
+
+    /**
+     * The strategy used for distributing jobs among the available nodes. See JobDistributor for details.
+     */
+    public SchedulerBuilder<JobType> jobDistributionStrategy(JobDistributor.Strategy jobDistributionStrategy) {
+        this.jobDistributionStrategy = jobDistributionStrategy;
+        return this;
+    }
+
+    /**
+     * The name of a node attribute which specifies the relative share of jobs a node shall execute. Only used for the RENDEZVOUS strategy.
+     */
+    public SchedulerBuilder<JobType> nodeWeightAttribute(String nodeWeightAttribute) {
+        this.nodeWeightAttribute = nodeWeightAttribute;
+        return this;
+    }
+
+    /**
+     * A component state to which the state of the job distribution will be added as part.
+     */
+    public SchedulerBuilder<JobType> componentState(ComponentState componentState) {
+        this.componentState = componentState;
+        return this;
+    }
+
     public Scheduler build() throws SchedulerException {
         if (isSchedulerPermanentlyDisabledForLocalNode()) {
             log.info("Scheduler " + name + "is disabled for this node by node filter: " + this.nodeFilter);
@@ -217,7 +261,12 @@ public class SchedulerBuilder<JobType extends JobConfig> {
         }
 
         if (this.jobDistributor == null && clusterService != null) {
-            this.jobDistributor = new JobDistributor(name, nodeFilter, clusterService, null, this.nodeComparator);
+            this.jobDistributor = new JobDistributor(name, nodeFilter, clusterService, null, this.nodeComparator, jobDistributionStrategy,
+                    nodeWeightAttribute);
+        }
+
+        if (this.jobDistributor != null && this.componentState != null) {
+            this.componentState.replacePart(this.jobDistributor.getComponentState());
         }
 
         if (this.jobConfigSource == null) {
@@ -230,7 +279,7 @@ public class SchedulerBuilder<JobType extends JobConfig> {
 
         if (this.jobStore == null) {
             this.jobStore = new IndexJobStateStore<>(name, stateIndex, stateIndexIdPrefix, nodeId, client, jobConfigSource, jobConfigFactory,
-                    clusterService, jobConfigListeners, misfireThreshold);
+                    clusterService, jobConfigListeners, misfireThreshold, triggerStateWriteDelay, triggerStateWriteBatchSize);
         }
 
         if (this.jobStore instanceof DistributedJobStore && this.jobDistributor != null) {
@@ -1,6 +1,12 @@
 package com.floragunn.searchsupport.jobs.cluster;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -8,22 +14,58 @@ import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
 
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.Count;
 import com.floragunn.searchsupport.jobs.config.JobConfig;
-
-public class JobDistributor implements AutoCloseable {
+import com.google.common.hash.Hashing;
+
+/**
+ * Decides which jobs are executed on the local node.
+ *
+ * With the MODULO strategy, a job is assigned to the node with the index hashCode % available nodes. This is simple, but moves
+ * nearly all jobs to another node whenever a node joins or leaves the cluster.
+ *
+ * With the RENDEZVOUS strategy, each node gets a score for each job, computed from a hash of the job and the node; the node with the
+ * highest score executes the job. When a node leaves, only the jobs of this node move to other nodes; when a node joins, it takes
+ * over approximately 1/N of the jobs from the other nodes. Nodes can be weighted by a numeric node attribute (node.attr.*); a node with
+ * twice the weight gets twice the share of jobs. Nodes without the attribute have the weight 1.
+ */
+public class JobDistributor implements AutoCloseable, ComponentStateProvider {
     protected final Logger log = LogManager.getLogger(this.getClass());
 
+    public static enum Strategy {
+        MODULO, RENDEZVOUS;
+
+        public static Strategy parse(String value) {
+            return value != null ? valueOf(value.toUpperCase(Locale.ROOT)) : MODULO;
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
     private final String name;
     private final String nodeFilter;
     private final String[] nodeFilterElements;
     private final ClusterService clusterService;
     private final NodeComparator<?> nodeComparator;
+    private final Strategy strategy;
+    private final String nodeWeightAttribute;
+    private final ComponentState componentState;
     private DistributedJobStore distributedJobStore;
     private int availableNodes = 0;
     private int currentNodeIndex = -1;
     private Object[] currentAvailableNodeIds;
+    private volatile long[] nodeHashes = new long[0];
+    private volatile double[] nodeWeights = new double[0];
+    private volatile long selectedJobs;
+    private volatile long totalJobs;
 
     public JobDistributor(String name, String nodeFilter, ClusterService clusterService, DistributedJobStore distributedJobStore) {
         this(name, nodeFilter, clusterService, distributedJobStore, new NodeIdComparator(clusterService));
@@ -31,12 +73,27 @@ public class JobDistributor implements AutoCloseable {
 
     public JobDistributor(String name, String nodeFilter, ClusterService clusterService, DistributedJobStore distributedJobStore,
             NodeComparator<?> nodeComparator) {
+        this(name, nodeFilter, clusterService, distributedJobStore, nodeComparator, Strategy.MODULO, null);
+    }
+
+    /**
+     * @param nodeWeightAttribute the name of a node attribute specifying the weight of a node. Only used for the RENDEZVOUS strategy. May be null.
+     */
+    public JobDistributor(String name, String nodeFilter, ClusterService clusterService, DistributedJobStore distributedJobStore,
+            NodeComparator<?> nodeComparator, Strategy strategy, String nodeWeightAttribute) {
         this.name = name;
         this.nodeFilter = nodeFilter;
         this.nodeFilterElements = nodeFilter != null ? nodeFilter.split(",") : null;
         this.clusterService = clusterService;
         this.distributedJobStore = distributedJobStore;
         this.nodeComparator = nodeComparator;
+        this.strategy = strategy;
+        this.nodeWeightAttribute = nodeWeightAttribute;
+        this.componentState = new ComponentState(10, "job_distributor", name, JobDistributor.class).initialized();
+        this.componentState.setConfigProperty("strategy", strategy.toString());
+        this.componentState.setConfigProperty("node_filter", nodeFilter);
+        this.componentState.setConfigProperty("node_weight_attribute", nodeWeightAttribute);
+        this.componentState.addMetrics("selected_jobs", new Count.Live(() -> selectedJobs), "total_jobs", new Count.Live(() -> totalJobs));
 
         init();
     }
@@ -50,7 +107,7 @@ public class JobDistributor implements AutoCloseable {
             return false;
         }
 
-        int jobNodeIndex = Math.abs(jobConfig.hashCode()) % this.availableNodes;
+        int jobNodeIndex = getJobNodeIndex(jobConfig);
 
         if (log.isTraceEnabled()) {
             log.trace("isJobSelected(  " + jobConfig + ", " + nodeIndex + ")\navailableNodes: " + this.availableNodes + "\njobNodeIndex: "
@@ -64,6 +121,68 @@ public class JobDistributor implements AutoCloseable {
         }
     }
 
+    int getJobNodeIndex(JobConfig jobConfig) {
+        if (strategy == Strategy.MODULO) {
+            return Math.abs(jobConfig.hashCode()) % this.availableNodes;
+        }
+
+        return selectNode(jobConfig.hashCode(), this.nodeHashes, this.nodeWeights);
+    }
+
+    static int selectNode(int jobHashCode, long[] nodeHashes, double[] nodeWeights) {
+        long jobHash = jobHashCode * 0x9E3779B97F4A7C15L;
+        int result = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < nodeHashes.length; i++) {
+            double score = rendezvousScore(jobHash, nodeHashes[i], nodeWeights[i]);
+
+            if (score > bestScore) {
+                bestScore = score;
+                result = i;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Weighted rendezvous hashing: For a uniformly distributed hash value u in (0, 1), -weight / ln(u) yields scores so that the
+     * probability of a node having the highest score is proportional to its weight.
+     */
+    private static double rendezvousScore(long jobHash, long nodeHash, double weight) {
+        long hash = mix(jobHash ^ nodeHash);
+        double u = ((hash >>> 11) + 0.5) / (double) (1L << 53);
+        return -weight / Math.log(u);
+    }
+
+    private static long mix(long value) {
+        // Finalizer of MurmurHash3
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Reports the number of jobs which have been selected for the local node during the last full evaluation of all jobs.
+     */
+    public void reportJobShare(long selectedJobs, long totalJobs) {
+        this.selectedJobs = selectedJobs;
+        this.totalJobs = totalJobs;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
     @Override
     public String toString() {
         return "JobDistributor " + name;
@@ -83,8 +202,10 @@ public class JobDistributor implements AutoCloseable {
         int oldAvailableNodes = this.availableNodes;
         int oldCurrentNodeIndex = this.currentNodeIndex;
         Object[] availableNodeIds = getAvailableNodeIds(clusterState);
+        double[] availableNodeWeights = getNodeWeights(clusterState, availableNodeIds);
 
-        if (currentAvailableNodeIds != null && Arrays.equals(availableNodeIds, currentAvailableNodeIds)) {
+        if (currentAvailableNodeIds != null && Arrays.equals(availableNodeIds, currentAvailableNodeIds)
+                && Arrays.equals(availableNodeWeights, this.nodeWeights)) {
             if (log.isTraceEnabled()) {
                 log.trace("Got cluster change event on " + clusterState.nodes().getLocalNodeId() + ", but nodes did not change");
             }
@@ -98,6 +219,9 @@ public class JobDistributor implements AutoCloseable {
 
         this.availableNodes = availableNodeIds.length;
         this.currentAvailableNodeIds = availableNodeIds;
+        this.nodeHashes = getNodeHashes(availableNodeIds);
+        this.nodeWeights = availableNodeWeights;
+        this.componentState.setConfigProperty("nodes", getExpectedJobShares(availableNodeIds, availableNodeWeights));
 
         if (this.availableNodes == 0) {
             log.error("No nodes available for " + this + "\nnodeFilter: " + nodeFilter);
@@ -107,7 +231,9 @@ public class JobDistributor implements AutoCloseable {
                     .max(Arrays.binarySearch(availableNodeIds, this.nodeComparator.resolveNodeId(clusterState.nodes().getLocalNodeId())), -1);
         }
 
-        if (oldAvailableNodes == this.availableNodes && oldCurrentNodeIndex == this.currentNodeIndex) {
+        // With the MODULO strategy, the distribution only depends on the number of nodes and the index of the local node.
+        // With the RENDEZVOUS strategy, the distribution depends on the identities and weights of all nodes. We only get here if these have changed.
+        if (strategy == Strategy.MODULO && oldAvailableNodes == this.availableNodes && oldCurrentNodeIndex == this.currentNodeIndex) {
             log.debug("Cluster state change does not require rescheduling of jobs. This node remains at index: " + oldCurrentNodeIndex
                     + "; available nodes remains at: " + this.availableNodes);
             return false;
@@ -135,6 +261,68 @@ public class JobDistributor implements AutoCloseable {
         return nodeIds;
     }
 
+    private double[] getNodeWeights(ClusterState clusterState, Object[] availableNodeIds) {
+        double[] result = new double[availableNodeIds.length];
+        Arrays.fill(result, 1d);
+
+        if (strategy != Strategy.RENDEZVOUS || nodeWeightAttribute == null) {
+            return result;
+        }
+
+        for (DiscoveryNode node : clusterState.nodes()) {
+            String weight = node.getAttributes().get(nodeWeightAttribute);
+
+            if (weight == null) {
+                continue;
+            }
+
+            int index = Arrays.binarySearch(availableNodeIds, this.nodeComparator.resolveNodeId(node.getId()));
+
+            if (index < 0) {
+                continue;
+            }
+
+            try {
+                double parsedWeight = Double.parseDouble(weight);
+
+                if (parsedWeight > 0 && !Double.isInfinite(parsedWeight)) {
+                    result[index] = parsedWeight;
+                } else {
+                    log.error("Invalid value for node attribute " + nodeWeightAttribute + " of node " + node + ": " + weight + "; using 1");
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for node attribute " + nodeWeightAttribute + " of node " + node + ": " + weight + "; using 1");
+            }
+        }
+
+        return result;
+    }
+
+    static long[] getNodeHashes(Object[] availableNodeIds) {
+        long[] result = new long[availableNodeIds.length];
+
+        for (int i = 0; i < availableNodeIds.length; i++) {
+            result[i] = Hashing.murmur3_128().hashString(String.valueOf(availableNodeIds[i]), StandardCharsets.UTF_8).asLong();
+        }
+
+        return result;
+    }
+
+    private List<Map<String, Object>> getExpectedJobShares(Object[] availableNodeIds, double[] weights) {
+        double totalWeight = Arrays.stream(weights).sum();
+        List<Map<String, Object>> result = new ArrayList<>(availableNodeIds.length);
+
+        for (int i = 0; i < availableNodeIds.length; i++) {
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("node", String.valueOf(availableNodeIds[i]));
+            node.put("weight", weights[i]);
+            node.put("expected_share", strategy == Strategy.RENDEZVOUS ? weights[i] / totalWeight : 1d / availableNodeIds.length);
+            result.add(node);
+        }
+
+        return result;
+    }
+
     private final ClusterStateListener clusterStateListener = new ClusterStateListener() {
 
         @Override
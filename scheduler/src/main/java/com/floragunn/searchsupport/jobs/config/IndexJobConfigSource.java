@@ -136,6 +136,10 @@ public class IndexJobConfigSource<JobType extends JobConfig> implements Iterable
             if (this.current == null) {
                 this.done = true;
 
+                if (jobDistributor != null) {
+                    jobDistributor.reportJobShare(loaded, loaded + filtered);
+                }
+
                 if (log.isDebugEnabled()) {
                     log.debug("Loaded jobs from " + indexName + ": " + loaded + "; filtered: " + filtered);
                 }
@@ -1,6 +1,7 @@
 package com.floragunn.searchsupport.jobs.core;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,7 +29,6 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
-import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.internal.Client;
 import org.elasticsearch.cluster.ClusterChangedEvent;
@@ -38,10 +38,8 @@ import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
-import org.elasticsearch.xcontent.ToXContent;
 import org.elasticsearch.xcontent.ToXContentObject;
 import org.elasticsearch.xcontent.XContentBuilder;
-import org.elasticsearch.xcontent.XContentFactory;
 import org.quartz.Calendar;
 import org.quartz.DailyTimeIntervalTrigger;
 import org.quartz.Job;
@@ -99,6 +97,11 @@ public class IndexJobStateStore<JobType extends com.floragunn.searchsupport.jobs
     // TODO maybe separate loggers for each scheduler instance?
     private static final Logger log = LogManager.getLogger(IndexJobStateStore.class);
 
+    public static final Duration DEFAULT_TRIGGER_STATE_WRITE_DELAY = Duration.ofSeconds(1);
+    public static final int DEFAULT_TRIGGER_STATE_WRITE_BATCH_SIZE = 1000;
+    private static final Duration TRIGGER_STATE_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+
     private final static Map<String, IndexJobStateStore<?>> schedulerToJobStoreMap = new MapMaker().concurrencyLevel(4).weakValues().makeMap();
 
     public static IndexJobStateStore<?> getInstanceBySchedulerName(String nodeId, String schedulerName) {
@@ -135,10 +138,24 @@ public class IndexJobStateStore<JobType extends com.floragunn.searchsupport.jobs
     private final ScheduledThreadPoolExecutor periodicMaintenanceExecutor = new ScheduledThreadPoolExecutor(1);
     private final ClusterService clusterService;
     private final Collection<JobConfigListener<JobType>> jobConfigListeners;
+    private final TriggerStatePersister triggerStatePersister;
 
     public IndexJobStateStore(String schedulerName, String statusIndexName, String statusIndexIdPrefix, String nodeId, Client client,
             Iterable<JobType> jobConfigSource, JobConfigFactory<JobType> jobFactory, ClusterService clusterService,
             Collection<JobConfigListener<JobType>> jobConfigListeners, long misfireThreshold) {
+        this(schedulerName, statusIndexName, statusIndexIdPrefix, nodeId, client, jobConfigSource, jobFactory, clusterService, jobConfigListeners,
+                misfireThreshold, DEFAULT_TRIGGER_STATE_WRITE_DELAY, DEFAULT_TRIGGER_STATE_WRITE_BATCH_SIZE);
+    }
+
+    /**
+     * @param triggerStateWriteDelay the maximum time trigger state changes are collected before they are written to the status index. 0 writes
+     *          state changes immediately.
+     * @param triggerStateWriteBatchSize the maximum number of trigger states written in one bulk request
+     */
+    public IndexJobStateStore(String schedulerName, String statusIndexName, String statusIndexIdPrefix, String nodeId, Client client,
+            Iterable<JobType> jobConfigSource, JobConfigFactory<JobType> jobFactory, ClusterService clusterService,
+            Collection<JobConfigListener<JobType>> jobConfigListeners, long misfireThreshold, Duration triggerStateWriteDelay,
+            int triggerStateWriteBatchSize) {
         this.schedulerName = schedulerName;
         this.statusIndexName = statusIndexName;
         this.statusIndexIdPrefix = statusIndexIdPrefix;
@@ -149,6 +166,8 @@ public class IndexJobStateStore<JobType extends com.floragunn.searchsupport.jobs
         this.clusterService = clusterService;
         this.jobConfigListeners = new ArrayList<>(jobConfigListeners);
         this.misfireThreshold = misfireThreshold;
+        this.triggerStatePersister = new TriggerStatePersister(schedulerName, statusIndexName, client, triggerStateWriteDelay,
+                triggerStateWriteBatchSize);
     }
 
     @Override
@@ -159,9 +178,30 @@ public class IndexJobStateStore<JobType extends com.floragunn.searchsupport.jobs
             return;
         }
 
+        // This is called on the cluster applier thread; thus, we only stop scheduling the currently known jobs here. Writing the trigger
+        // states requires blocking I/O, which is done on the config change executor.
+        resetJobs();
+
+        configChangeExecutor.submit(() -> {
+            releaseJobs();
+            updateAfterClusterConfigChange();
+        });
+    }
+
+    /**
+     * Stops scheduling the currently known jobs and synchronously writes the pending trigger states. After a re-distribution, jobs
+     * might be owned by other nodes, which load the trigger states from the index. Thus, the states must be written as soon as possible
+     * after this node gives up the ownership.
+     * 
+     * This blocks until the states are written. Thus, it must not be called on the cluster applier thread.
+     */
+    void releaseJobs() {
         resetJobs();
 
-        configChangeExecutor.submit(() -> updateAfterClusterConfigChange());
+        if (!triggerStatePersister.flush(TRIGGER_STATE_FLUSH_TIMEOUT)) {
+            log.warn("Could not write all trigger states of " + this
+                    + " before releasing jobs. Nodes taking over jobs might see outdated states.");
+        }
     }
 
     @Override
@@ -203,6 +243,7 @@ public class IndexJobStateStore<JobType extends com.floragunn.searchsupport.jobs
             log.info("Shutdown of " + this);
             shutdown = true;
             configChangeExecutor.shutdownNow();
+            triggerStatePersister.shutdown(TRIGGER_STATE_FLUSH_TIMEOUT);
         }
     }
 
@@ -1102,14 +1143,13 @@ public class IndexJobStateStore<JobType extends com.floragunn.searchsupport.jobs
         }
     }
 
+    TriggerStatePersister getTriggerStatePersister() {
+        return triggerStatePersister;
+    }
+
     private void setTriggerStatusInIndex(InternalOperableTrigger internalOperableTrigger) {
         try {
-            XContentBuilder xContentBuilder = XContentFactory.jsonBuilder();
-            internalOperableTrigger.toXContent(xContentBuilder, ToXContent.EMPTY_PARAMS);
-
-            IndexRequest indexRequest = new IndexRequest(statusIndexName).id(internalOperableTrigger.getKeyString()).source(xContentBuilder);
-
-            this.client.index(indexRequest);
+            triggerStatePersister.write(internalOperableTrigger);
         } catch (Exception e) {
             log.error("Error while writing trigger status: " + internalOperableTrigger, e);
             this.dirtyTriggers.get().add(internalOperableTrigger);
@@ -1212,6 +1252,9 @@ public class IndexJobStateStore<JobType extends com.floragunn.searchsupport.jobs
     }
 
     private void initJobs() {
+        // Make sure that the states loaded from the index are not older than the states known to this node
+        triggerStatePersister.flush(TRIGGER_STATE_FLUSH_TIMEOUT);
+
         Collection<InternalJobDetail> jobs = this.loadJobs();
 
         boolean triggersStillExecutingOnOtherNodesExist = false;
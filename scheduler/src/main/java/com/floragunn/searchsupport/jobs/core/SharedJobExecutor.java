@@ -0,0 +1,426 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.jobs.core;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.floragunn.searchsupport.cstate.metrics.TimeAggregation;
+
+/**
+ * A node-wide executor for jobs of several schedulers.
+ *
+ * Each scheduler gets its own queue, which is limited to a maximum number of concurrently executing jobs. The executor runs at most
+ * maxConcurrency jobs at once; free execution slots are assigned to the queues in round-robin order. Thus, a busy scheduler can use
+ * the capacity not needed by other schedulers, but cannot starve them.
+ *
+ * Optionally, jobs are executed on virtual threads. This requires a JVM supporting virtual threads; otherwise, platform threads are used.
+ *
+ * Use SharedJobExecutor.QuartzThreadPool to connect a Quartz scheduler to this executor.
+ */
+public class SharedJobExecutor implements ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(SharedJobExecutor.class);
+
+    private final String name;
+    private final int maxConcurrency;
+    private final ExecutorService executorService;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Queue> queues = new ArrayList<>();
+    private final ComponentState componentState;
+    private int nextQueueIndex = 0;
+    private int running = 0;
+    private boolean shutdown = false;
+
+    public SharedJobExecutor(String name, int maxConcurrency, int threadPriority, Duration threadKeepAlive, boolean virtualThreads) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+
+        ExecutorService virtualThreadExecutor = virtualThreads ? createVirtualThreadExecutor() : null;
+
+        if (virtualThreadExecutor != null) {
+            this.executorService = virtualThreadExecutor;
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, threadKeepAlive.toMillis(),
+                    TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), (r) -> {
+                        Thread thread = new Thread(r, name + "/worker_" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        thread.setPriority(threadPriority);
+                        return thread;
+                    });
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executorService = threadPoolExecutor;
+        }
+
+        this.componentState = new ComponentState(10, "shared_job_executor", name, SharedJobExecutor.class).initialized();
+        this.componentState.setConfigProperty("max_concurrency", maxConcurrency);
+        this.componentState.setConfigProperty("virtual_threads", virtualThreadExecutor != null);
+        this.componentState.addMetrics("running", new Count.Live(() -> (long) getRunningCount()));
+    }
+
+    /**
+     * Creates a new queue for a scheduler.
+     *
+     * @param maxConcurrency the maximum number of jobs from this queue which may execute concurrently
+     */
+    public Queue createQueue(String queueName, int maxConcurrency) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException(this + " is shut down");
+            }
+
+            Queue queue = new Queue(queueName, maxConcurrency);
+            queues.add(queue);
+            componentState.replacePart(queue.componentState);
+            return queue;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+
+            for (Queue queue : queues) {
+                queue.shutdown = true;
+                queue.slotAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        executorService.shutdown();
+    }
+
+    public int getRunningCount() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    @Override
+    public String toString() {
+        return "SharedJobExecutor [name=" + name + ", maxConcurrency=" + maxConcurrency + "]";
+    }
+
+    /**
+     * Starts queued jobs as long as execution slots are available. Must be called while holding the lock.
+     */
+    private void dispatch() {
+        while (running < maxConcurrency && !queues.isEmpty()) {
+            Queue queue = nextEligibleQueue();
+
+            if (queue == null) {
+                return;
+            }
+
+            Task task = queue.tasks.poll();
+            running++;
+            queue.running++;
+
+            try {
+                executorService.execute(() -> execute(queue, task));
+            } catch (RejectedExecutionException e) {
+                log.error("Could not execute job of " + queue.name, e);
+                running--;
+                queue.running--;
+                queue.slotAvailable.signalAll();
+                return;
+            }
+        }
+    }
+
+    private Queue nextEligibleQueue() {
+        int size = queues.size();
+
+        for (int i = 0; i < size; i++) {
+            int index = (nextQueueIndex + i) % size;
+            Queue queue = queues.get(index);
+
+            if (!queue.tasks.isEmpty() && queue.running < queue.maxConcurrency) {
+                nextQueueIndex = (index + 1) % size;
+                return queue;
+            }
+        }
+
+        return null;
+    }
+
+    private void execute(Queue queue, Task task) {
+        queue.waitTime.recordNs(System.nanoTime() - task.queuedAt);
+
+        try {
+            task.runnable.run();
+        } catch (Throwable e) {
+            log.error("Error while executing job of " + queue.name, e);
+        } finally {
+            lock.lock();
+            try {
+                running--;
+                queue.running--;
+                queue.slotAvailable.signalAll();
+
+                if (queue.shutdown && queue.getOutstandingCount() == 0) {
+                    queues.remove(queue);
+                }
+
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            log.warn("Virtual threads are not available on this JVM; using platform threads", e);
+            return null;
+        }
+    }
+
+    /**
+     * The queue of one scheduler.
+     */
+    public class Queue {
+        private final String name;
+        private final int maxConcurrency;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private final Condition slotAvailable = lock.newCondition();
+        private final ComponentState componentState;
+        private final TimeAggregation waitTime = new TimeAggregation.Milliseconds();
+        private int running = 0;
+        private boolean shutdown = false;
+
+        Queue(String name, int maxConcurrency) {
+            this.name = name;
+            this.maxConcurrency = maxConcurrency;
+            this.componentState = new ComponentState(0, "queue", name).initialized();
+            this.componentState.setConfigProperty("max_concurrency", maxConcurrency);
+            this.componentState.addMetrics("queue_depth", new Count.Live(() -> (long) getQueuedCount()), "running",
+                    new Count.Live(() -> (long) getQueueRunningCount()), "wait_time", waitTime);
+        }
+
+        /**
+         * Queues a job for execution. Returns false if the queue has been shut down.
+         */
+        public boolean submit(Runnable runnable) {
+            lock.lock();
+            try {
+                if (shutdown) {
+                    return false;
+                }
+
+                tasks.add(new Task(runnable, System.nanoTime()));
+                dispatch();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Blocks until this queue may accept at least one job, or until the poll interval has passed. Returns the number of jobs the queue
+         * may accept.
+         */
+        public int awaitAvailableSlots(long pollingIntervalMs) {
+            lock.lock();
+            try {
+                while (getOutstandingCount() >= maxConcurrency && !shutdown) {
+                    try {
+                        slotAvailable.await(pollingIntervalMs, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        log.warn("Unexpected InterruptedException", e);
+                    }
+                }
+
+                return Math.max(maxConcurrency - getOutstandingCount(), 0);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Rejects new jobs. Already queued jobs are still executed.
+         */
+        public void shutdown(boolean waitForJobsToComplete) {
+            lock.lock();
+            try {
+                shutdown = true;
+                slotAvailable.signalAll();
+
+                if (getOutstandingCount() == 0) {
+                    queues.remove(this);
+                    return;
+                }
+
+                if (waitForJobsToComplete) {
+                    boolean interrupted = false;
+
+                    while (getOutstandingCount() > 0) {
+                        try {
+                            slotAvailable.await(1, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        private int getOutstandingCount() {
+            return tasks.size() + running;
+        }
+
+        private int getQueuedCount() {
+            lock.lock();
+            try {
+                return tasks.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int getQueueRunningCount() {
+            lock.lock();
+            try {
+                return running;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "SharedJobExecutor.Queue [name=" + name + ", maxConcurrency=" + maxConcurrency + "]";
+        }
+    }
+
+    /**
+     * Connects a Quartz scheduler to a queue of a SharedJobExecutor. Quartz only acquires as many triggers as the queue can accept.
+     */
+    public static class QuartzThreadPool implements org.quartz.spi.ThreadPool {
+        private final SharedJobExecutor executor;
+        private final String queueName;
+        private final int maxConcurrency;
+        private Queue queue;
+        private long pollingIntervalMs = 1000;
+
+        public QuartzThreadPool(SharedJobExecutor executor, String queueName, int maxConcurrency) {
+            this.executor = executor;
+            this.queueName = queueName;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public boolean runInThread(Runnable runnable) {
+            if (runnable == null) {
+                return false;
+            }
+
+            return queue.submit(runnable);
+        }
+
+        @Override
+        public int blockForAvailableThreads() {
+            return queue.awaitAvailableSlots(pollingIntervalMs);
+        }
+
+        @Override
+        public void initialize() {
+            this.queue = executor.createQueue(queueName, maxConcurrency);
+        }
+
+        @Override
+        public void shutdown(boolean waitForJobsToComplete) {
+            if (queue != null) {
+                queue.shutdown(waitForJobsToComplete);
+            }
+        }
+
+        @Override
+        public int getPoolSize() {
+            return maxConcurrency;
+        }
+
+        @Override
+        public void setInstanceId(String schedulerInstanceId) {
+        }
+
+        @Override
+        public void setInstanceName(String schedulerInstanceName) {
+        }
+
+        public void setPollingIntervalMs(long pollingIntervalMs) {
+            this.pollingIntervalMs = pollingIntervalMs;
+        }
+
+        @Override
+        public String toString() {
+            return "SharedJobExecutor.QuartzThreadPool [queue=" + queueName + ", executor=" + executor + "]";
+        }
+    }
+
+    private static class Task {
+        private final Runnable runnable;
+        private final long queuedAt;
+
+        Task(Runnable runnable, long queuedAt) {
+            this.runnable = runnable;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
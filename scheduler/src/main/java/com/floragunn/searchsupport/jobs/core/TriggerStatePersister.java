@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.jobs.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.internal.Client;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.xcontent.ToXContent;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentFactory;
+import org.elasticsearch.xcontent.XContentType;
+
+/**
+ * Write-behind persistence for trigger states.
+ *
+ * The state of a trigger changes several times per execution (acquired, executing, waiting). Instead of writing each state change as
+ * a single document, the serialized states are collected in a map keyed by trigger id; a newer state replaces a not yet written older
+ * state of the same trigger. The collected states are written using bulk requests at the latest after the configured write delay, or
+ * earlier when the configured batch size is reached. This bounds the time a state change may stay unpersisted to the write delay
+ * (plus the duration of a bulk request); if a write fails, the state is kept and written again with the next batch, unless a newer
+ * state has been collected in the meantime.
+ *
+ * All writes are executed by a single thread; thus, the states of a trigger are written in the order they have been collected.
+ *
+ * A node which loses a trigger because of a crash may have states which have not been written yet. The node taking over the trigger
+ * will then see an older state. This is handled by IndexJobStateStore.checkTriggerStateAfterRecovery() in the same way as states
+ * written by a node which has gone away during the execution of the trigger. When triggers are re-distributed between running nodes,
+ * IndexJobStateStore.releaseJobs() calls flush() on the config change executor as soon as the node has given up the ownership of its
+ * jobs; additionally, flush() is called before trigger states are re-loaded.
+ */
+class TriggerStatePersister {
+    private static final Logger log = LogManager.getLogger(TriggerStatePersister.class);
+
+    private final String statusIndexName;
+    private final Client client;
+    private final long writeDelayMillis;
+    private final int maxBatchSize;
+    private final Map<String, BytesReference> pendingStates = new LinkedHashMap<>();
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicBoolean immediateWriteScheduled = new AtomicBoolean();
+    private volatile boolean shutdown = false;
+
+    TriggerStatePersister(String schedulerName, String statusIndexName, Client client, Duration writeDelay, int maxBatchSize) {
+        this.statusIndexName = statusIndexName;
+        this.client = client;
+        this.writeDelayMillis = writeDelay.toMillis();
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.executor = new ScheduledThreadPoolExecutor(1, (r) -> {
+            Thread thread = new Thread(r, "trigger_state_persister[" + schedulerName + "]");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (writeDelayMillis > 0) {
+            this.executor.scheduleWithFixedDelay(this::writePendingStates, writeDelayMillis, writeDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Serializes the current state of the trigger and queues it for writing.
+     */
+    void write(IndexJobStateStore.InternalOperableTrigger trigger) throws Exception {
+        XContentBuilder xContentBuilder = XContentFactory.jsonBuilder();
+        trigger.toXContent(xContentBuilder, ToXContent.EMPTY_PARAMS);
+        BytesReference source = BytesReference.bytes(xContentBuilder);
+
+        int pendingCount;
+
+        synchronized (pendingStates) {
+            // Remove first in order to move the entry to the end of the map
+            pendingStates.remove(trigger.getKeyString());
+            pendingStates.put(trigger.getKeyString(), source);
+            pendingCount = pendingStates.size();
+        }
+
+        if (writeDelayMillis <= 0 || pendingCount >= maxBatchSize) {
+            scheduleImmediateWrite();
+        }
+    }
+
+    /**
+     * Writes all pending states and waits until the writes are finished or the timeout has passed.
+     *
+     * @return true if the pending states were written within the timeout
+     */
+    boolean flush(Duration timeout) {
+        if (shutdown) {
+            return false;
+        }
+
+        try {
+            executor.submit(this::writePendingStates).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("Writing trigger states to " + statusIndexName + " did not finish within " + timeout);
+            return false;
+        } catch (ExecutionException | RejectedExecutionException e) {
+            log.error("Error while writing trigger states to " + statusIndexName, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    void shutdown(Duration timeout) {
+        if (shutdown) {
+            return;
+        }
+
+        flush(timeout);
+        shutdown = true;
+        executor.shutdownNow();
+
+        synchronized (pendingStates) {
+            if (!pendingStates.isEmpty()) {
+                log.warn("Discarding " + pendingStates.size() + " unwritten trigger states of " + statusIndexName + " during shutdown");
+                pendingStates.clear();
+            }
+        }
+    }
+
+    int getPendingCount() {
+        synchronized (pendingStates) {
+            return pendingStates.size();
+        }
+    }
+
+    private void scheduleImmediateWrite() {
+        if (shutdown || !immediateWriteScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(this::writePendingStates);
+        } catch (RejectedExecutionException e) {
+            immediateWriteScheduled.set(false);
+            log.debug("Could not schedule write of trigger states", e);
+        }
+    }
+
+    private void writePendingStates() {
+        immediateWriteScheduled.set(false);
+
+        for (;;) {
+            Map<String, BytesReference> batch = takeBatch();
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            if (!writeBatch(batch)) {
+                // Try again with the next regular write
+                return;
+            }
+        }
+    }
+
+    private Map<String, BytesReference> takeBatch() {
+        synchronized (pendingStates) {
+            Map<String, BytesReference> batch = new LinkedHashMap<>(Math.min(pendingStates.size(), maxBatchSize));
+            Iterator<Map.Entry<String, BytesReference>> iter = pendingStates.entrySet().iterator();
+
+            while (iter.hasNext() && batch.size() < maxBatchSize) {
+                Map.Entry<String, BytesReference> entry = iter.next();
+                batch.put(entry.getKey(), entry.getValue());
+                iter.remove();
+            }
+
+            return batch;
+        }
+    }
+
+    private boolean writeBatch(Map<String, BytesReference> batch) {
+        BulkRequest bulkRequest = new BulkRequest();
+
+        for (Map.Entry<String, BytesReference> entry : batch.entrySet()) {
+            bulkRequest.add(new IndexRequest(statusIndexName).id(entry.getKey()).source(entry.getValue(), XContentType.JSON));
+        }
+
+        try {
+            BulkResponse bulkResponse = client.bulk(bulkRequest).actionGet();
+
+            if (!bulkResponse.hasFailures()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Wrote " + batch.size() + " trigger states to " + statusIndexName);
+                }
+
+                return true;
+            }
+
+            List<String> failedIds = new ArrayList<>();
+
+            for (BulkItemResponse item : bulkResponse.getItems()) {
+                if (item.isFailed()) {
+                    failedIds.add(item.getId());
+                }
+            }
+
+            log.error("Error while writing trigger states to " + statusIndexName + ": " + bulkResponse.buildFailureMessage());
+
+            batch.keySet().retainAll(failedIds);
+            requeue(batch);
+            return false;
+        } catch (Exception e) {
+            log.error("Error while writing trigger states to " + statusIndexName, e);
+            requeue(batch);
+            return false;
+        }
+    }
+
+    private void requeue(Map<String, BytesReference> failed) {
+        if (shutdown) {
+            return;
+        }
+
+        synchronized (pendingStates) {
+            for (Map.Entry<String, BytesReference> entry : failed.entrySet()) {
+                // If a newer state has been collected in the meantime, the failed state is obsolete
+                pendingStates.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.jobs.cluster;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JobDistributorTest {
+
+    private static final int JOBS = 20000;
+
+    @Test
+    public void rendezvousDistributionIsBalanced() {
+        long[] nodeHashes = JobDistributor.getNodeHashes(new Object[] { "node_a", "node_b", "node_c", "node_d", "node_e" });
+        double[] weights = { 1, 1, 1, 1, 1 };
+        int[] counts = new int[nodeHashes.length];
+
+        for (int i = 0; i < JOBS; i++) {
+            counts[JobDistributor.selectNode(("job_" + i).hashCode(), nodeHashes, weights)]++;
+        }
+
+        for (int count : counts) {
+            Assert.assertEquals(JOBS / nodeHashes.length, count, JOBS / nodeHashes.length * 0.1);
+        }
+    }
+
+    @Test
+    public void removedNodeOnlyRelocatesItsOwnJobs() {
+        Object[] allNodes = { "node_a", "node_b", "node_c", "node_d", "node_e" };
+        Object[] remainingNodes = { "node_a", "node_b", "node_d", "node_e" };
+        long[] allNodeHashes = JobDistributor.getNodeHashes(allNodes);
+        long[] remainingNodeHashes = JobDistributor.getNodeHashes(remainingNodes);
+
+        for (int i = 0; i < JOBS; i++) {
+            int hashCode = ("job_" + i).hashCode();
+            Object before = allNodes[JobDistributor.selectNode(hashCode, allNodeHashes, new double[] { 1, 1, 1, 1, 1 })];
+            Object after = remainingNodes[JobDistributor.selectNode(hashCode, remainingNodeHashes, new double[] { 1, 1, 1, 1 })];
+
+            if (!before.equals("node_c")) {
+                Assert.assertEquals("job_" + i, before, after);
+            }
+        }
+    }
+
+    @Test
+    public void weightsAreRespected() {
+        long[] nodeHashes = JobDistributor.getNodeHashes(new Object[] { "node_a", "node_b", "node_c" });
+        double[] weights = { 2, 1, 1 };
+        int[] counts = new int[nodeHashes.length];
+
+        for (int i = 0; i < JOBS; i++) {
+            counts[JobDistributor.selectNode(("job_" + i).hashCode(), nodeHashes, weights)]++;
+        }
+
+        Assert.assertEquals(JOBS / 2, counts[0], JOBS / 2 * 0.1);
+        Assert.assertEquals(JOBS / 4, counts[1], JOBS / 4 * 0.1);
+        Assert.assertEquals(JOBS / 4, counts[2], JOBS / 4 * 0.1);
+    }
+}
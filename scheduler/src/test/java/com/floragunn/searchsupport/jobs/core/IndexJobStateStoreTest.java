@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.jobs.core;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.internal.Client;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.floragunn.searchsupport.jobs.config.JobConfig;
+
+public class IndexJobStateStoreTest {
+
+    @Test
+    public void pendingTriggerStatesAreWrittenBeforeJobsAreReleased() throws Exception {
+        Client client = mockClient();
+        IndexJobStateStore<JobConfig> subject = new IndexJobStateStore<>("test", "trigger_state", "test", "node_a", client,
+                Collections.emptyList(), null, null, Collections.emptyList(), 5000, Duration.ofMinutes(10), 100);
+
+        try {
+            subject.getTriggerStatePersister().write(mockTrigger("trigger_a"));
+            subject.getTriggerStatePersister().write(mockTrigger("trigger_b"));
+
+            // The write delay has not passed yet
+            verify(client, never()).bulk(any(BulkRequest.class));
+
+            // Simulates a re-distribution of the jobs to other nodes
+            subject.releaseJobs();
+
+            // The states must be written when releaseJobs() returns, so that the new owners load the current states
+            Assert.assertEquals(0, subject.getTriggerStatePersister().getPendingCount());
+
+            ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(client, times(1)).bulk(captor.capture());
+            Assert.assertEquals(2, captor.getValue().numberOfActions());
+        } finally {
+            subject.shutdown();
+        }
+    }
+
+    @Test
+    public void clusterConfigChangeDoesNotBlockOnTriggerStateWrites() throws Exception {
+        CountDownLatch bulkLatch = new CountDownLatch(1);
+        Client client = mockClient(bulkLatch);
+        IndexJobStateStore<JobConfig> subject = new IndexJobStateStore<>("test", "trigger_state", "test", "node_a", client,
+                Collections.emptyList(), null, null, Collections.emptyList(), 5000, Duration.ofMinutes(10), 100);
+
+        try {
+            subject.getTriggerStatePersister().write(mockTrigger("trigger_a"));
+
+            long start = System.currentTimeMillis();
+            subject.clusterConfigChanged(mock(ClusterChangedEvent.class));
+
+            // The cluster applier thread must not wait for the bulk request
+            Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+
+            bulkLatch.countDown();
+
+            for (int i = 0; i < 100 && subject.getTriggerStatePersister().getPendingCount() != 0; i++) {
+                Thread.sleep(50);
+            }
+
+            Assert.assertEquals(0, subject.getTriggerStatePersister().getPendingCount());
+            verify(client, times(1)).bulk(any(BulkRequest.class));
+        } finally {
+            bulkLatch.countDown();
+            subject.shutdown();
+        }
+    }
+
+    private static Client mockClient() {
+        return mockClient(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Client mockClient(CountDownLatch bulkLatch) {
+        Client client = mock(Client.class);
+        ActionFuture<BulkResponse> future = mock(ActionFuture.class);
+        when(future.actionGet()).thenAnswer((invocation) -> {
+            if (bulkLatch != null) {
+                bulkLatch.await(10, TimeUnit.SECONDS);
+            }
+
+            return new BulkResponse(new BulkItemResponse[0], 1);
+        });
+        when(client.bulk(any(BulkRequest.class))).thenReturn(future);
+        return client;
+    }
+
+    private static IndexJobStateStore.InternalOperableTrigger mockTrigger(String id) {
+        IndexJobStateStore.InternalOperableTrigger trigger = mock(IndexJobStateStore.InternalOperableTrigger.class);
+        when(trigger.getKeyString()).thenReturn(id);
+        return trigger;
+    }
+}
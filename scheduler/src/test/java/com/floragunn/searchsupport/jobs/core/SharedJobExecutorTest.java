@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.jobs.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SharedJobExecutorTest {
+
+    @Test
+    public void queuesAreServedInRoundRobinOrder() throws Exception {
+        SharedJobExecutor subject = new SharedJobExecutor("test", 1, Thread.NORM_PRIORITY, Duration.ofMinutes(1), false);
+
+        try {
+            SharedJobExecutor.Queue queueA = subject.createQueue("a", 10);
+            SharedJobExecutor.Queue queueB = subject.createQueue("b", 10);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(4);
+            List<String> executed = new CopyOnWriteArrayList<>();
+
+            queueA.submit(() -> {
+                await(blocker);
+                executed.add("a1");
+                done.countDown();
+            });
+            queueA.submit(() -> {
+                executed.add("a2");
+                done.countDown();
+            });
+            queueA.submit(() -> {
+                executed.add("a3");
+                done.countDown();
+            });
+            queueB.submit(() -> {
+                executed.add("b1");
+                done.countDown();
+            });
+
+            blocker.countDown();
+
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(List.of("a1", "b1", "a2", "a3"), executed);
+        } finally {
+            subject.shutdown();
+        }
+    }
+
+    @Test
+    public void queueConcurrencyIsLimited() throws Exception {
+        SharedJobExecutor subject = new SharedJobExecutor("test", 4, Thread.NORM_PRIORITY, Duration.ofMinutes(1), false);
+
+        try {
+            SharedJobExecutor.Queue queue = subject.createQueue("a", 2);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(3);
+            AtomicInteger concurrent = new AtomicInteger();
+            List<Integer> maxConcurrent = Collections.synchronizedList(new ArrayList<>());
+
+            for (int i = 0; i < 3; i++) {
+                queue.submit(() -> {
+                    maxConcurrent.add(concurrent.incrementAndGet());
+                    await(blocker);
+                    concurrent.decrementAndGet();
+                    done.countDown();
+                });
+            }
+
+            for (int i = 0; i < 1000 && concurrent.get() < 2; i++) {
+                Thread.sleep(10);
+            }
+
+            blocker.countDown();
+
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(2, (int) Collections.max(maxConcurrent));
+            Assert.assertTrue(queue.awaitAvailableSlots(10) > 0);
+        } finally {
+            subject.shutdown();
+        }
+    }
+
+    @Test
+    public void shutDownQueueRejectsJobs() {
+        SharedJobExecutor subject = new SharedJobExecutor("test", 1, Thread.NORM_PRIORITY, Duration.ofMinutes(1), false);
+
+        try {
+            SharedJobExecutor.Queue queue = subject.createQueue("a", 1);
+            queue.shutdown(true);
+
+            Assert.assertFalse(queue.submit(() -> {
+            }));
+        } finally {
+            subject.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.jobs.core;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.internal.Client;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class TriggerStatePersisterTest {
+
+    @Test
+    public void stateChangesOfSameTriggerAreCoalesced() throws Exception {
+        Client client = mockClient();
+        TriggerStatePersister subject = new TriggerStatePersister("test", "trigger_state", client, Duration.ofMinutes(10), 100);
+
+        try {
+            IndexJobStateStore.InternalOperableTrigger trigger = mockTrigger("trigger_a");
+
+            subject.write(trigger);
+            subject.write(trigger);
+            subject.write(trigger);
+
+            Assert.assertEquals(1, subject.getPendingCount());
+            Assert.assertTrue(subject.flush(Duration.ofSeconds(10)));
+            Assert.assertEquals(0, subject.getPendingCount());
+
+            ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(client, times(1)).bulk(captor.capture());
+            Assert.assertEquals(1, captor.getValue().numberOfActions());
+        } finally {
+            subject.shutdown(Duration.ofSeconds(10));
+        }
+    }
+
+    @Test
+    public void fullBatchIsWrittenWithoutDelay() throws Exception {
+        Client client = mockClient();
+        TriggerStatePersister subject = new TriggerStatePersister("test", "trigger_state", client, Duration.ofMinutes(10), 2);
+
+        try {
+            subject.write(mockTrigger("trigger_a"));
+            subject.write(mockTrigger("trigger_b"));
+
+            ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(client, timeout(10000).times(1)).bulk(captor.capture());
+            Assert.assertEquals(2, captor.getValue().numberOfActions());
+        } finally {
+            subject.shutdown(Duration.ofSeconds(10));
+        }
+    }
+
+    @Test
+    public void failedWritesAreRetained() throws Exception {
+        Client client = mock(Client.class);
+        when(client.bulk(any(BulkRequest.class))).thenThrow(new RuntimeException("test"));
+        TriggerStatePersister subject = new TriggerStatePersister("test", "trigger_state", client, Duration.ofMinutes(10), 100);
+
+        try {
+            subject.write(mockTrigger("trigger_a"));
+            subject.flush(Duration.ofSeconds(10));
+
+            Assert.assertEquals(1, subject.getPendingCount());
+        } finally {
+            subject.shutdown(Duration.ofSeconds(10));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Client mockClient() {
+        Client client = mock(Client.class);
+        ActionFuture<BulkResponse> future = mock(ActionFuture.class);
+        when(future.actionGet()).thenReturn(new BulkResponse(new BulkItemResponse[0], 1));
+        when(client.bulk(any(BulkRequest.class))).thenReturn(future);
+        return client;
+    }
+
+    private static IndexJobStateStore.InternalOperableTrigger mockTrigger(String id) {
+        IndexJobStateStore.InternalOperableTrigger trigger = mock(IndexJobStateStore.InternalOperableTrigger.class);
+        when(trigger.getKeyString()).thenReturn(id);
+        return trigger;
+    }
+}
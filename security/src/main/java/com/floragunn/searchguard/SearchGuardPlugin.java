@@ -70,10 +70,13 @@ import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.plugins.ActionPlugin.RestHandlersServices;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.PageCacheRecycler;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.features.NodeFeature;
 import org.elasticsearch.http.HttpPreRequest;
@@ -130,6 +133,7 @@ import com.floragunn.searchguard.authc.blocking.BlockedUserRegistry;
 import com.floragunn.searchguard.authc.internal_users_db.InternalUsersAuthenticationBackend;
 import com.floragunn.searchguard.authc.internal_users_db.InternalUsersConfigApi;
 import com.floragunn.searchguard.authc.internal_users_db.InternalUsersDatabase;
+import com.floragunn.searchguard.authc.internal_users_db.PasswordVerifier;
 import com.floragunn.searchguard.authc.rest.AuthcCacheApi;
 import com.floragunn.searchguard.authc.rest.AuthenticatingRestFilter;
 import com.floragunn.searchguard.authc.rest.RestAuthcConfigApi;
@@ -138,6 +142,7 @@ import com.floragunn.searchguard.authc.session.GetActivatedFrontendConfigAction;
 import com.floragunn.searchguard.authc.session.backend.SessionModule;
 import com.floragunn.searchguard.authz.AuthorizationService;
 import com.floragunn.searchguard.authz.PrivilegesEvaluator;
+import com.floragunn.searchguard.authz.ReverseDnsResolver;
 import com.floragunn.searchguard.authz.SystemIndexAccess;
 import com.floragunn.searchguard.authz.actions.ActionRequestIntrospector;
 import com.floragunn.searchguard.authz.actions.Actions;
@@ -166,6 +171,7 @@ import com.floragunn.searchguard.internalauthtoken.InternalAuthTokenProvider;
 import com.floragunn.searchguard.license.LicenseRepository;
 import com.floragunn.searchguard.license.SearchGuardLicenseInfoAction;
 import com.floragunn.searchguard.license.SearchGuardLicenseKeyApi;
+import com.floragunn.searchguard.modules.api.ComponentStateMetricsRestAction;
 import com.floragunn.searchguard.modules.api.ComponentStateRestAction;
 import com.floragunn.searchguard.modules.api.GetComponentStateAction;
 import com.floragunn.searchguard.privileges.SpecialPrivilegesEvaluationContextProviderRegistry;
@@ -183,6 +189,7 @@ import com.floragunn.searchguard.ssl.SslExceptionHandler;
 import com.floragunn.searchguard.ssl.transport.SearchGuardSSLNettyTransport;
 import com.floragunn.searchguard.ssl.util.SSLConfigConstants;
 import com.floragunn.searchguard.support.ConfigConstants;
+import com.floragunn.searchguard.support.TransportHeaderCodec;
 import com.floragunn.searchguard.support.HeaderHelper;
 import com.floragunn.searchguard.support.ReflectionHelper;
 import com.floragunn.searchguard.support.SnapshotRestoreHelper;
@@ -233,6 +240,7 @@ public final class SearchGuardPlugin extends SearchGuardSSLPlugin implements Clu
     private Actions actions;
     private NamedXContentRegistry xContentRegistry;
     private ConfigModificationValidators configModificationValidators;
+    private PasswordVerifier passwordVerifier;
 
     @Override
     public void close() throws IOException {
@@ -243,6 +251,14 @@ public final class SearchGuardPlugin extends SearchGuardSSLPlugin implements Clu
                 log.error("Error while closing auditLog", e);
             }
         }
+
+        if (passwordVerifier != null) {
+            passwordVerifier.shutdown();
+        }
+
+        if (authorizationService != null) {
+            authorizationService.shutdown();
+        }
     }
 
     private final SslExceptionHandler evaluateSslExceptionHandler() {
@@ -424,6 +440,7 @@ public final class SearchGuardPlugin extends SearchGuardSSLPlugin implements Clu
 
                 handlers.add(new SSLReloadCertAction(sgks, Objects.requireNonNull(threadPool), adminDns, sslCertReloadEnabled));
                 handlers.add(new ComponentStateRestAction());
+                handlers.add(new ComponentStateMetricsRestAction());
                 handlers.add(BulkConfigApi.REST_API);
                 handlers.add(GenericTypeLevelConfigApi.REST_API);
                 handlers.add(ConfigVarApi.REST_API);
@@ -816,8 +833,11 @@ public final class SearchGuardPlugin extends SearchGuardSSLPlugin implements Clu
 
         InternalUsersDatabase internalUsersDatabase = new InternalUsersDatabase(cr);
         moduleRegistry.addComponentStateProvider(internalUsersDatabase);
-        moduleRegistry.getTypedComponentRegistry().register(new InternalUsersAuthenticationBackend.Info(internalUsersDatabase));
-        moduleRegistry.getTypedComponentRegistry().register(new InternalUsersAuthenticationBackend.UserInformationBackendInfo(internalUsersDatabase));
+        passwordVerifier = new PasswordVerifier(staticSettings, services.threadPool().getThreadContext());
+        moduleRegistry.addComponentStateProvider(passwordVerifier);
+        moduleRegistry.getTypedComponentRegistry().register(new InternalUsersAuthenticationBackend.Info(internalUsersDatabase, passwordVerifier));
+        moduleRegistry.getTypedComponentRegistry()
+                .register(new InternalUsersAuthenticationBackend.UserInformationBackendInfo(internalUsersDatabase, passwordVerifier));
 
         final String principalExtractorClass = settings.get(SSLConfigConstants.SEARCHGUARD_SSL_TRANSPORT_PRINCIPAL_EXTRACTOR_CLASS, null);
 
@@ -912,6 +932,8 @@ public final class SearchGuardPlugin extends SearchGuardSSLPlugin implements Clu
         if (!sslOnly) {
             builder.put(NetworkModule.TRANSPORT_TYPE_KEY, "com.floragunn.searchguard.ssl.http.netty.SearchGuardSSLNettyTransport");
             builder.put(NetworkModule.HTTP_TYPE_KEY, "com.floragunn.searchguard.http.SearchGuardHttpServerTransport");
+            // Announces to the other nodes that this node understands the compact user and remote address transport headers
+            builder.put("node.attr." + TransportHeaderCodec.NODE_ATTRIBUTE, TransportHeaderCodec.VERSION);
         }
         return builder.build();
     }
@@ -947,6 +969,16 @@ public final class SearchGuardPlugin extends SearchGuardSSLPlugin implements Clu
             settings.add(Setting.intSetting(ConfigConstants.SEARCHGUARD_AUDIT_THREADPOOL_SIZE, 10, Property.NodeScope, Property.Filtered));
             settings.add(Setting.intSetting(ConfigConstants.SEARCHGUARD_AUDIT_THREADPOOL_MAX_QUEUE_LEN, 100 * 1000, Property.NodeScope,
                     Property.Filtered));
+            settings.add(Setting.boolSetting(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_ENABLED, false, Property.NodeScope, Property.Filtered));
+            settings.add(Setting.simpleString(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_PATH, Property.NodeScope, Property.Filtered));
+            settings.add(Setting.byteSizeSetting(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_MAX_DISK_USAGE, ByteSizeValue.of(1, ByteSizeUnit.GB),
+                    Property.NodeScope, Property.Filtered));
+            settings.add(Setting.byteSizeSetting(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_SEGMENT_SIZE, ByteSizeValue.of(64, ByteSizeUnit.MB),
+                    Property.NodeScope, Property.Filtered));
+            settings.add(Setting.intSetting(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_FSYNC_MAX_RECORDS, 256, 1, Property.NodeScope, Property.Filtered));
+            settings.add(Setting.timeSetting(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_FSYNC_INTERVAL, TimeValue.timeValueSeconds(1), Property.NodeScope,
+                    Property.Filtered));
+            settings.add(Setting.intSetting(ConfigConstants.SEARCHGUARD_AUDIT_SPOOL_MAX_RETRIES, 10, 0, Property.NodeScope, Property.Filtered));
             settings.add(Setting.boolSetting(ConfigConstants.SEARCHGUARD_AUDIT_LOG_REQUEST_BODY, true, Property.NodeScope, Property.Filtered));
             final List<String> ignoredRequestBodies = new ArrayList<>();
             ignoredRequestBodies.add("BulkRequest");
@@ -1131,6 +1163,8 @@ public final class SearchGuardPlugin extends SearchGuardSSLPlugin implements Clu
             settings.addAll(DiagnosticContext.SETTINGS);
             settings.addAll(PrivilegesEvaluator.STATIC_SETTINGS.toPlatform());
             settings.addAll(AuthorizationService.STATIC_SETTINGS.toPlatform());
+            settings.addAll(ReverseDnsResolver.STATIC_SETTINGS.toPlatform());
+            settings.addAll(PasswordVerifier.STATIC_SETTINGS.toPlatform());
 
         }
 
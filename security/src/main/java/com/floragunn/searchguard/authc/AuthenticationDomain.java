@@ -49,6 +49,14 @@ public interface AuthenticationDomain<AuthenticatorType extends AuthenticationFr
 
     boolean cacheUser();
 
+    /**
+     * Identifies the configuration of this domain. Cached users are only re-used by domains with an equal fingerprint; thus, the cache
+     * entries of a domain become obsolete when its configuration changes.
+     */
+    default String getConfigFingerprint() {
+        return getType() + "/" + getId();
+    }
+
     @FunctionalInterface
     interface CredentialsMapper {
         AuthCredentials mapCredentials(AuthCredentials authCredentials) throws CredentialsException;
@@ -19,6 +19,7 @@ package com.floragunn.searchguard.authc.base;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import com.floragunn.searchguard.support.ConfigConstants;
@@ -57,19 +58,17 @@ public abstract class RequestAuthenticationProcessor<AuthenticatorType extends A
     private final List<AuthFailureListener> ipAuthFailureListeners;
     private final BlockedUserRegistry blockedUserRegistry;
     private final AdminDNs adminDns;
-    private final Cache<AuthCredentials, User> userCache;
+    private final UserCache userCache;
     private final Cache<String, User> impersonationCache;
     private final PrivilegesEvaluator privilegesEvaluator;
     protected final AuthenticationDebugLogger debug;
     private final List<String> requiredLoginPrivileges;
 
-    private boolean cacheResult = true;
-
     protected AuthCredentials authCredentials = null;
 
     public RequestAuthenticationProcessor(RequestMetaData<RestRequest> request,
             Collection<AuthenticationDomain<AuthenticatorType>> authenticationDomains, AdminDNs adminDns, PrivilegesEvaluator privilegesEvaluator,
-            Cache<AuthCredentials, User> userCache, Cache<String, User> impersonationCache, AuditLog auditLog,
+            UserCache userCache, Cache<String, User> impersonationCache, AuditLog auditLog,
             BlockedUserRegistry blockedUserRegistry, List<AuthFailureListener> ipAuthFailureListeners, List<String> requiredLoginPrivileges,
             boolean debug) {
 
@@ -349,7 +348,6 @@ public abstract class RequestAuthenticationProcessor<AuthenticatorType extends A
 
     private void callAuthcBackends(AuthCredentials ac, AuthenticationDomain<AuthenticatorType> authenticationDomain, Consumer<User> onSuccess,
             Consumer<Exception> onFailure) {
-        // TODO Optimization: If we have SyncAuthenticationBackend use the guarantees of Cache to avoid redundant concurrent loads
 
         try {
 
@@ -370,41 +368,34 @@ public abstract class RequestAuthenticationProcessor<AuthenticatorType extends A
                 });
 
             } else {
-                User user = userCache.getIfPresent(ac);
+                boolean[] loadedByThisRequest = new boolean[1];
 
-                if (user != null) {
-                    debug.success(authenticationDomain.getType(), "User has been successfully authenticated by user cache");
+                // Concurrent requests with equal credentials share the pending backend call
+                userCache.get(authenticationDomain, ac, () -> {
+                    loadedByThisRequest[0] = true;
 
-                    onSuccess.accept(user);
-                } else {
-                    authenticationDomain.authenticate(ac, debug).whenComplete((authenticatedUser, e) -> {
-                        if (e != null) {
-                            onFailure.accept((Exception) e);
-                        } else if (authenticatedUser != null) {
-                            authzAndCache(ac, authenticationDomain, authenticatedUser, onSuccess, onFailure);
-                        } else {
-                            onFailure.accept(new CredentialsException("User not authenticated"));
+                    try {
+                        return authenticationDomain.authenticate(ac, debug);
+                    } catch (Exception e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                }).whenComplete((authenticatedUser, e) -> {
+                    if (e != null) {
+                        onFailure.accept(e instanceof Exception ? (Exception) e : new Exception(e));
+                    } else if (authenticatedUser != null) {
+                        if (!loadedByThisRequest[0]) {
+                            debug.success(authenticationDomain.getType(), "User has been successfully authenticated by user cache");
                         }
-                    });
-                }
-            }
 
-        } catch (Exception e) {
-            ac.clearSecrets();
-            onFailure.accept(e);
-        }
-    }
-
-    private void authzAndCache(AuthCredentials ac, AuthenticationDomain<AuthenticatorType> authenticationDomain, User authenticatedUser,
-            Consumer<User> onSuccess, Consumer<Exception> onFailure) {
-        try {
-            if (cacheResult && userCache != null) {
-                userCache.put(ac, authenticatedUser);
+                        onSuccess.accept(authenticatedUser);
+                    } else {
+                        onFailure.accept(new CredentialsException("User not authenticated"));
+                    }
+                });
             }
 
-            onSuccess.accept(authenticatedUser);
         } catch (Exception e) {
-            log.error(e);
+            ac.clearSecrets();
             onFailure.accept(e);
         }
     }
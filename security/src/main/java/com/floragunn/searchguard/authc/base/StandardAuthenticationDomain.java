@@ -74,6 +74,7 @@ public class StandardAuthenticationDomain<AuthenticatorType extends Authenticati
      * Only for supporting the legacy config format
      */
     private final int order;
+    private final String configFingerprint;
 
     public StandardAuthenticationDomain(DocNode source, String type, String id, String description, boolean enabled, int order,
             AcceptanceRules acceptanceRules, AuthenticatorType authenticationFrontend, AuthenticationBackend authenticationBackend,
@@ -89,6 +90,9 @@ public class StandardAuthenticationDomain<AuthenticatorType extends Authenticati
         this.additionalUserInformationBackends = additionalUserInformationBackends;
         this.userMapping = userMapping;
         this.infoString = buildInfoString();
+        this.configFingerprint = type + "/" + (source != null
+                ? Hashing.sha256().hashString(source.toJsonString(), StandardCharsets.UTF_8).toString()
+                : id);
         this.acceptanceRules = acceptanceRules;
         this.componentState = new ComponentState(0, "auth_domain", this.infoString);
         this.metricsLevel = metricsLevel;
@@ -459,6 +463,11 @@ public class StandardAuthenticationDomain<AuthenticatorType extends Authenticati
         return source;
     }
 
+    @Override
+    public String getConfigFingerprint() {
+        return configFingerprint;
+    }
+
     @Override
     public boolean cacheUser() {
         switch (authenticationBackend.userCachingPolicy()) {
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authc.base;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.floragunn.codova.config.net.CacheConfig;
+import com.floragunn.searchguard.authc.AuthenticationDomain;
+import com.floragunn.searchguard.user.AuthCredentials;
+import com.floragunn.searchguard.user.User;
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Caches authenticated users independently of the life cycle of the authc configuration.
+ *
+ * Cache entries are associated with the configuration fingerprint of the authentication domain which authenticated the user. When the authc
+ * configuration is reloaded, only entries of domains which have been changed or removed are invalidated. Thus, a configuration update does not
+ * force all users to be authenticated again by their backends.
+ *
+ * The cache stores futures of the authentication results. Concurrent requests with the same credentials share one pending backend call.
+ */
+public class UserCache {
+    private static final Logger log = LogManager.getLogger(UserCache.class);
+
+    private volatile Cache<Key, CompletableFuture<User>> cache;
+    private volatile Cache<String, User> impersonationCache;
+    private String cacheConfigString;
+    private boolean withStats;
+    private Set<String> domainFingerprints = new HashSet<>();
+
+    /**
+     * Applies a new authc configuration. If the cache settings are unchanged, the existing cache is kept and only the entries belonging to
+     * changed or removed authentication domains are invalidated.
+     */
+    public synchronized void update(CacheConfig cacheConfig, boolean withStats, Collection<? extends AuthenticationDomain<?>> authenticationDomains) {
+        Set<String> newDomainFingerprints = new HashSet<>(authenticationDomains.size());
+
+        for (AuthenticationDomain<?> authenticationDomain : authenticationDomains) {
+            newDomainFingerprints.add(authenticationDomain.getConfigFingerprint());
+        }
+
+        // CacheConfig is compared by its string representation, which covers all cache settings
+        String newCacheConfigString = String.valueOf(cacheConfig);
+
+        if (cache == null || !newCacheConfigString.equals(this.cacheConfigString) || withStats != this.withStats) {
+            if (withStats) {
+                this.cache = cacheConfig.buildWithStats();
+                this.impersonationCache = cacheConfig.buildWithStats();
+            } else {
+                this.cache = cacheConfig.build();
+                this.impersonationCache = cacheConfig.build();
+            }
+
+            this.cacheConfigString = newCacheConfigString;
+            this.withStats = withStats;
+        } else if (!newDomainFingerprints.equals(this.domainFingerprints)) {
+            Cache<Key, CompletableFuture<User>> cache = this.cache;
+
+            if (cache != null) {
+                cache.asMap().keySet().removeIf((key) -> !newDomainFingerprints.contains(key.domainFingerprint));
+            }
+
+            // Impersonated users are not associated with an authentication domain
+            if (impersonationCache != null) {
+                impersonationCache.invalidateAll();
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Invalidated user cache entries of changed authentication domains. Retained domains: {}", newDomainFingerprints);
+            }
+        }
+
+        this.domainFingerprints = newDomainFingerprints;
+    }
+
+    /**
+     * Returns the user for the given credentials. If the user is not cached, the loader is called to authenticate the user using the
+     * authentication domain. Concurrent calls for equal credentials share the future returned by a single loader call.
+     *
+     * Futures which complete exceptionally or with null are removed from the cache.
+     */
+    public CompletableFuture<User> get(AuthenticationDomain<?> authenticationDomain, AuthCredentials authCredentials,
+            Supplier<CompletableFuture<User>> loader) {
+        Cache<Key, CompletableFuture<User>> cache = this.cache;
+
+        if (cache == null) {
+            return loader.get();
+        }
+
+        Key key = new Key(authenticationDomain.getConfigFingerprint(), authCredentials);
+
+        try {
+            CompletableFuture<User> future = cache.get(key, loader::get);
+
+            if (!future.isDone()) {
+                future.whenComplete((user, e) -> {
+                    if (e != null || user == null) {
+                        cache.asMap().remove(key, future);
+                    }
+                });
+            } else if (future.isCompletedExceptionally() || future.getNow(null) == null) {
+                cache.asMap().remove(key, future);
+            }
+
+            return future;
+        } catch (ExecutionException e) {
+            return CompletableFuture.failedFuture(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            return CompletableFuture.failedFuture(e.getCause());
+        }
+    }
+
+    public Cache<Key, CompletableFuture<User>> getCache() {
+        return cache;
+    }
+
+    public Cache<String, User> getImpersonationCache() {
+        return impersonationCache;
+    }
+
+    public void invalidateAll() {
+        Cache<Key, CompletableFuture<User>> cache = this.cache;
+        Cache<String, User> impersonationCache = this.impersonationCache;
+
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+
+        if (impersonationCache != null) {
+            impersonationCache.invalidateAll();
+        }
+    }
+
+    public static class Key {
+        private final String domainFingerprint;
+        private final AuthCredentials authCredentials;
+
+        Key(String domainFingerprint, AuthCredentials authCredentials) {
+            this.domainFingerprint = domainFingerprint;
+            this.authCredentials = authCredentials;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(domainFingerprint, authCredentials);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(domainFingerprint, other.domainFingerprint) && Objects.equals(authCredentials, other.authCredentials);
+        }
+
+        @Override
+        public String toString() {
+            return domainFingerprint + "/" + authCredentials.getUsername();
+        }
+    }
+}
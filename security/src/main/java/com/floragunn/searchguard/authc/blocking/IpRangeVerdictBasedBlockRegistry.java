@@ -1,12 +1,18 @@
 package com.floragunn.searchguard.authc.blocking;
 
-import java.util.Collection;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.function.Predicate;
 
 import inet.ipaddr.IPAddress;
+import inet.ipaddr.ipv4.IPv4Address;
+import inet.ipaddr.ipv4.IPv4AddressTrie;
+import inet.ipaddr.ipv6.IPv6Address;
+import inet.ipaddr.ipv6.IPv6AddressTrie;
 
+/**
+ * Checks IP addresses against sets of addresses and networks. The entries are stored in address tries; thus, the time needed
+ * for a check does not depend on the number of configured networks.
+ */
 public class IpRangeVerdictBasedBlockRegistry extends VerdictBasedBlockRegistry<IPAddress> {
 
     public IpRangeVerdictBasedBlockRegistry(Set<IPAddress> allows, Set<IPAddress> disallows) {
@@ -14,7 +20,36 @@ public class IpRangeVerdictBasedBlockRegistry extends VerdictBasedBlockRegistry<
     }
 
     @Override
-    protected Function<IPAddress, Predicate<Collection<IPAddress>>> check() {
-        return ip -> nets -> nets.stream().anyMatch(net -> net.contains(ip));
+    protected Predicate<IPAddress> compile(Set<IPAddress> nets) {
+        IPv4AddressTrie ipv4trie = new IPv4AddressTrie();
+        IPv6AddressTrie ipv6trie = new IPv6AddressTrie();
+
+        for (IPAddress net : nets) {
+            // Tries can only hold prefix blocks and single addresses. Arbitrary ranges are split into prefix blocks.
+            IPAddress[] blocks = net.isMultiple() ? net.spanWithPrefixBlocks() : new IPAddress[] { net.withoutPrefixLength() };
+
+            for (IPAddress block : blocks) {
+                if (block.isIPv4()) {
+                    ipv4trie.add(block.toIPv4());
+                } else if (block.isIPv6()) {
+                    ipv6trie.add(block.toIPv6());
+                }
+            }
+        }
+
+        boolean ipv4empty = ipv4trie.isEmpty();
+        boolean ipv6empty = ipv6trie.isEmpty();
+
+        return (ip) -> {
+            if (ip.isIPv4()) {
+                IPv4Address ipv4Address = ip.isMultiple() ? ip.toIPv4() : ip.toIPv4().withoutPrefixLength();
+                return !ipv4empty && ipv4trie.elementsContaining(ipv4Address) != null;
+            } else if (ip.isIPv6()) {
+                IPv6Address ipv6Address = ip.isMultiple() ? ip.toIPv6() : ip.toIPv6().withoutPrefixLength();
+                return !ipv6empty && ipv6trie.elementsContaining(ipv6Address) != null;
+            } else {
+                return false;
+            }
+        };
     }
 }
@@ -1,8 +1,6 @@
 package com.floragunn.searchguard.authc.blocking;
 
-import java.util.Collection;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.function.Predicate;
 
 public class VerdictBasedBlockRegistry<ClientIdType> implements ClientBlockRegistry<ClientIdType> {
@@ -10,23 +8,25 @@ public class VerdictBasedBlockRegistry<ClientIdType> implements ClientBlockRegis
     private final Class<ClientIdType> registryType;
     private final Set<ClientIdType> allows;
     private final Set<ClientIdType> disallows;
+    private final Predicate<ClientIdType> allowsMatcher;
+    private final Predicate<ClientIdType> disallowsMatcher;
 
     public VerdictBasedBlockRegistry(Class<ClientIdType> registryType, Set<ClientIdType> allows, Set<ClientIdType> disallows) {
         this.registryType = registryType;
         this.allows = allows;
         this.disallows = disallows;
+        this.allowsMatcher = allows.isEmpty() ? null : compile(allows);
+        this.disallowsMatcher = compile(disallows);
     }
 
     @Override
     public boolean isBlocked(ClientIdType clientId) {
-        Predicate<Collection<ClientIdType>> p = check().apply(clientId);
-
-        if (allows.isEmpty()) {
-            return p.test(disallows);
+        if (allowsMatcher == null) {
+            return disallowsMatcher.test(clientId);
         }
 
-        boolean isAllowed = p.test(allows);
-        boolean disAllowed = p.test(disallows);
+        boolean isAllowed = allowsMatcher.test(clientId);
+        boolean disAllowed = disallowsMatcher.test(clientId);
         return !isAllowed || disAllowed;
     }
 
@@ -40,8 +40,13 @@ public class VerdictBasedBlockRegistry<ClientIdType> implements ClientBlockRegis
         return registryType;
     }
 
-    protected Function<ClientIdType, Predicate<Collection<ClientIdType>>> check() {
-        return a -> as -> as.contains(a);
+    /**
+     * Builds the matcher for a set of entries. This is called once during construction; sub-classes can use this to build
+     * lookup structures which avoid iterating over all entries for each check. Note that this is called from the constructor;
+     * implementations must not depend on state of the sub-class.
+     */
+    protected Predicate<ClientIdType> compile(Set<ClientIdType> entries) {
+        return entries::contains;
     }
 
     @Override
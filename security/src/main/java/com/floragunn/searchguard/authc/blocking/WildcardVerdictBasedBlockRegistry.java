@@ -1,20 +1,127 @@
 package com.floragunn.searchguard.authc.blocking;
 
-import com.floragunn.searchguard.support.WildcardMatcher;
-
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.automaton.Automata;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.TooComplexToDeterminizeException;
+
+import com.floragunn.searchguard.support.WildcardMatcher;
+
+/**
+ * Checks names against sets of patterns, using the same pattern syntax as WildcardMatcher.
+ *
+ * Constant names are checked using a hash set. All simple wildcard patterns (using * and ?) are compiled into a single
+ * deterministic automaton, which checks a name in time linear to the length of the name, independent of the number of patterns.
+ * Regular expression patterns (enclosed in /) are pre-compiled and checked one by one.
+ */
 public class WildcardVerdictBasedBlockRegistry extends VerdictBasedBlockRegistry<String> {
 
+    private static final Logger log = LogManager.getLogger(WildcardVerdictBasedBlockRegistry.class);
+    private static final int WORK_LIMIT_PER_PATTERN = 1000;
+
     public WildcardVerdictBasedBlockRegistry(Set<String> allows, Set<String> disallows) {
         super(String.class, allows, disallows);
     }
 
     @Override
-    protected Function<String, Predicate<Collection<String>>> check() {
-        return a -> as -> WildcardMatcher.matchAny(as, a);
+    protected Predicate<String> compile(Set<String> patterns) {
+        Set<String> constants = new HashSet<>();
+        List<String> wildcardPatterns = new ArrayList<>();
+        List<Pattern> regexPatterns = new ArrayList<>();
+
+        for (String pattern : patterns) {
+            if (pattern == null) {
+                continue;
+            } else if (pattern.length() > 1 && pattern.startsWith("/") && pattern.endsWith("/")) {
+                regexPatterns.add(Pattern.compile("^" + pattern.substring(1, pattern.length() - 1) + "$"));
+            } else if (pattern.equals("*")) {
+                return (name) -> name != null;
+            } else if (pattern.indexOf('*') == -1 && pattern.indexOf('?') == -1) {
+                constants.add(pattern);
+            } else {
+                wildcardPatterns.add(pattern);
+            }
+        }
+
+        Predicate<String> wildcardMatcher = compileWildcards(wildcardPatterns);
+
+        return (name) -> {
+            if (name == null) {
+                return false;
+            }
+
+            if (constants.contains(name)) {
+                return true;
+            }
+
+            if (wildcardMatcher != null && wildcardMatcher.test(name)) {
+                return true;
+            }
+
+            for (Pattern regexPattern : regexPatterns) {
+                if (regexPattern.matcher(name).matches()) {
+                    return true;
+                }
+            }
+
+            return false;
+        };
+    }
+
+    private static Predicate<String> compileWildcards(List<String> wildcardPatterns) {
+        if (wildcardPatterns.isEmpty()) {
+            return null;
+        }
+
+        List<Automaton> automata = new ArrayList<>(wildcardPatterns.size());
+
+        for (String pattern : wildcardPatterns) {
+            automata.add(toAutomaton(pattern));
+        }
+
+        // The effort needed for determinization grows with the number of patterns; the default limit is only suitable for a few patterns
+        int workLimit = Math.max(Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, wildcardPatterns.size() * WORK_LIMIT_PER_PATTERN);
+
+        try {
+            CharacterRunAutomaton runAutomaton = new CharacterRunAutomaton(Operations.determinize(Operations.union(automata), workLimit));
+            return runAutomaton::run;
+        } catch (TooComplexToDeterminizeException e) {
+            log.warn("Patterns are too complex to be compiled into an automaton; falling back to matching patterns one by one", e);
+            return (name) -> WildcardMatcher.matchAny(wildcardPatterns, name);
+        }
+    }
+
+    private static Automaton toAutomaton(String pattern) {
+        List<Automaton> parts = new ArrayList<>();
+        int literalStart = 0;
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+
+            if (c == '*' || c == '?') {
+                if (literalStart < i) {
+                    parts.add(Automata.makeString(pattern.substring(literalStart, i)));
+                }
+
+                parts.add(c == '*' ? Automata.makeAnyString() : Automata.makeAnyChar());
+                literalStart = i + 1;
+            }
+        }
+
+        if (literalStart < pattern.length()) {
+            parts.add(Automata.makeString(pattern.substring(literalStart)));
+        }
+
+        return Operations.concatenate(parts);
     }
 }
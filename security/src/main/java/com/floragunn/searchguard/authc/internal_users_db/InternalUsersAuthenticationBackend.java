@@ -17,14 +17,8 @@
 
 package com.floragunn.searchguard.authc.internal_users_db;
 
-import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 
-import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
-
 import com.floragunn.fluent.collections.ImmutableMap;
 import com.floragunn.searchguard.TypedComponent;
 import com.floragunn.searchguard.authc.AuthenticationBackend;
@@ -44,10 +38,12 @@ public class InternalUsersAuthenticationBackend implements AuthenticationBackend
     }
 
     private final InternalUsersDatabase internalUsersDatabase;
+    private final PasswordVerifier passwordVerifier;
     private final ComponentState componentState = new ComponentState(0, "authentication_backend", TYPE).initialized();
 
-    InternalUsersAuthenticationBackend(InternalUsersDatabase internalUsersDatabase) {
+    InternalUsersAuthenticationBackend(InternalUsersDatabase internalUsersDatabase, PasswordVerifier passwordVerifier) {
         this.internalUsersDatabase = internalUsersDatabase;
+        this.passwordVerifier = passwordVerifier;
     }
 
     @Override
@@ -71,32 +67,21 @@ public class InternalUsersAuthenticationBackend implements AuthenticationBackend
             return CompletableFuture.completedFuture(null);
         }
 
-        ByteBuffer wrap = ByteBuffer.wrap(password);
-        CharBuffer buf = StandardCharsets.UTF_8.decode(wrap);
-        char[] array = new char[buf.limit()];
-        buf.get(array);
-
-        Arrays.fill(password, (byte) 0);
+        AuthCredentials pendingCredentials = authCredentials;
 
-        try {
-            if (OpenBSDBCrypt.checkPassword(internalUser.getPasswordHash(), array)) {
-                authCredentials = authCredentials.copy()//
+        return passwordVerifier.verify(authCredentials.getUsername(), internalUser.getPasswordHash(), password).thenApply((valid) -> {
+            if (valid) {
+                return pendingCredentials.copy()//
                         .backendRoles(internalUser.getBackendRoles())//
                         .searchGuardRoles(internalUser.getSearchGuardRoles())//
                         .userMappingAttribute(UserMappingAttributes.USER_ENTRY,
-                                internalUser.toRedactedBasicObject().with("name", authCredentials.getUsername()))//
-                        .authDomainInfo(authCredentials.getAuthDomainInfo().authBackendType(getType()))//
+                                internalUser.toRedactedBasicObject().with("name", pendingCredentials.getUsername()))//
+                        .authDomainInfo(pendingCredentials.getAuthDomainInfo().authBackendType(getType()))//
                         .build();
-
-                return CompletableFuture.completedFuture(authCredentials);
             } else {
-                return CompletableFuture.completedFuture(null);
+                return null;
             }
-        } finally {
-            Arrays.fill(wrap.array(), (byte) 0);
-            Arrays.fill(buf.array(), '\0');
-            Arrays.fill(array, '\0');
-        }
+        });
     }
 
     @Override
@@ -119,9 +104,11 @@ public class InternalUsersAuthenticationBackend implements AuthenticationBackend
 
     public static class Info implements TypedComponent.Info<AuthenticationBackend> {
         private final InternalUsersDatabase internalUsersDatabase;
+        private final PasswordVerifier passwordVerifier;
 
-        public Info(InternalUsersDatabase internalUsersDatabase) {
+        public Info(InternalUsersDatabase internalUsersDatabase, PasswordVerifier passwordVerifier) {
             this.internalUsersDatabase = internalUsersDatabase;
+            this.passwordVerifier = passwordVerifier;
         }
 
         @Override
@@ -136,16 +123,18 @@ public class InternalUsersAuthenticationBackend implements AuthenticationBackend
 
         @Override
         public TypedComponent.Factory<AuthenticationBackend> getFactory() {
-            return (config, context) -> new InternalUsersAuthenticationBackend(internalUsersDatabase);
+            return (config, context) -> new InternalUsersAuthenticationBackend(internalUsersDatabase, passwordVerifier);
         }
 
     }
 
     public static class UserInformationBackendInfo implements TypedComponent.Info<UserInformationBackend> {
         private final InternalUsersDatabase internalUsersDatabase;
+        private final PasswordVerifier passwordVerifier;
 
-        public UserInformationBackendInfo(InternalUsersDatabase internalUsersDatabase) {
+        public UserInformationBackendInfo(InternalUsersDatabase internalUsersDatabase, PasswordVerifier passwordVerifier) {
             this.internalUsersDatabase = internalUsersDatabase;
+            this.passwordVerifier = passwordVerifier;
         }
 
         @Override
@@ -160,7 +149,7 @@ public class InternalUsersAuthenticationBackend implements AuthenticationBackend
 
         @Override
         public TypedComponent.Factory<UserInformationBackend> getFactory() {
-            return (config, context) -> new InternalUsersAuthenticationBackend(internalUsersDatabase);
+            return (config, context) -> new InternalUsersAuthenticationBackend(internalUsersDatabase, passwordVerifier);
         }
 
     }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authc.internal_users_db;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.core.TimeValue;
+
+import com.floragunn.searchguard.authc.AuthenticatorUnavailableException;
+import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.floragunn.searchsupport.cstate.metrics.CountAggregation;
+import com.floragunn.searchsupport.cstate.metrics.Meter;
+import com.floragunn.searchsupport.cstate.metrics.MetricsLevel;
+import com.floragunn.searchsupport.cstate.metrics.TimeAggregation;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Verifies passwords against the BCrypt hashes of the internal users database.
+ *
+ * BCrypt checks are deliberately expensive. Thus, they are not executed on the thread which dispatches the request (which might be a Netty
+ * event loop), but on a dedicated executor with a bounded number of threads and a bounded queue. If the queue is full, verification fails
+ * with an AuthenticatorUnavailableException.
+ *
+ * Successfully verified credentials are remembered for a short time. The cache key is a HMAC of user name and password using a random key
+ * which never leaves the node; the cache value is the password hash which was used for the verification. Thus, cache entries stay valid
+ * across configuration reloads until the password hash of the user changes.
+ */
+public class PasswordVerifier implements ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(PasswordVerifier.class);
+
+    public static final StaticSettings.Attribute<Integer> THREADS = StaticSettings.Attribute
+            .define("searchguard.internal_users_db.password_verification.threads")
+            .withDefault(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)).asInteger();
+    public static final StaticSettings.Attribute<Integer> QUEUE_SIZE = StaticSettings.Attribute
+            .define("searchguard.internal_users_db.password_verification.queue_size").withDefault(1000).asInteger();
+    public static final StaticSettings.Attribute<TimeValue> CACHE_TTL = StaticSettings.Attribute
+            .define("searchguard.internal_users_db.password_verification.cache.ttl").withDefault(TimeValue.timeValueMinutes(2)).asTimeValue();
+    public static final StaticSettings.Attribute<Integer> CACHE_MAX_SIZE = StaticSettings.Attribute
+            .define("searchguard.internal_users_db.password_verification.cache.max_size").withDefault(10000).asInteger();
+
+    public static final StaticSettings.AttributeSet STATIC_SETTINGS = //
+            StaticSettings.AttributeSet.of(THREADS, QUEUE_SIZE, CACHE_TTL, CACHE_MAX_SIZE);
+
+    private final ThreadContext threadContext;
+    private final ThreadPoolExecutor executor;
+    private final HashFunction credentialsHashFunction;
+    private final Cache<String, String> verifiedCredentialsCache;
+
+    private final ComponentState componentState = new ComponentState(101, null, "password_verifier", PasswordVerifier.class).initialized();
+    private final TimeAggregation verificationMetrics = new TimeAggregation.Milliseconds();
+    private final CountAggregation rejectedMetrics = new CountAggregation();
+
+    public PasswordVerifier(StaticSettings settings, ThreadContext threadContext) {
+        this.threadContext = threadContext;
+
+        int threads = settings.get(THREADS);
+        int queueSize = settings.get(QUEUE_SIZE);
+        TimeValue cacheTtl = settings.get(CACHE_TTL);
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), (r) -> {
+            Thread thread = new Thread(r, "searchguard_password_verification_" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        byte[] hmacKey = new byte[32];
+        new SecureRandom().nextBytes(hmacKey);
+        this.credentialsHashFunction = Hashing.hmacSha256(hmacKey);
+
+        this.verifiedCredentialsCache = CacheBuilder.newBuilder().expireAfterWrite(cacheTtl.millis(), TimeUnit.MILLISECONDS)
+                .maximumSize(settings.get(CACHE_MAX_SIZE)).recordStats().build();
+
+        this.componentState.addMetrics("verification", verificationMetrics, "rejected", rejectedMetrics, "verified_credentials_cache",
+                CacheStats.from(verifiedCredentialsCache));
+        this.componentState.addMetrics("queue", new Count.Live(() -> (long) executor.getQueue().size()), "active",
+                new Count.Live(() -> (long) executor.getActiveCount()));
+        this.componentState.setConfigProperty("threads", threads);
+        this.componentState.setConfigProperty("queue_size", queueSize);
+        this.componentState.setConfigProperty("cache_ttl", cacheTtl.toString());
+    }
+
+    /**
+     * Checks the given password against the given BCrypt hash. The password array is zeroed by this method.
+     *
+     * @return a future which completes with true if the password matches.
+     */
+    public CompletableFuture<Boolean> verify(String userName, String passwordHash, byte[] password) {
+        String cacheKey = credentialsKey(userName, password);
+
+        ByteBuffer wrap = ByteBuffer.wrap(password);
+        CharBuffer buf = StandardCharsets.UTF_8.decode(wrap);
+        char[] array = new char[buf.limit()];
+        buf.get(array);
+
+        Arrays.fill(password, (byte) 0);
+        Arrays.fill(buf.array(), '\0');
+
+        if (passwordHash.equals(verifiedCredentialsCache.getIfPresent(cacheKey))) {
+            Arrays.fill(array, '\0');
+            return CompletableFuture.completedFuture(true);
+        }
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Runnable task = () -> {
+            try {
+                boolean valid;
+
+                try (Meter meter = Meter.basic(MetricsLevel.BASIC, verificationMetrics)) {
+                    valid = OpenBSDBCrypt.checkPassword(passwordHash, array);
+                }
+
+                if (valid) {
+                    verifiedCredentialsCache.put(cacheKey, passwordHash);
+                }
+
+                result.complete(valid);
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            } finally {
+                Arrays.fill(array, '\0');
+            }
+        };
+
+        try {
+            executor.execute(threadContext != null ? threadContext.preserveContext(task) : task);
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(array, '\0');
+            rejectedMetrics.increment();
+            log.warn("Rejected password verification for {} because the queue is full", userName);
+            result.completeExceptionally(new AuthenticatorUnavailableException("Password verification unavailable",
+                    "Too many concurrent password verifications. Please try again later.", e));
+        }
+
+        return result;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    private String credentialsKey(String userName, byte[] password) {
+        Hasher hasher = credentialsHashFunction.newHasher();
+        hasher.putString(userName, StandardCharsets.UTF_8);
+        hasher.putByte((byte) 0);
+        hasher.putBytes(password);
+        return hasher.hash().toString();
+    }
+}
@@ -39,6 +39,7 @@ import com.floragunn.searchguard.SearchGuardModulesRegistry;
 import com.floragunn.searchguard.auditlog.AuditLog;
 import com.floragunn.searchguard.auditlog.AuditLog.Origin;
 import com.floragunn.searchguard.authc.base.AuthcResult;
+import com.floragunn.searchguard.authc.base.UserCache;
 import com.floragunn.searchguard.authc.blocking.BlockedIpRegistry;
 import com.floragunn.searchguard.authc.blocking.BlockedUserRegistry;
 import com.floragunn.searchguard.authz.PrivilegesEvaluator;
@@ -69,6 +70,7 @@ public class AuthenticatingRestFilter implements ComponentStateProvider {
     private final AdminDNs adminDns;
     private final ComponentState componentState = new ComponentState(1, "authc", "rest_filter");
     private final ThreadPool threadPool;
+    private final UserCache userCache = new UserCache();
 
     private volatile RestAuthenticationProcessor authenticationProcessor;
 
@@ -90,7 +92,8 @@ public class AuthenticatingRestFilter implements ComponentStateProvider {
 
                 if (config != null && config.getCEntry("default") != null) {
                     RestAuthenticationProcessor authenticationProcessor = new RestAuthenticationProcessor.Default(config.getCEntry("default"),
-                            modulesRegistry, adminDns, blockedIpRegistry, blockedUserRegistry, auditLog, threadPool, privilegesEvaluator);
+                            modulesRegistry, adminDns, blockedIpRegistry, blockedUserRegistry, auditLog, threadPool, privilegesEvaluator,
+                            userCache);
 
                     AuthenticatingRestFilter.this.authenticationProcessor = authenticationProcessor;
 
@@ -40,13 +40,13 @@ import com.floragunn.searchguard.authc.AuthenticationDomain;
 import com.floragunn.searchguard.authc.RequestMetaData;
 import com.floragunn.searchguard.authc.base.AuthcResult;
 import com.floragunn.searchguard.authc.base.IPAddressAcceptanceRules;
+import com.floragunn.searchguard.authc.base.UserCache;
 import com.floragunn.searchguard.authc.blocking.BlockedIpRegistry;
 import com.floragunn.searchguard.authc.blocking.BlockedUserRegistry;
 import com.floragunn.searchguard.authc.rest.ClientAddressAscertainer.ClientIpInfo;
 import com.floragunn.searchguard.authz.PrivilegesEvaluator;
 import com.floragunn.searchguard.configuration.AdminDNs;
 import com.floragunn.searchguard.support.ConfigConstants;
-import com.floragunn.searchguard.user.AuthCredentials;
 import com.floragunn.searchguard.user.User;
 import com.floragunn.searchsupport.cstate.ComponentState;
 import com.floragunn.searchsupport.cstate.ComponentStateProvider;
@@ -73,7 +73,7 @@ public interface RestAuthenticationProcessor extends ComponentStateProvider {
         private final AuditLog auditLog;
         private final ThreadContext threadContext;
         private final AdminDNs adminDns;
-        private final Cache<AuthCredentials, User> userCache;
+        private final UserCache userCache;
         private final Cache<String, User> impersonationCache;
         private final PrivilegesEvaluator privilegesEvaluator;
         private final BlockedIpRegistry blockedIpRegistry;
@@ -87,13 +87,14 @@ public interface RestAuthenticationProcessor extends ComponentStateProvider {
         private final List<String> requiredLoginPrivileges = Collections.emptyList();
         private final ComponentState componentState = new ComponentState(0, "rest_authentication_processor", "rest_authentication_processor");
 
-        private final TimeAggregation authenticateMetrics = new TimeAggregation.Milliseconds();
+        private final TimeAggregation authenticateMetrics = new TimeAggregation.Histogram();
 
         private List<AuthFailureListener> ipAuthFailureListeners = ImmutableList.empty();
 
 
         public Default(RestAuthcConfig config, SearchGuardModulesRegistry modulesRegistry, AdminDNs adminDns, BlockedIpRegistry blockedIpRegistry,
-                BlockedUserRegistry blockedUserRegistry, AuditLog auditLog, ThreadPool threadPool, PrivilegesEvaluator privilegesEvaluator) {
+                BlockedUserRegistry blockedUserRegistry, AuditLog auditLog, ThreadPool threadPool, PrivilegesEvaluator privilegesEvaluator,
+                UserCache userCache) {
             this.authcConfig = config;
             this.authenticationDomains = modulesRegistry.getImplicitHttpAuthenticationDomains().with(authcConfig.getAuthenticators());
             this.clientAddressAscertainer = ClientAddressAscertainer.create(authcConfig.getNetwork());
@@ -108,13 +109,10 @@ public interface RestAuthenticationProcessor extends ComponentStateProvider {
             this.blockedIpRegistry = blockedIpRegistry;
             this.blockedUserRegistry = blockedUserRegistry;
 
-            if (authcConfig.getMetricsLevel().basicEnabled()) {
-                this.userCache = authcConfig.getUserCacheConfig().buildWithStats();
-                this.impersonationCache = authcConfig.getUserCacheConfig().buildWithStats();
-            } else {
-                this.userCache = authcConfig.getUserCacheConfig().build();
-                this.impersonationCache = authcConfig.getUserCacheConfig().build();
-            }
+            // The user cache outlives this instance; only the entries of changed authentication domains are invalidated
+            userCache.update(authcConfig.getUserCacheConfig(), authcConfig.getMetricsLevel().basicEnabled(), this.authenticationDomains);
+            this.userCache = userCache;
+            this.impersonationCache = userCache.getImpersonationCache();
 
             for (AuthenticationDomain<HttpAuthenticationFrontend> authenticationDomain : this.authenticationDomains) {
                 componentState.addPart(authenticationDomain.getComponentState());
@@ -122,7 +120,7 @@ public interface RestAuthenticationProcessor extends ComponentStateProvider {
 
             if (authcConfig.getMetricsLevel().basicEnabled()) {
                 componentState.addMetrics("authenticate", authenticateMetrics);
-                componentState.addMetrics("user_cache", CacheStats.from(userCache));
+                componentState.addMetrics("user_cache", CacheStats.from(userCache.getCache()));
                 componentState.addMetrics("impersonation_cache", CacheStats.from(impersonationCache));
             }
         }
@@ -194,7 +192,6 @@ public interface RestAuthenticationProcessor extends ComponentStateProvider {
         @Override
         public void clearCaches() {
             userCache.invalidateAll();
-            impersonationCache.invalidateAll();
         }
     }
 }
@@ -41,6 +41,7 @@ import com.floragunn.searchguard.authc.CredentialsException;
 import com.floragunn.searchguard.authc.RequestMetaData;
 import com.floragunn.searchguard.authc.base.AuthcResult;
 import com.floragunn.searchguard.authc.base.RequestAuthenticationProcessor;
+import com.floragunn.searchguard.authc.base.UserCache;
 import com.floragunn.searchguard.authc.blocking.BlockedUserRegistry;
 import com.floragunn.searchguard.authz.PrivilegesEvaluator;
 import com.floragunn.searchguard.configuration.AdminDNs;
@@ -57,7 +58,7 @@ public class RestRequestAuthenticationProcessor extends RequestAuthenticationPro
 
     public RestRequestAuthenticationProcessor(RequestMetaData<RestRequest> request,
              Collection<AuthenticationDomain<HttpAuthenticationFrontend>> authenticationDomains, AdminDNs adminDns,
-            PrivilegesEvaluator privilegesEvaluator, Cache<AuthCredentials, User> userCache, Cache<String, User> impersonationCache,
+            PrivilegesEvaluator privilegesEvaluator, UserCache userCache, Cache<String, User> impersonationCache,
             AuditLog auditLog, BlockedUserRegistry blockedUserRegistry, List<AuthFailureListener> ipAuthFailureListeners,
             List<String> requiredLoginPrivileges, boolean debug) {
         super(request, authenticationDomains, adminDns, privilegesEvaluator, userCache, impersonationCache, auditLog,
@@ -105,6 +105,7 @@ import com.floragunn.searchguard.configuration.ConfigurationRepository;
 import com.floragunn.searchguard.configuration.ProtectedConfigIndexService;
 import com.floragunn.searchguard.configuration.ProtectedConfigIndexService.ConfigIndex;
 import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
+import com.floragunn.searchguard.jwt.VerifiedJwtCache;
 import com.floragunn.searchguard.support.ConfigConstants;
 import com.floragunn.searchguard.support.PrivilegedConfigClient;
 import com.floragunn.searchguard.user.Attributes;
@@ -133,6 +134,7 @@ public class SessionService {
 
     private final PrivilegedConfigClient privilegedConfigClient;
     private final Cache<String, SessionToken> idToAuthTokenMap = CacheBuilder.newBuilder().expireAfterWrite(60, TimeUnit.MINUTES).build();
+    private final VerifiedJwtCache<JwtToken> verifiedJwtCache = new VerifiedJwtCache<>();
     private final ThreadPool threadPool;
     private final ThreadContext threadContext;
     private final String indexName;
@@ -193,6 +195,7 @@ public class SessionService {
         this.componentState.addMetrics("start_session_with_authentication", startAuthenticatedSessionMetrics);
         this.componentState.addMetrics("start_session_with_external_authentication", startSessionMetrics);
         this.componentState.addMetrics("delete_session", deleteMetrics);
+        this.componentState.addMetrics("verified_jwt_cache", verifiedJwtCache.getCacheStats());
 
         this.setConfig(config);
 
@@ -749,6 +752,13 @@ public class SessionService {
     }
 
     public JwtToken getVerifiedJwtToken(String encodedJwt) throws JwtException {
+        JwtToken cachedJwt = verifiedJwtCache.get(encodedJwt);
+
+        if (cachedJwt != null) {
+            return cachedJwt;
+        }
+
+        String originalEncodedJwt = encodedJwt;
 
         if (this.jweDecryptionProvider != null) { //this means encrypted JWT is expected
             if (isJwtEncrypted(encodedJwt)) {
@@ -780,6 +790,8 @@ public class SessionService {
 
         validateClaims(jwt);
 
+        verifiedJwtCache.put(originalEncodedJwt, jwt, jwt.getClaims().getExpiryTime());
+
         return jwt;
     }
 
@@ -835,6 +847,7 @@ public class SessionService {
             this.jwtAudience = "sg_session_" + this.clusterService.getClusterName();
         }
 
+        verifiedJwtCache.invalidateAll();
         setKeys(config.getJwtSigningKey(), config.getJwtEncryptionKey());
 
         activityTracker.setInactivityTimeout(config.getInactivityTimeout() != null ? config.getInactivityTimeout() : Duration.ofHours(1));
@@ -870,6 +883,8 @@ public class SessionService {
     }
 
     void initJwtProducer() {
+        verifiedJwtCache.invalidateAll();
+
         try {
             this.jwtProducer = new JoseJwtProducer();
 
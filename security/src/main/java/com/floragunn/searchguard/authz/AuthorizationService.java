@@ -51,12 +51,15 @@ public class AuthorizationService implements ComponentStateProvider {
 
     private final AuthInfoService authInfoService;
     private final ComponentState componentState = new ComponentState(9, null, "authorization_service");
+    private final ReverseDnsResolver reverseDnsResolver;
 
     private volatile AuthorizationConfig authzConfig = AuthorizationConfig.DEFAULT;
     private volatile RoleMapping.InvertedIndex roleMapping;
 
     public AuthorizationService(ConfigurationRepository configurationRepository, StaticSettings settings, AuthInfoService authInfoService) {
         this.authInfoService = authInfoService;
+        this.reverseDnsResolver = new ReverseDnsResolver(settings);
+        this.componentState.addPart(reverseDnsResolver.getComponentState());
 
         configurationRepository.subscribeOnChange(new ConfigurationChangeListener() {
 
@@ -74,7 +77,7 @@ public class AuthorizationService implements ComponentStateProvider {
                     }
                 } 
 
-                roleMapping = new RoleMapping.InvertedIndex(configMap.get(CType.ROLESMAPPING), authzConfig.getMetricsLevel());
+                roleMapping = new RoleMapping.InvertedIndex(configMap.get(CType.ROLESMAPPING), authzConfig.getMetricsLevel(), reverseDnsResolver);
 
                 componentState.setConfigVersion(configMap.getVersionsAsString());
                 componentState.replacePart(roleMapping.getComponentState());
@@ -116,4 +119,8 @@ public class AuthorizationService implements ComponentStateProvider {
         return roleMapping;
     }
 
+    public void shutdown() {
+        reverseDnsResolver.shutdown();
+    }
+
 }
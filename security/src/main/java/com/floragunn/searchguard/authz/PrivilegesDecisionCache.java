@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authz;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.core.TimeValue;
+
+import com.floragunn.fluent.collections.ImmutableSet;
+import com.floragunn.searchguard.authz.PrivilegesEvaluationResult.Status;
+import com.floragunn.searchguard.authz.actions.Action;
+import com.floragunn.searchguard.authz.actions.ResolvedIndices;
+import com.floragunn.searchguard.authz.config.Role;
+import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
+import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Caches the results of RoleBasedActionAuthorization.hasIndexPermission() for repeated evaluations with the same mapped roles, actions and
+ * resolved indices. This avoids the full evaluation for frequently repeated requests like shard level sub-actions or polling requests.
+ *
+ * Only OK and INSUFFICIENT results without errors are cached; results which require a rewrite of the request (PARTIALLY_OK,
+ * OK_WHEN_RESOLVED) are always freshly evaluated. Roles which use user attribute templates or date math expressions make the result user
+ * or time dependent; evaluations involving such roles are not cached.
+ *
+ * The cache key contains the version of the index metadata the stateful permissions of the ActionAuthorization were built from and the
+ * identity of the ActionAuthorization instance, which is replaced on each configuration update. Decisions are not cached while the stateful
+ * permissions lag behind the cluster state. Additionally, the cache is cleared when the metadata or the roles configuration changes and when
+ * the stateful permissions have been updated.
+ */
+class PrivilegesDecisionCache implements ComponentStateProvider {
+
+    static final StaticSettings.Attribute<Boolean> ENABLED = //
+            StaticSettings.Attribute.define("searchguard.privileges_evaluator.decision_cache.enabled").withDefault(false).asBoolean();
+    static final StaticSettings.Attribute<Integer> MAX_SIZE = //
+            StaticSettings.Attribute.define("searchguard.privileges_evaluator.decision_cache.max_size").withDefault(10000).asInteger();
+    static final StaticSettings.Attribute<TimeValue> EXPIRE_AFTER_WRITE = //
+            StaticSettings.Attribute.define("searchguard.privileges_evaluator.decision_cache.expire_after_write")
+                    .withDefault(TimeValue.timeValueMinutes(10)).asTimeValue();
+
+    /**
+     * Rough estimate of the heap size of a cache entry without the index names
+     */
+    private static final long ENTRY_BASE_SIZE = 256;
+    private static final long ELEMENT_SIZE = 48;
+
+    private final Cache<Key, PrivilegesEvaluationResult> cache;
+    private final ComponentState componentState = new ComponentState(11, null, "privileges_decision_cache",
+            PrivilegesDecisionCache.class).initialized();
+    private final AtomicLong estimatedSize = new AtomicLong();
+
+    private volatile ImmutableSet<String> userDependentRoles = ImmutableSet.empty();
+
+    PrivilegesDecisionCache(StaticSettings settings) {
+        int maxSize = settings.get(MAX_SIZE);
+        TimeValue expireAfterWrite = settings.get(EXPIRE_AFTER_WRITE);
+
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(expireAfterWrite.millis(), TimeUnit.MILLISECONDS)
+                .removalListener((notification) -> estimatedSize.addAndGet(-((Key) notification.getKey()).estimatedSize)).recordStats()
+                .build();
+
+        this.componentState.addMetrics("cache", CacheStats.from(cache), "estimated_heap_bytes", new Count.Live(estimatedSize::get));
+        this.componentState.setConfigProperty("max_size", maxSize);
+        this.componentState.setConfigProperty("expire_after_write", expireAfterWrite.toString());
+    }
+
+    /**
+     * Returns true if evaluations for the given roles can be cached.
+     */
+    boolean isCacheable(ImmutableSet<String> mappedRoles) {
+        ImmutableSet<String> userDependentRoles = this.userDependentRoles;
+
+        return userDependentRoles.isEmpty() || !mappedRoles.containsAny(userDependentRoles);
+    }
+
+    PrivilegesEvaluationResult get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(Key key, PrivilegesEvaluationResult result) {
+        if ((result.getStatus() == Status.OK || result.getStatus() == Status.INSUFFICIENT) && !result.hasErrors()
+                && result.getAdditionalActionFilters().isEmpty()) {
+            estimatedSize.addAndGet(key.estimatedSize);
+            cache.put(key, result);
+        }
+    }
+
+    void onRolesChange(SgDynamicConfiguration<Role> roles) {
+        ImmutableSet.Builder<String> userDependentRoles = new ImmutableSet.Builder<>();
+
+        for (Map.Entry<String, Role> entry : roles.getCEntries().entrySet()) {
+            if (isUserDependent(entry.getValue())) {
+                userDependentRoles.add(entry.getKey());
+            }
+        }
+
+        this.userDependentRoles = userDependentRoles.build();
+        this.cache.invalidateAll();
+    }
+
+    void onMetadataChange() {
+        this.cache.invalidateAll();
+    }
+
+    void onStatefulPermissionsUpdate() {
+        this.cache.invalidateAll();
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    private static boolean isUserDependent(Role role) {
+        for (Role.Index index : role.getIndexPermissions()) {
+            if (isUserDependent(index)) {
+                return true;
+            }
+        }
+
+        for (Role.Alias alias : role.getAliasPermissions()) {
+            if (isUserDependent(alias)) {
+                return true;
+            }
+        }
+
+        for (Role.DataStream dataStream : role.getDataStreamPermissions()) {
+            if (isUserDependent(dataStream)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isUserDependent(Role.Index index) {
+        return !index.getIndexPatterns().getPatternTemplates().isEmpty() || !index.getIndexPatterns().getDateMathExpressions().isEmpty();
+    }
+
+    static class Key {
+        private final ImmutableSet<String> mappedRoles;
+        private final Action primaryAction;
+        private final ImmutableSet<Action> actions;
+        private final ResolvedIndices.Local resolvedIndices;
+        private final Action.Scope scope;
+        private final boolean dnfofPossible;
+        private final long metaVersion;
+        private final ActionAuthorization actionAuthorization;
+        private final int hashCode;
+        private final long estimatedSize;
+
+        Key(ImmutableSet<String> mappedRoles, Action primaryAction, ImmutableSet<Action> actions, ResolvedIndices.Local resolvedIndices,
+                Action.Scope scope, boolean dnfofPossible, long metaVersion, ActionAuthorization actionAuthorization) {
+            this.mappedRoles = mappedRoles;
+            this.primaryAction = primaryAction;
+            this.actions = actions;
+            this.resolvedIndices = resolvedIndices;
+            this.scope = scope;
+            this.dnfofPossible = dnfofPossible;
+            this.metaVersion = metaVersion;
+            this.actionAuthorization = actionAuthorization;
+            this.hashCode = Objects.hash(mappedRoles, primaryAction, actions, resolvedIndices, scope, dnfofPossible, metaVersion);
+            this.estimatedSize = ENTRY_BASE_SIZE + ELEMENT_SIZE * (mappedRoles.size() + actions.size() + resolvedIndices.getUnion().size());
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hashCode == other.hashCode && metaVersion == other.metaVersion && actionAuthorization == other.actionAuthorization
+                    && dnfofPossible == other.dnfofPossible && scope == other.scope
+                    && Objects.equals(primaryAction, other.primaryAction) && Objects.equals(mappedRoles, other.mappedRoles)
+                    && Objects.equals(actions, other.actions) && Objects.equals(resolvedIndices, other.resolvedIndices);
+        }
+    }
+}
@@ -97,7 +97,8 @@ public class PrivilegesEvaluator implements ComponentStateProvider {
 
     public static final StaticSettings.AttributeSet STATIC_SETTINGS = //
             StaticSettings.AttributeSet.of(ADMIN_ONLY_ACTIONS, ADMIN_ONLY_INDICES, CHECK_SNAPSHOT_RESTORE_WRITE_PRIVILEGES,
-                    UNSUPPORTED_RESTORE_SGINDEX_ENABLED, RoleBasedActionAuthorization.PRECOMPUTED_PRIVILEGES_MAX_HEAP_SIZE);
+                    UNSUPPORTED_RESTORE_SGINDEX_ENABLED, RoleBasedActionAuthorization.PRECOMPUTED_PRIVILEGES_MAX_HEAP_SIZE,
+                    PrivilegesDecisionCache.ENABLED, PrivilegesDecisionCache.MAX_SIZE, PrivilegesDecisionCache.EXPIRE_AFTER_WRITE);
 
     private static final Logger log = LogManager.getLogger(PrivilegesEvaluator.class);
     private final ClusterService clusterService;
@@ -120,6 +121,7 @@ public class PrivilegesEvaluator implements ComponentStateProvider {
     private final Actions actions;
     private final ComponentState componentState = new ComponentState(10, null, "privileges_evaluator");
     private final ByteSizeValue statefulIndexMaxHeapSize;
+    private final PrivilegesDecisionCache decisionCache;
 
     private final AtomicReference<RoleBasedActionAuthorization> actionAuthorization = new AtomicReference<>();
     private volatile AuthorizationConfig authzConfig = AuthorizationConfig.DEFAULT;
@@ -150,6 +152,11 @@ public class PrivilegesEvaluator implements ComponentStateProvider {
         this.adminOnlyActions = settings.get(ADMIN_ONLY_ACTIONS);
         this.adminOnlyIndices = settings.get(ADMIN_ONLY_INDICES);
         this.statefulIndexMaxHeapSize = settings.get(RoleBasedActionAuthorization.PRECOMPUTED_PRIVILEGES_MAX_HEAP_SIZE);
+        this.decisionCache = settings.get(PrivilegesDecisionCache.ENABLED) ? new PrivilegesDecisionCache(settings) : null;
+
+        if (decisionCache != null) {
+            componentState.addPart(decisionCache.getComponentState());
+        }
 
         configurationRepository.subscribeOnChange(new ConfigurationChangeListener() {
 
@@ -179,6 +186,10 @@ public class PrivilegesEvaluator implements ComponentStateProvider {
                         tenants.getCEntries().keySet(), statefulIndexMaxHeapSize, adminOnlyIndices, authzConfig.getMetricsLevel(), multiTenancyConfigurationProvider);
                 
                 RoleBasedActionAuthorization oldActionAuthorization = PrivilegesEvaluator.this.actionAuthorization.getAndSet(newActionAuthorization);
+
+                if (decisionCache != null) {
+                    decisionCache.onRolesChange(roles);
+                }
                 
                 componentState.setConfigVersion(configMap.getVersionsAsString());
                 componentState.replacePart(newActionAuthorization.getComponentState());
@@ -198,7 +209,12 @@ public class PrivilegesEvaluator implements ComponentStateProvider {
                 RoleBasedActionAuthorization actionAuthorization = PrivilegesEvaluator.this.actionAuthorization.get();
 
                 if (actionAuthorization != null) {
-                    actionAuthorization.updateStatefulIndexPrivilegesAsync(clusterService, threadPool);
+                    actionAuthorization.updateStatefulIndexPrivilegesAsync(clusterService, threadPool,
+                            decisionCache != null ? decisionCache::onStatefulPermissionsUpdate : null);
+                }
+
+                if (decisionCache != null && event.metadataChanged()) {
+                    decisionCache.onMetadataChange();
                 }
             }
         });
@@ -356,6 +372,37 @@ public class PrivilegesEvaluator implements ComponentStateProvider {
         }
     }
 
+    private PrivilegesEvaluationResult hasIndexPermissionCached(PrivilegesEvaluationContext context, Action action,
+            ImmutableSet<Action> allIndexPermsRequired, ResolvedIndices resolvedIndices, ImmutableSet<String> mappedRoles, boolean dnfofPossible,
+            ActionAuthorization actionAuthorization, SpecialPrivilegesEvaluationContext specialPrivilegesEvaluationContext)
+            throws PrivilegesEvaluationException {
+        PrivilegesDecisionCache decisionCache = this.decisionCache;
+
+        if (decisionCache == null || specialPrivilegesEvaluationContext != null || resolvedIndices.isLocalAll()
+                || !decisionCache.isCacheable(mappedRoles) || !(actionAuthorization instanceof RoleBasedActionAuthorization)) {
+            return actionAuthorization.hasIndexPermission(context, action, allIndexPermsRequired, resolvedIndices, action.scope());
+        }
+
+        long statefulMetadataVersion = ((RoleBasedActionAuthorization) actionAuthorization).getStatefulMetadataVersion();
+
+        if (statefulMetadataVersion != clusterService.state().metadata().version()) {
+            // The stateful permissions are still being updated; do not cache decisions based on outdated index information
+            return actionAuthorization.hasIndexPermission(context, action, allIndexPermsRequired, resolvedIndices, action.scope());
+        }
+
+        PrivilegesDecisionCache.Key key = new PrivilegesDecisionCache.Key(mappedRoles, action, allIndexPermsRequired, resolvedIndices.getLocal(),
+                action.scope(), dnfofPossible, statefulMetadataVersion, actionAuthorization);
+
+        PrivilegesEvaluationResult result = decisionCache.get(key);
+
+        if (result == null) {
+            result = actionAuthorization.hasIndexPermission(context, action, allIndexPermsRequired, resolvedIndices, action.scope());
+            decisionCache.put(key, result);
+        }
+
+        return result;
+    }
+
     private PrivilegesEvaluationResult evaluateIndexPrivileges(User user, Action action, ImmutableSet<Action> requiredPermissions,
             ActionRequest request, Task task, ActionRequestInfo actionRequestInfo, ImmutableSet<String> mappedRoles, AuthorizationConfig authzConfig,
             ActionAuthorization actionAuthorization, SpecialPrivilegesEvaluationContext specialPrivilegesEvaluationContext,
@@ -397,8 +444,8 @@ public class PrivilegesEvaluator implements ComponentStateProvider {
             }
         }
 
-        PrivilegesEvaluationResult privilegesEvaluationResult = actionAuthorization.hasIndexPermission(context, action, allIndexPermsRequired,
-                actionRequestInfo.getMainResolvedIndices(), action.scope());
+        PrivilegesEvaluationResult privilegesEvaluationResult = hasIndexPermissionCached(context, action, allIndexPermsRequired,
+                actionRequestInfo.getMainResolvedIndices(), mappedRoles, dnfofPossible, actionAuthorization, specialPrivilegesEvaluationContext);
 
         if (!actionRequestInfo.getAdditionalResolvedIndices().isEmpty()) {
             for (Map.Entry<Action.AdditionalDimension, ResolvedIndices> entry : actionRequestInfo.getAdditionalResolvedIndices().entrySet()) {
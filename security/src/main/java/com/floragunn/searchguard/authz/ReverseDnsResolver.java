@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authz;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.core.TimeValue;
+
+import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.floragunn.searchsupport.cstate.metrics.CountAggregation;
+import com.floragunn.searchsupport.cstate.metrics.Meter;
+import com.floragunn.searchsupport.cstate.metrics.MetricsLevel;
+import com.floragunn.searchsupport.cstate.metrics.TimeAggregation;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Resolves host names of remote addresses for host based role mappings.
+ *
+ * Reverse DNS lookups can block for a long time. Thus, lookups are executed on a small dedicated executor and their results are cached.
+ * Successful lookups are cached for positive_ttl, failed lookups for negative_ttl. When an entry is older than refresh_after, it is still
+ * used, but a refresh is triggered in the background.
+ *
+ * If no cached entry is available, the calling thread waits at most for the configured timeout. If the lookup does not finish in time, the
+ * configured fallback is used: ip_address uses the textual IP address as host name (this is what InetAddress.getHostName() returns if the
+ * lookup fails), none yields no host name at all.
+ */
+public class ReverseDnsResolver implements ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(ReverseDnsResolver.class);
+
+    public static final StaticSettings.Attribute<Integer> THREADS = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.threads").withDefault(2).asInteger();
+    public static final StaticSettings.Attribute<Integer> QUEUE_SIZE = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.queue_size").withDefault(1000).asInteger();
+    public static final StaticSettings.Attribute<Integer> MAX_SIZE = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.cache.max_size").withDefault(10000).asInteger();
+    public static final StaticSettings.Attribute<TimeValue> POSITIVE_TTL = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.cache.positive_ttl").withDefault(TimeValue.timeValueMinutes(10)).asTimeValue();
+    public static final StaticSettings.Attribute<TimeValue> NEGATIVE_TTL = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.cache.negative_ttl").withDefault(TimeValue.timeValueMinutes(1)).asTimeValue();
+    public static final StaticSettings.Attribute<TimeValue> REFRESH_AFTER = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.cache.refresh_after").withDefault(TimeValue.timeValueMinutes(5)).asTimeValue();
+    public static final StaticSettings.Attribute<TimeValue> TIMEOUT = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.timeout").withDefault(TimeValue.timeValueMillis(100)).asTimeValue();
+    public static final StaticSettings.Attribute<String> FALLBACK = StaticSettings.Attribute
+            .define("searchguard.role_mapping.reverse_dns.fallback").withDefault(Fallback.IP_ADDRESS.toString()).asString();
+
+    public static final StaticSettings.AttributeSet STATIC_SETTINGS = //
+            StaticSettings.AttributeSet.of(THREADS, QUEUE_SIZE, MAX_SIZE, POSITIVE_TTL, NEGATIVE_TTL, REFRESH_AFTER, TIMEOUT, FALLBACK);
+
+    private final Function<InetAddress, String> lookupFunction;
+    private final ThreadPoolExecutor executor;
+    private final Cache<InetAddress, Entry> cache;
+    private final ConcurrentHashMap<InetAddress, CompletableFuture<Entry>> pendingLookups = new ConcurrentHashMap<>();
+    private final long positiveTtlMillis;
+    private final long negativeTtlMillis;
+    private final long refreshAfterMillis;
+    private final long timeoutMillis;
+    private final Fallback fallback;
+
+    private final ComponentState componentState = new ComponentState(9, null, "reverse_dns_resolver", ReverseDnsResolver.class).initialized();
+    private final TimeAggregation lookupMetrics = new TimeAggregation.Milliseconds();
+    private final CountAggregation fallbackMetrics = new CountAggregation();
+    private final CountAggregation rejectedMetrics = new CountAggregation();
+    private final CountAggregation refreshMetrics = new CountAggregation();
+
+    public ReverseDnsResolver(StaticSettings settings) {
+        this(settings, (address) -> address.getHostName());
+    }
+
+    ReverseDnsResolver(StaticSettings settings, Function<InetAddress, String> lookupFunction) {
+        this.lookupFunction = lookupFunction;
+        this.positiveTtlMillis = settings.get(POSITIVE_TTL).millis();
+        this.negativeTtlMillis = settings.get(NEGATIVE_TTL).millis();
+        this.refreshAfterMillis = settings.get(REFRESH_AFTER).millis();
+        this.timeoutMillis = settings.get(TIMEOUT).millis();
+        this.fallback = Fallback.parse(settings.get(FALLBACK));
+
+        int threads = settings.get(THREADS);
+        int queueSize = settings.get(QUEUE_SIZE);
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), (r) -> {
+            Thread thread = new Thread(r, "searchguard_reverse_dns_" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.cache = CacheBuilder.newBuilder().maximumSize(settings.get(MAX_SIZE))
+                .expireAfterWrite(Math.max(positiveTtlMillis, negativeTtlMillis), TimeUnit.MILLISECONDS).recordStats().build();
+
+        this.componentState.addMetrics("lookup", lookupMetrics, "cache", CacheStats.from(cache), "fallback", fallbackMetrics, "rejected",
+                rejectedMetrics);
+        this.componentState.addMetrics("refresh", refreshMetrics, "pending", new Count.Live(() -> (long) pendingLookups.size()));
+        this.componentState.setConfigProperty("timeout", settings.get(TIMEOUT).toString());
+        this.componentState.setConfigProperty("fallback", fallback.toString());
+    }
+
+    /**
+     * Returns the host name for the given address. Returns null if no host name is available and the fallback is none.
+     */
+    public String getHostName(InetAddress address) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.getIfPresent(address);
+
+        if (entry != null && entry.expiresAt > now) {
+            if (entry.refreshAt <= now && !pendingLookups.containsKey(address)) {
+                refreshMetrics.increment();
+                lookup(address);
+            }
+
+            return entry.hostName;
+        }
+
+        CompletableFuture<Entry> future = lookup(address);
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS).hostName;
+        } catch (TimeoutException e) {
+            log.debug("Reverse DNS lookup for {} did not finish within {} ms; using fallback {}", address, timeoutMillis, fallback);
+        } catch (ExecutionException e) {
+            log.debug("Reverse DNS lookup for {} failed; using fallback {}", address, fallback, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        fallbackMetrics.increment();
+
+        return fallback == Fallback.IP_ADDRESS ? address.getHostAddress() : null;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    private CompletableFuture<Entry> lookup(InetAddress address) {
+        CompletableFuture<Entry> newFuture = new CompletableFuture<>();
+        CompletableFuture<Entry> existingFuture = pendingLookups.putIfAbsent(address, newFuture);
+
+        if (existingFuture != null) {
+            return existingFuture;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    Entry entry = resolve(address);
+                    cache.put(address, entry);
+                    newFuture.complete(entry);
+                } catch (Exception e) {
+                    newFuture.completeExceptionally(e);
+                } finally {
+                    pendingLookups.remove(address, newFuture);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedMetrics.increment();
+            pendingLookups.remove(address, newFuture);
+            newFuture.completeExceptionally(e);
+        }
+
+        return newFuture;
+    }
+
+    private Entry resolve(InetAddress address) throws UnknownHostException {
+        // A new InetAddress instance is necessary, as InetAddress caches the host name once it has been resolved
+        InetAddress unresolvedAddress = InetAddress.getByAddress(address.getAddress());
+        String hostName;
+
+        try (Meter meter = Meter.basic(MetricsLevel.BASIC, lookupMetrics)) {
+            hostName = lookupFunction.apply(unresolvedAddress);
+        }
+
+        long now = System.currentTimeMillis();
+
+        // InetAddress.getHostName() returns the textual IP address if the lookup failed
+        if (hostName == null || hostName.equals(address.getHostAddress())) {
+            return new Entry(fallback == Fallback.IP_ADDRESS ? address.getHostAddress() : null, now + negativeTtlMillis, now + negativeTtlMillis);
+        } else {
+            return new Entry(hostName, now + positiveTtlMillis, now + refreshAfterMillis);
+        }
+    }
+
+    public static enum Fallback {
+        IP_ADDRESS, NONE;
+
+        static Fallback parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid value for " + FALLBACK.name() + ": " + value + "; using " + IP_ADDRESS);
+                return IP_ADDRESS;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static class Entry {
+        private final String hostName;
+        private final long expiresAt;
+        private final long refreshAt;
+
+        Entry(String hostName, long expiresAt, long refreshAt) {
+            this.hostName = hostName;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
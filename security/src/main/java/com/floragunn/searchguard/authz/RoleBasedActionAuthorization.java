@@ -21,14 +21,18 @@
 
 package com.floragunn.searchguard.authz;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -108,6 +112,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
     private final CountAggregation tenantActionCheckResults_insufficient;
 
     private final TimeAggregation statefulIndexRebuild = new TimeAggregation.Milliseconds();
+    private final TimeAggregation statefulIndexIncrementalUpdate = new TimeAggregation.Milliseconds();
 
     private volatile StatefulPermissions stateful;
 
@@ -170,9 +175,9 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
         this.componentState.setConfigVersion(roles.getDocVersion());
 
         if (metricsLevel.detailedEnabled()) {
-            indexActionChecks = new TimeAggregation.Nanoseconds();
+            indexActionChecks = new TimeAggregation.Histogram();
             indexActionCheckResults = new CountAggregation();
-            tenantActionChecks = new TimeAggregation.Nanoseconds();
+            tenantActionChecks = new TimeAggregation.Histogram();
             tenantActionCheckResults = new CountAggregation();
             indexActionTypes = new CountAggregation();
         } else if (metricsLevel.basicEnabled()) {
@@ -202,7 +207,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
             this.componentState.addMetrics("tenant_action_check_results", tenantActionCheckResults);
 
             this.componentState.addMetrics("index_action_checks", indexActionChecks, "tenant_action_checks", tenantActionChecks,
-                    "statful_index_rebuilds", statefulIndexRebuild);
+                    "statful_index_rebuilds", statefulIndexRebuild, "stateful_index_incremental_updates", statefulIndexIncrementalUpdate);
 
             this.componentState.addMetrics("index_action_types", indexActionTypes);
         }
@@ -961,23 +966,54 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
         }
     }
 
-    private void update(Meta indexMetadata) {
+    StatefulPermissions getStatefulPermissions() {
+        return stateful;
+    }
+
+    /**
+     * Returns the version of the index metadata the stateful permissions were built from; -1 if there are no stateful permissions.
+     */
+    public long getStatefulMetadataVersion() {
+        StatefulPermissions stateful = this.stateful;
+        return stateful != null ? stateful.indexMetadata.version() : -1;
+    }
+
+    void update(Meta indexMetadata) {
+        StatefulPermissions stateful = this.stateful;
+
         if (stateful == null || !stateful.indexMetadata.equals(indexMetadata)) {
-            try (Meter meter = Meter.basic(metricsLevel, statefulIndexRebuild)) {
-                if (log.isTraceEnabled()) {
-                    log.trace("Updating due to index metadata change: {}", indexMetadata);
+            StatefulPermissions.MetaDiff diff = stateful != null && stateful.supportsIncrementalUpdate()
+                    ? StatefulPermissions.MetaDiff.compute(stateful.indexMetadata, indexMetadata)
+                    : null;
+
+            if (diff != null && diff.isSmallComparedTo(indexMetadata)) {
+                try (Meter meter = Meter.basic(metricsLevel, statefulIndexIncrementalUpdate)) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Incrementally updating due to index metadata change: {}\n{}", indexMetadata, diff);
+                    }
+
+                    this.stateful = stateful.update(roles, actionGroups, actions, indexMetadata, diff, universallyDeniedIndices,
+                            statefulIndexMaxHeapSize);
+
+                    this.componentState.updateStateFromParts();
                 }
+            } else {
+                try (Meter meter = Meter.basic(metricsLevel, statefulIndexRebuild)) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Updating due to index metadata change: {}", indexMetadata);
+                    }
 
-                StatefulPermissions.Index statefulIndex = new StatefulPermissions.Index(roles, actionGroups, actions, indexMetadata,
-                        universallyDeniedIndices, statefulIndexMaxHeapSize, statefulIndexState);
-                StatefulPermissions.Alias statefulAlias = new StatefulPermissions.Alias(roles, actionGroups, actions, indexMetadata,
-                        universallyDeniedIndices, statefulIndexMaxHeapSize, statefulAliasState);
-                StatefulPermissions.DataStream statefulDataStream = new StatefulPermissions.DataStream(roles, actionGroups, actions, indexMetadata,
-                        universallyDeniedIndices, statefulIndexMaxHeapSize, statefulDataStreamState);
+                    StatefulPermissions.Index statefulIndex = new StatefulPermissions.Index(roles, actionGroups, actions, indexMetadata,
+                            universallyDeniedIndices, statefulIndexMaxHeapSize, statefulIndexState);
+                    StatefulPermissions.Alias statefulAlias = new StatefulPermissions.Alias(roles, actionGroups, actions, indexMetadata,
+                            universallyDeniedIndices, statefulIndexMaxHeapSize, statefulAliasState);
+                    StatefulPermissions.DataStream statefulDataStream = new StatefulPermissions.DataStream(roles, actionGroups, actions,
+                            indexMetadata, universallyDeniedIndices, statefulIndexMaxHeapSize, statefulDataStreamState);
 
-                this.stateful = new StatefulPermissions(statefulIndex, statefulAlias, statefulDataStream, indexMetadata);
+                    this.stateful = new StatefulPermissions(statefulIndex, statefulAlias, statefulDataStream, indexMetadata);
 
-                this.componentState.updateStateFromParts();
+                    this.componentState.updateStateFromParts();
+                }
             }
         } else {
             if (log.isTraceEnabled()) {
@@ -992,8 +1028,10 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
      * As the update process can take some seconds for clusters with many indices, this method "de-bounces" the updates,
      * i.e., a further update will be only initiated after the previous update has finished. This is okay as this class
      * can handle the case that it do not have the most recent information. It will fall back to slower methods then.
+     * 
+     * The onUpdate callback is called after the stateful index configuration has been updated.
      */
-    public synchronized void updateStatefulIndexPrivilegesAsync(ClusterService clusterService, ThreadPool threadPool) {
+    public synchronized void updateStatefulIndexPrivilegesAsync(ClusterService clusterService, ThreadPool threadPool, Runnable onUpdate) {
         long currentMetadataVersion = clusterService.state().metadata().version();
 
         StatefulPermissions stateful = this.stateful;
@@ -1026,6 +1064,10 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                     try {
                         log.debug("Updating ActionPrivileges with metadata version {}", indexMetadata.version());
                         update(indexMetadata);
+
+                        if (onUpdate != null) {
+                            onUpdate.run();
+                        }
                     } catch (Exception e) {
                         log.error("Error while updating ActionPrivileges", e);
                     } finally {
@@ -1408,7 +1450,178 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
             
             return true;
         }
-        
+
+        /**
+         * Incremental updates are layered on top of the previous data structures. In order to keep the lookup chains short, a full rebuild is
+         * enforced after this number of incremental updates.
+         */
+        static final int MAX_INCREMENTAL_UPDATES = 16;
+
+        boolean supportsIncrementalUpdate() {
+            // If the previous data structures are capped, we do not know which roles were skipped; thus, we need a full rebuild
+            return index.incrementalUpdates < MAX_INCREMENTAL_UPDATES && !index.capped && !alias.capped && !dataStream.capped;
+        }
+
+        /**
+         * Creates a new instance for the given index metadata by only computing the entries for the objects listed in the diff. All other entries
+         * are taken from this instance.
+         */
+        StatefulPermissions update(SgDynamicConfiguration<Role> roles, ActionGroup.FlattenedIndex actionGroups, Actions actions, Meta indexMetadata,
+                MetaDiff diff, Pattern universallyDeniedIndices, ByteSizeValue statefulIndexMaxHeapSize) {
+            Index newIndex = new Index(roles, actionGroups, actions, indexMetadata, universallyDeniedIndices, statefulIndexMaxHeapSize,
+                    index.componentState, index, diff.affectedIndices);
+            Alias newAlias = new Alias(roles, actionGroups, actions, indexMetadata, universallyDeniedIndices, statefulIndexMaxHeapSize,
+                    alias.componentState, alias, diff.affectedAliases);
+            DataStream newDataStream = new DataStream(roles, actionGroups, actions, indexMetadata, universallyDeniedIndices,
+                    statefulIndexMaxHeapSize, dataStream.componentState, dataStream, diff.affectedDataStreams);
+
+            return new StatefulPermissions(newIndex, newAlias, newDataStream, indexMetadata);
+        }
+
+        /**
+         * Returns a view of the base map in which the entries for the affected keys are replaced by the entries of the delta map. Affected keys
+         * which are not present in the delta map are treated as absent, even if the base map has an entry for these.
+         */
+        static ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> overlay(
+                ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> base,
+                ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> delta, ImmutableSet<String> affectedKeys) {
+            if (affectedKeys.isEmpty()) {
+                return base;
+            }
+
+            ImmutableMap.Builder<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> result = new ImmutableMap.Builder<>();
+
+            for (WellKnownAction<?, ?, ?> action : ImmutableSet.of(base.keySet()).with(delta.keySet())) {
+                result.put(action, new OverlayMap(base.get(action), delta.get(action), affectedKeys));
+            }
+
+            return result.build();
+        }
+
+        static class OverlayMap extends AbstractMap<String, ImmutableCompactSubSet<String>> {
+            private final Map<String, ImmutableCompactSubSet<String>> base;
+            private final Map<String, ImmutableCompactSubSet<String>> delta;
+            private final ImmutableSet<String> affectedKeys;
+
+            OverlayMap(Map<String, ImmutableCompactSubSet<String>> base, Map<String, ImmutableCompactSubSet<String>> delta,
+                    ImmutableSet<String> affectedKeys) {
+                this.base = base;
+                this.delta = delta;
+                this.affectedKeys = affectedKeys;
+            }
+
+            @Override
+            public ImmutableCompactSubSet<String> get(Object key) {
+                if (affectedKeys.contains(key)) {
+                    return delta != null ? delta.get(key) : null;
+                } else {
+                    return base != null ? base.get(key) : null;
+                }
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public Set<Map.Entry<String, ImmutableCompactSubSet<String>>> entrySet() {
+                // Only used for diagnostic purposes; thus, we can afford to materialize the map here
+                Map<String, ImmutableCompactSubSet<String>> result = new HashMap<>();
+
+                if (base != null) {
+                    base.forEach((k, v) -> {
+                        if (!affectedKeys.contains(k)) {
+                            result.put(k, v);
+                        }
+                    });
+                }
+
+                if (delta != null) {
+                    result.putAll(delta);
+                }
+
+                return result.entrySet();
+            }
+        }
+
+        /**
+         * Lists the index-like objects for which the stateful permissions need to be re-computed after an index metadata change:
+         * <ul>
+         * <li>Indices which are new or whose ancestor aliases have changed</li>
+         * <li>Aliases which are new</li>
+         * <li>Data streams which are new or whose parent aliases have changed</li>
+         * </ul>
+         * Entries for objects which have been removed do not need to be removed, as these are never looked up.
+         */
+        static class MetaDiff {
+            /**
+             * Below this number of affected objects, we always do an incremental update.
+             */
+            static final int MIN_INCREMENTAL_THRESHOLD = 16;
+
+            final ImmutableSet<String> affectedIndices;
+            final ImmutableSet<String> affectedAliases;
+            final ImmutableSet<String> affectedDataStreams;
+
+            MetaDiff(ImmutableSet<String> affectedIndices, ImmutableSet<String> affectedAliases, ImmutableSet<String> affectedDataStreams) {
+                this.affectedIndices = affectedIndices;
+                this.affectedAliases = affectedAliases;
+                this.affectedDataStreams = affectedDataStreams;
+            }
+
+            static MetaDiff compute(Meta oldMetadata, Meta newMetadata) {
+                ImmutableSet.Builder<String> affectedIndices = new ImmutableSet.Builder<>();
+                ImmutableSet.Builder<String> affectedAliases = new ImmutableSet.Builder<>();
+                ImmutableSet.Builder<String> affectedDataStreams = new ImmutableSet.Builder<>();
+
+                for (Meta.IndexLikeObject object : newMetadata.indexLikeObjects().values()) {
+                    Meta.IndexLikeObject oldObject = oldMetadata.getIndexOrLike(object.name());
+
+                    if (object instanceof Meta.Index) {
+                        if (!(oldObject instanceof Meta.Index) || !sameNames(oldObject.ancestorAliasNames(), object.ancestorAliasNames())) {
+                            affectedIndices.add(object.nameForIndexPatternMatching());
+                        }
+                    } else if (object instanceof Meta.Alias) {
+                        if (!(oldObject instanceof Meta.Alias)) {
+                            affectedAliases.add(object.nameForIndexPatternMatching());
+                        }
+                    } else if (object instanceof Meta.DataStream) {
+                        if (!(oldObject instanceof Meta.DataStream) || !sameNames(oldObject.parentAliasNames(), object.parentAliasNames())) {
+                            affectedDataStreams.add(object.nameForIndexPatternMatching());
+                        }
+                    }
+                }
+
+                return new MetaDiff(affectedIndices.build(), affectedAliases.build(), affectedDataStreams.build());
+            }
+
+            int size() {
+                return affectedIndices.size() + affectedAliases.size() + affectedDataStreams.size();
+            }
+
+            /**
+             * Returns true if an incremental update is expected to be cheaper than a full rebuild.
+             */
+            boolean isSmallComparedTo(Meta indexMetadata) {
+                return size() <= Math.max(MIN_INCREMENTAL_THRESHOLD, indexMetadata.indexLikeObjects().size() / 10);
+            }
+
+            private static boolean sameNames(Collection<String> c1, Collection<String> c2) {
+                if (c1.equals(c2)) {
+                    return true;
+                }
+
+                return new HashSet<>(c1).equals(new HashSet<>(c2));
+            }
+
+            @Override
+            public String toString() {
+                return "affected indices: " + affectedIndices + "; affected aliases: " + affectedAliases + "; affected data streams: "
+                        + affectedDataStreams;
+            }
+        }
+
         /**
          * Objects of this class collect permissions related to concrete, existing indices. These permissions are sourced from the roles configuration; in particular: the index_permissions attribute.
          * In addition, the alias_permissions attribute is also used to source permissions for the concrete indices that are members of the aliases.
@@ -1424,13 +1637,25 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
             private final ComponentState componentState;
             private final Pattern universallyDeniedIndices;
             private final int estimatedByteSize;
+            final int incrementalUpdates;
+            final boolean capped;
 
             Index(SgDynamicConfiguration<Role> roles, ActionGroup.FlattenedIndex actionGroups, Actions actions, Meta indexMetadata,
                     Pattern universallyDeniedIndices, ByteSizeValue statefulIndexMaxHeapSize, ComponentState componentState) {
+                this(roles, actionGroups, actions, indexMetadata, universallyDeniedIndices, statefulIndexMaxHeapSize, componentState, null, null);
+            }
+
+            /**
+             * If base is non-null, only the entries for affectedIndices are computed. All other entries are taken from base.
+             */
+            Index(SgDynamicConfiguration<Role> roles, ActionGroup.FlattenedIndex actionGroups, Actions actions, Meta indexMetadata,
+                    Pattern universallyDeniedIndices, ByteSizeValue statefulIndexMaxHeapSize, ComponentState componentState, Index base,
+                    ImmutableSet<String> affectedIndices) {
+                Predicate<String> isAffected = base != null ? affectedIndices::contains : (i) -> true;
                 Set<String> roleNames = IndexedImmutableSet.of(roles.getCEntries().keySet());                
                 DeduplicatingCompactSubSetBuilder<String> roleSetBuilder = new DeduplicatingCompactSubSetBuilder<>(roleNames);
                 CompactMapGroupBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>> indexMapBuilder = new CompactMapGroupBuilder<>(
-                        indexMetadata.indexLikeObjects().keySet(), (k2) -> roleSetBuilder.createSubSetBuilder());
+                        base != null ? affectedIndices : indexMetadata.indexLikeObjects().keySet(), (k2) -> roleSetBuilder.createSubSetBuilder());
 
                 ImmutableMap.Builder<WellKnownAction<?, ?, ?>, CompactMapGroupBuilder.MapBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>>> actionToIndexToRoles = //
                         new ImmutableMap.Builder<WellKnownAction<?, ?, ?>, CompactMapGroupBuilder.MapBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>>>()
@@ -1439,7 +1664,9 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 ImmutableMap.Builder<String, ImmutableList.Builder<Exception>> rolesToInitializationErrors = new ImmutableMap.Builder<String, ImmutableList.Builder<Exception>>()
                         .defaultValue((k) -> new ImmutableList.Builder<Exception>());
 
-                Iterable<String> indexNames = indexMetadata.indices().map(Meta.Index::nameForIndexPatternMatching);
+                Iterable<String> indexNames = base != null ? affectedIndices
+                        : indexMetadata.indices().map(Meta.Index::nameForIndexPatternMatching);
+                boolean capped = false;
 
                 top: for (String roleName : roleNames) {
                     try {
@@ -1505,7 +1732,9 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                                     if (action instanceof WellKnownAction) {
                                         for (Meta.Alias alias : aliasPattern.iterateMatching(indexMetadata.aliases(), Meta.Alias::nameForIndexPatternMatching)) {
                                             alias.resolveDeepToNamesForIndexPatternMatching(Meta.Alias.ResolutionMode.NORMAL).forEach((index) -> {
-                                                actionToIndexToRoles.get((WellKnownAction<?, ?, ?>) action).get(index).add(roleName);
+                                                if (isAffected.test(index)) {
+                                                    actionToIndexToRoles.get((WellKnownAction<?, ?, ?>) action).get(index).add(roleName);
+                                                }
                                             });
                                         }
                                     }
@@ -1517,8 +1746,10 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
 
                                     for (Meta.Alias alias : aliasPattern.iterateMatching(indexMetadata.aliases(), Meta.IndexCollection::nameForIndexPatternMatching)) {
                                         alias.resolveDeepToNamesForIndexPatternMatching(Meta.Alias.ResolutionMode.NORMAL).forEach((index) -> {
-                                            for (WellKnownAction<?, ?, ?> action : providedPrivileges) {
-                                                actionToIndexToRoles.get((WellKnownAction<?, ?, ?>) action).get(index).add(roleName);
+                                            if (isAffected.test(index)) {
+                                                for (WellKnownAction<?, ?, ?> action : providedPrivileges) {
+                                                    actionToIndexToRoles.get((WellKnownAction<?, ?, ?>) action).get(index).add(roleName);
+                                                }
                                             }
                                         });
                                     }
@@ -1530,6 +1761,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                             log.info("Size of precomputed index privileges exceeds configured limit ({}). Using capped data structure."
                                     + "This might lead to slightly lower performance during privilege evaluation. Consider raising {} or closing unneeded indices.",
                                     statefulIndexMaxHeapSize, PRECOMPUTED_PRIVILEGES_MAX_HEAP_SIZE);
+                            capped = true;
                             break top;
                         }
 
@@ -1546,10 +1778,21 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 }
 
                 DeduplicatingCompactSubSetBuilder.Completed<String> completedRoleSetBuilder = roleSetBuilder.build();
+                ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> builtActionToIndexToRoles = actionToIndexToRoles
+                        .build((b) -> b.build(subSetBuilder -> subSetBuilder.build(completedRoleSetBuilder)));
 
-                this.estimatedByteSize = roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                if (base != null) {
+                    this.estimatedByteSize = base.estimatedByteSize + roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                    this.actionToIndexToRoles = overlay(base.actionToIndexToRoles, builtActionToIndexToRoles, affectedIndices);
+                    this.incrementalUpdates = base.incrementalUpdates + 1;
+                } else {
+                    this.estimatedByteSize = roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                    this.actionToIndexToRoles = builtActionToIndexToRoles;
+                    this.incrementalUpdates = 0;
+                }
 
-                this.actionToIndexToRoles = actionToIndexToRoles.build((b) -> b.build(subSetBuilder -> subSetBuilder.build(completedRoleSetBuilder)));
+                // Removed indices are not subtracted from the estimate; thus, the estimate grows with each incremental update
+                this.capped = capped || (base != null && this.estimatedByteSize > statefulIndexMaxHeapSize.getBytes());
                 this.indexMetadata = indexMetadata;
 
                 this.universallyDeniedIndices = universallyDeniedIndices;
@@ -1612,6 +1855,10 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 return universallyDeniedIndices.matches(index);
             }
 
+            ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> getActionToIndexToRoles() {
+                return actionToIndexToRoles;
+            }
+
             @Override
             public ComponentState getComponentState() {
                 return this.componentState;
@@ -1630,13 +1877,26 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
             private final ComponentState componentState;
             private final Pattern universallyDeniedIndices;
             private final int estimatedByteSize;
+            final boolean capped;
 
             Alias(SgDynamicConfiguration<Role> roles, ActionGroup.FlattenedIndex actionGroups, Actions actions, Meta indexMetadata,
                     Pattern universallyDeniedIndices, ByteSizeValue statefulIndexMaxHeapSize, ComponentState componentState) {
+                this(roles, actionGroups, actions, indexMetadata, universallyDeniedIndices, statefulIndexMaxHeapSize, componentState, null, null);
+            }
+
+            /**
+             * If base is non-null, only the entries for affectedAliases are computed. All other entries are taken from base.
+             */
+            Alias(SgDynamicConfiguration<Role> roles, ActionGroup.FlattenedIndex actionGroups, Actions actions, Meta indexMetadata,
+                    Pattern universallyDeniedIndices, ByteSizeValue statefulIndexMaxHeapSize, ComponentState componentState, Alias base,
+                    ImmutableSet<String> affectedAliases) {
                 Set<String> roleNames = IndexedImmutableSet.of(roles.getCEntries().keySet());                
                 DeduplicatingCompactSubSetBuilder<String> roleSetBuilder = new DeduplicatingCompactSubSetBuilder<>(roleNames);
                 CompactMapGroupBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>> indexMapBuilder = new CompactMapGroupBuilder<>(
-                        indexMetadata.indexLikeObjects().keySet(), (k2) -> roleSetBuilder.createSubSetBuilder());
+                        base != null ? affectedAliases : indexMetadata.indexLikeObjects().keySet(), (k2) -> roleSetBuilder.createSubSetBuilder());
+                ImmutableSet<Meta.Alias> aliases = base != null ? indexMetadata.aliases().matching((a) -> affectedAliases.contains(a.nameForIndexPatternMatching()))
+                        : indexMetadata.aliases();
+                boolean capped = false;
 
                 ImmutableMap.Builder<WellKnownAction<?, ?, ?>, CompactMapGroupBuilder.MapBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>>> actionToAliasToRoles = //
                         new ImmutableMap.Builder<WellKnownAction<?, ?, ?>, CompactMapGroupBuilder.MapBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>>>()
@@ -1670,7 +1930,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                                     Action action = actions.get(permission);
 
                                     if (action instanceof WellKnownAction) {
-                                        for (Meta.Alias alias : indexPattern.iterateMatching(indexMetadata.aliases(), Meta.Alias::nameForIndexPatternMatching)) {
+                                        for (Meta.Alias alias : indexPattern.iterateMatching(aliases, Meta.Alias::nameForIndexPatternMatching)) {
                                             actionToAliasToRoles.get((WellKnownAction<?, ?, ?>) action).get(alias.nameForIndexPatternMatching()).add(roleName);
                                         }
                                     }
@@ -1680,7 +1940,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                                     ImmutableSet<WellKnownAction<?, ?, ?>> providedPrivileges = actions.indexLikeActionsPerformanceCritical()
                                             .matching((a) -> pattern.matches(a.name()));
 
-                                    for (Meta.Alias alias : indexPattern.iterateMatching(indexMetadata.aliases(), Meta.Alias::nameForIndexPatternMatching)) {
+                                    for (Meta.Alias alias : indexPattern.iterateMatching(aliases, Meta.Alias::nameForIndexPatternMatching)) {
                                         for (WellKnownAction<?, ?, ?> action : providedPrivileges) {
                                             actionToAliasToRoles.get(action).get(alias.nameForIndexPatternMatching()).add(roleName);
                                         }
@@ -1693,6 +1953,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                                 log.info("Size of precomputed index privileges exceeds configured limit ({}). Using capped data structure."
                                         + "This might lead to slightly lower performance during privilege evaluation. Consider raising {} or closing unneeded indices.",
                                         statefulIndexMaxHeapSize, PRECOMPUTED_PRIVILEGES_MAX_HEAP_SIZE);
+                                capped = true;
                                 break top;
                             }
                         }
@@ -1707,8 +1968,18 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 }
 
                 DeduplicatingCompactSubSetBuilder.Completed<String> completedRoleSetBuilder = roleSetBuilder.build();
-                this.estimatedByteSize = roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
-                this.actionToAliasToRoles = actionToAliasToRoles.build((b) -> b.build(subSetBuilder -> subSetBuilder.build(completedRoleSetBuilder)));
+                ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> builtActionToAliasToRoles = actionToAliasToRoles
+                        .build((b) -> b.build(subSetBuilder -> subSetBuilder.build(completedRoleSetBuilder)));
+
+                if (base != null) {
+                    this.estimatedByteSize = base.estimatedByteSize + roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                    this.actionToAliasToRoles = overlay(base.actionToAliasToRoles, builtActionToAliasToRoles, affectedAliases);
+                } else {
+                    this.estimatedByteSize = roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                    this.actionToAliasToRoles = builtActionToAliasToRoles;
+                }
+
+                this.capped = capped || (base != null && this.estimatedByteSize > statefulIndexMaxHeapSize.getBytes());
                 this.indexMetadata = indexMetadata;
 
                 this.universallyDeniedIndices = universallyDeniedIndices;
@@ -1777,6 +2048,10 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 return false;
             }
 
+            ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> getActionToAliasToRoles() {
+                return actionToAliasToRoles;
+            }
+
             @Override
             public ComponentState getComponentState() {
                 return this.componentState;
@@ -1795,13 +2070,25 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
             private final ComponentState componentState;
             private final Pattern universallyDeniedIndices;
             private final int estimatedByteSize;
+            final boolean capped;
 
             DataStream(SgDynamicConfiguration<Role> roles, ActionGroup.FlattenedIndex actionGroups, Actions actions, Meta indexMetadata,
                     Pattern universallyDeniedIndices, ByteSizeValue statefulIndexMaxHeapSize, ComponentState componentState) {
+                this(roles, actionGroups, actions, indexMetadata, universallyDeniedIndices, statefulIndexMaxHeapSize, componentState, null, null);
+            }
+
+            /**
+             * If base is non-null, only the entries for affectedDataStreams are computed. All other entries are taken from base.
+             */
+            DataStream(SgDynamicConfiguration<Role> roles, ActionGroup.FlattenedIndex actionGroups, Actions actions, Meta indexMetadata,
+                    Pattern universallyDeniedIndices, ByteSizeValue statefulIndexMaxHeapSize, ComponentState componentState, DataStream base,
+                    ImmutableSet<String> affectedDataStreams) {
+                Predicate<String> isAffected = base != null ? affectedDataStreams::contains : (d) -> true;
                 Set<String> roleNames = IndexedImmutableSet.of(roles.getCEntries().keySet());                
                 DeduplicatingCompactSubSetBuilder<String> roleSetBuilder = new DeduplicatingCompactSubSetBuilder<>(roleNames);
                 CompactMapGroupBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>> indexMapBuilder = new CompactMapGroupBuilder<>(
-                        indexMetadata.indexLikeObjects().keySet(), (k2) -> roleSetBuilder.createSubSetBuilder());
+                        base != null ? affectedDataStreams : indexMetadata.indexLikeObjects().keySet(), (k2) -> roleSetBuilder.createSubSetBuilder());
+                boolean capped = false;
 
                 ImmutableMap.Builder<WellKnownAction<?, ?, ?>, CompactMapGroupBuilder.MapBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>>> actionToDataStreamToRoles = //
                         new ImmutableMap.Builder<WellKnownAction<?, ?, ?>, CompactMapGroupBuilder.MapBuilder<String, DeduplicatingCompactSubSetBuilder.SubSetBuilder<String>>>()
@@ -1810,7 +2097,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 ImmutableMap.Builder<String, ImmutableList.Builder<Exception>> rolesToInitializationErrors = new ImmutableMap.Builder<String, ImmutableList.Builder<Exception>>()
                         .defaultValue((k) -> new ImmutableList.Builder<Exception>());
 
-                Set<String> dataStreamNames = indexMetadata.dataStreams().map(Meta.DataStream::nameForIndexPatternMatching);
+                Set<String> dataStreamNames = indexMetadata.dataStreams().map(Meta.DataStream::nameForIndexPatternMatching).matching(isAffected);
 
                 top: for (String roleName : roleNames) {
                     try {
@@ -1876,7 +2163,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                                     if (action instanceof WellKnownAction) {
                                         for (Meta.Alias alias : aliasPattern.iterateMatching(indexMetadata.aliases(), Meta.Alias::nameForIndexPatternMatching)) {
                                             alias.members().forEach((indexLikeObject) -> {
-                                                if (indexLikeObject instanceof DataStream) {
+                                                if (indexLikeObject instanceof DataStream && isAffected.test(indexLikeObject.nameForIndexPatternMatching())) {
                                                     actionToDataStreamToRoles.get((WellKnownAction<?, ?, ?>) action).get(indexLikeObject.nameForIndexPatternMatching())
                                                             .add(roleName);
                                                 }
@@ -1891,7 +2178,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
 
                                     for (Meta.Alias alias : aliasPattern.iterateMatching(indexMetadata.aliases(), Meta.IndexCollection::nameForIndexPatternMatching)) {
                                         alias.members().forEach((indexLikeObject) -> {
-                                            if (indexLikeObject instanceof DataStream) {
+                                            if (indexLikeObject instanceof DataStream && isAffected.test(indexLikeObject.nameForIndexPatternMatching())) {
                                                 for (WellKnownAction<?, ?, ?> action : providedPrivileges) {
                                                     actionToDataStreamToRoles.get((WellKnownAction<?, ?, ?>) action).get(indexLikeObject.nameForIndexPatternMatching())
                                                             .add(roleName);
@@ -1907,6 +2194,7 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                             log.info("Size of precomputed index privileges exceeds configured limit ({}). Using capped data structure."
                                     + "This might lead to slightly lower performance during privilege evaluation. Consider raising {} or closing unneeded indices.",
                                     statefulIndexMaxHeapSize, PRECOMPUTED_PRIVILEGES_MAX_HEAP_SIZE);
+                            capped = true;
                             break top;
                         }
 
@@ -1920,11 +2208,18 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 }
 
                 DeduplicatingCompactSubSetBuilder.Completed<String> completedRoleSetBuilder = roleSetBuilder.build();
+                ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> builtActionToDataStreamToRoles = actionToDataStreamToRoles
+                        .build((b) -> b.build(subSetBuilder -> subSetBuilder.build(completedRoleSetBuilder)));
 
-                this.estimatedByteSize = roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                if (base != null) {
+                    this.estimatedByteSize = base.estimatedByteSize + roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                    this.actionToAliasToRoles = overlay(base.actionToAliasToRoles, builtActionToDataStreamToRoles, affectedDataStreams);
+                } else {
+                    this.estimatedByteSize = roleSetBuilder.getEstimatedByteSize() + indexMapBuilder.getEstimatedByteSize();
+                    this.actionToAliasToRoles = builtActionToDataStreamToRoles;
+                }
 
-                this.actionToAliasToRoles = actionToDataStreamToRoles
-                        .build((b) -> b.build(subSetBuilder -> subSetBuilder.build(completedRoleSetBuilder)));
+                this.capped = capped || (base != null && this.estimatedByteSize > statefulIndexMaxHeapSize.getBytes());
                 this.indexMetadata = indexMetadata;
 
                 this.universallyDeniedIndices = universallyDeniedIndices;
@@ -1993,6 +2288,10 @@ public class RoleBasedActionAuthorization implements ActionAuthorization, Compon
                 return false;
             }
 
+            ImmutableMap<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> getActionToDataStreamToRoles() {
+                return actionToAliasToRoles;
+            }
+
             @Override
             public ComponentState getComponentState() {
                 return this.componentState;
@@ -193,6 +193,33 @@ public class ActionGroup implements Document<ActionGroup>, Hideable, StaticDefin
         private FlattenedIndex() {
             this.resolvedActionGroups = ImmutableMap.empty();
         }
+
+        /**
+         * Private constructor for restoring an instance from already resolved action groups
+         */
+        private FlattenedIndex(ImmutableMap<String, Set<String>> resolvedActionGroups) {
+            this.resolvedActionGroups = resolvedActionGroups;
+            this.size.set(this.resolvedActionGroups.size());
+            this.componentState.addMetrics("size", size, "init_rounds", initRounds);
+            this.componentState.initialized();
+        }
+
+        /**
+         * Restores a FlattenedIndex from the result of toBasicObject(). This does not need to resolve the nested action groups again.
+         */
+        public static FlattenedIndex parse(DocNode docNode) {
+            Map<String, Set<String>> resolved = new HashMap<>(docNode.size());
+
+            for (String key : docNode.keySet()) {
+                resolved.put(key, ImmutableSet.of(docNode.getAsListOfStrings(key)));
+            }
+
+            return new FlattenedIndex(ImmutableMap.of(resolved));
+        }
+
+        public Map<String, Set<String>> toBasicObject() {
+            return resolvedActionGroups;
+        }
         
         @Override
         public String toString() {
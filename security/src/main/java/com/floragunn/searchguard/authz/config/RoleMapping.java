@@ -36,6 +36,7 @@ import com.floragunn.codova.validation.ValidationErrors;
 import com.floragunn.codova.validation.ValidationResult;
 import com.floragunn.fluent.collections.ImmutableMap;
 import com.floragunn.fluent.collections.ImmutableSet;
+import com.floragunn.searchguard.authz.ReverseDnsResolver;
 import com.floragunn.searchguard.configuration.ConfigurationRepository;
 import com.floragunn.searchguard.configuration.Hideable;
 import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
@@ -181,8 +182,17 @@ public class RoleMapping implements Document<RoleMapping>, Hideable {
         private final ComponentState componentState = new ComponentState("role_mapping_index");
         private final MetricsLevel metricsLevel;
         private final Measurement<?> evaluations;
+        private final ReverseDnsResolver reverseDnsResolver;
 
         public InvertedIndex(SgDynamicConfiguration<RoleMapping> roleMappings, MetricsLevel metricsLevel) {
+            this(roleMappings, metricsLevel, null);
+        }
+
+        /**
+         * @param reverseDnsResolver used for resolving the host names of callers. If null, host names are resolved using a blocking lookup.
+         */
+        public InvertedIndex(SgDynamicConfiguration<RoleMapping> roleMappings, MetricsLevel metricsLevel, ReverseDnsResolver reverseDnsResolver) {
+            this.reverseDnsResolver = reverseDnsResolver;
 
             PatternMap.Builder<String> users = new PatternMap.Builder<>();
             PatternMap.Builder<String> backendRoles = new PatternMap.Builder<>();
@@ -246,8 +256,18 @@ public class RoleMapping implements Document<RoleMapping>, Hideable {
                     if (transportAddress != null) {
                         if (!byHostNames.isEmpty()) {
                             try (Meter subMeter = meter.detail("by_host_name")) {
-                                // The following may trigger a reverse DNS lookup
-                                result.addAll(byHostNames.get(transportAddress.address().getHostName()));
+                                String hostName;
+
+                                if (reverseDnsResolver != null) {
+                                    hostName = reverseDnsResolver.getHostName(transportAddress.address().getAddress());
+                                } else {
+                                    // The following may trigger a reverse DNS lookup
+                                    hostName = transportAddress.address().getHostName();
+                                }
+
+                                if (hostName != null) {
+                                    result.addAll(byHostNames.get(hostName));
+                                }
                                 // Backwards compatibility:
                                 result.addAll(byHostNames.get(transportAddress.getAddress()));
                             }
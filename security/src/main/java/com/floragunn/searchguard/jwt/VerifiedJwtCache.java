@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.floragunn.searchsupport.cstate.metrics.CacheStats;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * Remembers JWTs which have been successfully verified, so that repeated requests with the same token do not need to parse the token and check
+ * its signature again.
+ *
+ * Tokens are identified by the SHA-256 digest of their compact serialization. An entry is only valid until the exp claim of the token; tokens
+ * without exp claim are kept for at most the configured maximum TTL. Users of this class must call invalidateAll() when the keys used for
+ * verification change.
+ */
+public class VerifiedJwtCache<T> {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final Duration DEFAULT_MAX_TTL = Duration.ofMinutes(10);
+
+    private final Cache<String, Entry<T>> cache;
+
+    public VerifiedJwtCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_TTL);
+    }
+
+    public VerifiedJwtCache(int maxSize, Duration maxTtl) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(maxTtl.toMillis(), TimeUnit.MILLISECONDS).recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the verified token for the given encoded JWT, or null if the token is not cached or has expired.
+     */
+    public T get(String encodedJwt) {
+        String key = digest(encodedJwt);
+        Entry<T> entry = cache.getIfPresent(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            cache.invalidate(key);
+            return null;
+        }
+
+        return entry.verifiedToken;
+    }
+
+    /**
+     * Stores a verified token.
+     *
+     * @param expiresAtEpochSeconds the value of the exp claim of the token; may be null
+     */
+    public void put(String encodedJwt, T verifiedToken, Long expiresAtEpochSeconds) {
+        if (verifiedToken == null) {
+            return;
+        }
+
+        long expiresAtMillis = expiresAtEpochSeconds != null ? expiresAtEpochSeconds * 1000L : Long.MAX_VALUE;
+
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+
+        cache.put(digest(encodedJwt), new Entry<>(verifiedToken, expiresAtMillis));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return CacheStats.from(cache);
+    }
+
+    private static String digest(String encodedJwt) {
+        return Hashing.sha256().hashString(encodedJwt, StandardCharsets.UTF_8).toString();
+    }
+
+    private static class Entry<T> {
+        private final T verifiedToken;
+        private final long expiresAtMillis;
+
+        Entry(T verifiedToken, long expiresAtMillis) {
+            this.verifiedToken = verifiedToken;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.modules.api;
+
+import static org.elasticsearch.rest.RestRequest.Method.GET;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.client.internal.node.NodeClient;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestChannel;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.RestResponse;
+import org.elasticsearch.rest.RestStatus;
+
+import com.floragunn.searchsupport.action.StandardResponse;
+import com.floragunn.searchsupport.cstate.metrics.OpenMetricsWriter;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Provides the metrics of the component states in the Prometheus text format, or in the OpenMetrics text format if requested by the
+ * Accept header. Uses the same transport action as ComponentStateRestAction and thus requires the same privileges.
+ */
+public class ComponentStateMetricsRestAction extends BaseRestHandler {
+    private static final Logger log = LogManager.getLogger(ComponentStateMetricsRestAction.class);
+
+    public ComponentStateMetricsRestAction() {
+        super();
+    }
+
+    @Override
+    public List<Route> routes() {
+        return ImmutableList.of(new Route(GET, "/_searchguard/component/_metrics"), new Route(GET, "/_searchguard/component/{id}/_metrics"));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        String accept = request.header("Accept");
+        boolean openMetrics = accept != null && accept.contains("application/openmetrics-text");
+
+        return handleGet(request.param("id", "_all"), openMetrics, client);
+    }
+
+    private RestChannelConsumer handleGet(String id, boolean openMetrics, NodeClient client) {
+        return (RestChannel channel) -> {
+
+            try {
+                client.execute(GetComponentStateAction.INSTANCE, new GetComponentStateAction.Request(id, false),
+                        new ActionListener<GetComponentStateAction.Response>() {
+
+                            @Override
+                            public void onResponse(GetComponentStateAction.Response response) {
+                                try {
+                                    OpenMetricsWriter writer = new OpenMetricsWriter(openMetrics).add(response.getMergedComponentState());
+                                    channel.sendResponse(new RestResponse(RestStatus.OK, writer.getContentType(), writer.toString()));
+                                } catch (Exception e) {
+                                    onFailure(e);
+                                }
+                            }
+
+                            @Override
+                            public void onFailure(Exception e) {
+                                log.error("Error while rendering component state metrics", e);
+                                channel.sendResponse(new StandardResponse(e).toRestResponse());
+                            }
+                        });
+            } catch (Exception e) {
+                log.error(e);
+                channel.sendResponse(new StandardResponse(e).toRestResponse());
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return "Search Guard Component Metrics";
+    }
+}
@@ -141,6 +141,15 @@ public class ConfigConstants {
     public static final String SEARCHGUARD_AUDIT_RETRY_COUNT = "searchguard.audit.config.retry_count";
     public static final String SEARCHGUARD_AUDIT_RETRY_DELAY_MS = "searchguard.audit.config.retry_delay_ms";
 
+    //spool
+    public static final String SEARCHGUARD_AUDIT_SPOOL_ENABLED = "searchguard.audit.spool.enabled";
+    public static final String SEARCHGUARD_AUDIT_SPOOL_PATH = "searchguard.audit.spool.path";
+    public static final String SEARCHGUARD_AUDIT_SPOOL_MAX_DISK_USAGE = "searchguard.audit.spool.max_disk_usage";
+    public static final String SEARCHGUARD_AUDIT_SPOOL_SEGMENT_SIZE = "searchguard.audit.spool.segment_size";
+    public static final String SEARCHGUARD_AUDIT_SPOOL_FSYNC_MAX_RECORDS = "searchguard.audit.spool.fsync.max_records";
+    public static final String SEARCHGUARD_AUDIT_SPOOL_FSYNC_INTERVAL = "searchguard.audit.spool.fsync.interval";
+    public static final String SEARCHGUARD_AUDIT_SPOOL_MAX_RETRIES = "searchguard.audit.spool.max_retries";
+
 
     public static final String SEARCHGUARD_KERBEROS_KRB5_FILEPATH = "searchguard.kerberos.krb5_filepath";
     public static final String SEARCHGUARD_KERBEROS_ACCEPTOR_KEYTAB_FILEPATH = "searchguard.kerberos.acceptor_keytab_filepath";
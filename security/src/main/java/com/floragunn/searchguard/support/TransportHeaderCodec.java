@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.support;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+
+import com.floragunn.searchguard.user.User;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Encodes and decodes the values of the SG_USER_HEADER and SG_REMOTE_ADDRESS_HEADER transport headers.
+ *
+ * The compact format consists of the prefix "sgc:" followed by the Base64 encoded output of a StreamOutput. The first value in the stream
+ * is the format version. The encoded user is memoized in the User object; thus, a request which fans out to many shards encodes the user only once.
+ *
+ * Nodes which support the compact format announce this with the node attribute NODE_ATTRIBUTE. For other nodes, the legacy format based
+ * on Java serialization is used. When decoding, both formats are accepted.
+ */
+public class TransportHeaderCodec {
+
+    public static final String NODE_ATTRIBUTE = "sg_compact_transport_headers";
+    public static final int VERSION = 1;
+
+    private static final String PREFIX = "sgc:";
+
+    public static String encodeUser(User user, boolean compact) {
+        if (!compact) {
+            return Base64Helper.serializeObject(user);
+        }
+
+        int modificationCount = user.getModificationCount();
+        String result = user.getTransportHeader();
+
+        if (result != null) {
+            return result;
+        }
+
+        if (isCompactlyRepresentable(user)) {
+            try (BytesStreamOutput out = new BytesStreamOutput()) {
+                out.writeVInt(VERSION);
+                user.writeTo(out);
+                result = PREFIX + BaseEncoding.base64().encode(BytesReference.toBytes(out.bytes()));
+            } catch (IOException e) {
+                throw new ElasticsearchException("Error while encoding " + user, e);
+            }
+        } else {
+            // Attributes with types unknown to StreamOutput must keep their Java type; thus, we fall back to Java serialization here
+            result = Base64Helper.serializeObject(user);
+        }
+
+        user.setTransportHeader(result, modificationCount);
+
+        return result;
+    }
+
+    public static User decodeUser(String header) {
+        if (!isCompact(header)) {
+            return (User) Base64Helper.deserializeObject(header);
+        }
+
+        try (StreamInput in = openCompact(header)) {
+            User user = User.readFrom(in);
+            user.setTransportHeader(header, user.getModificationCount());
+            return user;
+        } catch (IOException e) {
+            throw new ElasticsearchException("Error while decoding user header", e);
+        }
+    }
+
+    public static String encodeRemoteAddress(InetSocketAddress address, boolean compact) {
+        if (!compact || address.getAddress() == null) {
+            return Base64Helper.serializeObject(address);
+        }
+
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.writeVInt(VERSION);
+            out.writeByteArray(address.getAddress().getAddress());
+            out.writeOptionalString(address.getHostString());
+            out.writeVInt(address.getPort());
+            return PREFIX + BaseEncoding.base64().encode(BytesReference.toBytes(out.bytes()));
+        } catch (IOException e) {
+            throw new ElasticsearchException("Error while encoding " + address, e);
+        }
+    }
+
+    public static InetSocketAddress decodeRemoteAddress(String header) {
+        if (!isCompact(header)) {
+            return (InetSocketAddress) Base64Helper.deserializeObject(header);
+        }
+
+        try (StreamInput in = openCompact(header)) {
+            byte[] address = in.readByteArray();
+            String hostString = in.readOptionalString();
+            int port = in.readVInt();
+            return new InetSocketAddress(InetAddress.getByAddress(hostString, address), port);
+        } catch (IOException e) {
+            throw new ElasticsearchException("Error while decoding remote address header", e);
+        }
+    }
+
+    public static boolean isCompact(String header) {
+        return header.startsWith(PREFIX);
+    }
+
+    public static boolean isSupportedBy(DiscoveryNode node) {
+        return node != null && String.valueOf(VERSION).equals(node.getAttributes().get(NODE_ATTRIBUTE));
+    }
+
+    private static StreamInput openCompact(String header) throws IOException {
+        StreamInput in = StreamInput.wrap(BaseEncoding.base64().decode(header.substring(PREFIX.length())));
+        int version = in.readVInt();
+
+        if (version != VERSION) {
+            in.close();
+            throw new IOException("Unsupported header format version " + version);
+        }
+
+        return in;
+    }
+
+    private static boolean isCompactlyRepresentable(User user) {
+        return (user.getSpecialAuthzConfig() == null || user.getSpecialAuthzConfig() instanceof String)
+                && isCompactlyRepresentable(user.getStructuredAttributes(), 0);
+    }
+
+    /**
+     * Only checks for types which are guaranteed to be read back by StreamInput.readGenericValue() with an equivalent Java type.
+     */
+    private static boolean isCompactlyRepresentable(Object value, int depth) {
+        if (depth > 20) {
+            return false;
+        }
+
+        if (value == null || value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Double
+                || value instanceof Float || value instanceof Boolean) {
+            return true;
+        } else if (value instanceof List) {
+            return isCompactlyRepresentable((Collection<?>) value, depth);
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!(entry.getKey() instanceof String) || !isCompactlyRepresentable(entry.getValue(), depth + 1)) {
+                    return false;
+                }
+            }
+
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private static boolean isCompactlyRepresentable(Collection<?> collection, int depth) {
+        for (Object element : collection) {
+            if (!isCompactlyRepresentable(element, depth + 1)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -62,8 +62,8 @@ import com.floragunn.searchguard.configuration.AdminDNs;
 import com.floragunn.searchguard.configuration.ClusterInfoHolder;
 import com.floragunn.searchguard.ssl.SslExceptionHandler;
 import com.floragunn.searchguard.ssl.transport.PrincipalExtractor;
-import com.floragunn.searchguard.support.Base64Helper;
 import com.floragunn.searchguard.support.ConfigConstants;
+import com.floragunn.searchguard.support.TransportHeaderCodec;
 import com.floragunn.searchguard.user.User;
 import com.floragunn.searchsupport.diag.DiagnosticContext;
 import com.google.common.collect.Maps;
@@ -190,9 +190,17 @@ public class SearchGuardInterceptor {
                 getThreadContext().putHeader(DiagnosticContext.ACTION_STACK_HEADER, actionStack);
             }
             
+            boolean compactHeaders = TransportHeaderCodec.isSupportedBy(connection.getNode());
+
+            if (!compactHeaders) {
+                // The headers will be re-created in the legacy format by ensureCorrectHeaders()
+                headerMap.computeIfPresent(ConfigConstants.SG_USER_HEADER, (k, v) -> TransportHeaderCodec.isCompact(v) ? null : v);
+                headerMap.computeIfPresent(ConfigConstants.SG_REMOTE_ADDRESS_HEADER, (k, v) -> TransportHeaderCodec.isCompact(v) ? null : v);
+            }
+
             getThreadContext().putHeader(headerMap);
 
-            ensureCorrectHeaders(remoteAdress0, user0, origin0);
+            ensureCorrectHeaders(remoteAdress0, user0, origin0, compactHeaders);
 
             if(actionTrace.isTraceEnabled()) {
                 getThreadContext().putHeader("_sg_trace"+System.currentTimeMillis()+"#"+UUID.randomUUID().toString(), Thread.currentThread().getName()+" IC -> "+action+" "+getThreadContext().getHeaders().entrySet().stream().filter(p->!p.getKey().startsWith("_sg_trace")).collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue())));
@@ -213,7 +221,7 @@ public class SearchGuardInterceptor {
         }
     }
 
-    private void ensureCorrectHeaders(final TransportAddress remoteAdr, final User origUser, final String origin) {
+    private void ensureCorrectHeaders(final TransportAddress remoteAdr, final User origUser, final String origin, boolean compactHeaders) {
         // keep original address
 
         if(origin != null && !origin.isEmpty() /*&& !Origin.LOCAL.toString().equalsIgnoreCase(origin)*/ && getThreadContext().getHeader(ConfigConstants.SG_ORIGIN_HEADER) == null) {
@@ -229,7 +237,7 @@ public class SearchGuardInterceptor {
             String remoteAddressHeader = getThreadContext().getHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER);
 
             if(remoteAddressHeader == null) {
-                getThreadContext().putHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER, Base64Helper.serializeObject(remoteAdr.address()));
+                getThreadContext().putHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER, TransportHeaderCodec.encodeRemoteAddress(remoteAdr.address(), compactHeaders));
             }
         }
 
@@ -237,7 +245,7 @@ public class SearchGuardInterceptor {
             String userHeader = getThreadContext().getHeader(ConfigConstants.SG_USER_HEADER);
 
             if(userHeader == null) {
-                getThreadContext().putHeader(ConfigConstants.SG_USER_HEADER, Base64Helper.serializeObject(origUser));
+                getThreadContext().putHeader(ConfigConstants.SG_USER_HEADER, TransportHeaderCodec.encodeUser(origUser, compactHeaders));
             }
         }
     }
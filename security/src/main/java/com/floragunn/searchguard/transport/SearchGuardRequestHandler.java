@@ -17,7 +17,6 @@
 
 package com.floragunn.searchguard.transport;
 
-import java.net.InetSocketAddress;
 import java.security.cert.X509Certificate;
 import java.util.Objects;
 import java.util.UUID;
@@ -43,9 +42,9 @@ import com.floragunn.searchguard.configuration.AdminDNs;
 import com.floragunn.searchguard.ssl.SslExceptionHandler;
 import com.floragunn.searchguard.ssl.transport.PrincipalExtractor;
 import com.floragunn.searchguard.ssl.transport.SearchGuardSSLRequestHandler;
-import com.floragunn.searchguard.support.Base64Helper;
 import com.floragunn.searchguard.support.ConfigConstants;
 import com.floragunn.searchguard.support.HeaderHelper;
+import com.floragunn.searchguard.support.TransportHeaderCodec;
 import com.floragunn.searchguard.user.AuthDomainInfo;
 import com.floragunn.searchguard.user.User;
 import com.floragunn.searchsupport.diag.DiagnosticContext;
@@ -124,13 +123,13 @@ public class SearchGuardRequestHandler<T extends TransportRequest> extends Searc
                 final String userHeader = getThreadContext().getHeader(ConfigConstants.SG_USER_HEADER);
 
                 if(!Strings.isNullOrEmpty(userHeader)) {
-                    getThreadContext().putTransient(ConfigConstants.SG_USER, Objects.requireNonNull((User) Base64Helper.deserializeObject(userHeader)));
+                    getThreadContext().putTransient(ConfigConstants.SG_USER, Objects.requireNonNull(TransportHeaderCodec.decodeUser(userHeader)));
                 }
 
                 final String originalRemoteAddress = getThreadContext().getHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER);
 
                 if(!Strings.isNullOrEmpty(originalRemoteAddress)) {
-                    getThreadContext().putTransient(ConfigConstants.SG_REMOTE_ADDRESS, new TransportAddress((InetSocketAddress) Base64Helper.deserializeObject(originalRemoteAddress)));
+                    getThreadContext().putTransient(ConfigConstants.SG_REMOTE_ADDRESS, new TransportAddress(TransportHeaderCodec.decodeRemoteAddress(originalRemoteAddress)));
                 }
 
                 if(actionTrace.isTraceEnabled()) {
@@ -184,13 +183,13 @@ public class SearchGuardRequestHandler<T extends TransportRequest> extends Searc
                         //user can be null when a node client wants connect
                         //getThreadContext().putTransient(ConfigConstants.SG_USER, User.SG_INTERNAL);
                     } else {
-                        getThreadContext().putTransient(ConfigConstants.SG_USER, Objects.requireNonNull((User) Base64Helper.deserializeObject(userHeader)));
+                        getThreadContext().putTransient(ConfigConstants.SG_USER, Objects.requireNonNull(TransportHeaderCodec.decodeUser(userHeader)));
                     }
 
                     String originalRemoteAddress = getThreadContext().getHeader(ConfigConstants.SG_REMOTE_ADDRESS_HEADER);
 
                     if(!Strings.isNullOrEmpty(originalRemoteAddress)) {
-                        getThreadContext().putTransient(ConfigConstants.SG_REMOTE_ADDRESS, new TransportAddress((InetSocketAddress) Base64Helper.deserializeObject(originalRemoteAddress)));
+                        getThreadContext().putTransient(ConfigConstants.SG_REMOTE_ADDRESS, new TransportAddress(TransportHeaderCodec.decodeRemoteAddress(originalRemoteAddress)));
                     } else {
                         getThreadContext().putTransient(ConfigConstants.SG_REMOTE_ADDRESS, new TransportAddress(request.remoteAddress()));
                     }
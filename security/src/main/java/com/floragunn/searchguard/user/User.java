@@ -17,17 +17,21 @@
 
 package com.floragunn.searchguard.user;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
 
 import com.floragunn.codova.config.templates.AttributeSource;
 import com.google.common.collect.Lists;
@@ -70,6 +74,16 @@ public class User implements Serializable, UserInformation, AttributeSource {
     private boolean isInjected = false;
     private transient boolean authzComplete = false;
 
+    /**
+     * Incremented after each modification of this user. A memoized transport header is only valid if it was created for the current count.
+     */
+    private transient volatile int modificationCount;
+
+    /**
+     * The memoized transport header representation of this user
+     */
+    private transient volatile MemoizedTransportHeader transportHeader;
+
     public User(String name, String subName, AuthDomainInfo authDomainInfo, String type, Set<String> roles, Set<String> searchGuardRoles,
             Object specialAuthzConfig, String requestedTenant, Map<String, Object> structuredAttributes, Map<String, String> attributes, boolean authzComplete) {
         super();
@@ -162,6 +176,7 @@ public class User implements Serializable, UserInformation, AttributeSource {
      */
     public final void addRole(final String role) {
         this.roles.add(role);
+        this.modified();
     }
 
     /**
@@ -172,6 +187,7 @@ public class User implements Serializable, UserInformation, AttributeSource {
     public final void addRoles(final Collection<String> roles) {
         if (roles != null) {
             this.roles.addAll(roles);
+            this.modified();
         }
     }
 
@@ -192,6 +208,7 @@ public class User implements Serializable, UserInformation, AttributeSource {
     public final void addAttributes(final Map<String, String> attributes) {
         if (attributes != null) {
             this.attributes.putAll(attributes);
+            this.modified();
         }
     }
 
@@ -201,6 +218,7 @@ public class User implements Serializable, UserInformation, AttributeSource {
 
     public final void setRequestedTenant(String requestedTenant) {
         this.requestedTenant = requestedTenant;
+        this.modified();
     }
 
     public final String toStringWithAttributes() {
@@ -332,7 +350,7 @@ public class User implements Serializable, UserInformation, AttributeSource {
     }
 
     public Map<String, Object> getStructuredAttributes() {
-        return structuredAttributes;
+        return structuredAttributes != null ? Collections.unmodifiableMap(structuredAttributes) : null;
     }
 
     public String getAttributeAsString(String key) {
@@ -347,15 +365,18 @@ public class User implements Serializable, UserInformation, AttributeSource {
 
     public void addStructuredAttribute(String key, Object value) {
         structuredAttributes.put(key, value);
+        this.modified();
     }
 
     public void addStructuredAttributesByJsonPath(Map<String, JsonPath> jsonPathMap, Object source) {
         Attributes.addAttributesByJsonPath(jsonPathMap, source, this.structuredAttributes);
+        this.modified();
     }
 
     public final void addSearchGuardRoles(final Collection<String> sgRoles) {
         if (sgRoles != null && this.searchGuardRoles != null) {
             this.searchGuardRoles.addAll(sgRoles);
+            this.modified();
         }
     }
 
@@ -375,6 +396,79 @@ public class User implements Serializable, UserInformation, AttributeSource {
         return authzComplete;
     }
 
+    /**
+     * Writes this user in the compact binary format used for transport headers. See TransportHeaderCodec.
+     * 
+     * The authzComplete flag is not written, just as with Java serialization.
+     */
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(name);
+        out.writeOptionalString(subName);
+        out.writeOptionalString(type);
+        out.writeOptionalString(authDomain);
+        out.writeOptionalStringCollection(roles);
+        out.writeOptionalStringCollection(searchGuardRoles);
+        out.writeOptionalString((String) specialAuthzConfig);
+        out.writeOptionalString(requestedTenant);
+        out.writeGenericValue(structuredAttributes);
+        out.writeGenericValue(attributes);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static User readFrom(StreamInput in) throws IOException {
+        String name = in.readString();
+        String subName = in.readOptionalString();
+        String type = in.readOptionalString();
+        String authDomain = in.readOptionalString();
+        List<String> roles = in.readOptionalStringCollectionAsList();
+        List<String> searchGuardRoles = in.readOptionalStringCollectionAsList();
+        String specialAuthzConfig = in.readOptionalString();
+        String requestedTenant = in.readOptionalString();
+        Map<String, Object> structuredAttributes = (Map<String, Object>) in.readGenericValue();
+        Map<String, String> attributes = (Map<String, String>) in.readGenericValue();
+
+        User user = new User(name, subName, null, type, roles != null ? new HashSet<>(roles) : null,
+                searchGuardRoles != null ? new HashSet<>(searchGuardRoles) : null, specialAuthzConfig, requestedTenant,
+                structuredAttributes != null ? new HashMap<>(structuredAttributes) : null, attributes != null ? new HashMap<>(attributes) : null,
+                false);
+        user.authDomain = authDomain;
+        return user;
+    }
+
+    /**
+     * Returns the memoized transport header representation of this user or null if there is none for the current state of this user. Only to be
+     * used by TransportHeaderCodec.
+     */
+    public String getTransportHeader() {
+        MemoizedTransportHeader transportHeader = this.transportHeader;
+
+        if (transportHeader != null && transportHeader.modificationCount == this.modificationCount) {
+            return transportHeader.value;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the modification count which must be obtained before encoding this user and passed to setTransportHeader(). Only to be used by
+     * TransportHeaderCodec.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Memoizes the transport header representation of this user. If the user was modified since the given modification count was obtained,
+     * the memoized value will be never returned. Only to be used by TransportHeaderCodec.
+     */
+    public void setTransportHeader(String transportHeader, int modificationCount) {
+        this.transportHeader = new MemoizedTransportHeader(transportHeader, modificationCount);
+    }
+
+    private void modified() {
+        this.modificationCount++;
+    }
+
     public Builder copy() {
         Builder builder = new Builder();
         builder.name = name;
@@ -391,6 +485,16 @@ public class User implements Serializable, UserInformation, AttributeSource {
         return builder;
     }
 
+    private static final class MemoizedTransportHeader {
+        private final String value;
+        private final int modificationCount;
+
+        MemoizedTransportHeader(String value, int modificationCount) {
+            this.value = value;
+            this.modificationCount = modificationCount;
+        }
+    }
+
     public static class Builder {
         private String name;
         private String subName;
@@ -518,6 +622,7 @@ public class User implements Serializable, UserInformation, AttributeSource {
         }
 
         this.authDomain = authDomain;
+        this.modified();
     }
 
     @Override
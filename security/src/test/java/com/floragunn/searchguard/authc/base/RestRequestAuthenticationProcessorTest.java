@@ -56,7 +56,7 @@ public class RestRequestAuthenticationProcessorTest {
     @Mock private HttpAuthenticationFrontend authenticationFrontend;
     @Mock private AdminDNs adminDns;
     @Mock private PrivilegesEvaluator privilegesEvaluator;
-    @SuppressWarnings("unchecked") @Mock private Cache<AuthCredentials, User> userCache;
+    @Mock private UserCache userCache;
     @SuppressWarnings("unchecked") @Mock private Cache<String, User> impersonationCache;
     @Mock private AuditLog auditLog;
     @Mock private BlockedUserRegistry blockedUserRegistry;
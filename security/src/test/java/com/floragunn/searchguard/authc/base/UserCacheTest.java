@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authc.base;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.floragunn.codova.config.net.CacheConfig;
+import com.floragunn.searchguard.authc.AuthenticationDomain;
+import com.floragunn.searchguard.authc.CredentialsException;
+import com.floragunn.searchguard.authc.rest.HttpAuthenticationFrontend;
+import com.floragunn.searchguard.user.AuthCredentials;
+import com.floragunn.searchguard.user.User;
+
+public class UserCacheTest {
+
+    @Test
+    public void concurrentLookupsShareOneBackendCall() {
+        AuthenticationDomain<HttpAuthenticationFrontend> domain = domain("ldap/a");
+        UserCache userCache = new UserCache();
+        userCache.update(CacheConfig.DEFAULT, true, List.of(domain));
+
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<User> pending = new CompletableFuture<>();
+
+        CompletableFuture<User> first = userCache.get(domain, credentials("user", "secret"), () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<User> second = userCache.get(domain, credentials("user", "secret"), () -> {
+            loads.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, loads.get());
+
+        pending.complete(User.forUser("user").build());
+
+        Assert.assertEquals("user", second.join().getName());
+    }
+
+    @Test
+    public void failedLookupsAreNotCached() {
+        AuthenticationDomain<HttpAuthenticationFrontend> domain = domain("ldap/a");
+        UserCache userCache = new UserCache();
+        userCache.update(CacheConfig.DEFAULT, true, List.of(domain));
+
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<User> first = userCache.get(domain, credentials("user", "wrong"), () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.failedFuture(new CredentialsException("User not authenticated"));
+        });
+        Assert.assertTrue(first.isCompletedExceptionally());
+
+        userCache.get(domain, credentials("user", "wrong"), () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(User.forUser("user").build());
+        });
+
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void reloadOnlyInvalidatesChangedDomains() {
+        AuthenticationDomain<HttpAuthenticationFrontend> unchangedDomain = domain("ldap/a");
+        AuthenticationDomain<HttpAuthenticationFrontend> changedDomain = domain("jwt/b");
+        UserCache userCache = new UserCache();
+        userCache.update(CacheConfig.DEFAULT, true, List.of(unchangedDomain, changedDomain));
+
+        userCache.get(unchangedDomain, credentials("user1", "secret"), () -> CompletableFuture.completedFuture(User.forUser("user1").build()));
+        userCache.get(changedDomain, credentials("user2", "secret"), () -> CompletableFuture.completedFuture(User.forUser("user2").build()));
+        Assert.assertEquals(2, userCache.getCache().size());
+
+        userCache.update(CacheConfig.DEFAULT, true, List.of(unchangedDomain, domain("jwt/c")));
+
+        Assert.assertEquals(1, userCache.getCache().size());
+
+        AtomicInteger loads = new AtomicInteger();
+        userCache.get(unchangedDomain, credentials("user1", "secret"), () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(User.forUser("user1").build());
+        });
+
+        Assert.assertEquals(0, loads.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AuthenticationDomain<HttpAuthenticationFrontend> domain(String fingerprint) {
+        AuthenticationDomain<HttpAuthenticationFrontend> domain = Mockito.mock(AuthenticationDomain.class);
+        Mockito.when(domain.getConfigFingerprint()).thenReturn(fingerprint);
+        return domain;
+    }
+
+    private static AuthCredentials credentials(String userName, String password) {
+        return AuthCredentials.forUser(userName).password(password).complete().build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.floragunn.searchguard.authc.blocking;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hamcrest.core.Is;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WildcardVerdictBasedBlockRegistryTest {
+
+    @Test
+    public void when_user_is_blocked_allow_others() {
+        Set<String> allows = new HashSet<>();
+        Set<String> disallows = new HashSet<>();
+
+        disallows.add("evil_user");
+
+        WildcardVerdictBasedBlockRegistry registry = new WildcardVerdictBasedBlockRegistry(allows, disallows);
+        Assert.assertThat(registry.isBlocked("evil_user"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("evil_user2"), Is.is(false));
+        Assert.assertThat(registry.isBlocked("good_user"), Is.is(false));
+    }
+
+    @Test
+    public void when_wildcard_is_blocked_allow_others() {
+        Set<String> allows = new HashSet<>();
+        Set<String> disallows = new HashSet<>();
+
+        disallows.add("evil_*");
+        disallows.add("bot_??");
+        disallows.add("*.attacker.com");
+
+        WildcardVerdictBasedBlockRegistry registry = new WildcardVerdictBasedBlockRegistry(allows, disallows);
+        Assert.assertThat(registry.isBlocked("evil_user"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("evil_"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("bot_01"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("bot_001"), Is.is(false));
+        Assert.assertThat(registry.isBlocked("x.attacker.com"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("x.attacker.company"), Is.is(false));
+        Assert.assertThat(registry.isBlocked("good_user"), Is.is(false));
+    }
+
+    @Test
+    public void when_regex_is_blocked_allow_others() {
+        Set<String> allows = new HashSet<>();
+        Set<String> disallows = new HashSet<>();
+
+        disallows.add("/user[0-9]+/");
+
+        WildcardVerdictBasedBlockRegistry registry = new WildcardVerdictBasedBlockRegistry(allows, disallows);
+        Assert.assertThat(registry.isBlocked("user123"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("user"), Is.is(false));
+        Assert.assertThat(registry.isBlocked("user1x"), Is.is(false));
+    }
+
+    @Test
+    public void when_wildcard_is_allowed_block_others() {
+        Set<String> allows = new HashSet<>();
+        Set<String> disallows = new HashSet<>();
+
+        allows.add("service_*");
+        disallows.add("service_legacy");
+
+        WildcardVerdictBasedBlockRegistry registry = new WildcardVerdictBasedBlockRegistry(allows, disallows);
+        Assert.assertThat(registry.isBlocked("service_a"), Is.is(false));
+        Assert.assertThat(registry.isBlocked("service_legacy"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("admin"), Is.is(true));
+    }
+
+    @Test
+    public void when_many_patterns_are_blocked_match_all_of_them() {
+        Set<String> allows = new HashSet<>();
+        Set<String> disallows = new HashSet<>();
+
+        for (int i = 0; i < 10000; i++) {
+            disallows.add("user_" + i + "_*");
+        }
+
+        WildcardVerdictBasedBlockRegistry registry = new WildcardVerdictBasedBlockRegistry(allows, disallows);
+        Assert.assertThat(registry.isBlocked("user_0_a"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("user_9999_b"), Is.is(true));
+        Assert.assertThat(registry.isBlocked("user_10000_b"), Is.is(false));
+    }
+
+}
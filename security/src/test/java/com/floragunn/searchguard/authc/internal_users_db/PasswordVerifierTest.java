@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authc.internal_users_db;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.floragunn.searchsupport.StaticSettings;
+
+public class PasswordVerifierTest {
+
+    private PasswordVerifier subject;
+
+    @Before
+    public void setUp() {
+        subject = new PasswordVerifier(StaticSettings.EMPTY, null);
+    }
+
+    @After
+    public void tearDown() {
+        subject.shutdown();
+    }
+
+    @Test
+    public void verify() {
+        String hash = hash("secret");
+
+        Assert.assertTrue(subject.verify("user", hash, bytes("secret")).join());
+        Assert.assertFalse(subject.verify("user", hash, bytes("wrong")).join());
+    }
+
+    @Test
+    public void verifiedCredentialsAreOnlyValidForSameHash() {
+        String oldHash = hash("secret");
+        String newHash = hash("new_secret");
+
+        Assert.assertTrue(subject.verify("user", oldHash, bytes("secret")).join());
+        // The cached verification must not be used for the changed password hash
+        Assert.assertFalse(subject.verify("user", newHash, bytes("secret")).join());
+        Assert.assertTrue(subject.verify("user", newHash, bytes("new_secret")).join());
+    }
+
+    @Test
+    public void passwordIsZeroed() {
+        byte[] password = bytes("secret");
+
+        subject.verify("user", hash("secret"), password).join();
+
+        Assert.assertArrayEquals(new byte[password.length], password);
+    }
+
+    private static byte[] bytes(String password) {
+        return password.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String hash(String password) {
+        byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        return OpenBSDBCrypt.generate(password.toCharArray(), salt, 4);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authz;
+
+import static com.floragunn.searchsupport.meta.Meta.Mock.indices;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.codova.documents.DocNode;
+import com.floragunn.codova.documents.Format;
+import com.floragunn.fluent.collections.ImmutableSet;
+import com.floragunn.searchguard.authz.actions.Action;
+import com.floragunn.searchguard.authz.actions.Actions;
+import com.floragunn.searchguard.authz.actions.ResolvedIndices;
+import com.floragunn.searchguard.authz.config.Role;
+import com.floragunn.searchguard.configuration.CType;
+import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
+import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.meta.Meta;
+
+public class PrivilegesDecisionCacheTest {
+
+    private static final Actions actions = new Actions(null);
+    private static final Meta META = indices("index_a1", "index_a2", "index_b1");
+    private static final Action SEARCH = actions.get("indices:data/read/search");
+
+    @Test
+    public void onlyDefinitiveResultsAreCached() {
+        PrivilegesDecisionCache subject = new PrivilegesDecisionCache(StaticSettings.EMPTY);
+
+        PrivilegesDecisionCache.Key okKey = key("role_a", "index_a1");
+        PrivilegesDecisionCache.Key insufficientKey = key("role_a", "index_b1");
+        PrivilegesDecisionCache.Key partialKey = key("role_a", "index_a1", "index_b1");
+
+        subject.put(okKey, PrivilegesEvaluationResult.OK);
+        subject.put(insufficientKey, PrivilegesEvaluationResult.INSUFFICIENT);
+        subject.put(partialKey, PrivilegesEvaluationResult.PARTIALLY_OK);
+
+        Assert.assertSame(PrivilegesEvaluationResult.OK, subject.get(key("role_a", "index_a1")));
+        Assert.assertSame(PrivilegesEvaluationResult.INSUFFICIENT, subject.get(key("role_a", "index_b1")));
+        Assert.assertNull(subject.get(partialKey));
+        Assert.assertNull(subject.get(key("role_b", "index_a1")));
+    }
+
+    @Test
+    public void rolesWithTemplatesAreNotCacheable() throws Exception {
+        PrivilegesDecisionCache subject = new PrivilegesDecisionCache(StaticSettings.EMPTY);
+
+        SgDynamicConfiguration<Role> roles = SgDynamicConfiguration.fromMap(DocNode.parse(Format.YAML).from(//
+                "static_role:\n" + //
+                        "  index_permissions:\n" + //
+                        "  - index_patterns: ['index_a*']\n" + //
+                        "    allowed_actions: ['*']\n" + //
+                        "templated_role:\n" + //
+                        "  index_permissions:\n" + //
+                        "  - index_patterns: ['index_${user.attrs.dept_no}']\n" + //
+                        "    allowed_actions: ['*']\n"),
+                CType.ROLES, null).get();
+
+        subject.put(key("static_role", "index_a1"), PrivilegesEvaluationResult.OK);
+        subject.onRolesChange(roles);
+
+        Assert.assertNull(subject.get(key("static_role", "index_a1")));
+        Assert.assertTrue(subject.isCacheable(ImmutableSet.of("static_role")));
+        Assert.assertFalse(subject.isCacheable(ImmutableSet.of("static_role", "templated_role")));
+    }
+
+    @Test
+    public void metadataChangeClearsCache() {
+        PrivilegesDecisionCache subject = new PrivilegesDecisionCache(StaticSettings.EMPTY);
+
+        subject.put(key("role_a", "index_a1"), PrivilegesEvaluationResult.OK);
+        subject.onMetadataChange();
+
+        Assert.assertNull(subject.get(key("role_a", "index_a1")));
+    }
+
+    @Test
+    public void statefulPermissionsUpdateClearsCache() {
+        PrivilegesDecisionCache subject = new PrivilegesDecisionCache(StaticSettings.EMPTY);
+
+        subject.put(key("role_a", "index_a1"), PrivilegesEvaluationResult.OK);
+        subject.onStatefulPermissionsUpdate();
+
+        Assert.assertNull(subject.get(key("role_a", "index_a1")));
+    }
+
+    @Test
+    public void keyDependsOnStatefulMetadataVersion() {
+        PrivilegesDecisionCache subject = new PrivilegesDecisionCache(StaticSettings.EMPTY);
+
+        subject.put(key("role_a", 1, "index_a1"), PrivilegesEvaluationResult.OK);
+
+        Assert.assertSame(PrivilegesEvaluationResult.OK, subject.get(key("role_a", 1, "index_a1")));
+        Assert.assertNull(subject.get(key("role_a", 2, "index_a1")));
+    }
+
+    private static PrivilegesDecisionCache.Key key(String role, String... indices) {
+        return key(role, 1, indices);
+    }
+
+    private static PrivilegesDecisionCache.Key key(String role, long statefulMetadataVersion, String... indices) {
+        return new PrivilegesDecisionCache.Key(ImmutableSet.of(role), SEARCH, ImmutableSet.of(SEARCH), ResolvedIndices.of(META, indices).getLocal(),
+                SEARCH.scope(), false, statefulMetadataVersion, null);
+    }
+}
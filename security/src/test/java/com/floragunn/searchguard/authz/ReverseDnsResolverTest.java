@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.authz;
+
+import java.net.InetAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.searchsupport.StaticSettings;
+
+public class ReverseDnsResolverTest {
+
+    @Test
+    public void resolvedHostNamesAreCached() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        ReverseDnsResolver subject = new ReverseDnsResolver(StaticSettings.EMPTY, (address) -> {
+            lookups.incrementAndGet();
+            return "host.example.com";
+        });
+
+        try {
+            InetAddress address = InetAddress.getByAddress(new byte[] { 10, 0, 0, 1 });
+
+            Assert.assertEquals("host.example.com", subject.getHostName(address));
+            Assert.assertEquals("host.example.com", subject.getHostName(address));
+            Assert.assertEquals(1, lookups.get());
+        } finally {
+            subject.shutdown();
+        }
+    }
+
+    @Test
+    public void slowLookupUsesFallback() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        StaticSettings settings = new StaticSettings(Settings.builder().put(ReverseDnsResolver.TIMEOUT.name(), "10ms")
+                .put(ReverseDnsResolver.FALLBACK.name(), "none").build(), null);
+        ReverseDnsResolver subject = new ReverseDnsResolver(settings, (address) -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow.example.com";
+        });
+
+        try {
+            InetAddress address = InetAddress.getByAddress(new byte[] { 10, 0, 0, 2 });
+
+            Assert.assertNull(subject.getHostName(address));
+
+            latch.countDown();
+
+            for (int i = 0; i < 100 && !"slow.example.com".equals(subject.getHostName(address)); i++) {
+                Thread.sleep(10);
+            }
+
+            Assert.assertEquals("slow.example.com", subject.getHostName(address));
+        } finally {
+            subject.shutdown();
+        }
+    }
+
+    @Test
+    public void failedLookupYieldsIpAddress() throws Exception {
+        ReverseDnsResolver subject = new ReverseDnsResolver(StaticSettings.EMPTY, (address) -> address.getHostAddress());
+
+        try {
+            InetAddress address = InetAddress.getByAddress(new byte[] { 10, 0, 0, 3 });
+
+            Assert.assertEquals("10.0.0.3", subject.getHostName(address));
+        } finally {
+            subject.shutdown();
+        }
+    }
+}
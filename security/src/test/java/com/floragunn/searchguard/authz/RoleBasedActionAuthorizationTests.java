@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -52,13 +53,15 @@ import com.floragunn.searchguard.configuration.CType;
 import com.floragunn.searchguard.configuration.SgDynamicConfiguration;
 import com.floragunn.searchguard.user.User;
 import com.floragunn.searchsupport.meta.Meta;
+import com.selectivem.collections.ImmutableCompactSubSet;
 import org.mockito.Mockito;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ RoleBasedActionAuthorizationTests.ClusterPermissions.class, RoleBasedActionAuthorizationTests.IndexPermissions.class,
         RoleBasedActionAuthorizationTests.IndexPermissionsSpecial.class, RoleBasedActionAuthorizationTests.AliasPermissions.class,
         RoleBasedActionAuthorizationTests.AliasPermissionsSpecial.class, RoleBasedActionAuthorizationTests.DataStreamPermissions.class,
-        RoleBasedActionAuthorizationTests.FailureStoreDataStreamPermissionsTest.class })
+        RoleBasedActionAuthorizationTests.FailureStoreDataStreamPermissionsTest.class,
+        RoleBasedActionAuthorizationTests.StatefulPermissionsUpdate.class })
 public class RoleBasedActionAuthorizationTests {
 
     private static final Actions actions = new Actions(null);
@@ -723,6 +726,134 @@ public class RoleBasedActionAuthorizationTests {
 
     }
 
+    public static class StatefulPermissionsUpdate {
+
+        @Test
+        public void incrementalUpdate() throws Exception {
+            Action indexAction = actions.get("indices:data/read/search");
+
+            SgDynamicConfiguration<Role> roles = SgDynamicConfiguration.fromMap(DocNode.parse(Format.YAML).from(//
+                    "test_role:\n" + //
+                            "  index_permissions:\n" + //
+                            "  - index_patterns: ['index_c*']\n" + //
+                            "    allowed_actions: ['indices:data/read/search']\n" + //
+                            "  alias_permissions:\n" + //
+                            "  - alias_patterns: ['alias_a*']\n" + //
+                            "    allowed_actions: ['indices:data/read/search']\n" + //
+                            "  data_stream_permissions:\n" + //
+                            "  - data_stream_patterns: ['ds_a*']\n" + //
+                            "    allowed_actions: ['indices:data/read/search']"),
+                    CType.ROLES, null).get();
+
+            Meta oldIndexMetadata = indices("index_a1", "index_a2", "index_b1", "index_c1")//
+                    .alias("alias_a1").of("index_a1")//
+                    .alias("alias_b").of("index_b1");
+
+            Meta newIndexMetadata = indices("index_a1", "index_a2", "index_b1", "index_c1", "index_c2")//
+                    .alias("alias_a1").of("index_a2")//
+                    .alias("alias_a2").of("index_b1")//
+                    .alias("alias_b").of("index_b1");
+
+            Meta newestIndexMetadata = newIndexMetadata.dataStream("ds_a1").of(".ds-ds_a1-xyz-0001")//
+                    .dataStream("ds_b1").of(".ds-ds_b1-xyz-0001");
+
+            RoleBasedActionAuthorization subject = new RoleBasedActionAuthorization(roles, ActionGroup.FlattenedIndex.EMPTY, actions,
+                    oldIndexMetadata, ImmutableSet.empty(), STATEFUL_SIZE);
+
+            RoleBasedActionAuthorization.StatefulPermissions initialStateful = subject.getStatefulPermissions();
+
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(initialStateful.index.getActionToIndexToRoles(), indexAction, "index_c1"));
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(initialStateful.alias.getActionToAliasToRoles(), indexAction, "alias_a1"));
+            Assert.assertEquals(ImmutableSet.empty(), roles(initialStateful.alias.getActionToAliasToRoles(), indexAction, "alias_b"));
+
+            // First update: new index, new alias and changed alias membership
+
+            subject.update(newIndexMetadata);
+
+            RoleBasedActionAuthorization.StatefulPermissions stateful = subject.getStatefulPermissions();
+            Assert.assertNotSame(initialStateful, stateful);
+            Assert.assertSame(newIndexMetadata, stateful.indexMetadata);
+
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(stateful.index.getActionToIndexToRoles(), indexAction, "index_c1"));
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(stateful.index.getActionToIndexToRoles(), indexAction, "index_c2"));
+            Assert.assertEquals(ImmutableSet.empty(), roles(stateful.index.getActionToIndexToRoles(), indexAction, "index_a1"));
+            Assert.assertEquals(ImmutableSet.empty(), roles(stateful.index.getActionToIndexToRoles(), indexAction, "index_b1"));
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(stateful.alias.getActionToAliasToRoles(), indexAction, "alias_a1"));
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(stateful.alias.getActionToAliasToRoles(), indexAction, "alias_a2"));
+            Assert.assertEquals(ImmutableSet.empty(), roles(stateful.alias.getActionToAliasToRoles(), indexAction, "alias_b"));
+
+            assertStatefulPermissionsEqualToRebuilt(subject, roles, newIndexMetadata, indexAction,
+                    ImmutableList.of("index_a1", "index_a2", "index_b1", "index_c1", "index_c2"), ImmutableList.of("alias_a1", "alias_a2", "alias_b"),
+                    ImmutableList.empty());
+
+            // Second update: new data streams
+
+            subject.update(newestIndexMetadata);
+
+            stateful = subject.getStatefulPermissions();
+            Assert.assertSame(newestIndexMetadata, stateful.indexMetadata);
+
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(stateful.dataStream.getActionToDataStreamToRoles(), indexAction, "ds_a1"));
+            Assert.assertEquals(ImmutableSet.empty(), roles(stateful.dataStream.getActionToDataStreamToRoles(), indexAction, "ds_b1"));
+            Assert.assertEquals(ImmutableSet.empty(), roles(stateful.index.getActionToIndexToRoles(), indexAction, ".ds-ds_a1-xyz-0001"));
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(stateful.index.getActionToIndexToRoles(), indexAction, "index_c2"));
+            Assert.assertEquals(ImmutableSet.of("test_role"), roles(stateful.alias.getActionToAliasToRoles(), indexAction, "alias_a2"));
+
+            assertStatefulPermissionsEqualToRebuilt(subject, roles, newestIndexMetadata, indexAction,
+                    ImmutableList.of("index_a1", "index_a2", "index_b1", "index_c1", "index_c2", ".ds-ds_a1-xyz-0001", ".ds-ds_b1-xyz-0001"),
+                    ImmutableList.of("alias_a1", "alias_a2", "alias_b"), ImmutableList.of("ds_a1", "ds_b1"));
+
+            User user = User.forUser("test").build();
+
+            PrivilegesEvaluationResult result = subject.hasIndexPermission(ctx(user, "test_role"), indexAction, ImmutableSet.of(indexAction),
+                    ResolvedIndices.of(newestIndexMetadata, "index_a1"), Action.Scope.INDEX_LIKE);
+            Assert.assertTrue(result.toString(), result.getStatus() == PrivilegesEvaluationResult.Status.INSUFFICIENT);
+
+            result = subject.hasIndexPermission(ctx(user, "test_role"), indexAction, ImmutableSet.of(indexAction),
+                    ResolvedIndices.of(newestIndexMetadata, "index_b1", "index_c2"), Action.Scope.INDEX_LIKE);
+            Assert.assertTrue(result.toString(), result.getStatus() == PrivilegesEvaluationResult.Status.OK);
+
+            result = subject.hasIndexPermission(ctx(user, "test_role"), indexAction, ImmutableSet.of(indexAction),
+                    ResolvedIndices.of(newestIndexMetadata, "ds_a1"), Action.Scope.INDEX_LIKE);
+            Assert.assertTrue(result.toString(), result.getStatus() == PrivilegesEvaluationResult.Status.OK);
+        }
+
+        private static void assertStatefulPermissionsEqualToRebuilt(RoleBasedActionAuthorization subject, SgDynamicConfiguration<Role> roles,
+                Meta indexMetadata, Action action, ImmutableList<String> indices, ImmutableList<String> aliases, ImmutableList<String> dataStreams) {
+            RoleBasedActionAuthorization.StatefulPermissions stateful = subject.getStatefulPermissions();
+            RoleBasedActionAuthorization.StatefulPermissions rebuilt = new RoleBasedActionAuthorization(roles, ActionGroup.FlattenedIndex.EMPTY,
+                    actions, indexMetadata, ImmutableSet.empty(), STATEFUL_SIZE).getStatefulPermissions();
+
+            for (String index : indices) {
+                Assert.assertEquals(index, roles(rebuilt.index.getActionToIndexToRoles(), action, index),
+                        roles(stateful.index.getActionToIndexToRoles(), action, index));
+            }
+
+            for (String alias : aliases) {
+                Assert.assertEquals(alias, roles(rebuilt.alias.getActionToAliasToRoles(), action, alias),
+                        roles(stateful.alias.getActionToAliasToRoles(), action, alias));
+            }
+
+            for (String dataStream : dataStreams) {
+                Assert.assertEquals(dataStream, roles(rebuilt.dataStream.getActionToDataStreamToRoles(), action, dataStream),
+                        roles(stateful.dataStream.getActionToDataStreamToRoles(), action, dataStream));
+            }
+        }
+
+        private static ImmutableSet<String> roles(Map<WellKnownAction<?, ?, ?>, Map<String, ImmutableCompactSubSet<String>>> actionToNameToRoles,
+                Action action, String name) {
+            Map<String, ImmutableCompactSubSet<String>> nameToRoles = actionToNameToRoles.get(action);
+
+            if (nameToRoles == null) {
+                return ImmutableSet.empty();
+            }
+
+            ImmutableCompactSubSet<String> roles = nameToRoles.get(name);
+
+            return roles != null ? ImmutableSet.of(roles) : ImmutableSet.empty();
+        }
+    }
+
     @RunWith(Parameterized.class)
     public static class DataStreamPermissions {
 
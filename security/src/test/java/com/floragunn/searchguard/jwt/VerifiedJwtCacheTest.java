@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.jwt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VerifiedJwtCacheTest {
+
+    @Test
+    public void cachedTokenIsReturned() {
+        VerifiedJwtCache<String> subject = new VerifiedJwtCache<>();
+        long exp = System.currentTimeMillis() / 1000 + 60;
+
+        subject.put("a.b.c", "verified", exp);
+
+        Assert.assertEquals("verified", subject.get("a.b.c"));
+        Assert.assertNull(subject.get("a.b.d"));
+        Assert.assertEquals(1, subject.getCacheStats().getHitCount());
+    }
+
+    @Test
+    public void expiredTokenIsNotReturned() {
+        VerifiedJwtCache<String> subject = new VerifiedJwtCache<>();
+        long exp = System.currentTimeMillis() / 1000 - 1;
+
+        subject.put("a.b.c", "verified", exp);
+
+        Assert.assertNull(subject.get("a.b.c"));
+    }
+
+    @Test
+    public void invalidateAll() {
+        VerifiedJwtCache<String> subject = new VerifiedJwtCache<>();
+
+        subject.put("a.b.c", "verified", null);
+        Assert.assertEquals("verified", subject.get("a.b.c"));
+
+        subject.invalidateAll();
+
+        Assert.assertNull(subject.get("a.b.c"));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchguard.support;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.searchguard.user.AuthDomainInfo;
+import com.floragunn.searchguard.user.User;
+import com.google.common.collect.ImmutableMap;
+
+public class TransportHeaderCodecTest {
+
+    @Test
+    public void userRoundTrip() {
+        User user = User.forUser("test_user").subName("sub").type("test_type").authDomainInfo(AuthDomainInfo.forAuthDomainId("test_domain"))
+                .backendRoles("br1", "br2").searchGuardRoles("sgr1").requestedTenant("tenant").specialAuthzConfig("token_id")
+                .attribute("a", "x").attribute("b", Arrays.asList(1, 2L, 3.5)).attribute("c", ImmutableMap.of("d", true)).build();
+
+        String header = TransportHeaderCodec.encodeUser(user, true);
+        Assert.assertTrue(header, TransportHeaderCodec.isCompact(header));
+
+        User decoded = TransportHeaderCodec.decodeUser(header);
+
+        Assert.assertEquals(user.getName(), decoded.getName());
+        Assert.assertEquals(user.getSubName(), decoded.getSubName());
+        Assert.assertEquals(user.getType(), decoded.getType());
+        Assert.assertEquals(user.getAuthDomain(), decoded.getAuthDomain());
+        Assert.assertEquals(user.getRoles(), decoded.getRoles());
+        Assert.assertEquals(user.getSearchGuardRoles(), decoded.getSearchGuardRoles());
+        Assert.assertEquals(user.getRequestedTenant(), decoded.getRequestedTenant());
+        Assert.assertEquals(user.getSpecialAuthzConfig(), decoded.getSpecialAuthzConfig());
+        Assert.assertEquals(user.getStructuredAttributes(), decoded.getStructuredAttributes());
+        Assert.assertEquals(user.toStringWithAttributes(), decoded.toStringWithAttributes());
+    }
+
+    @Test
+    public void userEncodingIsMemoized() {
+        User user = User.forUser("test_user").backendRoles("br1").build();
+
+        String header = TransportHeaderCodec.encodeUser(user, true);
+        Assert.assertSame(header, TransportHeaderCodec.encodeUser(user, true));
+
+        user.setRequestedTenant("other_tenant");
+
+        String newHeader = TransportHeaderCodec.encodeUser(user, true);
+        Assert.assertNotEquals(header, newHeader);
+        Assert.assertEquals("other_tenant", TransportHeaderCodec.decodeUser(newHeader).getRequestedTenant());
+    }
+
+    @Test
+    public void headerEncodedConcurrentlyToModificationIsNotMemoized() {
+        User user = User.forUser("test_user").backendRoles("br1").build();
+
+        // Simulates an encoding which started before the modification and finished after it
+        int modificationCount = user.getModificationCount();
+        String header = TransportHeaderCodec.encodeUser(User.forUser("test_user").backendRoles("br1").build(), true);
+        user.addRole("br2");
+        user.setTransportHeader(header, modificationCount);
+
+        Assert.assertNull(user.getTransportHeader());
+        Assert.assertTrue(TransportHeaderCodec.decodeUser(TransportHeaderCodec.encodeUser(user, true)).getRoles().contains("br2"));
+    }
+
+    @Test
+    public void legacyFormat() {
+        User user = User.forUser("test_user").backendRoles("br1").attribute("a", "x").build();
+
+        String header = TransportHeaderCodec.encodeUser(user, false);
+        Assert.assertFalse(header, TransportHeaderCodec.isCompact(header));
+        Assert.assertEquals(header, Base64Helper.serializeObject(user));
+
+        User decoded = TransportHeaderCodec.decodeUser(header);
+        Assert.assertEquals(user.toStringWithAttributes(), decoded.toStringWithAttributes());
+    }
+
+    @Test
+    public void legacyFormatForUnsupportedAttributes() {
+        User user = User.forUser("test_user").build();
+        user.addStructuredAttribute("a", new BigDecimal("1.5"));
+
+        String header = TransportHeaderCodec.encodeUser(user, true);
+        Assert.assertFalse(header, TransportHeaderCodec.isCompact(header));
+        Assert.assertEquals(Collections.singletonMap("a", new BigDecimal("1.5")), TransportHeaderCodec.decodeUser(header).getStructuredAttributes());
+    }
+
+    @Test
+    public void remoteAddressRoundTrip() throws Exception {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getByAddress("host.example", new byte[] { 10, 0, 0, 1 }), 9300);
+
+        String header = TransportHeaderCodec.encodeRemoteAddress(address, true);
+        Assert.assertTrue(header, TransportHeaderCodec.isCompact(header));
+        Assert.assertEquals(address, TransportHeaderCodec.decodeRemoteAddress(header));
+
+        String legacyHeader = TransportHeaderCodec.encodeRemoteAddress(address, false);
+        Assert.assertFalse(legacyHeader, TransportHeaderCodec.isCompact(legacyHeader));
+        Assert.assertEquals(address, TransportHeaderCodec.decodeRemoteAddress(legacyHeader));
+    }
+}
@@ -9,6 +9,11 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.floragunn.codova.documents.DocNode;
 import com.floragunn.searchguard.support.PrivilegedConfigClient;
@@ -49,11 +54,13 @@ import com.floragunn.searchguard.user.User;
 import com.floragunn.searchsupport.cstate.ComponentState;
 import com.floragunn.searchsupport.cstate.ComponentState.State;
 import com.floragunn.searchsupport.diag.DiagnosticContext;
+import com.floragunn.searchsupport.jobs.core.SharedJobExecutor;
 import com.floragunn.signals.accounts.AccountRegistry;
 import com.floragunn.signals.accounts.Account;
 import com.floragunn.signals.settings.SignalsSettings;
 import com.floragunn.signals.settings.SignalsSettings.SignalsStaticSettings.IndexNames;
 import com.floragunn.signals.watch.Watch;
+import com.floragunn.signals.watch.common.HttpClientPool;
 import com.floragunn.signals.watch.state.WatchState;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.BaseEncoding;
@@ -87,6 +94,9 @@ public class Signals extends AbstractLifecycleComponent {
     private TrustManagerRegistry trustManagerRegistry;
     private HttpProxyHostRegistry httpProxyHostRegistry;
     private FeatureService featureService;
+    private HttpClientPool httpClientPool;
+    private SharedJobExecutor sharedJobExecutor;
+    private ExecutorService asyncExecutionExecutor;
 
     public Signals(Settings settings, ComponentState componentState) {
         this.componentState = componentState;
@@ -133,6 +143,27 @@ public class Signals extends AbstractLifecycleComponent {
             ProxyCrudService proxyCrudService = new ProxyCrudService(proxyRepository);
             this.httpProxyHostRegistry = new HttpProxyHostRegistry(proxyCrudService);
             this.featureService = featureService;
+
+            if (signalsSettings.getStaticSettings().isHttpClientPoolEnabled()) {
+                this.httpClientPool = new HttpClientPool(signalsSettings.getStaticSettings().getHttpClientPoolMaxConnectionsPerRoute(),
+                        signalsSettings.getStaticSettings().getHttpClientPoolMaxConnections(),
+                        signalsSettings.getStaticSettings().getHttpClientPoolIdleTimeout());
+                this.trustManagerRegistry.addUpdateListener(httpClientPool::onTruststoreUpdate);
+                this.httpProxyHostRegistry.addUpdateListener(httpClientPool::onProxyUpdate);
+                componentState.addPart(httpClientPool.getComponentState());
+            }
+
+            if (signalsSettings.getStaticSettings().isSharedPoolEnabled()) {
+                this.sharedJobExecutor = new SharedJobExecutor("signals/shared[" + clusterService.getNodeName() + "]",
+                        signalsSettings.getStaticSettings().getSharedPoolMaxSize(), signalsSettings.getStaticSettings().getThreadPrio(),
+                        signalsSettings.getStaticSettings().getThreadKeepAlive(), signalsSettings.getStaticSettings().isSharedPoolVirtualThreads());
+                componentState.addPart(sharedJobExecutor.getComponentState());
+            }
+
+            if (signalsSettings.getStaticSettings().isAsyncExecutionEnabled()) {
+                this.asyncExecutionExecutor = createAsyncExecutionExecutor("signals/async_execution[" + clusterService.getNodeName() + "]");
+            }
+
             return Collections.singletonList(this);
 
         } catch (Exception e) {
@@ -225,7 +256,7 @@ public class Signals extends AbstractLifecycleComponent {
 
             SignalsTenant signalsTenant = SignalsTenant.create(name, client, clusterService, nodeEnvironment, scriptService, xContentRegistry,
                     internalAuthTokenProvider, signalsSettings, accountRegistry, tenantState, diagnosticContext, threadPool, trustManagerRegistry,
-                    httpProxyHostRegistry, featureService);
+                    httpProxyHostRegistry, featureService, httpClientPool, sharedJobExecutor, asyncExecutionExecutor);
 
             tenants.put(name, signalsTenant);
 
@@ -473,7 +504,37 @@ public class Signals extends AbstractLifecycleComponent {
 
     @Override
     protected void doClose() throws IOException {
+        if (httpClientPool != null) {
+            httpClientPool.close();
+        }
 
+        if (sharedJobExecutor != null) {
+            sharedJobExecutor.shutdown();
+        }
+
+        if (asyncExecutionExecutor != null) {
+            asyncExecutionExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Creates the executor which processes search responses and executes the subsequent stages of asynchronous watch executions. Network
+     * threads must not do this work, and the generic thread pool is unbounded. Thus, this executor uses the size of the worker pool.
+     */
+    private ExecutorService createAsyncExecutionExecutor(String name) {
+        int maxThreads = signalsSettings.getStaticSettings().getMaxThreads();
+        int threadPriority = signalsSettings.getStaticSettings().getThreadPrio();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        ThreadPoolExecutor result = new ThreadPoolExecutor(maxThreads, maxThreads,
+                signalsSettings.getStaticSettings().getThreadKeepAlive().toMillis(), TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), (r) -> {
+                    Thread thread = new Thread(r, name + "/worker_" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(threadPriority);
+                    return thread;
+                });
+        result.allowCoreThreadTimeOut(true);
+        return result;
     }
 
     public AccountRegistry getAccountRegistry() {
@@ -484,6 +545,10 @@ public class Signals extends AbstractLifecycleComponent {
         return trustManagerRegistry;
     }
 
+    public HttpClientPool getHttpClientPool() {
+        return httpClientPool;
+    }
+
     public HttpProxyHostRegistry getHttpProxyHostRegistry() {
         return httpProxyHostRegistry;
     }
@@ -25,11 +25,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import com.floragunn.signals.proxy.service.HttpProxyHostRegistry;
 import com.floragunn.signals.truststore.service.TrustManagerRegistry;
 import com.floragunn.signals.watch.common.Ack;
+import com.floragunn.signals.watch.common.HttpClientPool;
 import com.floragunn.signals.watch.common.throttle.DefaultThrottlePeriodParser;
 import com.floragunn.signals.watch.common.throttle.ValidatingThrottlePeriodParser;
 import com.floragunn.signals.watch.common.ValidationLevel;
@@ -77,6 +79,7 @@ import com.floragunn.searchsupport.jobs.JobConfigListener;
 import com.floragunn.searchsupport.jobs.SchedulerBuilder;
 import com.floragunn.searchsupport.jobs.actions.SchedulerConfigUpdateAction;
 import com.floragunn.searchsupport.jobs.config.JobDetailWithBaseConfig;
+import com.floragunn.searchsupport.jobs.core.SharedJobExecutor;
 import com.floragunn.signals.accounts.AccountRegistry;
 import com.floragunn.signals.execution.ExecutionEnvironment;
 import com.floragunn.signals.execution.SimulationMode;
@@ -105,10 +108,12 @@ public class SignalsTenant implements Closeable {
             ScriptService scriptService, NamedXContentRegistry xContentRegistry, InternalAuthTokenProvider internalAuthTokenProvider,
             SignalsSettings settings, AccountRegistry accountRegistry, ComponentState tenantState, DiagnosticContext diagnosticContext,
             ThreadPool threadPool, TrustManagerRegistry trustManagerRegistry, HttpProxyHostRegistry httpProxyHostRegistry,
-                                       FeatureService featureService)
+                                       FeatureService featureService, HttpClientPool httpClientPool, SharedJobExecutor sharedJobExecutor,
+                                       Executor asyncExecutionExecutor)
             throws SchedulerException {
         SignalsTenant instance = new SignalsTenant(name, client, clusterService, nodeEnvironment, scriptService, xContentRegistry,
-                internalAuthTokenProvider, settings, accountRegistry, tenantState, diagnosticContext, threadPool, trustManagerRegistry, httpProxyHostRegistry, featureService);
+                internalAuthTokenProvider, settings, accountRegistry, tenantState, diagnosticContext, threadPool, trustManagerRegistry, httpProxyHostRegistry, featureService,
+                httpClientPool, sharedJobExecutor, asyncExecutionExecutor);
 
         instance.init();
 
@@ -141,11 +146,15 @@ public class SignalsTenant implements Closeable {
     private final TrustManagerRegistry trustManagerRegistry;
     private final HttpProxyHostRegistry httpProxyHostRegistry;
     private final FeatureService featureService;
+    private final HttpClientPool httpClientPool;
+    private final SharedJobExecutor sharedJobExecutor;
+    private final Executor asyncExecutionExecutor;
 
     public SignalsTenant(String name, Client client, ClusterService clusterService, NodeEnvironment nodeEnvironment, ScriptService scriptService,
             NamedXContentRegistry xContentRegistry, InternalAuthTokenProvider internalAuthTokenProvider, SignalsSettings settings,
             AccountRegistry accountRegistry, ComponentState tenantState, DiagnosticContext diagnosticContext, ThreadPool threadPool,
-        TrustManagerRegistry trustManagerRegistry, HttpProxyHostRegistry httpProxyHostRegistry, FeatureService featureService) {
+        TrustManagerRegistry trustManagerRegistry, HttpProxyHostRegistry httpProxyHostRegistry, FeatureService featureService,
+        HttpClientPool httpClientPool, SharedJobExecutor sharedJobExecutor, Executor asyncExecutionExecutor) {
         this.name = name;
         this.settings = settings;
         this.scopedName = "signals/" + name;
@@ -172,6 +181,9 @@ public class SignalsTenant implements Closeable {
         this.trustManagerRegistry = Objects.requireNonNull(trustManagerRegistry, "Trust manager registry is required");
         this.httpProxyHostRegistry = Objects.requireNonNull(httpProxyHostRegistry, "Http proxy host registry is required");
         this.featureService = Objects.requireNonNull(featureService, "Feature service is required");
+        this.httpClientPool = httpClientPool;
+        this.sharedJobExecutor = sharedJobExecutor;
+        this.asyncExecutionExecutor = asyncExecutionExecutor;
         settings.addChangeListener(this.settingsChangeListener);
     }
 
@@ -181,7 +193,7 @@ public class SignalsTenant implements Closeable {
             TrustManagerRegistry trustManagerRegistry, HttpProxyHostRegistry httpProxyHostRegistry, FeatureService featureService) {
         this(name, client, clusterService, nodeEnvironment, scriptService, xContentRegistry, internalAuthTokenProvider, settings, accountRegistry,
                 new ComponentState(0, null, "tenant"), diagnosticContext, threadPool, trustManagerRegistry, httpProxyHostRegistry,
-                featureService
+                featureService, null, null, null
         );
     }
 
@@ -201,7 +213,13 @@ public class SignalsTenant implements Closeable {
                 httpProxyHostRegistry, new DefaultThrottlePeriodParser(settings), LENIENT, name);
         int maxThreads = settings.getStaticSettings().getMaxThreads();
         log.debug("Max thread pool size in scope '{}' is equal to {}", scopedName, maxThreads);
-        this.scheduler = new SchedulerBuilder<Watch>()//
+        SchedulerBuilder<Watch> schedulerBuilder = new SchedulerBuilder<Watch>();
+
+        if (sharedJobExecutor != null) {
+            schedulerBuilder.threadPool(new SharedJobExecutor.QuartzThreadPool(sharedJobExecutor, name, maxThreads));
+        }
+
+        this.scheduler = schedulerBuilder//
                 .client(privilegedConfigClient)//
                 .name(scopedName)//
                 .configIndex(configIndexName, getActiveConfigQuery(name))//
@@ -215,6 +233,11 @@ public class SignalsTenant implements Closeable {
                 .maxThreads(maxThreads)//
                 .threadKeepAlive(settings.getStaticSettings().getThreadKeepAlive())//
                 .threadPriority(settings.getStaticSettings().getThreadPrio())//
+                .triggerStateWriteDelay(settings.getStaticSettings().getTriggerStateWriteDelay())//
+                .triggerStateWriteBatchSize(settings.getStaticSettings().getTriggerStateWriteBatchSize())//
+                .jobDistributionStrategy(settings.getStaticSettings().getJobDistributionStrategy())//
+                .nodeWeightAttribute(settings.getStaticSettings().getJobDistributionNodeWeightAttribute())//
+                .componentState(tenantState)//
                 .build();
         this.scheduler.start();
     }
@@ -560,7 +583,7 @@ public class SignalsTenant implements Closeable {
 
             return new WatchRunner(watch, client, accountRegistry, scriptService, watchLogWriter, watchStateWriter, diagnosticContext, watchState,
                     ExecutionEnvironment.SCHEDULED, SimulationMode.FOR_REAL, xContentRegistry, settings, nodeName, null, null,
-                    trustManagerRegistry, clusterService, featureService);
+                    trustManagerRegistry, clusterService, featureService, httpClientPool, asyncExecutionExecutor);
         }
 
         private Watch getConfig(TriggerFiredBundle bundle) {
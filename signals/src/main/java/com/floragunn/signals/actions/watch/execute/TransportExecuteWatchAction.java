@@ -243,7 +243,8 @@ public class TransportExecuteWatchAction extends HandledTransportAction<ExecuteW
 
         WatchRunner watchRunner = new WatchRunner(watch, client, signals.getAccountRegistry(), scriptService, watchLogWriter, null, diagnosticContext,
                 null, ExecutionEnvironment.TEST, request.getSimulationMode(), xContentRegistry, signals.getSignalsSettings(),
-                clusterService.getNodeName(), checkSelector, input, signals.getTruststoreRegistry(), signals.getClusterService(), signals.getFeatureService());
+                clusterService.getNodeName(), checkSelector, input, signals.getTruststoreRegistry(), signals.getClusterService(), signals.getFeatureService(),
+                signals.getHttpClientPool(), null);
 
         try {
             WatchLog watchLog = watchRunner.execute();
@@ -33,6 +33,7 @@ import com.floragunn.signals.accounts.NoSuchAccountException;
 import com.floragunn.signals.truststore.service.TrustManagerRegistry;
 import com.floragunn.signals.watch.action.invokers.ActionInvocationType;
 import com.floragunn.signals.watch.action.invokers.ActionInvoker;
+import com.floragunn.signals.watch.common.HttpClientPool;
 import com.floragunn.signals.watch.common.HttpEndpointWhitelist;
 import com.floragunn.signals.watch.common.HttpProxyConfig;
 
@@ -55,6 +56,7 @@ public class WatchExecutionContext {
     private final String frontendBaseUrl;
     private final ActionInvoker actionInvoker;
     private final TrustManagerRegistry trustManagerRegistry;
+    private final HttpClientPool httpClientPool;
     
     public Map<String, Object> getMetadata() {
         return metadata;
@@ -72,6 +74,16 @@ public class WatchExecutionContext {
                                  WatchExecutionContextData resolvedContextData, SimulationMode simulationMode, HttpEndpointWhitelist httpEndpointWhitelist,
                                  HttpProxyConfig httpProxyConfig, String frontendBaseUrl, ActionInvoker actionInvoker, TrustManagerRegistry trustManagerRegistry,
                                  ClusterService clusterService, FeatureService featureService) {
+        this(client, scriptService, xContentRegistry, accountRegistry, executionEnvironment, actionInvocationType, contextData, resolvedContextData,
+                simulationMode, httpEndpointWhitelist, httpProxyConfig, frontendBaseUrl, actionInvoker, trustManagerRegistry, clusterService,
+                featureService, null);
+    }
+
+    public WatchExecutionContext(Client client, ScriptService scriptService, NamedXContentRegistry xContentRegistry, AccountRegistry accountRegistry,
+                                 ExecutionEnvironment executionEnvironment, ActionInvocationType actionInvocationType, WatchExecutionContextData contextData,
+                                 WatchExecutionContextData resolvedContextData, SimulationMode simulationMode, HttpEndpointWhitelist httpEndpointWhitelist,
+                                 HttpProxyConfig httpProxyConfig, String frontendBaseUrl, ActionInvoker actionInvoker, TrustManagerRegistry trustManagerRegistry,
+                                 ClusterService clusterService, FeatureService featureService, HttpClientPool httpClientPool) {
         this.client = client;
         this.scriptService = scriptService;
         this.clusterService = clusterService;
@@ -89,6 +101,7 @@ public class WatchExecutionContext {
         this.frontendBaseUrl = frontendBaseUrl;
         this.actionInvoker = actionInvoker;
         this.trustManagerRegistry = Objects.requireNonNull(trustManagerRegistry, "Trust manager registry is required");
+        this.httpClientPool = httpClientPool;
     }
 
     public Client getClient() {
@@ -160,19 +173,20 @@ public class WatchExecutionContext {
     public WatchExecutionContext with(WatchExecutionContextData contextData, ActionInvoker actionInvoker) {
         return new WatchExecutionContext(client, scriptService, xContentRegistry, accountRegistry, executionEnvironment, actionInvocationType,
                 contextData, resolvedContextData, simulationMode, httpEndpointWhitelist, httpProxyConfig, frontendBaseUrl, actionInvoker,
-                trustManagerRegistry, clusterService, featureService);
+                trustManagerRegistry, clusterService, featureService, httpClientPool);
     }
 
     public WatchExecutionContext with(ActionInvocationType actionInvocationType) {
         return new WatchExecutionContext(client, scriptService, xContentRegistry, accountRegistry, executionEnvironment, actionInvocationType,
                 contextData, resolvedContextData, simulationMode, httpEndpointWhitelist, httpProxyConfig, frontendBaseUrl, actionInvoker,
-                trustManagerRegistry, clusterService, featureService);
+                trustManagerRegistry, clusterService, featureService, httpClientPool);
     }
 
     public WatchExecutionContext clone() {
         return new WatchExecutionContext(client, scriptService, xContentRegistry, accountRegistry, executionEnvironment, actionInvocationType,
                 contextData != null ? contextData.clone() : null, resolvedContextData != null ? resolvedContextData.clone() : null, simulationMode,
-                httpEndpointWhitelist, httpProxyConfig, frontendBaseUrl, actionInvoker, trustManagerRegistry, clusterService, featureService);
+                httpEndpointWhitelist, httpProxyConfig, frontendBaseUrl, actionInvoker, trustManagerRegistry, clusterService, featureService,
+                httpClientPool);
     }
 
     public WatchExecutionContextData getResolvedContextData() {
@@ -195,6 +209,13 @@ public class WatchExecutionContext {
         return httpProxyConfig;
     }
 
+    /**
+     * The pool of shared HTTP clients. May be null; then, new HTTP clients need to be created for each execution.
+     */
+    public HttpClientPool getHttpClientPool() {
+        return httpClientPool;
+    }
+
     public String getFrontendBaseUrl() {
         return frontendBaseUrl;
     }
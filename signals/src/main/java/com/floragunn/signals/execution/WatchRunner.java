@@ -23,7 +23,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import com.floragunn.signals.truststore.service.TrustManagerRegistry;
 import org.apache.logging.log4j.LogManager;
@@ -31,6 +39,7 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.internal.Client;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.util.concurrent.ThreadContext.StoredContext;
 import org.elasticsearch.features.FeatureService;
 import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.xcontent.NamedXContentRegistry;
@@ -53,6 +62,7 @@ import com.floragunn.signals.watch.action.invokers.AlertAction;
 import com.floragunn.signals.watch.action.invokers.ResolveAction;
 import com.floragunn.signals.watch.checks.Check;
 import com.floragunn.signals.watch.common.Ack;
+import com.floragunn.signals.watch.common.HttpClientPool;
 import com.floragunn.signals.watch.common.HttpEndpointWhitelist;
 import com.floragunn.signals.watch.result.ActionLog;
 import com.floragunn.signals.watch.result.Status;
@@ -87,6 +97,7 @@ public class WatchRunner implements Job {
     private final SimulationMode simulationMode;
     private final GotoCheckSelector checkSelector;
     private final DiagnosticContext diagnosticContext;
+    private final Executor asyncExecutor;
 
     private SeverityLevel lastSeverityLevel;
     private SeverityLevel newSeverityLevel;
@@ -104,7 +115,8 @@ public class WatchRunner implements Job {
                        WatchStateWriter<?> watchStateWriter, DiagnosticContext diagnosticContext, WatchState watchState,
                        ExecutionEnvironment executionEnvironment, SimulationMode simulationMode, NamedXContentRegistry xContentRegistry,
                        SignalsSettings signalsSettings, String nodeName, GotoCheckSelector checkSelector, NestedValueMap input,
-                       TrustManagerRegistry trustManagerRegistry, ClusterService clusterService, FeatureService featureService) {
+                       TrustManagerRegistry trustManagerRegistry, ClusterService clusterService, FeatureService featureService,
+                       HttpClientPool httpClientPool, Executor asyncExecutor) {
         this.watch = watch;
         this.client = client;
         this.clusterService = clusterService;
@@ -120,13 +132,14 @@ public class WatchRunner implements Job {
                 ActionInvocationType.ALERT, this.contextData, watchState != null ? watchState.getLastExecutionContextData() : null, simulationMode,
                 new HttpEndpointWhitelist(signalsSettings.getDynamicSettings().getAllowedHttpEndpoints()),
                 signalsSettings.getDynamicSettings().getHttpProxyConfig(), signalsSettings.getDynamicSettings().getFrontendBaseUrl(), null,
-                trustManagerRegistry, clusterService, featureService);
+                trustManagerRegistry, clusterService, featureService, httpClientPool);
         this.watchLog.setWatchId(watch.getId());
         this.watchLog.setWatchVersion(watch.getVersion());
         this.signalsSettings = signalsSettings;
         this.nodeName = nodeName;
         this.simulationMode = simulationMode;
         this.checkSelector = checkSelector;
+        this.asyncExecutor = asyncExecutor;
 
         if (input != null) {
             this.contextData.getData().putAll(input);
@@ -162,7 +175,12 @@ public class WatchRunner implements Job {
         try {
             contextData.setTriggerInfo(new WatchExecutionContextData.TriggerInfo(context.getFireTime(), context.getScheduledFireTime(),
                     context.getPreviousFireTime(), context.getNextFireTime()));
-            execute();
+
+            if (this.watchState != null && this.asyncExecutor != null && this.signalsSettings.getStaticSettings().isAsyncExecutionEnabled()) {
+                startAsyncExecution();
+            } else {
+                execute();
+            }
         } catch (WatchExecutionException e) {
             log.info("Error while executing " + watch, e);
             throw new JobExecutionException(e);
@@ -172,43 +190,21 @@ public class WatchRunner implements Job {
     public WatchLog execute() throws WatchExecutionException {
         try (DiagnosticContext.Handle h = diagnosticContext.pushActionStack("signals_watch:" + watch.getTenant() + "/" + watch.getId())) {
 
-            if (log.isInfoEnabled()) {
-                log.info("Running " + watch + "@" + watch.getVersion());
-            }
-
-            if (log.isDebugEnabled()) {
-                log.debug("Current watch state: " + (watchState != null ? watchState.getCreationTime() : "-") + "\n"
-                        + (watchState != null ? Strings.toString(watchState) : null));
-            }
+            logExecutionStart();
 
             boolean error = false;
 
             try {
-                Instant executionStart = Instant.now();
-                contextData.setExecutionTime(ZonedDateTime.ofInstant(executionStart, ZoneOffset.UTC));
-                this.watchLog.setExecutionStart(Date.from(executionStart));
-                this.watchLog.setActions(new ArrayList<ActionLog>(this.watch.getActions().size()));
-                this.watchLog.setResolveActions(new ArrayList<ActionLog>(this.watch.getResolveActions().size()));
-                this.watchLog.setTenant(watch.getTenant());
-
-                if (this.signalsSettings.isIncludeNodeInWatchLogEnabled()) {
-                    this.watchLog.setNode(nodeName);
-                }
+                beginExecution();
 
-                if (!executeChecks()) {
-                    return this.watchLog;
-                }
+                long checksStart = System.nanoTime();
+                boolean checksPassed = executeChecks();
+                recordStageDuration("checks", checksStart);
 
-                if (!executeSeverityMapping()) {
-                    return this.watchLog;
+                if (checksPassed) {
+                    executeStagesAfterChecks();
                 }
 
-                executeActions();
-
-                executeResolveActions();
-
-                setWatchLogStatus();
-
                 return watchLog;
             } catch (Exception e) {
                 error = true;
@@ -223,33 +219,199 @@ public class WatchRunner implements Job {
                     throw new WatchExecutionException("Error while executing " + watch, e, this.watchLog);
                 }
             } finally {
+                completeExecution(error);
 
-                if (this.watchState != null) {
-                    if (!error) {
-                        this.watchState.setLastExecutionContextData(this.contextData);
-                    }
+                if (this.watchLogWriter != null) {
+                    this.watchLogWriter.put(this.watchLog);
+                }
+
+                logExecutionFinished();
+            }
+        }
+    }
+
+    /**
+     * Executes the watch without blocking while waiting for searches or for the watch log to be written. Uses the async executor passed to
+     * the constructor for all processing after such waits.
+     */
+    public CompletableFuture<WatchLog> executeAsync() {
+        return executeAsync(Objects.requireNonNull(asyncExecutor, "No executor for asynchronous executions available"));
+    }
+
+    /**
+     * Executes the watch without blocking while waiting for searches or for the watch log to be written.
+     * 
+     * Checks providing an asynchronous implementation (see Check.executeAsync()) release the calling thread while waiting. Their results
+     * are processed on the given executor, which also executes all subsequent stages; these run with the thread context which was active
+     * when this method was called. Checks without asynchronous implementation, as well as actions, are still executed synchronously on the
+     * respective thread.
+     * 
+     * The returned future completes with the watch log after the watch log has been passed to the watch log writer. If the execution failed,
+     * the future completes exceptionally with a WatchExecutionException.
+     */
+    public CompletableFuture<WatchLog> executeAsync(Executor executor) {
+        CompletableFuture<WatchLog> result = new CompletableFuture<>();
+        Executor contextPreservingExecutor;
+        CompletableFuture<Boolean> checksPassed;
+        long checksStart = System.nanoTime();
+
+        try (DiagnosticContext.Handle h = diagnosticContext.pushActionStack("signals_watch:" + watch.getTenant() + "/" + watch.getId())) {
+            logExecutionStart();
+
+            contextPreservingExecutor = preserveThreadContext(executor);
+
+            try {
+                beginExecution();
+                checksPassed = executeChecksAsync(watch.getChecks().iterator(), contextPreservingExecutor);
+            } catch (Exception e) {
+                checksPassed = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        checksPassed.thenAcceptAsync((passed) -> {
+            recordStageDuration("checks", checksStart);
 
-                    this.watchState.setLastStatus(this.watchLog.getStatus());
+            if (passed) {
+                try {
+                    executeStagesAfterChecks();
+                } catch (WatchExecutionException e) {
+                    throw new CompletionException(e);
                 }
+            }
+        }, contextPreservingExecutor).whenCompleteAsync((v, completionException) -> {
+            Throwable e = unwrap(completionException);
 
-                if (this.watchStateWriter != null && this.watchState != null) {
-                    this.watchStateWriter.put(watch.getId(), this.watchState);
+            try {
+                if (e != null && this.watchLog.getStatus() == null) {
+                    this.watchLog.setStatus(new Status(Status.Code.EXECUTION_FAILED, e.toString()));
                 }
 
-                this.watchLog.setExecutionFinished(new Date());
+                completeExecution(e != null);
+            } catch (Exception e2) {
+                log.error("Error while completing execution of " + watch, e2);
+            }
 
-                this.watchLog.setData(contextData.getData().clone());
-                this.watchLog.setRuntimeAttributes(contextData.clone());
+            CompletableFuture<Void> watchLogWritten = this.watchLogWriter != null ? this.watchLogWriter.putAsync(this.watchLog)
+                    : CompletableFuture.completedFuture(null);
 
-                if (this.watchLogWriter != null) {
-                    this.watchLogWriter.put(this.watchLog);
-                }
+            watchLogWritten.whenComplete((v2, e2) -> {
+                logExecutionFinished();
 
-                if (log.isInfoEnabled()) {
-                    log.info("Finished " + watch + ": " + this.watchLog.getStatus());
+                if (e == null) {
+                    result.complete(this.watchLog);
+                } else if (e instanceof WatchExecutionException) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.completeExceptionally(new WatchExecutionException("Error while executing " + watch, e, this.watchLog));
                 }
+            });
+        }, contextPreservingExecutor);
+
+        return result;
+    }
+
+    /**
+     * Starts an asynchronous execution on behalf of the scheduler. As the Quartz job is finished before the execution is finished, the
+     * DisallowConcurrentExecution annotation does not prevent overlapping executions. Thus, the watch state is used to skip executions
+     * while the previous execution is still in progress.
+     */
+    private void startAsyncExecution() {
+        if (!this.watchState.tryStartExecution()) {
+            log.warn("Skipping execution of " + watch + " because the previous execution is still in progress");
+            return;
+        }
+
+        CompletableFuture<WatchLog> future;
+
+        try {
+            future = executeAsync();
+        } catch (RuntimeException e) {
+            this.watchState.finishExecution();
+            throw e;
+        }
+
+        future.whenComplete((watchLog, e) -> {
+            this.watchState.finishExecution();
+
+            if (e != null) {
+                log.info("Error while executing " + watch, e);
+            }
+        });
+    }
+
+    private void logExecutionStart() {
+        if (log.isInfoEnabled()) {
+            log.info("Running " + watch + "@" + watch.getVersion());
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Current watch state: " + (watchState != null ? watchState.getCreationTime() : "-") + "\n"
+                    + (watchState != null ? Strings.toString(watchState) : null));
+        }
+    }
+
+    private void logExecutionFinished() {
+        if (log.isInfoEnabled()) {
+            log.info("Finished " + watch + ": " + this.watchLog.getStatus());
+        }
+    }
+
+    private void beginExecution() {
+        Instant executionStart = Instant.now();
+        contextData.setExecutionTime(ZonedDateTime.ofInstant(executionStart, ZoneOffset.UTC));
+        this.watchLog.setExecutionStart(Date.from(executionStart));
+        this.watchLog.setActions(new ArrayList<ActionLog>(this.watch.getActions().size()));
+        this.watchLog.setResolveActions(new ArrayList<ActionLog>(this.watch.getResolveActions().size()));
+        this.watchLog.setTenant(watch.getTenant());
+
+        if (this.signalsSettings.isIncludeNodeInWatchLogEnabled()) {
+            this.watchLog.setNode(nodeName);
+        }
+    }
+
+    private void executeStagesAfterChecks() throws WatchExecutionException {
+        if (this.watch.getSeverityMapping() != null) {
+            long severityMappingStart = System.nanoTime();
+            boolean severityMappingPassed = executeSeverityMapping();
+            recordStageDuration("severity_mapping", severityMappingStart);
+
+            if (!severityMappingPassed) {
+                return;
             }
         }
+
+        long actionsStart = System.nanoTime();
+        executeActions();
+        recordStageDuration("actions", actionsStart);
+
+        long resolveActionsStart = System.nanoTime();
+        executeResolveActions();
+        recordStageDuration("resolve_actions", resolveActionsStart);
+
+        setWatchLogStatus();
+    }
+
+    private void completeExecution(boolean error) {
+        if (this.watchState != null) {
+            if (!error) {
+                this.watchState.setLastExecutionContextData(this.contextData);
+            }
+
+            this.watchState.setLastStatus(this.watchLog.getStatus());
+        }
+
+        if (this.watchStateWriter != null && this.watchState != null) {
+            this.watchStateWriter.put(watch.getId(), this.watchState);
+        }
+
+        this.watchLog.setExecutionFinished(new Date());
+
+        this.watchLog.setData(contextData.getData().clone());
+        this.watchLog.setRuntimeAttributes(contextData.clone());
+    }
+
+    private void recordStageDuration(String stage, long startNanos) {
+        this.watchLog.setStageDuration(stage, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
     }
 
     private boolean executeChecks() throws WatchExecutionException {
@@ -264,31 +426,113 @@ public class WatchRunner implements Job {
                     log.debug("Before running " + check);
                 }
 
-                if (!check.execute(ctx)) {
-                    afterNegativeTriageForAllActions();
-                    this.watchLog.setStatus(new Status(Status.Code.NO_ACTION, "No action needed due to check " + check.getName()));
+                if (!afterCheck(check, check.execute(ctx))) {
                     return false;
                 }
+            } catch (Exception e) {
+                throw checkFailed(check, e);
+            }
+        }
 
-                if (log.isDebugEnabled()) {
-                    log.debug("After running " + check + "\n" + contextData.getData());
-                }
+        return true;
+    }
+
+    /**
+     * Executes the remaining checks of the given iterator one after another. Checks which complete synchronously are processed on the
+     * current thread; after a check which completes asynchronously, processing continues on the given executor.
+     */
+    private CompletableFuture<Boolean> executeChecksAsync(Iterator<Check> checks, Executor executor) {
+        while (checks.hasNext()) {
+            Check check = checks.next();
+
+            if (this.checkSelector != null && !this.checkSelector.isSelected(check)) {
+                log.info("Skipping check " + check + " because of check selector " + checkSelector);
+                continue;
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("Before running async " + check);
+            }
+
+            CompletableFuture<Boolean> checkResult;
+
+            try {
+                checkResult = check.executeAsync(ctx, executor);
             } catch (Exception e) {
-                this.watchLog.setStatus(new Status(Status.Code.EXECUTION_FAILED, "Error while executing " + check + ": " + e.getMessage()));
+                checkResult = CompletableFuture.failedFuture(e);
+            }
 
-                if (e instanceof WatchOperationExecutionException) {
-                    this.watchLog.setError(((WatchOperationExecutionException) e).toErrorInfo());
-                } else {
-                    this.watchLog.setError(new WatchOperationExecutionException(e).toErrorInfo());
+            if (checkResult.isDone() && !checkResult.isCompletedExceptionally()) {
+                if (!afterCheck(check, checkResult.join())) {
+                    return CompletableFuture.completedFuture(false);
                 }
 
-                throw new WatchExecutionException("Error while executing " + check, e, this.watchLog);
+                continue;
             }
+
+            return checkResult.handleAsync((passed, e) -> {
+                if (e != null) {
+                    Throwable cause = unwrap(e);
+                    throw new CompletionException(checkFailed(check, cause instanceof Exception ? (Exception) cause : new Exception(cause)));
+                }
+
+                return afterCheck(check, passed);
+            }, executor).thenCompose((passed) -> passed ? executeChecksAsync(checks, executor) : CompletableFuture.completedFuture(false));
+        }
+
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private boolean afterCheck(Check check, boolean passed) {
+        if (!passed) {
+            afterNegativeTriageForAllActions();
+            this.watchLog.setStatus(new Status(Status.Code.NO_ACTION, "No action needed due to check " + check.getName()));
+            return false;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("After running " + check + "\n" + contextData.getData());
         }
 
         return true;
     }
 
+    private WatchExecutionException checkFailed(Check check, Exception e) {
+        String message = e.getMessage();
+
+        if (message == null && e instanceof TimeoutException) {
+            message = "Timeout";
+        }
+
+        this.watchLog.setStatus(new Status(Status.Code.EXECUTION_FAILED, "Error while executing " + check + ": " + message));
+
+        if (e instanceof WatchOperationExecutionException) {
+            this.watchLog.setError(((WatchOperationExecutionException) e).toErrorInfo());
+        } else {
+            this.watchLog.setError(new WatchOperationExecutionException(e).toErrorInfo());
+        }
+
+        return new WatchExecutionException("Error while executing " + check, e, this.watchLog);
+    }
+
+    private Executor preserveThreadContext(Executor executor) {
+        Supplier<StoredContext> restorableContext = client.threadPool().getThreadContext().newRestorableContext(false);
+
+        return (runnable) -> executor.execute(() -> {
+            try (StoredContext storedContext = restorableContext.get()) {
+                runnable.run();
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+
+        return e;
+    }
+
     private void afterNegativeTriageForAllActions() {
         for (ActionInvoker action : watch.getActions()) {
             ActionState actionState = getActionState(action);
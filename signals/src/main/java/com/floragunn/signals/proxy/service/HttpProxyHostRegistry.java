@@ -30,6 +30,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class HttpProxyHostRegistry {
@@ -38,6 +40,7 @@ public class HttpProxyHostRegistry {
 
     private final ProxyCrudService proxyCrudService;
     private volatile Map<String, HttpHost> proxyHostMap;
+    private final List<Consumer<String>> updateListeners = new CopyOnWriteArrayList<>();
 
     public HttpProxyHostRegistry(ProxyCrudService proxyCrudService) {
         this.proxyCrudService = Objects.requireNonNull(proxyCrudService, "Proxy crud service is required");
@@ -59,6 +62,7 @@ public class HttpProxyHostRegistry {
                 String ids = getAvailableProxyHostsIds();
                 log.info("Http proxy hosts available after proxy update: '{}'", ids);
             }
+            notifyUpdateListeners(proxyId);
         } catch (Exception e) {
             if(log.isDebugEnabled()) {
                 String ids = getAvailableProxyHostsIds();
@@ -93,6 +97,25 @@ public class HttpProxyHostRegistry {
             String ids = getAvailableProxyHostsIds();
             log.info("Reloaded all Http proxy hosts, available proxy hosts: '{}'", ids);
         }
+        notifyUpdateListeners(null);
+    }
+
+    /**
+     * Registers a listener which is called after a proxy was updated. The listener receives the id of the proxy; after all proxies
+     * were reloaded, it receives null.
+     */
+    public void addUpdateListener(Consumer<String> listener) {
+        updateListeners.add(listener);
+    }
+
+    private void notifyUpdateListeners(String proxyId) {
+        for (Consumer<String> listener : updateListeners) {
+            try {
+                listener.accept(proxyId);
+            } catch (Exception e) {
+                log.error("Error in proxy update listener {}", listener, e);
+            }
+        }
     }
 
     private String getAvailableProxyHostsIds() {
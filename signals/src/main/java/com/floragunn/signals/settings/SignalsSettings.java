@@ -32,6 +32,7 @@ import com.floragunn.codova.validation.ValidationErrors;
 import com.floragunn.codova.validation.errors.ValidationError;
 import com.floragunn.searchguard.support.PrivilegedConfigClient;
 import com.floragunn.searchsupport.StaticSettings;
+import com.floragunn.searchsupport.jobs.cluster.JobDistributor;
 import com.floragunn.signals.SignalsInitializationException;
 import com.floragunn.signals.actions.settings.update.SettingsUpdateAction;
 import com.floragunn.signals.support.LuckySisyphos;
@@ -532,12 +533,39 @@ public class SignalsSettings {
         public static StaticSettings.Attribute<TimeValue> THREAD_KEEP_ALIVE = StaticSettings.Attribute
                 .define("signals.worker_threads.pool.keep_alive").withDefault(TimeValue.timeValueMinutes(100)).asTimeValue();
         public static StaticSettings.Attribute<Integer> THREAD_PRIO =  StaticSettings.Attribute.define("signals.worker_threads.prio").withDefault(Thread.NORM_PRIORITY).asInteger();
+        public static StaticSettings.Attribute<Boolean> SHARED_POOL_ENABLED = StaticSettings.Attribute
+                .define("signals.worker_threads.shared_pool.enabled").withDefault(false).asBoolean();
+        public static StaticSettings.Attribute<Integer> SHARED_POOL_MAX_SIZE = StaticSettings.Attribute
+                .define("signals.worker_threads.shared_pool.max_size").withDefault(10).asInteger();
+        public static StaticSettings.Attribute<Boolean> SHARED_POOL_VIRTUAL_THREADS = StaticSettings.Attribute
+                .define("signals.worker_threads.shared_pool.virtual_threads").withDefault(false).asBoolean();
+        public static StaticSettings.Attribute<TimeValue> TRIGGER_STATE_WRITE_DELAY = StaticSettings.Attribute
+                .define("signals.trigger_state.write_delay").withDefault(TimeValue.timeValueSeconds(1)).asTimeValue();
+        public static StaticSettings.Attribute<Integer> TRIGGER_STATE_WRITE_BATCH_SIZE = StaticSettings.Attribute
+                .define("signals.trigger_state.write_batch_size").withDefault(1000).asInteger();
+        // All nodes must use the same strategy; otherwise, jobs might be executed twice or not at all. Thus, the default is the strategy
+        // used by older nodes; rendezvous must be explicitly enabled on all nodes after a rolling upgrade.
+        public static StaticSettings.Attribute<String> JOB_DISTRIBUTION_STRATEGY = StaticSettings.Attribute
+                .define("signals.job_distribution.strategy").withDefault("modulo").asString();
+        public static StaticSettings.Attribute<String> JOB_DISTRIBUTION_NODE_WEIGHT_ATTRIBUTE = StaticSettings.Attribute
+                .define("signals.job_distribution.node_weight_attribute").withDefault((String) null).asString();
+        public static StaticSettings.Attribute<Boolean> ASYNC_EXECUTION_ENABLED = StaticSettings.Attribute.define("signals.execution.async")
+                .withDefault(false).asBoolean();
 
         public static StaticSettings.Attribute<Boolean> ACTIVE_BY_DEFAULT =  StaticSettings.Attribute.define("signals.all_tenants_active_by_default").withDefault(true).asBoolean();
         public static StaticSettings.Attribute<String> WATCH_LOG_REFRESH_POLICY =  StaticSettings.Attribute.define("signals.watch_log.refresh_policy").withDefault((String) null).asString();
         public static StaticSettings.Attribute<Boolean> WATCH_LOG_SYNC_INDEXING =  StaticSettings.Attribute.define("signals.watch_log.sync_indexing").withDefault(false).asBoolean();
         public static StaticSettings.Attribute<Integer> WATCH_LOG_MAPPING_TOTAL_FIELDS_LIMIT =  StaticSettings.Attribute.define("signals.watch_log.mapping_total_fields_limit").withDefault(1000).asInteger();
 
+        public static StaticSettings.Attribute<Boolean> HTTP_CLIENT_POOL_ENABLED = StaticSettings.Attribute.define("signals.http_client_pool.enabled")
+                .withDefault(true).asBoolean();
+        public static StaticSettings.Attribute<Integer> HTTP_CLIENT_POOL_MAX_CONNECTIONS_PER_ROUTE = StaticSettings.Attribute
+                .define("signals.http_client_pool.max_connections_per_route").withDefault(10).asInteger();
+        public static StaticSettings.Attribute<Integer> HTTP_CLIENT_POOL_MAX_CONNECTIONS = StaticSettings.Attribute
+                .define("signals.http_client_pool.max_connections").withDefault(50).asInteger();
+        public static StaticSettings.Attribute<TimeValue> HTTP_CLIENT_POOL_IDLE_TIMEOUT = StaticSettings.Attribute
+                .define("signals.http_client_pool.idle_timeout").withDefault(TimeValue.timeValueSeconds(60)).asTimeValue();
+
         public static class IndexNames {
 
             public static final String TRUSTSTORES = ".signals_truststores";
@@ -584,8 +612,10 @@ public class SignalsSettings {
 
         public static StaticSettings.AttributeSet getAvailableSettings() {
             return StaticSettings.AttributeSet.of(ENABLED, ENTERPRISE_ENABLED, MAX_THREADS, THREAD_KEEP_ALIVE, THREAD_PRIO, ACTIVE_BY_DEFAULT,
-                    WATCH_LOG_REFRESH_POLICY, WATCH_LOG_SYNC_INDEXING, WATCH_LOG_MAPPING_TOTAL_FIELDS_LIMIT, IndexNames.WATCHES,
-                    IndexNames.WATCHES_STATE, IndexNames.WATCHES_TRIGGER_STATE, IndexNames.ACCOUNTS, IndexNames.LOG);
+                    SHARED_POOL_ENABLED, SHARED_POOL_MAX_SIZE, SHARED_POOL_VIRTUAL_THREADS, TRIGGER_STATE_WRITE_DELAY, TRIGGER_STATE_WRITE_BATCH_SIZE,
+                    JOB_DISTRIBUTION_STRATEGY, JOB_DISTRIBUTION_NODE_WEIGHT_ATTRIBUTE, ASYNC_EXECUTION_ENABLED, WATCH_LOG_REFRESH_POLICY, WATCH_LOG_SYNC_INDEXING, WATCH_LOG_MAPPING_TOTAL_FIELDS_LIMIT, IndexNames.WATCHES,
+                    IndexNames.WATCHES_STATE, IndexNames.WATCHES_TRIGGER_STATE, IndexNames.ACCOUNTS, IndexNames.LOG, HTTP_CLIENT_POOL_ENABLED,
+                    HTTP_CLIENT_POOL_MAX_CONNECTIONS_PER_ROUTE, HTTP_CLIENT_POOL_MAX_CONNECTIONS, HTTP_CLIENT_POOL_IDLE_TIMEOUT);
         }
 
         private final StaticSettings settings;
@@ -612,6 +642,44 @@ public class SignalsSettings {
             return settings.get(THREAD_PRIO);
         }
 
+        public boolean isSharedPoolEnabled() {
+            return settings.get(SHARED_POOL_ENABLED);
+        }
+
+        public int getSharedPoolMaxSize() {
+            return settings.get(SHARED_POOL_MAX_SIZE);
+        }
+
+        public boolean isSharedPoolVirtualThreads() {
+            return settings.get(SHARED_POOL_VIRTUAL_THREADS);
+        }
+
+        public Duration getTriggerStateWriteDelay() {
+            return Duration.ofMillis(settings.get(TRIGGER_STATE_WRITE_DELAY).millis());
+        }
+
+        public int getTriggerStateWriteBatchSize() {
+            return settings.get(TRIGGER_STATE_WRITE_BATCH_SIZE);
+        }
+
+        public JobDistributor.Strategy getJobDistributionStrategy() {
+            try {
+                return JobDistributor.Strategy.parse(settings.get(JOB_DISTRIBUTION_STRATEGY));
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid value for " + JOB_DISTRIBUTION_STRATEGY.name() + ": " + settings.get(JOB_DISTRIBUTION_STRATEGY) + "; using "
+                        + JobDistributor.Strategy.MODULO);
+                return JobDistributor.Strategy.MODULO;
+            }
+        }
+
+        public String getJobDistributionNodeWeightAttribute() {
+            return settings.get(JOB_DISTRIBUTION_NODE_WEIGHT_ATTRIBUTE);
+        }
+
+        public boolean isAsyncExecutionEnabled() {
+            return settings.get(ASYNC_EXECUTION_ENABLED);
+        }
+
         public boolean isEnterpriseEnabled() {
             return settings.get(ENTERPRISE_ENABLED);
         }
@@ -647,6 +715,22 @@ public class SignalsSettings {
         public int getWatchLogMappingTotalFieldsLimit() {
             return settings.get(WATCH_LOG_MAPPING_TOTAL_FIELDS_LIMIT);
         }
+
+        public boolean isHttpClientPoolEnabled() {
+            return settings.get(HTTP_CLIENT_POOL_ENABLED);
+        }
+
+        public int getHttpClientPoolMaxConnectionsPerRoute() {
+            return settings.get(HTTP_CLIENT_POOL_MAX_CONNECTIONS_PER_ROUTE);
+        }
+
+        public int getHttpClientPoolMaxConnections() {
+            return settings.get(HTTP_CLIENT_POOL_MAX_CONNECTIONS);
+        }
+
+        public Duration getHttpClientPoolIdleTimeout() {
+            return Duration.ofMillis(settings.get(HTTP_CLIENT_POOL_IDLE_TIMEOUT).millis());
+        }
     }
 
     public static interface ChangeListener {
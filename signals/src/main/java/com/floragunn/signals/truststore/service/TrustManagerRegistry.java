@@ -37,6 +37,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.floragunn.signals.CertificatesParser.parseCertificates;
@@ -48,6 +50,7 @@ public class TrustManagerRegistry {
 
     private final TruststoreCrudService truststoreCrudService;
     private volatile Map<String, X509ExtendedTrustManager> trustManagerMap;
+    private final List<Consumer<String>> updateListeners = new CopyOnWriteArrayList<>();
 
     public TrustManagerRegistry(TruststoreCrudService truststoreCrudService) {
         this.truststoreCrudService = Objects.requireNonNull(truststoreCrudService, "Truststore crud service is required");
@@ -69,6 +72,7 @@ public class TrustManagerRegistry {
                 String ids = getAvailableTrustManagersIds();
                 log.info("Trust managers available after trust store updates: '{}'", ids);
             }
+            notifyUpdateListeners(truststoreId);
         } catch (KeyStoreException | NoSuchAlgorithmException | CannotCreateTrustManagerException | ConfigValidationException ex) {
             if(log.isDebugEnabled()) {
                 String ids = getAvailableTrustManagersIds();
@@ -97,6 +101,25 @@ public class TrustManagerRegistry {
             String ids = getAvailableTrustManagersIds();
             log.info("Reloaded all trust stores and created trust managers, available trust managers: '{}'", ids);
         }
+        notifyUpdateListeners(null);
+    }
+
+    /**
+     * Registers a listener which is called after a trust store was updated. The listener receives the id of the trust store; after all trust
+     * stores were reloaded, it receives null.
+     */
+    public void addUpdateListener(Consumer<String> listener) {
+        updateListeners.add(listener);
+    }
+
+    private void notifyUpdateListeners(String truststoreId) {
+        for (Consumer<String> listener : updateListeners) {
+            try {
+                listener.accept(truststoreId);
+            } catch (Exception e) {
+                log.error("Error in trust store update listener {}", listener, e);
+            }
+        }
     }
 
     private X509ExtendedTrustManager truststoreDataToTrustManager(TruststoreData truststoreData)
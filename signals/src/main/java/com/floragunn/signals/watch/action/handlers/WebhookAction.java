@@ -45,8 +45,8 @@ public class WebhookAction extends ActionHandler {
     @Override
     public ActionExecutionResult execute(WatchExecutionContext ctx) throws ActionExecutionException {
 
-        try (CloseableHttpClient httpClient = httpClientConfig.createHttpClient(ctx.getHttpProxyConfig())) {
-            log.info("New instance of HTTP client created for webhook action for URI '{}'.", requestConfig.getUri());
+        // Shared clients are not closed; the try block just closes HTTP clients which were created for this execution
+        try (CloseableHttpClient httpClient = httpClientConfig.getHttpClient(ctx.getHttpProxyConfig(), ctx.getHttpClientPool())) {
             HttpUriRequest request = requestConfig.createHttpRequest(ctx);
 
             if (log.isDebugEnabled()) {
@@ -55,12 +55,14 @@ public class WebhookAction extends ActionHandler {
 
             if (ctx.getSimulationMode() == SimulationMode.FOR_REAL) {
 
-                CloseableHttpResponse response = AccessController
-                        .doPrivileged((PrivilegedExceptionAction<CloseableHttpResponse>) () -> httpClient.execute(request));
+                // Closing the response releases the connection to the pool
+                try (CloseableHttpResponse response = AccessController
+                        .doPrivileged((PrivilegedExceptionAction<CloseableHttpResponse>) () -> httpClient.execute(request))) {
 
-                if (response.getStatusLine().getStatusCode() >= 400) {
-                    throw new WatchExecutionException(
-                            "Web hook returned error: " + response.getStatusLine() + "\n\n" + HttpUtils.getEntityAsDebugString(response), null);
+                    if (response.getStatusLine().getStatusCode() >= 400) {
+                        throw new WatchExecutionException(
+                                "Web hook returned error: " + response.getStatusLine() + "\n\n" + HttpUtils.getEntityAsDebugString(response), null);
+                    }
                 }
             }
 
@@ -4,23 +4,33 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 
 import com.floragunn.signals.script.SignalsScriptContextFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.node.tasks.cancel.CancelTasksRequest;
+import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchTask;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.common.xcontent.ChunkedToXContentObject;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.common.util.concurrent.ThreadContext.StoredContext;
 import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.features.NodeFeature;
 import org.elasticsearch.script.Script;
 import org.elasticsearch.script.TemplateScript;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.xcontent.XContentParser;
 import org.elasticsearch.xcontent.XContentParserConfiguration;
 import org.elasticsearch.xcontent.XContentType;
@@ -29,6 +39,7 @@ import com.floragunn.codova.documents.DocNode;
 import com.floragunn.codova.validation.ConfigValidationException;
 import com.floragunn.codova.validation.ValidatingDocNode;
 import com.floragunn.codova.validation.ValidationErrors;
+import com.floragunn.searchguard.internalauthtoken.InternalAuthTokenProvider;
 import com.floragunn.searchsupport.xcontent.ObjectTreeXContent;
 import com.floragunn.signals.execution.CheckExecutionException;
 import com.floragunn.signals.execution.WatchExecutionContext;
@@ -86,6 +97,108 @@ public abstract class AbstractSearchInput extends AbstractInput {
         return executeSearchRequest(ctx, searchBody);
     }
 
+    @Override
+    public CompletableFuture<Boolean> executeAsync(WatchExecutionContext ctx, Executor executor) {
+        CompletableFuture<Object> searchResult = new CompletableFuture<>();
+        CancellableSearchRequest searchRequest = null;
+
+        try {
+            String searchBody = executeTemplateScript(ctx);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Executed template script:\n" + searchBody);
+            }
+
+            searchRequest = new CancellableSearchRequest(createSearchRequest(ctx, searchBody));
+
+            if (log.isDebugEnabled()) {
+                log.debug("Executing async: " + searchRequest);
+            }
+
+            ctx.getClient().search(searchRequest, new ActionListener<SearchResponse>() {
+
+                @Override
+                public void onResponse(SearchResponse searchResponse) {
+                    // The response is received on a network thread; converting it might be expensive for big responses
+                    try {
+                        executor.execute(() -> {
+                            if (searchResult.isDone()) {
+                                // Already completed by the timeout
+                                searchResponse.decRef();
+                                return;
+                            }
+
+                            try {
+                                searchResult.complete(toResult(searchResponse));
+                            } catch (Exception e) {
+                                searchResult.completeExceptionally(e);
+                            }
+                        });
+                    } catch (Exception e) {
+                        searchResponse.decRef();
+                        searchResult.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    searchResult.completeExceptionally(e);
+                }
+            });
+        } catch (Exception e) {
+            searchResult.completeExceptionally(e);
+        }
+
+        CancellableSearchRequest finalSearchRequest = searchRequest;
+
+        return searchResult.orTimeout(getEffectiveTimeout().millis(), TimeUnit.MILLISECONDS).whenComplete((result, e) -> {
+            if (e instanceof TimeoutException && finalSearchRequest != null) {
+                cancelSearch(ctx, finalSearchRequest.getTask());
+            }
+        }).thenApply((result) -> {
+            setResult(ctx, result);
+            return true;
+        });
+    }
+
+    /**
+     * Cancels the search task, as the search would otherwise continue to use resources after the timeout. The cancel request is executed with
+     * elevated privileges, as the watch user does not necessarily have the privilege to cancel tasks.
+     */
+    private void cancelSearch(WatchExecutionContext ctx, SearchTask task) {
+        if (task == null) {
+            return;
+        }
+
+        ThreadContext threadContext = ctx.getClient().threadPool().getThreadContext();
+
+        try (StoredContext storedContext = threadContext.stashContext()) {
+            threadContext.putHeader(InternalAuthTokenProvider.TOKEN_HEADER, null);
+            threadContext.putHeader(InternalAuthTokenProvider.AUDIENCE_HEADER, null);
+
+            CancelTasksRequest cancelTasksRequest = new CancelTasksRequest();
+            cancelTasksRequest.setTargetTaskId(new TaskId(ctx.getClusterService().localNode().getId(), task.getId()));
+            cancelTasksRequest.setReason("Timeout of " + this + " exceeded");
+
+            ctx.getClient().admin().cluster().cancelTasks(cancelTasksRequest, new ActionListener<ListTasksResponse>() {
+
+                @Override
+                public void onResponse(ListTasksResponse response) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Cancelled search of " + AbstractSearchInput.this + " after timeout: " + response);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    log.warn("Error while cancelling search of " + AbstractSearchInput.this + " after timeout", e);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Error while cancelling search of " + this + " after timeout", e);
+        }
+    }
+
     protected boolean executeSearchRequest(WatchExecutionContext ctx, String searchBody) {
         SearchRequest searchRequest = createSearchRequest(ctx, searchBody);
 
@@ -93,23 +206,29 @@ public abstract class AbstractSearchInput extends AbstractInput {
             log.debug("Executing: " + searchRequest);
         }
 
-        SearchResponse searchResponse = ctx.getClient().search(searchRequest)
-                .actionGet(timeout != null ? timeout : new TimeValue(30, TimeUnit.SECONDS));
+        SearchResponse searchResponse = ctx.getClient().search(searchRequest).actionGet(getEffectiveTimeout());
 
+        setResult(ctx, toResult(searchResponse));
+
+        return true;
+    }
+
+    private Object toResult(SearchResponse searchResponse) {
         try {
             if (log.isDebugEnabled()) {
                 log.debug("Response: " + searchResponse);
             }
 
-            Object result = ObjectTreeXContent.toObjectTree(ChunkedToXContentObject.wrapAsToXContentObject(searchResponse),
+            return ObjectTreeXContent.toObjectTree(ChunkedToXContentObject.wrapAsToXContentObject(searchResponse),
                 new MapParams(Collections.emptyMap()),
                 () -> NestedValueMap.createNonCloningMap());
-            setResult(ctx, result);
         } finally {
             searchResponse.decRef();
         }
+    }
 
-        return true;
+    private TimeValue getEffectiveTimeout() {
+        return timeout != null ? timeout : new TimeValue(30, TimeUnit.SECONDS);
     }
 
     protected SearchRequest createSearchRequest(WatchExecutionContext ctx, String searchBody) {
@@ -152,6 +271,28 @@ public abstract class AbstractSearchInput extends AbstractInput {
         return result;
     }
 
+    /**
+     * Keeps the task created for the search request, so that the search can be cancelled if the timeout is exceeded.
+     */
+    static class CancellableSearchRequest extends SearchRequest {
+        private volatile SearchTask task;
+
+        CancellableSearchRequest(SearchRequest searchRequest) {
+            super(searchRequest);
+        }
+
+        @Override
+        public SearchTask createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+            SearchTask result = super.createTask(id, type, action, parentTaskId, headers);
+            this.task = result;
+            return result;
+        }
+
+        SearchTask getTask() {
+            return task;
+        }
+    }
+
     public TimeValue getTimeout() {
         return timeout;
     }
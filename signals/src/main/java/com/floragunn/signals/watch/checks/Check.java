@@ -3,6 +3,8 @@ package com.floragunn.signals.watch.checks;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.floragunn.codova.documents.DocNode;
 import com.floragunn.codova.validation.ConfigValidationException;
@@ -37,6 +39,20 @@ public abstract class Check extends WatchElement {
 
     public abstract boolean execute(WatchExecutionContext ctx) throws CheckExecutionException;
 
+    /**
+     * Executes the check without blocking the calling thread while waiting for remote responses. Processing of the responses must be done
+     * on the given executor, as responses are received on network threads.
+     * 
+     * The default implementation just executes the check synchronously. Checks which need to wait for remote responses override this.
+     */
+    public CompletableFuture<Boolean> executeAsync(WatchExecutionContext ctx, Executor executor) {
+        try {
+            return CompletableFuture.completedFuture(execute(ctx));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     static Check create(WatchInitializationService watchInitService, DocNode jsonNode) throws ConfigValidationException {
 
         if (!jsonNode.hasNonNull("type")) {
@@ -61,41 +61,45 @@ public class HttpInput extends AbstractInput {
     @Override
     public boolean execute(WatchExecutionContext ctx) throws CheckExecutionException {
 
-        try (CloseableHttpClient httpClient = httpClientConfig.createHttpClient(ctx.getHttpProxyConfig())) {
+        // Shared clients are not closed; the try block just closes HTTP clients which were created for this execution
+        try (CloseableHttpClient httpClient = httpClientConfig.getHttpClient(ctx.getHttpProxyConfig(), ctx.getHttpClientPool())) {
             HttpUriRequest httpRequest = request.createHttpRequest(ctx);
-            CloseableHttpResponse response = AccessController
-                    .doPrivileged((PrivilegedExceptionAction<CloseableHttpResponse>) () -> httpClient.execute(httpRequest));
 
-            if (log.isDebugEnabled()) {
-                log.debug("HTTP response for " + this + ": " + response + "\n" + response);
-            }
-
-            if (response.getStatusLine().getStatusCode() >= 400) {
-                throw new CheckExecutionException(this,
-                        "HTTP input web service returned error: " + response.getStatusLine() + "\n" + HttpUtils.getEntityAsDebugString(response));
-            }
+            // Closing the response releases the connection to the pool
+            try (CloseableHttpResponse response = AccessController
+                    .doPrivileged((PrivilegedExceptionAction<CloseableHttpResponse>) () -> httpClient.execute(httpRequest))) {
 
-            this.request.checkHttpResponse(httpRequest, response);
+                if (log.isDebugEnabled()) {
+                    log.debug("HTTP response for " + this + ": " + response + "\n" + response);
+                }
 
-            
-            Format docType = Format.peekByContentType(getContentType(response));
+                if (response.getStatusLine().getStatusCode() >= 400) {
+                    throw new CheckExecutionException(this,
+                            "HTTP input web service returned error: " + response.getStatusLine() + "\n" + HttpUtils.getEntityAsDebugString(response));
+                }
 
-            if (docType == null) {
-                // just treat the response as plain text
+                this.request.checkHttpResponse(httpRequest, response);
 
-                try {
-                    setResult(ctx, HttpUtils.getEntityAsString(response));
-                } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
-                    throw new CheckExecutionException(this,
-                            "HTTP response contained content encoding" + response.getEntity().getContentEncoding().getValue(), e);
-                } catch (IOException e) {
-                    throw new CheckExecutionException(this, "Error while decoding HTTP response", e);
+            
+                Format docType = Format.peekByContentType(getContentType(response));
+
+                if (docType == null) {
+                    // just treat the response as plain text
+
+                    try {
+                        setResult(ctx, HttpUtils.getEntityAsString(response));
+                    } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                        throw new CheckExecutionException(this,
+                                "HTTP response contained content encoding" + response.getEntity().getContentEncoding().getValue(), e);
+                    } catch (IOException e) {
+                        throw new CheckExecutionException(this, "Error while decoding HTTP response", e);
+                    }
+                } else {
+                    setResult(ctx, DocReader.format(docType).read(response.getEntity().getContent()));
                 }
-            } else {
-                setResult(ctx, DocReader.format(docType).read(response.getEntity().getContent()));
-            }
 
-            return true;
+                return true;
+            }
         } catch (CheckExecutionException e) {
             throw e;
         } catch (Exception e) {
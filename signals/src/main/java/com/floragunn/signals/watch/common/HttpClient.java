@@ -17,9 +17,19 @@ import org.apache.http.protocol.HttpContext;
 public class HttpClient extends CloseableHttpClient {
 
     private final CloseableHttpClient delegate;
+    private final Runnable release;
 
     HttpClient(CloseableHttpClient delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param release if non-null, the client is shared: close() does not close the delegate, but calls release. Shared clients are owned by
+     * HttpClientPool and closed by it.
+     */
+    HttpClient(CloseableHttpClient delegate, Runnable release) {
         this.delegate = delegate;
+        this.release = release;
     }
 
     @Override
@@ -34,8 +44,19 @@ public class HttpClient extends CloseableHttpClient {
 
     @Override
     public void close() throws IOException {
+        if (release != null) {
+            release.run();
+        } else {
+            delegate.close();
+        }
+    }
+
+    void closeShared() throws IOException {
         delegate.close();
+    }
 
+    public boolean isShared() {
+        return release != null;
     }
 
     @Override
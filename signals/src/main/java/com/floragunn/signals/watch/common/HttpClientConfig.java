@@ -47,6 +47,44 @@ public class HttpClientConfig extends WatchElement {
     }
 
     public HttpClient createHttpClient(HttpProxyConfig defaultProxyConfig) {
+        HttpClientBuilder clientBuilder = HttpClients.custom().setDefaultRequestConfig(createRequestConfig());
+
+        clientBuilder.useSystemProperties();
+        
+        // If no password is set, don't ask other components in the system for credentials
+        clientBuilder.setDefaultCredentialsProvider(null);
+
+        if (tlsConfig != null) {
+            clientBuilder.setSSLSocketFactory(tlsConfig.toSSLConnectionSocketFactory());
+        }
+        
+        HttpHost proxy = resolveProxy(defaultProxyConfig);
+    
+        if (proxy != null) {
+            clientBuilder.setProxy(proxy);
+        }
+
+        try {
+            return AccessController.doPrivileged((PrivilegedExceptionAction<HttpClient>) () -> new HttpClient(clientBuilder.build()));
+        } catch (PrivilegedActionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+    }
+
+    /**
+     * Returns a shared client from the given pool. If no pool is available, a new client is created. In both cases, the client must be closed
+     * after use; for shared clients, this is a no-op.
+     */
+    public HttpClient getHttpClient(HttpProxyConfig defaultProxyConfig, HttpClientPool httpClientPool) {
+        if (httpClientPool != null) {
+            return httpClientPool.get(this, defaultProxyConfig);
+        } else {
+            return createHttpClient(defaultProxyConfig);
+        }
+    }
+
+    RequestConfig createRequestConfig() {
         RequestConfig.Builder configBuilder = RequestConfig.custom();
 
         if (connectionTimeoutSecs != null) {
@@ -63,19 +101,10 @@ public class HttpClientConfig extends WatchElement {
             configBuilder.setSocketTimeout(10000);
         }
 
-        RequestConfig config = configBuilder.build();
-
-        HttpClientBuilder clientBuilder = HttpClients.custom().setDefaultRequestConfig(config);
-
-        clientBuilder.useSystemProperties();
-        
-        // If no password is set, don't ask other components in the system for credentials
-        clientBuilder.setDefaultCredentialsProvider(null);
+        return configBuilder.build();
+    }
 
-        if (tlsConfig != null) {
-            clientBuilder.setSSLSocketFactory(tlsConfig.toSSLConnectionSocketFactory());
-        }
-        
+    HttpHost resolveProxy(HttpProxyConfig defaultProxyConfig) {
         HttpHost proxy = null;
         
         if (defaultProxyConfig != null) {
@@ -90,17 +119,8 @@ public class HttpClientConfig extends WatchElement {
                 proxy = null;
             }
         }
-    
-        if (proxy != null) {
-            clientBuilder.setProxy(proxy);
-        }
-
-        try {
-            return AccessController.doPrivileged((PrivilegedExceptionAction<HttpClient>) () -> new HttpClient(clientBuilder.build()));
-        } catch (PrivilegedActionException e) {
-            throw new RuntimeException(e.getCause());
-        }
 
+        return proxy;
     }
 
     @Override
@@ -154,6 +174,18 @@ public class HttpClientConfig extends WatchElement {
     public HttpProxyConfig getProxyConfig() {
         return proxyConfig;
     }
+
+    Integer getConnectionTimeoutSecs() {
+        return connectionTimeoutSecs;
+    }
+
+    Integer getReadTimeoutSecs() {
+        return readTimeoutSecs;
+    }
+
+    TlsConfig getTlsConfig() {
+        return tlsConfig;
+    }
     
     
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.signals.watch.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.Strings;
+
+import com.floragunn.searchsupport.cstate.ComponentState;
+import com.floragunn.searchsupport.cstate.ComponentStateProvider;
+import com.floragunn.searchsupport.cstate.metrics.Count;
+import com.floragunn.searchsupport.cstate.metrics.CountAggregation;
+
+/**
+ * Provides shared HTTP clients with connection pools for watch inputs and actions. Clients are shared between all watches which use an
+ * equivalent HttpClientConfig and the same proxy. Thus, subsequent executions of watches can re-use kept alive connections and avoid new
+ * TCP connections and TLS handshakes.
+ *
+ * If a trust store is updated, the clients using the trust store are retired: New executions get a new client; the retired client is closed
+ * as soon as all executions which obtained it have closed it. The same happens to all clients using a proxy if a proxy is updated.
+ *
+ * Clients which have not been used for the idle timeout are retired as well.
+ *
+ * Cookie management is disabled for the pooled clients, as these are not bound to a single watch.
+ */
+public class HttpClientPool implements Closeable, ComponentStateProvider {
+    private static final Logger log = LogManager.getLogger(HttpClientPool.class);
+
+    private final int maxConnectionsPerRoute;
+    private final int maxConnections;
+    private final long idleTimeoutMs;
+    private final Map<Key, PooledClient> clients = new ConcurrentHashMap<>();
+    private final List<PooledClient> retiredClients = new CopyOnWriteArrayList<>();
+    private final ScheduledThreadPoolExecutor maintenanceScheduler;
+
+    private final ComponentState componentState = new ComponentState(1, null, "http_client_pool", HttpClientPool.class).initialized();
+    private final CountAggregation createdClients = new CountAggregation();
+    private final CountAggregation retiredClientsCount = new CountAggregation();
+
+    public HttpClientPool(int maxConnectionsPerRoute, int maxConnections, Duration idleTimeout) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.maxConnections = maxConnections;
+        this.idleTimeoutMs = idleTimeout.toMillis();
+
+        this.componentState.addMetrics("clients", new Count.Live(() -> (long) clients.size()), "created_clients", createdClients,
+                "retired_clients", retiredClientsCount);
+        this.componentState.addMetrics("leased_connections", new Count.Live(() -> sum(PoolStats::getLeased)), "available_connections",
+                new Count.Live(() -> sum(PoolStats::getAvailable)), "pending_connection_requests", new Count.Live(() -> sum(PoolStats::getPending)));
+        this.componentState.setConfigProperty("max_connections_per_route", maxConnectionsPerRoute);
+        this.componentState.setConfigProperty("max_connections", maxConnections);
+        this.componentState.setConfigProperty("idle_timeout", idleTimeout.toString());
+
+        this.maintenanceScheduler = new ScheduledThreadPoolExecutor(1, (r) -> {
+            Thread thread = new Thread(r, "signals_http_client_pool_maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long maintenanceIntervalMs = Math.max(1000, idleTimeoutMs / 2);
+        this.maintenanceScheduler.scheduleWithFixedDelay(this::maintainSafely, maintenanceIntervalMs, maintenanceIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a shared client for the given configuration. The client must be closed after use; this does not close the client, but just
+     * signals that it is no longer used by the caller.
+     */
+    public HttpClient get(HttpClientConfig config, HttpProxyConfig defaultProxyConfig) {
+        TlsConfig tlsConfig = config.getTlsConfig();
+        Key key = new Key(config.getConnectionTimeoutSecs(), config.getReadTimeoutSecs(), tlsConfig != null ? Strings.toString(tlsConfig) : null,
+                config.resolveProxy(defaultProxyConfig));
+
+        for (;;) {
+            PooledClient pooledClient = clients.get(key);
+
+            if (pooledClient == null) {
+                pooledClient = clients.computeIfAbsent(key, (k) -> create(k, config));
+            }
+
+            if (pooledClient.acquire()) {
+                pooledClient.lastUsed = System.currentTimeMillis();
+                return pooledClient.client;
+            }
+
+            // The client has been retired and closed after we got it from the map
+            clients.remove(key, pooledClient);
+        }
+    }
+
+    /**
+     * Retires all clients using the trust store with the given id. If the id is null, all clients using a trust store are retired.
+     */
+    public void onTruststoreUpdate(String truststoreId) {
+        retire((client) -> client.truststoreId != null && (truststoreId == null || truststoreId.equals(client.truststoreId)));
+    }
+
+    /**
+     * Retires all clients using a proxy. The proxy id is not taken into account, as the clients only know the resolved proxy host.
+     */
+    public void onProxyUpdate(String proxyId) {
+        retire((client) -> client.key.proxy != null);
+    }
+
+    @Override
+    public void close() {
+        maintenanceScheduler.shutdown();
+
+        for (PooledClient client : clients.values()) {
+            close(client);
+        }
+
+        for (PooledClient client : retiredClients) {
+            close(client);
+        }
+
+        clients.clear();
+        retiredClients.clear();
+    }
+
+    @Override
+    public ComponentState getComponentState() {
+        return componentState;
+    }
+
+    private PooledClient create(Key key, HttpClientConfig config) {
+        TlsConfig tlsConfig = config.getTlsConfig();
+
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", tlsConfig != null ? tlsConfig.toSSLConnectionSocketFactory() : SSLConnectionSocketFactory.getSystemSocketFactory())
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(maxConnections);
+
+        HttpClientBuilder clientBuilder = HttpClients.custom().setDefaultRequestConfig(config.createRequestConfig())
+                .setConnectionManager(connectionManager);
+
+        clientBuilder.useSystemProperties();
+
+        // If no password is set, don't ask other components in the system for credentials
+        clientBuilder.setDefaultCredentialsProvider(null);
+
+        // Pooled clients are shared between watches of different tenants. Thus, cookies received by one execution must not be sent
+        // by another one.
+        clientBuilder.disableCookieManagement();
+
+        if (key.proxy != null) {
+            clientBuilder.setProxy(key.proxy);
+        }
+
+        try {
+            CloseableHttpClient client = AccessController.doPrivileged((PrivilegedExceptionAction<CloseableHttpClient>) () -> clientBuilder.build());
+
+            createdClients.increment();
+
+            if (log.isDebugEnabled()) {
+                log.debug("Created new pooled HTTP client for {}", key);
+            }
+
+            return new PooledClient(key, client, connectionManager, tlsConfig != null ? tlsConfig.getTruststoreId() : null);
+        } catch (PrivilegedActionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void retire(Predicate<PooledClient> predicate) {
+        for (PooledClient client : new ArrayList<>(clients.values())) {
+            if (predicate.test(client) && clients.remove(client.key, client)) {
+                retire(client);
+            }
+        }
+    }
+
+    private void retire(PooledClient client) {
+        retiredClientsCount.increment();
+        // Kept alive connections might have been established using outdated settings
+        client.connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        retiredClients.add(client);
+    }
+
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.error("Error while maintaining HTTP client pool", e);
+            componentState.addLastException("maintenance", e);
+        }
+    }
+
+    void maintain() {
+        long now = System.currentTimeMillis();
+
+        for (PooledClient client : clients.values()) {
+            client.connectionManager.closeExpiredConnections();
+            client.connectionManager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+
+            if (now - client.lastUsed > idleTimeoutMs && !client.isInUse() && clients.remove(client.key, client)) {
+                retire(client);
+            }
+        }
+
+        // Retired clients might be still in use by executions which obtained the client before it was retired. Thus, we only close
+        // these if all these executions have released the client.
+        for (PooledClient client : retiredClients) {
+            if (client.markClosed()) {
+                close(client);
+                retiredClients.remove(client);
+            }
+        }
+    }
+
+    private void close(PooledClient client) {
+        try {
+            client.client.closeShared();
+        } catch (IOException e) {
+            log.warn("Error while closing HTTP client for {}", client.key, e);
+        }
+    }
+
+    private long sum(ToIntFunction<PoolStats> function) {
+        long result = 0;
+
+        for (PooledClient client : clients.values()) {
+            result += function.applyAsInt(client.connectionManager.getTotalStats());
+        }
+
+        for (PooledClient client : retiredClients) {
+            result += function.applyAsInt(client.connectionManager.getTotalStats());
+        }
+
+        return result;
+    }
+
+    static class PooledClient {
+        private final Key key;
+        private final HttpClient client;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final String truststoreId;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        /**
+         * The number of callers which obtained the client and did not close it yet; -1 if the client has been closed by the pool
+         */
+        private final AtomicInteger acquisitions = new AtomicInteger();
+
+        PooledClient(Key key, CloseableHttpClient client, PoolingHttpClientConnectionManager connectionManager, String truststoreId) {
+            this.key = key;
+            this.client = new HttpClient(client, this::release);
+            this.connectionManager = connectionManager;
+            this.truststoreId = truststoreId;
+        }
+
+        /**
+         * Returns false if the client has been already closed and thus must not be used.
+         */
+        boolean acquire() {
+            for (;;) {
+                int current = acquisitions.get();
+
+                if (current < 0) {
+                    return false;
+                }
+
+                if (acquisitions.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            // Guards against callers which close the client more than once
+            acquisitions.updateAndGet((current) -> current > 0 ? current - 1 : current);
+        }
+
+        boolean isInUse() {
+            return acquisitions.get() > 0;
+        }
+
+        /**
+         * Returns true if the client is not in use and can be closed. Afterwards, the client cannot be acquired any more.
+         */
+        boolean markClosed() {
+            return acquisitions.compareAndSet(0, -1);
+        }
+    }
+
+    static class Key {
+        private final Integer connectionTimeoutSecs;
+        private final Integer readTimeoutSecs;
+        private final String tlsConfig;
+        private final HttpHost proxy;
+        private final int hashCode;
+
+        Key(Integer connectionTimeoutSecs, Integer readTimeoutSecs, String tlsConfig, HttpHost proxy) {
+            this.connectionTimeoutSecs = connectionTimeoutSecs;
+            this.readTimeoutSecs = readTimeoutSecs;
+            this.tlsConfig = tlsConfig;
+            this.proxy = proxy;
+            this.hashCode = Objects.hash(connectionTimeoutSecs, readTimeoutSecs, tlsConfig, proxy);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(connectionTimeoutSecs, other.connectionTimeoutSecs) && Objects.equals(readTimeoutSecs, other.readTimeoutSecs)
+                    && Objects.equals(tlsConfig, other.tlsConfig) && Objects.equals(proxy, other.proxy);
+        }
+
+        @Override
+        public String toString() {
+            // The TLS config is not included as it might contain sensitive information
+            return "Key [connectionTimeoutSecs=" + connectionTimeoutSecs + ", readTimeoutSecs=" + readTimeoutSecs + ", tls="
+                    + (tlsConfig != null) + ", proxy=" + proxy + "]";
+        }
+    }
+}
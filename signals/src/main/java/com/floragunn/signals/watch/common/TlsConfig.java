@@ -148,6 +148,10 @@ public class TlsConfig implements ToXContentObject {
         this.truststoreId = truststoreId;
     }
 
+    public String getTruststoreId() {
+        return truststoreId;
+    }
+
     public void setClientSessionTimeout(Integer clientSessionTimeoutInSec) {
         this.clientSessionTimeout = clientSessionTimeoutInSec;
     }
@@ -23,6 +23,7 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -65,6 +66,7 @@ public class WatchLog implements ToXContentObject {
     private WatchExecutionContextData runtimeAttributes;
     private List<ActionLog> actions;
     private List<ActionLog> resolveActions;
+    private Map<String, Long> stageDurations;
 
     public String getId() {
         return id;
@@ -167,6 +169,10 @@ public class WatchLog implements ToXContentObject {
             builder.field("node", node);
         }
 
+        if (stageDurations != null && !stageDurations.isEmpty()) {
+            builder.field("stage_durations_ms", stageDurations);
+        }
+
         builder.endObject();
 
         return builder;
@@ -235,6 +241,14 @@ public class WatchLog implements ToXContentObject {
             result.node = jsonNode.getAsString("node");
         }
 
+        if (jsonNode.hasNonNull("stage_durations_ms")) {
+            for (Map.Entry<String, Object> entry : jsonNode.getAsNode("stage_durations_ms").toMap().entrySet()) {
+                if (entry.getValue() instanceof Number) {
+                    result.setStageDuration(entry.getKey(), ((Number) entry.getValue()).longValue());
+                }
+            }
+        }
+
         return result;
     }
 
@@ -291,5 +305,21 @@ public class WatchLog implements ToXContentObject {
         this.watchVersion = watchVersion;
     }
 
+    /**
+     * Returns the durations of the execution stages (checks, severity mapping, actions, resolve actions) in milliseconds, in the order the
+     * stages were executed. Stages which were not reached are not contained.
+     */
+    public Map<String, Long> getStageDurations() {
+        return stageDurations;
+    }
+
+    public void setStageDuration(String stage, long durationMs) {
+        if (this.stageDurations == null) {
+            this.stageDurations = new LinkedHashMap<>();
+        }
+
+        this.stageDurations.put(stage, durationMs);
+    }
+
 
 }
@@ -1,5 +1,7 @@
 package com.floragunn.signals.watch.result;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.ActionListener;
@@ -44,6 +46,27 @@ public class WatchLogIndexWriter implements WatchLogWriter {
 
     @Override
     public void put(WatchLog watchLog) {
+        write(watchLog, syncIndexing, null);
+    }
+
+    /**
+     * Always indexes asynchronously. If sync indexing is configured, the returned future is completed only after the index request has
+     * finished, so that callers waiting for the future get the same guarantees as with put().
+     */
+    @Override
+    public CompletableFuture<Void> putAsync(WatchLog watchLog) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        write(watchLog, false, result);
+
+        if (!syncIndexing) {
+            result.complete(null);
+        }
+
+        return result;
+    }
+
+    private void write(WatchLog watchLog, boolean sync, CompletableFuture<Void> completion) {
         String indexName = settings.getDynamicSettings().getWatchLogIndex();
 
         IndexRequest indexRequest = new IndexRequest(indexName);
@@ -67,7 +90,7 @@ public class WatchLogIndexWriter implements WatchLogWriter {
             indexRequest.source(jsonBuilder);
             indexRequest.setRefreshPolicy(refreshPolicy);
 
-            if (syncIndexing) {
+            if (sync) {
                 DocWriteResponse response = client.index(indexRequest).actionGet();
                 
                 if (log.isDebugEnabled()) {
@@ -81,17 +104,29 @@ public class WatchLogIndexWriter implements WatchLogWriter {
                         if (log.isDebugEnabled()) {
                             log.debug("Completed writing WatchLog: " + watchLog + "\n" + Strings.toString(response));
                         }
+
+                        if (completion != null) {
+                            completion.complete(null);
+                        }
                     }
 
                     @Override
                     public void onFailure(Exception e) {
                         log.error("Error while writing WatchLog " + watchLog, e);
+
+                        if (completion != null) {
+                            completion.complete(null);
+                        }
                     }
                 });
             }
 
         } catch (Exception e) {
             log.error("Error while writing WatchLog " + watchLog, e);
+
+            if (completion != null) {
+                completion.complete(null);
+            }
         }
 
     }
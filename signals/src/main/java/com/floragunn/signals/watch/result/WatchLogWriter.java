@@ -1,5 +1,16 @@
 package com.floragunn.signals.watch.result;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface WatchLogWriter {
     void put(WatchLog watchLog);
+
+    /**
+     * Writes the watch log without blocking the calling thread. The returned future is completed when writing has finished; errors are
+     * handled by the writer and do not complete the future exceptionally.
+     */
+    default CompletableFuture<Void> putAsync(WatchLog watchLog) {
+        put(watchLog);
+        return CompletableFuture.completedFuture(null);
+    }
 }
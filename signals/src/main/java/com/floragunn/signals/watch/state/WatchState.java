@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.floragunn.signals.watch.common.Ack;
 import com.google.common.base.Preconditions;
@@ -56,6 +57,7 @@ public class WatchState implements ToXContentObject {
     private String node;
     private boolean refreshBeforeExecuting;
     private transient final Instant creationTime = Instant.now();
+    private transient final AtomicBoolean executionInProgress = new AtomicBoolean();
 
     public WatchState(String tenant) {
         this.tenant = tenant;
@@ -66,6 +68,18 @@ public class WatchState implements ToXContentObject {
         this.node = node;
     }
 
+    /**
+     * Marks the watch as being executed. Returns false if another execution is still in progress. This is used by asynchronous
+     * executions, which are not covered by the Quartz DisallowConcurrentExecution mechanism.
+     */
+    public boolean tryStartExecution() {
+        return executionInProgress.compareAndSet(false, true);
+    }
+
+    public void finishExecution() {
+        executionInProgress.set(false);
+    }
+
     public ActionState getActionState(String actionId) {
 
         if (actionId == null) {
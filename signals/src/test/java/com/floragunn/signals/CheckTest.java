@@ -10,6 +10,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import com.floragunn.codova.documents.DocNode;
 import com.floragunn.codova.validation.ValidatingDocNode;
@@ -183,6 +185,26 @@ public class CheckTest {
         Assert.assertEquals("x", searchResult.get(0).get("_source").get("a"));
     }
 
+    @Test
+    public void searchAsyncTest() throws Exception {
+
+        SearchInput searchInput = new SearchInput("test", "test", "testsource", "{\"query\": {\"term\" : {\"a\": \"x\"} }}");
+        searchInput.compileScripts(watchInitializationService);
+
+        NestedValueMap runtimeData = new NestedValueMap();
+        WatchExecutionContext ctx = buildWatchExecutionContext(runtimeData);
+
+        boolean result = searchInput.executeAsync(ctx, ForkJoinPool.commonPool()).get(30, TimeUnit.SECONDS);
+
+        Assert.assertTrue(result);
+
+        @SuppressWarnings("unchecked")
+        List<Map<?, Map<?, ?>>> searchResult = (List<Map<?, Map<?, ?>>>) runtimeData.get(new NestedValueMap.Path("test", "hits", "hits"));
+
+        Assert.assertEquals(1, searchResult.size());
+        Assert.assertEquals("x", searchResult.get(0).get("_source").get("a"));
+    }
+
     @Test
     public void searchWithTemplateTest() throws Exception {
 
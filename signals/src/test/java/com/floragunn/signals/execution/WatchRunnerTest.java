@@ -0,0 +1,290 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.signals.execution;
+
+import static com.floragunn.signals.watch.common.ValidationLevel.LENIENT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.search.TotalHits;
+import org.awaitility.Awaitility;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.node.tasks.cancel.CancelTasksRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.client.internal.AdminClient;
+import org.elasticsearch.client.internal.Client;
+import org.elasticsearch.client.internal.ClusterAdminClient;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.script.TemplateScript;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xcontent.NamedXContentRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.quartz.JobExecutionContext;
+
+import com.floragunn.codova.documents.DocNode;
+import com.floragunn.codova.documents.Format;
+import com.floragunn.searchsupport.diag.DiagnosticContext;
+import com.floragunn.searchsupport.util.EsLogging;
+import com.floragunn.signals.accounts.AccountRegistry;
+import com.floragunn.signals.proxy.service.HttpProxyHostRegistry;
+import com.floragunn.signals.script.SignalsScriptContextFactory;
+import com.floragunn.signals.settings.SignalsSettings;
+import com.floragunn.signals.truststore.service.TrustManagerRegistry;
+import com.floragunn.signals.watch.Watch;
+import com.floragunn.signals.watch.WatchBuilder;
+import com.floragunn.signals.watch.checks.SearchInput;
+import com.floragunn.signals.watch.common.throttle.ValidatingThrottlePeriodParser;
+import com.floragunn.signals.watch.init.WatchInitializationService;
+import com.floragunn.signals.watch.result.Status;
+import com.floragunn.signals.watch.result.WatchLog;
+import com.floragunn.signals.watch.state.WatchState;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WatchRunnerTest {
+
+    private static final String TENANT = "_main";
+    private static final String EXECUTOR_THREAD_NAME = "signals_async_execution_test";
+
+    @ClassRule
+    public static EsLogging esLogging = new EsLogging();
+
+    @Mock
+    public Client client;
+
+    @Mock
+    public ThreadPool threadPool;
+
+    @Mock
+    public ScriptService scriptService;
+
+    @Mock
+    public ClusterService clusterService;
+
+    @Mock
+    public DiagnosticContext diagnosticContext;
+
+    @Mock
+    public TrustManagerRegistry trustManagerRegistry;
+
+    @Mock
+    public HttpProxyHostRegistry httpProxyHostRegistry;
+
+    @Mock
+    public TemplateScript.Factory templateScriptFactory;
+
+    @Mock
+    public TemplateScript templateScript;
+
+    private NamedXContentRegistry xContentRegistry;
+    private ExecutorService executor;
+    private final List<WatchLog> watchLogs = new CopyOnWriteArrayList<>();
+    private final List<String> watchLogThreadNames = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        xContentRegistry = new NamedXContentRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedXContents());
+        executor = Executors.newSingleThreadExecutor((runnable) -> new Thread(runnable, EXECUTOR_THREAD_NAME));
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        when(scriptService.compile(any(), eq(SignalsScriptContextFactory.TEMPLATE_CONTEXT))).thenReturn(templateScriptFactory);
+        when(templateScriptFactory.newInstance(any())).thenReturn(templateScript);
+        when(templateScript.execute()).thenReturn("{\"query\":{\"match_all\":{}}}");
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void executeAsyncRunsStagesOnExecutor() throws Exception {
+        doAnswer((invocation) -> {
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            new Thread(() -> listener.onResponse(searchResponseWithOneHit()), "transport_test").start();
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        WatchRunner watchRunner = createWatchRunner(createWatch(), new WatchState(TENANT), Settings.EMPTY);
+
+        WatchLog watchLog = watchRunner.executeAsync(executor).get(10, TimeUnit.SECONDS);
+
+        assertThat(watchLog.getStatus().getCode(), equalTo(Status.Code.NO_ACTION));
+        assertThat(watchLogThreadNames, contains(EXECUTOR_THREAD_NAME));
+        assertThat(watchLog.getData().toString(), watchLog.getData().containsKey("testsearch"), equalTo(true));
+    }
+
+    @Test
+    public void executeAsyncRecordsStageDurations() throws Exception {
+        doAnswer((invocation) -> {
+            ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            listener.onResponse(searchResponseWithOneHit());
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        WatchRunner watchRunner = createWatchRunner(createWatch(), new WatchState(TENANT), Settings.EMPTY);
+
+        WatchLog watchLog = watchRunner.executeAsync(executor).get(10, TimeUnit.SECONDS);
+
+        assertThat(watchLog.getStageDurations().keySet(), contains("checks", "actions", "resolve_actions"));
+
+        WatchLog parsedWatchLog = WatchLog.parse("test_watch_log", Strings.toString(watchLog));
+
+        assertThat(parsedWatchLog.getStageDurations(), equalTo(watchLog.getStageDurations()));
+    }
+
+    @Test
+    public void overlappingScheduledExecutionsAreSkipped() throws Exception {
+        List<ActionListener<SearchResponse>> pendingSearches = new CopyOnWriteArrayList<>();
+
+        doAnswer((invocation) -> {
+            pendingSearches.add(invocation.getArgument(1));
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        Settings settings = Settings.builder().put("signals.execution.async", true).build();
+        Watch watch = createWatch();
+        WatchState watchState = new WatchState(TENANT);
+        JobExecutionContext jobExecutionContext = mock(JobExecutionContext.class);
+
+        createWatchRunner(watch, watchState, settings).execute(jobExecutionContext);
+        createWatchRunner(watch, watchState, settings).execute(jobExecutionContext);
+
+        verify(client, times(1)).search(any(SearchRequest.class), any());
+
+        pendingSearches.get(0).onResponse(searchResponseWithOneHit());
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(watchState::tryStartExecution);
+        watchState.finishExecution();
+
+        createWatchRunner(watch, watchState, settings).execute(jobExecutionContext);
+
+        verify(client, times(2)).search(any(SearchRequest.class), any());
+
+        pendingSearches.get(1).onResponse(searchResponseWithOneHit());
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> watchLogs.size() == 2);
+    }
+
+    @Test
+    public void timedOutSearchIsCancelled() throws Exception {
+        AdminClient adminClient = mock(AdminClient.class);
+        ClusterAdminClient clusterAdminClient = mock(ClusterAdminClient.class);
+        DiscoveryNode localNode = mock(DiscoveryNode.class);
+        when(client.admin()).thenReturn(adminClient);
+        when(adminClient.cluster()).thenReturn(clusterAdminClient);
+        when(clusterService.localNode()).thenReturn(localNode);
+        when(localNode.getId()).thenReturn("test_node_id");
+
+        doAnswer((invocation) -> {
+            SearchRequest searchRequest = invocation.getArgument(0);
+            // Simulates the transport action, which creates the task, but never responds
+            searchRequest.createTask(42, "transport", "indices:data/read/search", TaskId.EMPTY_TASK_ID, Collections.emptyMap());
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+
+        Watch watch = createWatch();
+        ((SearchInput) watch.getChecks().get(0)).setTimeout(TimeValue.timeValueMillis(100));
+
+        CompletableFuture<WatchLog> result = createWatchRunner(watch, new WatchState(TENANT), Settings.EMPTY).executeAsync(executor);
+
+        try {
+            result.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(WatchExecutionException.class));
+        }
+
+        assertThat(result.isCompletedExceptionally(), equalTo(true));
+
+        ArgumentCaptor<CancelTasksRequest> cancelTasksRequestCaptor = ArgumentCaptor.forClass(CancelTasksRequest.class);
+        verify(clusterAdminClient).cancelTasks(cancelTasksRequestCaptor.capture(), any());
+        assertThat(cancelTasksRequestCaptor.getValue().getTargetTaskId(), equalTo(new TaskId("test_node_id", 42)));
+
+        assertThat(watchLogs.size(), equalTo(1));
+        assertThat(watchLogs.get(0).getStatus().getCode(), equalTo(Status.Code.EXECUTION_FAILED));
+        assertThat(watchLogs.get(0).getStatus().getDetail(), startsWith("Error while executing"));
+    }
+
+    private Watch createWatch() throws Exception {
+        SignalsSettings signalsSettings = new SignalsSettings(Settings.EMPTY);
+        WatchInitializationService initService = new WatchInitializationService(new AccountRegistry(Collections.emptyMap()), scriptService,
+                trustManagerRegistry, httpProxyHostRegistry, new ValidatingThrottlePeriodParser(signalsSettings), LENIENT, TENANT);
+
+        Watch watch = new WatchBuilder("test_watch").atMsInterval(100).search("testsource").query("{\"match_all\" : {} }").as("testsearch")
+                .build();
+
+        return Watch.parse(initService, TENANT, "test_watch", watch.toJson(), -1);
+    }
+
+    private WatchRunner createWatchRunner(Watch watch, WatchState watchState, Settings settings) {
+        return new WatchRunner(watch, client, new AccountRegistry(Collections.emptyMap()), scriptService, (watchLog) -> {
+            watchLogThreadNames.add(Thread.currentThread().getName());
+            watchLogs.add(watchLog);
+        }, null, diagnosticContext, watchState, ExecutionEnvironment.SCHEDULED, SimulationMode.FOR_REAL, xContentRegistry,
+                new SignalsSettings(settings), "test_node", null, null, trustManagerRegistry, clusterService, null, null, executor);
+    }
+
+    private SearchResponse searchResponseWithOneHit() {
+        BytesReference source = BytesReference.fromByteBuffer(ByteBuffer.wrap(DocNode.of("a", "b").toBytes(Format.JSON)));
+        SearchHit[] hits = new SearchHit[] { SearchHit.unpooled(1).sourceRef(source) };
+        TotalHits totalHits = new TotalHits(1, TotalHits.Relation.EQUAL_TO);
+        SearchHits searchHits = SearchHits.unpooled(hits, totalHits, 1);
+        return new SearchResponse(searchHits, null, null, false, false, null, 0, null, 1, 1, 0, 10, ShardSearchFailure.EMPTY_ARRAY,
+                SearchResponse.Clusters.EMPTY);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.signals.watch.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.floragunn.signals.truststore.service.TrustManagerRegistry;
+
+public class HttpClientPoolTest {
+
+    private HttpClientPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new HttpClientPool(2, 10, Duration.ofSeconds(60));
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void get_shouldReturnSameClient_forEquivalentConfig() {
+        HttpClient client1 = new HttpClientConfig(1, 2, null, null).getHttpClient(null, pool);
+        HttpClient client2 = new HttpClientConfig(1, 2, null, null).getHttpClient(null, pool);
+
+        assertThat(client1, sameInstance(client2));
+        assertThat(client1.isShared(), equalTo(true));
+    }
+
+    @Test
+    public void get_shouldReturnDifferentClients_forDifferentTimeouts() {
+        HttpClient client1 = new HttpClientConfig(1, 2, null, null).getHttpClient(null, pool);
+        HttpClient client2 = new HttpClientConfig(1, 3, null, null).getHttpClient(null, pool);
+
+        assertThat(client1, not(sameInstance(client2)));
+    }
+
+    @Test
+    public void close_shouldNotCloseSharedClient() throws Exception {
+        HttpClientConfig config = new HttpClientConfig(1, 2, null, null);
+        HttpClient client1 = config.getHttpClient(null, pool);
+        client1.close();
+
+        HttpClient client2 = config.getHttpClient(null, pool);
+
+        assertThat(client1, sameInstance(client2));
+    }
+
+    @Test
+    public void getHttpClient_shouldCreateUnsharedClient_withoutPool() throws Exception {
+        try (HttpClient client = new HttpClientConfig(1, 2, null, null).getHttpClient(null, null)) {
+            assertThat(client.isShared(), equalTo(false));
+        }
+    }
+
+    @Test
+    public void get_shouldNotShareCookiesBetweenExecutions() throws Exception {
+        List<String> receivedCookies = new CopyOnWriteArrayList<>();
+
+        HttpServer server = ServerBootstrap.bootstrap().setListenerPort(0).registerHandler("/*", (request, response, context) -> {
+            Header cookie = request.getFirstHeader("Cookie");
+            receivedCookies.add(cookie != null ? cookie.getValue() : null);
+            response.setStatusCode(200);
+            response.addHeader("Set-Cookie", "session=tenant_a; Path=/");
+            response.setEntity(new StringEntity("ok"));
+        }).create();
+
+        server.start();
+
+        try {
+            HttpClientConfig config = new HttpClientConfig(1, 2, null, null);
+            String uri = "http://127.0.0.1:" + server.getLocalPort() + "/";
+
+            try (CloseableHttpResponse response = config.getHttpClient(null, pool).execute(new HttpGet(uri))) {
+                EntityUtils.consume(response.getEntity());
+            }
+
+            try (CloseableHttpResponse response = config.getHttpClient(null, pool).execute(new HttpGet(uri))) {
+                EntityUtils.consume(response.getEntity());
+            }
+
+            assertThat(receivedCookies.size(), equalTo(2));
+            assertThat(receivedCookies.get(1), nullValue());
+        } finally {
+            server.shutdown(0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void onProxyUpdate_shouldRetireClientsUsingProxy() throws Exception {
+        HttpClientConfig proxyConfig = new HttpClientConfig(1, 2, null, HttpProxyConfig.create("http://127.0.0.1:8080"));
+        HttpClientConfig directConfig = new HttpClientConfig(1, 2, null, null);
+
+        HttpClient proxyClient1 = proxyConfig.getHttpClient(null, pool);
+        HttpClient directClient1 = directConfig.getHttpClient(null, pool);
+
+        pool.onProxyUpdate("my_proxy");
+
+        HttpClient proxyClient2 = proxyConfig.getHttpClient(null, pool);
+        HttpClient directClient2 = directConfig.getHttpClient(null, pool);
+
+        assertThat(proxyClient1, not(sameInstance(proxyClient2)));
+        assertThat(directClient1, sameInstance(directClient2));
+    }
+
+    @Test
+    public void onTruststoreUpdate_shouldRetireClientsUsingTruststore() throws Exception {
+        TrustManagerRegistry trustManagerRegistry = mock(TrustManagerRegistry.class);
+        HttpClientConfig config1 = new HttpClientConfig(1, 2, TlsConfig.parseJson("{\"truststore_id\": \"ts_1\"}", trustManagerRegistry), null);
+        HttpClientConfig config2 = new HttpClientConfig(1, 2, TlsConfig.parseJson("{\"truststore_id\": \"ts_2\"}", trustManagerRegistry), null);
+        HttpClientConfig directConfig = new HttpClientConfig(1, 2, null, null);
+
+        HttpClient client1 = config1.getHttpClient(null, pool);
+        HttpClient client2 = config2.getHttpClient(null, pool);
+        HttpClient directClient = directConfig.getHttpClient(null, pool);
+
+        pool.onTruststoreUpdate("ts_1");
+
+        assertThat(config1.getHttpClient(null, pool), not(sameInstance(client1)));
+        assertThat(config2.getHttpClient(null, pool), sameInstance(client2));
+        assertThat(directConfig.getHttpClient(null, pool), sameInstance(directClient));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void maintain_shouldCloseRetiredClient_onlyAfterRelease() throws Exception {
+        HttpServer server = ServerBootstrap.bootstrap().setListenerPort(0).registerHandler("/*", (request, response, context) -> {
+            response.setStatusCode(200);
+            response.setEntity(new StringEntity("ok"));
+        }).create();
+
+        server.start();
+
+        try {
+            TrustManagerRegistry trustManagerRegistry = mock(TrustManagerRegistry.class);
+            HttpClientConfig config = new HttpClientConfig(1, 2, TlsConfig.parseJson("{\"truststore_id\": \"ts_1\"}", trustManagerRegistry), null);
+            String uri = "http://127.0.0.1:" + server.getLocalPort() + "/";
+
+            HttpClient client = config.getHttpClient(null, pool);
+
+            pool.onTruststoreUpdate("ts_1");
+            pool.maintain();
+
+            try (CloseableHttpResponse response = client.execute(new HttpGet(uri))) {
+                assertThat(response.getStatusLine().getStatusCode(), equalTo(200));
+                EntityUtils.consume(response.getEntity());
+            }
+
+            client.close();
+            pool.maintain();
+
+            // Throws IllegalStateException, as the connection pool of the client has been shut down
+            client.execute(new HttpGet(uri)).close();
+        } finally {
+            server.shutdown(0, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -102,6 +102,14 @@ public class CountAggregation extends Measurement<CountAggregation> {
         return this.subCounts.computeIfAbsent(name, (k) -> new CountAggregation());
     }
 
+    public long getCount() {
+        return this.count.get();
+    }
+
+    public Map<String, CountAggregation> getSubCounts() {
+        return this.subCounts;
+    }
+
     @Override
     public Object toBasicObject() {
         long count = this.count.get();
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.cstate.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram for non-negative long values with logarithmically sized buckets, similar to HdrHistogram.
+ *
+ * Each power of two is divided into SUB_BUCKETS buckets of equal width. Thus, the relative error of a value reported for a bucket is at
+ * most 1/SUB_BUCKETS. Values below SUB_BUCKETS are counted exactly; values at or above 2^MAX_EXPONENT are counted in the last bucket.
+ *
+ * Each bucket is a LongAdder, which is only allocated when the first value is recorded into the bucket. Thus, concurrent recording
+ * threads do not contend on a shared counter, and the memory footprint is proportional to the number of distinct value ranges seen.
+ */
+final class LogBucketHistogram {
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+
+    void record(long value) {
+        bucket(bucketIndex(value)).increment();
+    }
+
+    void add(int bucketIndex, long count) {
+        if (count != 0) {
+            bucket(bucketIndex).add(count);
+        }
+    }
+
+    void addToThis(LogBucketHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder otherBucket = other.buckets.get(i);
+
+            if (otherBucket != null) {
+                add(i, otherBucket.sum());
+            }
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = buckets.get(i);
+
+            if (bucket != null) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the bucket counts. As recording is not blocked, the snapshot may miss values recorded concurrently.
+     */
+    long[] getCounts() {
+        long[] result = new long[BUCKET_COUNT];
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = buckets.get(i);
+
+            if (bucket != null) {
+                result[i] = bucket.sum();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the approximate value at the given quantile (0 to 1) of the given bucket counts. The result is clamped to the given minimum and
+     * maximum, which are known exactly.
+     */
+    static long valueAtQuantile(long[] counts, double quantile, long min, long max) {
+        long total = 0;
+
+        for (long count : counts) {
+            total += count;
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                long value = bucketLowerBound(i) + (bucketWidth(i) - 1) / 2;
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+
+        return max;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return value < 0 ? 0 : (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int group = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+
+        return ((long) (SUB_BUCKETS + subBucket)) << (group - 1);
+    }
+
+    static long bucketWidth(int index) {
+        if (index < SUB_BUCKETS) {
+            return 1;
+        }
+
+        return 1L << (index / SUB_BUCKETS - 1);
+    }
+
+    private LongAdder bucket(int index) {
+        LongAdder bucket = buckets.get(index);
+
+        if (bucket == null) {
+            LongAdder newBucket = new LongAdder();
+
+            if (buckets.compareAndSet(index, null, newBucket)) {
+                bucket = newBucket;
+            } else {
+                bucket = buckets.get(index);
+            }
+        }
+
+        return bucket;
+    }
+}
@@ -42,7 +42,9 @@ public abstract class Measurement<M> implements Document<Measurement<M>> {
         try {
             switch (type) {
             case "agg":
-                if (typeNode.hasNonNull("agg_ms")) {
+                if (typeNode.hasNonNull("buckets")) {
+                    return new TimeAggregation.Histogram(typeNode);
+                } else if (typeNode.hasNonNull("agg_ms")) {
                     return new TimeAggregation.Milliseconds(typeNode);
                 } else if (typeNode.hasNonNull("agg_ns")) {
                     return new TimeAggregation.Nanoseconds(typeNode);
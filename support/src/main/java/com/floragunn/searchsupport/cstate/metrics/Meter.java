@@ -34,7 +34,11 @@ public interface Meter extends AutoCloseable {
         }
         
         if (level.basicEnabled()) {
-            return new SystemCurrentTimeMillisMeter(level, sink);
+            if (sink instanceof TimeAggregation.Histogram) {
+                return new SystemNanoTimeMeter(level, sink);
+            } else {
+                return new SystemCurrentTimeMillisMeter(level, sink);
+            }
         } else {
             return NO_OP;
         }
@@ -47,7 +51,9 @@ public interface Meter extends AutoCloseable {
         }
 
         if (level.basicEnabled()) {
-            if (sink instanceof TimeAggregation) {
+            if (sink instanceof TimeAggregation.Histogram) {
+                return new SystemNanoTimeMeter(level, (TimeAggregation) sink);
+            } else if (sink instanceof TimeAggregation) {
                 return new SystemCurrentTimeMillisMeter(level, (TimeAggregation) sink);
             } else if (sink instanceof CountAggregation) {
                 return new CountingMeter(level, (CountAggregation) sink);
@@ -66,8 +72,8 @@ public interface Meter extends AutoCloseable {
         }
 
         if (level.detailedEnabled()) {
-            if (sink instanceof Nanoseconds) {
-                return new SystemNanoTimeMeter(level, (Nanoseconds) sink);
+            if (sink instanceof Nanoseconds || sink instanceof TimeAggregation.Histogram) {
+                return new SystemNanoTimeMeter(level, (TimeAggregation) sink);
             } else if (sink instanceof TimeAggregation) {
                 return new SystemCurrentTimeMillisMeter(level, (TimeAggregation) sink);
             } else if (sink instanceof CountAggregation) {
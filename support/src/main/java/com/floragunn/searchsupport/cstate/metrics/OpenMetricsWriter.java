@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.cstate.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.floragunn.searchsupport.cstate.ComponentState;
+
+/**
+ * Renders the metrics of component states in the Prometheus text exposition format or in the OpenMetrics text format.
+ *
+ * Only component states which are associated with a node are rendered; each sample gets the node name as label. Thus, metrics of merged
+ * component states should be passed with their per-node parts. Time aggregations are rendered as summaries in seconds; percentiles
+ * are only available for TimeAggregation.Histogram. Count aggregations are rendered as counters, simple counts as gauges.
+ */
+public class OpenMetricsWriter {
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    public static final String OPEN_METRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final String DURATION = "searchguard_component_duration_seconds";
+    private static final String DURATION_MAX = "searchguard_component_duration_max_seconds";
+    private static final String EVENTS = "searchguard_component_events";
+    private static final String VALUE = "searchguard_component_value";
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final boolean openMetrics;
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    public OpenMetricsWriter(boolean openMetrics) {
+        this.openMetrics = openMetrics;
+        this.families.put(DURATION, new Family("summary", "Duration of operations performed by Search Guard components"));
+        this.families.put(DURATION_MAX, new Family("gauge", "Maximum duration of operations performed by Search Guard components"));
+        this.families.put(EVENTS, new Family("counter", "Number of events counted by Search Guard components"));
+        this.families.put(VALUE, new Family("gauge", "Current values reported by Search Guard components"));
+    }
+
+    public String getContentType() {
+        return openMetrics ? OPEN_METRICS_CONTENT_TYPE : PROMETHEUS_CONTENT_TYPE;
+    }
+
+    public OpenMetricsWriter add(List<ComponentState> componentStates) {
+        for (ComponentState componentState : componentStates) {
+            add(componentState, componentState.getTypeAndName(), null, null);
+        }
+
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+
+            if (family.samples.isEmpty()) {
+                continue;
+            }
+
+            String familyName = entry.getKey();
+
+            if (!openMetrics && family.type.equals("counter")) {
+                familyName += "_total";
+            }
+
+            result.append("# HELP ").append(familyName).append(' ').append(family.help).append('\n');
+            result.append("# TYPE ").append(familyName).append(' ').append(family.type).append('\n');
+
+            for (String sample : family.samples) {
+                result.append(sample).append('\n');
+            }
+        }
+
+        if (openMetrics) {
+            result.append("# EOF\n");
+        }
+
+        return result.toString();
+    }
+
+    private void add(ComponentState componentState, String component, String part, String node) {
+        if (componentState.getNodeName() != null) {
+            node = componentState.getNodeName();
+        }
+
+        if (node != null) {
+            for (Map.Entry<String, Measurement<?>> entry : componentState.getMetrics().entrySet()) {
+                addMeasurement(entry.getValue(), entry.getKey(), labels(component, part, node));
+            }
+        }
+
+        if (componentState.getParts() != null) {
+            for (ComponentState subState : componentState.getParts()) {
+                String subPart = subState.getNodeName() != null ? part
+                        : part != null ? part + "/" + subState.getTypeAndName() : subState.getTypeAndName();
+
+                add(subState, component, subPart, node);
+            }
+        }
+    }
+
+    private void addMeasurement(Measurement<?> measurement, String metric, String labels) {
+        String metricLabels = labels + ",metric=\"" + escape(metric) + "\"";
+
+        if (measurement instanceof TimeAggregation) {
+            TimeAggregation timeAggregation = (TimeAggregation) measurement;
+
+            if (timeAggregation.getCount() != 0) {
+                if (timeAggregation instanceof TimeAggregation.Histogram) {
+                    for (double quantile : QUANTILES) {
+                        sample(DURATION, DURATION, metricLabels + ",quantile=\"" + quantile + "\"",
+                                seconds(((TimeAggregation.Histogram) timeAggregation).getPercentileNs(quantile)));
+                    }
+                }
+
+                sample(DURATION, DURATION + "_count", metricLabels, String.valueOf(timeAggregation.getCount()));
+                sample(DURATION, DURATION + "_sum", metricLabels, seconds(timeAggregation.getAggNs()));
+                sample(DURATION_MAX, DURATION_MAX, metricLabels, seconds(timeAggregation.getMaxNs()));
+            }
+
+            Map<String, ? extends Measurement<?>> subMeasurements = timeAggregation.getSubMeasurements();
+
+            if (subMeasurements != null) {
+                for (Map.Entry<String, ? extends Measurement<?>> entry : subMeasurements.entrySet()) {
+                    addMeasurement(entry.getValue(), metric + "/" + entry.getKey(), labels);
+                }
+            }
+        } else if (measurement instanceof CountAggregation) {
+            CountAggregation countAggregation = (CountAggregation) measurement;
+
+            sample(EVENTS, EVENTS + "_total", metricLabels, String.valueOf(countAggregation.getCount()));
+
+            for (Map.Entry<String, CountAggregation> entry : countAggregation.getSubCounts().entrySet()) {
+                addMeasurement(entry.getValue(), metric + "/" + entry.getKey(), labels);
+            }
+        } else if (measurement.toBasicObject() instanceof Number) {
+            sample(VALUE, VALUE, metricLabels, String.valueOf(measurement.toBasicObject()));
+        }
+    }
+
+    private void sample(String family, String name, String labels, String value) {
+        families.get(family).samples.add(name + "{" + labels + "} " + value);
+    }
+
+    private static String labels(String component, String part, String node) {
+        StringBuilder result = new StringBuilder();
+        result.append("node=\"").append(escape(node)).append("\",component=\"").append(escape(component)).append('"');
+
+        if (part != null) {
+            result.append(",part=\"").append(escape(part)).append('"');
+        }
+
+        return result.toString();
+    }
+
+    private static String seconds(long ns) {
+        return String.valueOf(ns / 1_000_000_000d);
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        StringBuilder result = null;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = c == '\\' ? "\\\\" : c == '"' ? "\\\"" : c == '\n' ? "\\n" : null;
+
+            if (replacement != null && result == null) {
+                result = new StringBuilder(value.length() + 8);
+                result.append(value, 0, i);
+            }
+
+            if (result != null) {
+                if (replacement != null) {
+                    result.append(replacement);
+                } else {
+                    result.append(c);
+                }
+            }
+        }
+
+        return result != null ? result.toString() : value;
+    }
+
+    private static class Family {
+        private final String type;
+        private final String help;
+        private final List<String> samples = new ArrayList<>();
+
+        Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+}
@@ -18,10 +18,13 @@
 package com.floragunn.searchsupport.cstate.metrics;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.floragunn.codova.documents.DocNode;
 import com.floragunn.codova.validation.ConfigValidationException;
@@ -453,4 +456,240 @@ public abstract class TimeAggregation extends Measurement<TimeAggregation> {
             return (int) (getMaxMs() / 1_000_000);
         }
     }
+
+    /**
+     * A time aggregation which additionally records the distribution of the measured times in a LogBucketHistogram. This allows to
+     * report percentiles. Times are recorded with nanosecond precision.
+     * 
+     * In contrast to Milliseconds and Nanoseconds, all counters are LongAdders. Thus, this aggregation is suitable for code paths with
+     * many concurrent threads.
+     */
+    public static class Histogram extends TimeAggregation {
+        final static String TYPE = "agg";
+
+        private final static OrderedImmutableMap<String, Object> ZERO_COUNT = OrderedImmutableMap.of("count", 0);
+
+        private final LongAdder aggNs = new LongAdder();
+        private final LongAdder count = new LongAdder();
+        private final LongAccumulator minNs = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxNs = new LongAccumulator(Math::max, 0);
+        private final LogBucketHistogram histogram = new LogBucketHistogram();
+
+        private final Map<String, Measurement<?>> subMeasurements;
+
+        public Histogram() {
+            this.subMeasurements = new ConcurrentHashMap<>();
+        }
+
+        Histogram(DocNode docNode) throws ConfigValidationException {
+            this.subMeasurements = new ConcurrentHashMap<>();
+            this.aggNs.add(docNode.hasNonNull("agg_ns") ? docNode.getNumber("agg_ns").longValue() : 0);
+            this.count.add(docNode.hasNonNull("count") ? docNode.getNumber("count").longValue() : 0);
+
+            if (docNode.hasNonNull("min_ns")) {
+                this.minNs.accumulate(docNode.getNumber("min_ns").longValue());
+            }
+
+            if (docNode.hasNonNull("max_ns")) {
+                this.maxNs.accumulate(docNode.getNumber("max_ns").longValue());
+            }
+
+            if (docNode.hasNonNull("buckets")) {
+                DocNode bucketsNode = docNode.getAsNode("buckets");
+
+                for (String key : bucketsNode.keySet()) {
+                    int index = Integer.parseInt(key);
+
+                    if (index >= 0 && index < LogBucketHistogram.BUCKET_COUNT) {
+                        this.histogram.add(index, bucketsNode.getNumber(key).longValue());
+                    }
+                }
+            }
+
+            if (docNode.hasNonNull("parts")) {
+                DocNode sub = docNode.getAsNode("parts");
+
+                for (String key : sub.keySet()) {
+                    DocNode subNode = sub.getAsNode(key);
+
+                    if (subNode.hasNonNull("buckets")) {
+                        this.subMeasurements.put(key, new Histogram(subNode));
+                    } else if (subNode.hasNonNull("agg_ns")) {
+                        this.subMeasurements.put(key, new Nanoseconds(subNode));
+                    } else {
+                        this.subMeasurements.put(key, new CountAggregation(subNode));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void recordNs(long ns) {
+            count.increment();
+            aggNs.add(ns);
+            minNs.accumulate(ns);
+            maxNs.accumulate(ns);
+            histogram.record(ns);
+        }
+
+        @Override
+        public void recordMs(long ms) {
+            recordNs(ms * 1_000_000);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getAggNs() {
+            return aggNs.sum();
+        }
+
+        @Override
+        public long getMinNs() {
+            return count.sum() != 0 ? minNs.get() : 0;
+        }
+
+        @Override
+        public long getMaxNs() {
+            return maxNs.get();
+        }
+
+        @Override
+        public long getAggMs() {
+            return getAggNs() / 1_000_000;
+        }
+
+        @Override
+        public int getMinMs() {
+            return (int) (getMinNs() / 1_000_000);
+        }
+
+        @Override
+        public int getMaxMs() {
+            return (int) (getMaxNs() / 1_000_000);
+        }
+
+        /**
+         * Returns the approximate time at the given quantile (0 to 1) in nanoseconds. The maximum error is 1/16 of the value.
+         */
+        public long getPercentileNs(double quantile) {
+            return LogBucketHistogram.valueAtQuantile(histogram.getCounts(), quantile, getMinNs(), getMaxNs());
+        }
+
+        @Override
+        public Histogram clone() {
+            Histogram result = new Histogram();
+            result.addToThis(this);
+            return result;
+        }
+
+        @Override
+        public void addToThis(TimeAggregation other) {
+            if (other.getCount() == 0) {
+                return;
+            }
+
+            count.add(other.getCount());
+            aggNs.add(other.getAggNs());
+            minNs.accumulate(other.getMinNs());
+            maxNs.accumulate(other.getMaxNs());
+
+            if (other instanceof Histogram) {
+                histogram.addToThis(((Histogram) other).histogram);
+            }
+
+            Map<String, ? extends Measurement<?>> otherMap = other.getSubMeasurements();
+
+            if (otherMap != null && otherMap.size() != 0) {
+                for (Map.Entry<String, ? extends Measurement<?>> otherEntry : otherMap.entrySet()) {
+                    Measurement<?> here = this.subMeasurements.get(otherEntry.getKey());
+
+                    if (here != null) {
+                        here.addToThis(otherEntry.getValue());
+                    } else {
+                        this.subMeasurements.put(otherEntry.getKey(), otherEntry.getValue().clone());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void addToThis(Measurement<?> other) {
+            if (other instanceof TimeAggregation) {
+                addToThis((TimeAggregation) other);
+            }
+        }
+
+        @Override
+        public TimeAggregation getSubAggregation(String name) {
+            return (TimeAggregation) this.subMeasurements.computeIfAbsent(name, (k) -> new Histogram());
+        }
+
+        @Override
+        public CountAggregation getCountAggregation(String name) {
+            return (CountAggregation) this.subMeasurements.computeIfAbsent(name, (k) -> new CountAggregation());
+        }
+
+        @Override
+        public Map<String, ? extends Measurement<?>> getSubMeasurements() {
+            return subMeasurements;
+        }
+
+        @Override
+        public void reset() {
+            this.count.reset();
+            this.aggNs.reset();
+            this.minNs.reset();
+            this.maxNs.reset();
+            this.histogram.reset();
+            this.subMeasurements.forEach((k, v) -> v.reset());
+        }
+
+        /**
+         * Besides the values known from Nanoseconds, this contains percentiles and the non-empty buckets of the histogram. The buckets
+         * allow merging the histograms of several nodes.
+         */
+        @Override
+        public Object toBasicObject() {
+            long count = this.count.sum();
+            long aggNs = this.aggNs.sum();
+
+            if (count == 0) {
+                return ZERO_COUNT;
+            }
+
+            long[] counts = histogram.getCounts();
+            long minNs = getMinNs();
+            long maxNs = getMaxNs();
+            Map<String, Long> buckets = new LinkedHashMap<>();
+
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    buckets.put(String.valueOf(i), counts[i]);
+                }
+            }
+
+            OrderedImmutableMap<String, Object> result = OrderedImmutableMap.of("count", count, "avg_ns", ((double) aggNs) / ((double) count),
+                    "agg_ns", aggNs, "min_ns", minNs, "max_ns", maxNs);
+
+            result = result.with("p50_ns", LogBucketHistogram.valueAtQuantile(counts, 0.5, minNs, maxNs))
+                    .with("p90_ns", LogBucketHistogram.valueAtQuantile(counts, 0.9, minNs, maxNs))
+                    .with("p99_ns", LogBucketHistogram.valueAtQuantile(counts, 0.99, minNs, maxNs))
+                    .with("p999_ns", LogBucketHistogram.valueAtQuantile(counts, 0.999, minNs, maxNs)).with("buckets", buckets);
+
+            if (this.subMeasurements.size() != 0) {
+                result = result.with("parts", this.subMeasurements);
+            }
+
+            return result;
+        }
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+    }
 }
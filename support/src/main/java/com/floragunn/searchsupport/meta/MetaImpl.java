@@ -17,13 +17,17 @@
 
 package com.floragunn.searchsupport.meta;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.LogManager;
@@ -400,6 +404,16 @@ public abstract class MetaImpl implements Meta {
             this.root = root;
         }
 
+        /**
+         * Takes over the name based resolutions cached by the given object. This is only allowed if the given object is the unchanged
+         * counterpart of this object in a previous Meta instance. Cached resolutions to objects are not taken over, as these refer to the
+         * objects of the previous instance.
+         */
+        void takeOverCachedNames(AbstractIndexLike<?> previous) {
+            this.cachedResolveDeepToNames = previous.cachedResolveDeepToNames;
+            this.cachedResolveDeepToNamesWrite = previous.cachedResolveDeepToNamesWrite;
+        }
+
         @Override
         public boolean exists() {
             return true;
@@ -562,6 +576,15 @@ public abstract class MetaImpl implements Meta {
         }
 
         public DefaultMetaImpl(org.elasticsearch.cluster.metadata.Metadata esMetadata) {
+            this(esMetadata, null, null);
+        }
+
+        /**
+         * If previous is non-null, all index-like objects which are not listed in dirtyNames are taken over from previous, including their
+         * cached name resolutions. See DirtyNames for the rules which are necessary for this. The objects are copied, as the previous instance
+         * might be still in use.
+         */
+        private DefaultMetaImpl(org.elasticsearch.cluster.metadata.Metadata esMetadata, DefaultMetaImpl previous, Set<String> dirtyNames) {
             ProjectMetadata project = esMetadata.getProject();
             ImmutableSet.Builder<Index> indices = new ImmutableSet.Builder<>(project.indices().size());
             ImmutableMap.Builder<String, Meta.IndexLikeObject> nameMap = new ImmutableMap.Builder<>(project.indices().size());
@@ -588,6 +611,27 @@ public abstract class MetaImpl implements Meta {
             }
 
             for (org.elasticsearch.cluster.metadata.DataStream esDataStream : project.dataStreams().values()) {
+                if (isReusable(previous, dirtyNames, esDataStream.getName())
+                        && isReusable(previous, dirtyNames, Meta.indexLikeNameWithFailuresSuffix(esDataStream.getName()))) {
+                    for (String name : ImmutableList.of(esDataStream.getName(), Meta.indexLikeNameWithFailuresSuffix(esDataStream.getName()))) {
+                        DataStream previousDataStream = (DataStream) previous.nameMap.get(name);
+                        ImmutableList.Builder<IndexLikeObject> members = new ImmutableList.Builder<>(previousDataStream.members().size());
+
+                        for (IndexLikeObject member : previousDataStream.members()) {
+                            Index index = reuse((Index) member);
+                            indices.add(index);
+                            nameMap.put(index.name(), index);
+                            members.add(index);
+                        }
+
+                        DataStream dataStream = reuse(previousDataStream, members.build());
+                        datastreams.add(dataStream);
+                        nameMap.put(name, dataStream);
+                    }
+
+                    continue;
+                }
+
                 ImmutableList<String> parentAliasNames = dataStreamAliasReverseLookup.get(esDataStream.getName()) == null?
                         ImmutableList.empty() : dataStreamAliasReverseLookup.get(esDataStream.getName()).build();
 
@@ -647,6 +691,19 @@ public abstract class MetaImpl implements Meta {
                     continue;
                 }
 
+                if (isReusable(previous, dirtyNames, name)) {
+                    Index index = reuse((Index) previous.nameMap.get(name));
+                    indices.add(index);
+                    nameMap.put(name, index);
+
+                    if (index.parentAliasNames().isEmpty()) {
+                        indicesWithoutParents.add(index);
+                    }
+
+                    // Unchanged indices can be only members of unchanged aliases; thus, we do not need to collect alias members
+                    continue;
+                }
+
                 Index index = new IndexImpl(this, name, esIndexMetadata.getAliases().keySet(), null, esIndexMetadata.isHidden(),
                         esIndexMetadata.isSystem(), esIndexMetadata.getState());
                 indices.add(index);
@@ -706,6 +763,17 @@ public abstract class MetaImpl implements Meta {
                 nameMap.put(alias.name(), alias);
             }
 
+            if (previous != null) {
+                // Aliases with only unchanged members have not been created above
+                for (Alias previousAlias : previous.aliases) {
+                    if (!dirtyNames.contains(previousAlias.name())) {
+                        Alias alias = reuse(previousAlias, nameMap);
+                        aliases.add(alias);
+                        nameMap.put(alias.name(), alias);
+                    }
+                }
+            }
+
             this.indices = indices.build();
             this.indicesWithoutParents = indicesWithoutParents.build();
             this.aliases = aliases.build();
@@ -720,6 +788,40 @@ public abstract class MetaImpl implements Meta {
             this.nameMap = nameMap.build();
         }
 
+        private Index reuse(Index previousIndex) {
+            IndexImpl result = ((IndexImpl) previousIndex).copy();
+            result.root(this);
+            result.takeOverCachedNames((IndexImpl) previousIndex);
+            return result;
+        }
+
+        private DataStream reuse(DataStream previousDataStream, ImmutableList<IndexLikeObject> members) {
+            DataStreamImpl result = new DataStreamImpl(this, previousDataStream.name(), previousDataStream.parentAliasNames(), members,
+                    previousDataStream.isHidden());
+            result.takeOverCachedNames((DataStreamImpl) previousDataStream);
+            return result;
+        }
+
+        /**
+         * The members of an unchanged alias are unchanged as well; thus, these must have been already taken over into the given nameMap.
+         */
+        private Alias reuse(Alias previousAlias, ImmutableMap.Builder<String, Meta.IndexLikeObject> nameMap) {
+            ImmutableList.Builder<IndexLikeObject> members = new ImmutableList.Builder<>(previousAlias.members().size());
+
+            for (IndexLikeObject member : previousAlias.members()) {
+                members.add(nameMap.get(member.name()));
+            }
+
+            IndexLikeObject writeTarget = previousAlias.writeTarget() != null ? nameMap.get(previousAlias.writeTarget().name()) : null;
+            AliasImpl result = new AliasImpl(this, previousAlias.name(), members.build(), previousAlias.isHidden(), writeTarget);
+            result.takeOverCachedNames((AliasImpl) previousAlias);
+            return result;
+        }
+
+        private static boolean isReusable(DefaultMetaImpl previous, Set<String> dirtyNames, String name) {
+            return previous != null && !dirtyNames.contains(name) && previous.nameMap.get(name) != null;
+        }
+
         @Override
         public IndexLikeObject getIndexOrLike(String name) {
             return this.nameMap.get(name);
@@ -937,7 +1039,7 @@ public abstract class MetaImpl implements Meta {
 
             if (currentInstance == null || currentInstance.esMetadata.version() != esMetadata.version()
                     || !currentInstance.esMetadata.clusterUUID().equals(esMetadata.clusterUUID())) {
-                currentInstance = new DefaultMetaImpl(esMetadata);
+                currentInstance = from(esMetadata, currentInstance);
                 DefaultMetaImpl.currentInstance.set(currentInstance);
 
                 if (log.isTraceEnabled()) {
@@ -947,6 +1049,171 @@ public abstract class MetaImpl implements Meta {
 
             return currentInstance;
         }
+
+        /**
+         * Creates a Meta instance for the given ES metadata. If possible, the new instance is derived from the previous instance; then, only
+         * the index-like objects affected by changes are computed anew. All other objects are copied with their cached name resolutions.
+         */
+        static DefaultMetaImpl from(org.elasticsearch.cluster.metadata.Metadata esMetadata, DefaultMetaImpl previous) {
+            if (previous == null || previous.esMetadata == null || !previous.esMetadata.clusterUUID().equals(esMetadata.clusterUUID())) {
+                return new DefaultMetaImpl(esMetadata);
+            }
+
+            Set<String> dirtyNames = DirtyNames.compute(previous, esMetadata);
+
+            if (dirtyNames.size() > previous.nameMap.size() / 2) {
+                // Not worth the effort
+                return new DefaultMetaImpl(esMetadata);
+            }
+
+            DefaultMetaImpl result = new DefaultMetaImpl(esMetadata, previous, dirtyNames);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Incrementally created Meta for version {}; re-created {} of {} objects", esMetadata.version(), dirtyNames.size(),
+                        result.nameMap.size());
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Determines the names of the index-like objects of a previous Meta instance which cannot be taken over into a new Meta instance.
+     * 
+     * An object can be only taken over if it is unchanged and if all objects it refers to are taken over as well. Thus, these rules apply:
+     * <ul>
+     * <li>Indices are dirty if they are new, removed or if their aliases, settings, state or system flag changed. The aliases of these indices
+     * are dirty as well.</li>
+     * <li>Data streams and data stream aliases are dirty if they are new, removed or changed.</li>
+     * <li>All parents and members of dirty objects are dirty as well.</li>
+     * <li>The data component and the failure component of a data stream are always dirty together.</li>
+     * </ul>
+     */
+    static class DirtyNames {
+        private final DefaultMetaImpl previous;
+        private final Set<String> names = new HashSet<>();
+        private final Deque<String> queue = new ArrayDeque<>();
+
+        private DirtyNames(DefaultMetaImpl previous) {
+            this.previous = previous;
+        }
+
+        static Set<String> compute(DefaultMetaImpl previous, org.elasticsearch.cluster.metadata.Metadata esMetadata) {
+            ProjectMetadata oldProject = previous.esMetadata.getProject();
+            ProjectMetadata newProject = esMetadata.getProject();
+            DirtyNames result = new DirtyNames(previous);
+
+            for (org.elasticsearch.cluster.metadata.IndexMetadata esIndexMetadata : newProject.indices().values()) {
+                String name = esIndexMetadata.getIndex().getName();
+
+                if (!isUnchanged(oldProject.index(name), esIndexMetadata)) {
+                    result.mark(name);
+                    esIndexMetadata.getAliases().keySet().forEach(result::mark);
+                }
+            }
+
+            for (String name : oldProject.indices().keySet()) {
+                if (newProject.index(name) == null) {
+                    result.mark(name);
+                }
+            }
+
+            Map<String, org.elasticsearch.cluster.metadata.DataStream> oldDataStreams = oldProject.dataStreams();
+            Map<String, org.elasticsearch.cluster.metadata.DataStream> newDataStreams = newProject.dataStreams();
+
+            for (Map.Entry<String, org.elasticsearch.cluster.metadata.DataStream> entry : newDataStreams.entrySet()) {
+                org.elasticsearch.cluster.metadata.DataStream oldDataStream = oldDataStreams.get(entry.getKey());
+
+                if (oldDataStream != entry.getValue() && !entry.getValue().equals(oldDataStream)) {
+                    result.markWithComponents(entry.getKey());
+                }
+            }
+
+            for (String name : oldDataStreams.keySet()) {
+                if (!newDataStreams.containsKey(name)) {
+                    result.markWithComponents(name);
+                }
+            }
+
+            Map<String, org.elasticsearch.cluster.metadata.DataStreamAlias> oldDataStreamAliases = oldProject.dataStreamAliases();
+            Map<String, org.elasticsearch.cluster.metadata.DataStreamAlias> newDataStreamAliases = newProject.dataStreamAliases();
+
+            for (Map.Entry<String, org.elasticsearch.cluster.metadata.DataStreamAlias> entry : newDataStreamAliases.entrySet()) {
+                org.elasticsearch.cluster.metadata.DataStreamAlias oldDataStreamAlias = oldDataStreamAliases.get(entry.getKey());
+
+                if (oldDataStreamAlias != entry.getValue() && !entry.getValue().equals(oldDataStreamAlias)) {
+                    result.markWithComponents(entry.getKey());
+                    entry.getValue().getDataStreams().forEach(result::markWithComponents);
+                }
+            }
+
+            for (String name : oldDataStreamAliases.keySet()) {
+                if (!newDataStreamAliases.containsKey(name)) {
+                    result.markWithComponents(name);
+                }
+            }
+
+            result.propagate();
+
+            return result.names;
+        }
+
+        private static boolean isUnchanged(org.elasticsearch.cluster.metadata.IndexMetadata oldEsIndexMetadata,
+                org.elasticsearch.cluster.metadata.IndexMetadata newEsIndexMetadata) {
+            if (oldEsIndexMetadata == newEsIndexMetadata) {
+                return true;
+            }
+
+            if (oldEsIndexMetadata == null) {
+                return false;
+            }
+
+            // Mapping updates do not affect the Meta objects; thus, we only check the properties we are interested in
+            return oldEsIndexMetadata.getIndex().equals(newEsIndexMetadata.getIndex())
+                    && oldEsIndexMetadata.getAliasesVersion() == newEsIndexMetadata.getAliasesVersion()
+                    && oldEsIndexMetadata.getSettingsVersion() == newEsIndexMetadata.getSettingsVersion()
+                    && oldEsIndexMetadata.getState() == newEsIndexMetadata.getState()
+                    && oldEsIndexMetadata.isSystem() == newEsIndexMetadata.isSystem();
+        }
+
+        private void mark(String name) {
+            if (names.add(name)) {
+                queue.add(name);
+            }
+        }
+
+        private void markWithComponents(String name) {
+            mark(Meta.indexLikeNameWithoutFailuresSuffix(name));
+            mark(Meta.indexLikeNameWithFailuresSuffix(Meta.indexLikeNameWithoutFailuresSuffix(name)));
+        }
+
+        private void propagate() {
+            String name;
+
+            while ((name = queue.poll()) != null) {
+                IndexLikeObject previousObject = previous.nameMap.get(name);
+
+                if (previousObject == null) {
+                    continue;
+                }
+
+                previousObject.parentAliasNames().forEach(this::mark);
+
+                if (previousObject.parentDataStreamName() != null) {
+                    markWithComponents(previousObject.parentDataStreamName());
+                }
+
+                if (previousObject instanceof DataStream) {
+                    markWithComponents(name);
+                }
+
+                if (previousObject instanceof IndexCollection) {
+                    for (IndexLikeObject member : ((IndexCollection) previousObject).members()) {
+                        mark(member.name());
+                    }
+                }
+            }
+        }
     }
 
     static abstract class AbstractAliasBuilder implements Meta.Mock.AliasBuilder {
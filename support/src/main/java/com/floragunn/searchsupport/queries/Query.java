@@ -75,4 +75,17 @@ public class Query implements Document<Query> {
     public int hashCode() {
         return Objects.hashCode(source);
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof Query)) {
+            return false;
+        }
+
+        return Objects.equals(source, ((Query) obj).source);
+    }
 }
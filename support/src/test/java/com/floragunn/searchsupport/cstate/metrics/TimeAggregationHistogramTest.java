@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.cstate.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.codova.documents.DocNode;
+import com.floragunn.codova.documents.DocWriter;
+import com.floragunn.codova.documents.Format;
+import com.floragunn.fluent.collections.OrderedImmutableMap;
+import com.floragunn.searchsupport.cstate.ComponentState;
+
+public class TimeAggregationHistogramTest {
+
+    @Test
+    public void bucketBoundaries() {
+        for (long value = 0; value < 10_000_000; value += value < 1000 ? 1 : 997) {
+            int index = LogBucketHistogram.bucketIndex(value);
+            long lowerBound = LogBucketHistogram.bucketLowerBound(index);
+
+            Assert.assertTrue(value + " >= " + lowerBound, value >= lowerBound);
+            Assert.assertTrue(value + " < " + lowerBound + " + " + LogBucketHistogram.bucketWidth(index),
+                    value < lowerBound + LogBucketHistogram.bucketWidth(index));
+        }
+
+        Assert.assertEquals(LogBucketHistogram.BUCKET_COUNT - 1, LogBucketHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles() {
+        TimeAggregation.Histogram subject = new TimeAggregation.Histogram();
+        Random random = new Random(1);
+        long[] values = new long[100_000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (Math.exp(random.nextGaussian() * 1.5) * 1_000_000);
+            subject.recordNs(values[i]);
+        }
+
+        Arrays.sort(values);
+
+        for (double quantile : new double[] { 0.5, 0.9, 0.99, 0.999 }) {
+            long expected = values[(int) Math.ceil(quantile * values.length) - 1];
+            Assert.assertEquals("p" + quantile, expected, subject.getPercentileNs(quantile), expected / 16d);
+        }
+
+        Assert.assertEquals(values.length, subject.getCount());
+        Assert.assertEquals(values[0], subject.getMinNs());
+        Assert.assertEquals(values[values.length - 1], subject.getMaxNs());
+    }
+
+    @Test
+    public void parsedHistogramsCanBeMerged() throws Exception {
+        TimeAggregation.Histogram node1 = new TimeAggregation.Histogram();
+        TimeAggregation.Histogram node2 = new TimeAggregation.Histogram();
+
+        for (int i = 1; i <= 100; i++) {
+            node1.recordNs(i * 1000);
+            node2.recordNs(i * 1000 + 100_000);
+        }
+
+        node1.getSubAggregation("sub").recordNs(5000);
+
+        Measurement<?> merged = parse(node1).clone();
+        merged.addToThis(parse(node2));
+
+        Assert.assertTrue(merged.toString(), merged instanceof TimeAggregation.Histogram);
+
+        TimeAggregation.Histogram mergedHistogram = (TimeAggregation.Histogram) merged;
+
+        Assert.assertEquals(200, mergedHistogram.getCount());
+        Assert.assertEquals(1000, mergedHistogram.getMinNs());
+        Assert.assertEquals(200_000, mergedHistogram.getMaxNs());
+        Assert.assertEquals(100_000, mergedHistogram.getPercentileNs(0.5), 100_000 / 16d);
+        Assert.assertEquals(1, mergedHistogram.getSubAggregation("sub").getCount());
+    }
+
+    @Test
+    public void openMetrics() {
+        TimeAggregation.Histogram histogram = new TimeAggregation.Histogram();
+        histogram.recordNs(2_000_000);
+        CountAggregation countAggregation = new CountAggregation();
+        countAggregation.getSubCount("ok").add(3);
+
+        ComponentState nodeState = new ComponentState(0, "test", "component");
+        nodeState.setNodeName("node_1");
+        nodeState.addMetrics("op", histogram, "results", countAggregation);
+
+        ComponentState mergedState = new ComponentState(0, "test", "component");
+        mergedState.addPart(nodeState);
+
+        String prometheus = new OpenMetricsWriter(false).add(Arrays.asList(mergedState)).toString();
+
+        Assert.assertTrue(prometheus, prometheus.contains("# TYPE searchguard_component_duration_seconds summary\n"));
+        Assert.assertTrue(prometheus,
+                prometheus.contains("searchguard_component_duration_seconds{node=\"node_1\",component=\"test/component\",metric=\"op\",quantile=\"0.99\"} 0.002\n"));
+        Assert.assertTrue(prometheus,
+                prometheus.contains("searchguard_component_duration_seconds_count{node=\"node_1\",component=\"test/component\",metric=\"op\"} 1\n"));
+        Assert.assertTrue(prometheus, prometheus.contains("# TYPE searchguard_component_events_total counter\n"));
+        Assert.assertTrue(prometheus,
+                prometheus.contains("searchguard_component_events_total{node=\"node_1\",component=\"test/component\",metric=\"results/ok\"} 3\n"));
+        Assert.assertFalse(prometheus, prometheus.contains("# EOF"));
+
+        String openMetrics = new OpenMetricsWriter(true).add(Arrays.asList(mergedState)).toString();
+
+        Assert.assertTrue(openMetrics, openMetrics.contains("# TYPE searchguard_component_events counter\n"));
+        Assert.assertTrue(openMetrics, openMetrics.endsWith("# EOF\n"));
+    }
+
+    @Test
+    public void escape() {
+        Assert.assertEquals("abc", OpenMetricsWriter.escape("abc"));
+        Assert.assertEquals("a\\\"b\\\\c\\n", OpenMetricsWriter.escape("a\"b\\c\n"));
+    }
+
+    private static Measurement<?> parse(TimeAggregation.Histogram histogram) throws Exception {
+        String json = DocWriter.json().writeAsString(OrderedImmutableMap.of(histogram.getType(), histogram));
+        return Measurement.parse(DocNode.parse(Format.JSON).from(json));
+    }
+}
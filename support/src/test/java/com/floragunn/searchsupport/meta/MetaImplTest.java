@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 floragunn GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.floragunn.searchsupport.meta;
+
+import java.util.Arrays;
+
+import org.elasticsearch.cluster.metadata.AliasMetadata;
+import org.elasticsearch.cluster.metadata.DataStream;
+import org.elasticsearch.cluster.metadata.DataStreamLifecycle;
+import org.elasticsearch.cluster.metadata.DataStreamOptions;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.IndexMode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.floragunn.fluent.collections.ImmutableList;
+import com.floragunn.fluent.collections.ImmutableMap;
+import com.floragunn.fluent.collections.ImmutableSet;
+
+public class MetaImplTest {
+
+    @Test
+    public void incrementalUpdate_newIndexWithoutAlias() {
+        Metadata esMetadata1 = Metadata.builder().put(index("index_a1", "alias_a")).put(index("index_b1")).build();
+        Metadata esMetadata2 = Metadata.builder(esMetadata1).put(index("index_c1")).build();
+
+        MetaImpl.DefaultMetaImpl meta1 = new MetaImpl.DefaultMetaImpl(esMetadata1);
+        MetaImpl.DefaultMetaImpl meta2 = MetaImpl.DefaultMetaImpl.from(esMetadata2, meta1);
+
+        assertTakenOver(meta1, meta2, "index_a1");
+        assertTakenOver(meta1, meta2, "index_b1");
+        assertTakenOver(meta1, meta2, "alias_a");
+        Assert.assertSame(meta2.getIndexOrLike("index_a1"), meta2.getIndexOrLike("alias_a").members().iterator().next());
+        Assert.assertNotNull(meta2.getIndexOrLike("index_c1"));
+        Assert.assertTrue(meta2.indicesWithoutParents().toString(), meta2.indicesWithoutParents().contains(meta2.getIndexOrLike("index_c1")));
+
+        assertEquivalent(new MetaImpl.DefaultMetaImpl(esMetadata2), meta2);
+    }
+
+    @Test
+    public void incrementalUpdate_newIndexWithAlias() {
+        Metadata esMetadata1 = Metadata.builder().put(index("index_a1", "alias_a")).put(index("index_b1", "alias_b")).build();
+        Metadata esMetadata2 = Metadata.builder(esMetadata1).put(index("index_a2", "alias_a")).build();
+
+        MetaImpl.DefaultMetaImpl meta1 = new MetaImpl.DefaultMetaImpl(esMetadata1);
+        MetaImpl.DefaultMetaImpl meta2 = MetaImpl.DefaultMetaImpl.from(esMetadata2, meta1);
+
+        assertTakenOver(meta1, meta2, "index_b1");
+        assertTakenOver(meta1, meta2, "alias_b");
+        Assert.assertNotSame(meta1.getIndexOrLike("alias_a"), meta2.getIndexOrLike("alias_a"));
+        Assert.assertNotSame(meta1.getIndexOrLike("index_a1"), meta2.getIndexOrLike("index_a1"));
+
+        Assert.assertEquals(ImmutableSet.of("index_a1", "index_a2"),
+                meta2.getIndexOrLike("index_a1").parentAliases().only().resolveDeepToNames(Meta.Alias.ResolutionMode.NORMAL));
+
+        assertEquivalent(new MetaImpl.DefaultMetaImpl(esMetadata2), meta2);
+    }
+
+    @Test
+    public void incrementalUpdate_removedIndex() {
+        Metadata esMetadata1 = Metadata.builder().put(index("index_a1", "alias_a")).put(index("index_a2", "alias_a")).put(index("index_b1"))
+                .build();
+        Metadata esMetadata2 = Metadata.builder(esMetadata1).remove("index_a2").build();
+
+        MetaImpl.DefaultMetaImpl meta1 = new MetaImpl.DefaultMetaImpl(esMetadata1);
+        MetaImpl.DefaultMetaImpl meta2 = MetaImpl.DefaultMetaImpl.from(esMetadata2, meta1);
+
+        Assert.assertNull(meta2.getIndexOrLike("index_a2"));
+        assertTakenOver(meta1, meta2, "index_b1");
+        Assert.assertEquals(ImmutableSet.of("index_a1"),
+                meta2.getIndexOrLike("alias_a").resolveDeepToNames(Meta.Alias.ResolutionMode.NORMAL));
+
+        assertEquivalent(new MetaImpl.DefaultMetaImpl(esMetadata2), meta2);
+    }
+
+    @Test
+    public void incrementalUpdate_previousInstanceIsNotModified() {
+        Metadata esMetadata1 = Metadata.builder().put(index("index_a1", "alias_a")).put(index("index_b1")).build();
+        Metadata esMetadata2 = Metadata.builder(esMetadata1).put(index("index_c1")).build();
+
+        MetaImpl.DefaultMetaImpl meta1 = new MetaImpl.DefaultMetaImpl(esMetadata1);
+        Meta.IndexLikeObject index1 = meta1.getIndexOrLike("index_a1");
+        Meta.Alias alias1 = index1.parentAliases().only();
+
+        MetaImpl.DefaultMetaImpl meta2 = MetaImpl.DefaultMetaImpl.from(esMetadata2, meta1);
+
+        Assert.assertSame(meta1, ((MetaImpl.AbstractIndexLike<?>) index1).getRoot());
+        Assert.assertSame(meta1, ((MetaImpl.AbstractIndexLike<?>) alias1).getRoot());
+        Assert.assertSame(alias1, meta1.getIndexOrLike("index_a1").parentAliases().only());
+        Assert.assertSame(meta2.getIndexOrLike("alias_a"), meta2.getIndexOrLike("index_a1").parentAliases().only());
+        Assert.assertNull(meta1.getIndexOrLike("index_c1"));
+    }
+
+    @Test
+    public void incrementalUpdate_unchangedDataStream() {
+        Metadata esMetadata1 = Metadata.builder().put(index(".ds-ds_a-0001")).put(index(".ds-ds_a-0002"))
+                .put(dataStream("ds_a", ".ds-ds_a-0001", ".ds-ds_a-0002")).put(index("index_b1")).build();
+        Metadata esMetadata2 = Metadata.builder(esMetadata1).put(index("index_c1")).build();
+
+        MetaImpl.DefaultMetaImpl meta1 = new MetaImpl.DefaultMetaImpl(esMetadata1);
+        MetaImpl.DefaultMetaImpl meta2 = MetaImpl.DefaultMetaImpl.from(esMetadata2, meta1);
+
+        assertTakenOver(meta1, meta2, "ds_a");
+        assertTakenOver(meta1, meta2, ".ds-ds_a-0001");
+        assertTakenOver(meta1, meta2, ".ds-ds_a-0002");
+        assertTakenOver(meta1, meta2, "index_b1");
+
+        Meta.DataStream dataStream = (Meta.DataStream) meta2.getIndexOrLike("ds_a");
+
+        for (Meta.IndexLikeObject member : dataStream.members()) {
+            Assert.assertSame(member.name(), meta2.getIndexOrLike(member.name()), member);
+            Assert.assertSame(member.name(), dataStream, member.parentDataStream());
+        }
+
+        Assert.assertSame(meta1.getIndexOrLike("ds_a"), meta1.getIndexOrLike(".ds-ds_a-0001").parentDataStream());
+        Assert.assertEquals(ImmutableSet.of(".ds-ds_a-0001", ".ds-ds_a-0002"), dataStream.resolveDeepToNames(Meta.Alias.ResolutionMode.NORMAL));
+
+        assertEquivalent(new MetaImpl.DefaultMetaImpl(esMetadata2), meta2);
+    }
+
+    @Test
+    public void incrementalUpdate_dataStreamRollover() {
+        Metadata esMetadata1 = Metadata.builder().put(index(".ds-ds_a-0001")).put(dataStream("ds_a", ".ds-ds_a-0001")).put(index(".ds-ds_b-0001"))
+                .put(dataStream("ds_b", ".ds-ds_b-0001")).put(index("index_c1")).put(index("index_d1")).put(index("index_e1")).build();
+        Metadata esMetadata2 = Metadata.builder(esMetadata1).put(index(".ds-ds_a-0002")).put(dataStream("ds_a", ".ds-ds_a-0001", ".ds-ds_a-0002"))
+                .build();
+
+        MetaImpl.DefaultMetaImpl meta1 = new MetaImpl.DefaultMetaImpl(esMetadata1);
+        Meta.DataStream dataStream1 = (Meta.DataStream) meta1.getIndexOrLike("ds_a");
+        MetaImpl.DefaultMetaImpl meta2 = MetaImpl.DefaultMetaImpl.from(esMetadata2, meta1);
+
+        Meta.DataStream dataStream2 = (Meta.DataStream) meta2.getIndexOrLike("ds_a");
+
+        Assert.assertNotSame(dataStream1, dataStream2);
+        Assert.assertEquals(ImmutableSet.of(".ds-ds_a-0001"), dataStream1.resolveDeepToNames(Meta.Alias.ResolutionMode.NORMAL));
+        Assert.assertEquals(ImmutableSet.of(".ds-ds_a-0001", ".ds-ds_a-0002"), dataStream2.resolveDeepToNames(Meta.Alias.ResolutionMode.NORMAL));
+        Assert.assertSame(dataStream2, meta2.getIndexOrLike(".ds-ds_a-0002").parentDataStream());
+        assertTakenOver(meta1, meta2, "ds_b");
+        assertTakenOver(meta1, meta2, ".ds-ds_b-0001");
+
+        assertEquivalent(new MetaImpl.DefaultMetaImpl(esMetadata2), meta2);
+    }
+
+    /**
+     * Objects taken over from a previous instance must be equal copies which are bound to the new instance. The objects of the previous instance
+     * must stay bound to the previous instance.
+     */
+    private static void assertTakenOver(MetaImpl.DefaultMetaImpl previous, MetaImpl.DefaultMetaImpl current, String name) {
+        Meta.IndexLikeObject previousObject = previous.getIndexOrLike(name);
+        Meta.IndexLikeObject currentObject = current.getIndexOrLike(name);
+
+        Assert.assertNotNull(name, currentObject);
+        Assert.assertNotSame(name, previousObject, currentObject);
+        Assert.assertEquals(name, previousObject, currentObject);
+        Assert.assertSame(name, previous, ((MetaImpl.AbstractIndexLike<?>) previousObject).getRoot());
+        Assert.assertSame(name, current, ((MetaImpl.AbstractIndexLike<?>) currentObject).getRoot());
+    }
+
+    private static void assertEquivalent(Meta expected, Meta actual) {
+        Assert.assertEquals(expected.indexLikeObjects().keySet(), actual.indexLikeObjects().keySet());
+        Assert.assertEquals(expected.indices(), actual.indices());
+        Assert.assertEquals(expected.aliases(), actual.aliases());
+        Assert.assertEquals(expected.dataStreams(), actual.dataStreams());
+        Assert.assertEquals(expected.indicesWithoutParents(), actual.indicesWithoutParents());
+
+        for (Meta.IndexLikeObject expectedObject : expected.indexLikeObjects().values()) {
+            Meta.IndexLikeObject actualObject = actual.getIndexOrLike(expectedObject.name());
+
+            Assert.assertEquals(expectedObject.name(), expectedObject.getClass(), actualObject.getClass());
+            Assert.assertEquals(expectedObject.name(), ImmutableSet.of(expectedObject.parentAliasNames()),
+                    ImmutableSet.of(actualObject.parentAliasNames()));
+            Assert.assertEquals(expectedObject.name(), expectedObject.resolveDeepToNames(Meta.Alias.ResolutionMode.NORMAL),
+                    actualObject.resolveDeepToNames(Meta.Alias.ResolutionMode.NORMAL));
+        }
+    }
+
+    private static DataStream dataStream(String name, String... backingIndices) {
+        return new DataStream(name, Arrays.stream(backingIndices).map(i -> new Index(i, i)).toList(), 1L, ImmutableMap.empty(), false, false,
+                false, false, IndexMode.STANDARD, DataStreamLifecycle.DEFAULT_DATA_LIFECYCLE, DataStreamOptions.FAILURE_STORE_DISABLED,
+                ImmutableList.empty(), false, null);
+    }
+
+    private static IndexMetadata.Builder index(String name, String... aliases) {
+        IndexMetadata.Builder result = IndexMetadata.builder(name)
+                .settings(Settings.builder().put(IndexMetadata.SETTING_INDEX_VERSION_CREATED.getKey(), org.elasticsearch.Version.CURRENT))
+                .numberOfShards(1).numberOfReplicas(1);
+
+        for (String alias : aliases) {
+            result.putAlias(AliasMetadata.builder(alias).build());
+        }
+
+        return result;
+    }
+}